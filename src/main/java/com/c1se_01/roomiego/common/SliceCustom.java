@@ -0,0 +1,32 @@
+package com.c1se_01.roomiego.common;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * The type Slice custom: one slice of a cursor-paginated listing.
+ *
+ * @param <T> the type parameter
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceCustom<T> {
+    @JsonProperty("data")
+    private List<T> data;
+
+    /**
+     * Cursor to pass back to fetch the next slice, null on the last slice.
+     */
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    @JsonProperty("has_next")
+    private boolean hasNext;
+}
@@ -0,0 +1,26 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.service.cache.ConversationKeyCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the meters of {@link ConversationKeyCache} as {@code cache.*} meters tagged
+ * {@code cache=conversationKeys}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConversationKeyCacheMetrics implements MeterBinder {
+
+    static final String CACHE_NAME = "conversationKeys";
+
+    private final ConversationKeyCache conversationKeyCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, conversationKeyCache.cache(), CACHE_NAME);
+    }
+}
@@ -0,0 +1,25 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.service.cache.DistanceMatrixCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the meters of {@link DistanceMatrixCache} as {@code cache.*} meters tagged {@code cache=distanceMatrix}.
+ */
+@Component
+@RequiredArgsConstructor
+public class DistanceMatrixCacheMetrics implements MeterBinder {
+
+    static final String CACHE_NAME = "distanceMatrix";
+
+    private final DistanceMatrixCache distanceMatrixCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, distanceMatrixCache.cache(), CACHE_NAME);
+    }
+}
@@ -0,0 +1,54 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.service.resilience.ExternalApiGuard;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes the state of every {@link ExternalApiGuard} as {@code external.api.*} meters tagged by API:
+ * the breaker state (0 closed, 1 open, 2 half-open), the failure rate, and the calls by outcome.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExternalApiGuardMetrics implements MeterBinder {
+
+    static final String STATE = "external.api.circuit.state";
+    static final String FAILURE_RATE = "external.api.circuit.failure.rate";
+    static final String CALLS = "external.api.calls";
+
+    private final List<ExternalApiGuard> guards;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ExternalApiGuard guard : guards) {
+            Gauge.builder(STATE, guard, g -> g.getState().ordinal())
+                    .tag("api", guard.getName())
+                    .description("0 closed, 1 open, 2 half-open")
+                    .register(registry);
+            Gauge.builder(FAILURE_RATE, guard, ExternalApiGuard::getFailureRate)
+                    .tag("api", guard.getName())
+                    .baseUnit("percent")
+                    .register(registry);
+            FunctionCounter.builder(CALLS, guard, ExternalApiGuard::getSuccessfulCalls)
+                    .tags("api", guard.getName(), "outcome", "SUCCESS")
+                    .register(registry);
+            FunctionCounter.builder(CALLS, guard, ExternalApiGuard::getFailedCalls)
+                    .tags("api", guard.getName(), "outcome", "FAILURE")
+                    .register(registry);
+            FunctionCounter.builder(CALLS, guard, ExternalApiGuard::getCancelledCalls)
+                    .tags("api", guard.getName(), "outcome", "CANCELLED")
+                    .register(registry);
+            for (ExternalApiGuard.Rejection rejection : ExternalApiGuard.Rejection.values()) {
+                FunctionCounter.builder(CALLS, guard, g -> g.getRejectedCalls(rejection))
+                        .tags("api", guard.getName(), "outcome", rejection.name())
+                        .register(registry);
+            }
+        }
+    }
+}
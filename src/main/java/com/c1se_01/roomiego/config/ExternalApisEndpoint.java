@@ -0,0 +1,46 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.service.resilience.ExternalApiGuard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint {@code /actuator/externalapis}: the circuit breaker, the rate limiter and the bulkhead
+ * of every external API.
+ */
+@Component
+@Endpoint(id = "externalapis")
+@RequiredArgsConstructor
+public class ExternalApisEndpoint {
+
+    private final List<ExternalApiGuard> guards;
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> guards() {
+        Map<String, Map<String, Object>> apis = new LinkedHashMap<>();
+        for (ExternalApiGuard guard : guards) {
+            Map<String, Object> api = new LinkedHashMap<>();
+            api.put("state", guard.getState());
+            api.put("failureRate", guard.getFailureRate());
+            api.put("bufferedCalls", guard.getBufferedCalls());
+            api.put("availableConcurrentCalls", guard.getAvailableConcurrentCalls());
+            api.put("availablePermits", guard.getAvailablePermits());
+            api.put("successfulCalls", guard.getSuccessfulCalls());
+            api.put("failedCalls", guard.getFailedCalls());
+            api.put("cancelledCalls", guard.getCancelledCalls());
+            Map<String, Long> rejected = new LinkedHashMap<>();
+            for (ExternalApiGuard.Rejection rejection : ExternalApiGuard.Rejection.values()) {
+                rejected.put(rejection.name(), guard.getRejectedCalls(rejection));
+            }
+            api.put("rejectedCalls", rejected);
+            apis.put(guard.getName(), api);
+        }
+        return apis;
+    }
+}
@@ -0,0 +1,22 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.utils.FilterPlanCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the hit/miss/eviction counters of {@link FilterPlanCache} as {@code cache.*} meters
+ * tagged {@code cache=filterPlans}.
+ */
+@Component
+public class FilterPlanCacheMetrics implements MeterBinder {
+
+    static final String CACHE_NAME = "filterPlans";
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, FilterPlanCache.cache(), CACHE_NAME);
+    }
+}
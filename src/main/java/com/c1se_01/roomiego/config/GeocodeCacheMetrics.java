@@ -0,0 +1,26 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.service.cache.GeocodeCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the meters of the in-memory tier of {@link GeocodeCache} as {@code cache.*} meters tagged
+ * {@code cache=geocode}. Its misses are the lookups that reach the table or the Geocoding API.
+ */
+@Component
+@RequiredArgsConstructor
+public class GeocodeCacheMetrics implements MeterBinder {
+
+    static final String CACHE_NAME = "geocode";
+
+    private final GeocodeCache geocodeCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, geocodeCache.cache(), CACHE_NAME);
+    }
+}
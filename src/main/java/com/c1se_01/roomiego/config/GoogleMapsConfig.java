@@ -0,0 +1,54 @@
+package com.c1se_01.roomiego.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class GoogleMapsConfig {
+
+    /** Upper bound on the Geocoding API calls in flight, all requests together. */
+    static final int GEOCODING_THREADS = 16;
+
+    /** Upper bound on the Places API calls in flight, all requests together. */
+    static final int NEARBY_SEARCH_THREADS = 20;
+
+    /** Upper bound on the Distance Matrix API calls in flight, all requests together. */
+    static final int DISTANCE_MATRIX_THREADS = 8;
+
+    /**
+     * Runs the address variations of {@code GoogleMapsService.geocodeAddress} concurrently.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService geocodingExecutor() {
+        return fixedThreadPool(GEOCODING_THREADS, "geocoding-");
+    }
+
+    /**
+     * Runs the per place type searches of {@code GoogleMapsService.searchLocation} concurrently.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService nearbySearchExecutor() {
+        return fixedThreadPool(NEARBY_SEARCH_THREADS, "nearby-search-");
+    }
+
+    /**
+     * Runs the chunks of {@code GoogleMapsService.calculateDistanceMatrix(List, List, String)} concurrently.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService distanceMatrixExecutor() {
+        return fixedThreadPool(DISTANCE_MATRIX_THREADS, "distance-matrix-");
+    }
+
+    private static ExecutorService fixedThreadPool(int threads, String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.c1se_01.roomiego.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The HTTP client shared by the calls to Google Maps, FPT.AI and the AI recommender. The JDK client keeps
+ * its connections alive in a pool and negotiates HTTP/2 with the servers supporting it;
+ * {@link OutboundHttpInterceptor} bounds the requests per host, asks for gzip and times them.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${http.client.connect-timeout-ms:3000}")
+    private long connectTimeoutMillis;
+
+    /** Whole exchange, up to the last byte of the body, so that a hung server cannot pin a worker. */
+    @Value("${http.client.timeout-ms:10000}")
+    private long timeoutMillis;
+
+    @Value("${http.client.max-in-flight-per-host:32}")
+    private int maxInFlightPerHost;
+
+    /** Overrides of max-in-flight-per-host, as a map such as {'api.fpt.ai': 4}. */
+    @Value("#{${http.client.host-limits:{:}}}")
+    private Map<String, Integer> hostLimits;
+
+    @Value("${http.client.acquire-timeout-ms:1000}")
+    private long acquireTimeoutMillis;
+
+    @Bean
+    public HttpClient outboundHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Bean
+    public RestTemplate outboundRestTemplate(RestTemplateBuilder builder, HttpClient outboundHttpClient,
+            MeterRegistry meterRegistry) {
+        return builder
+                .requestFactory(() -> {
+                    JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(outboundHttpClient);
+                    requestFactory.setReadTimeout(Duration.ofMillis(timeoutMillis));
+                    return requestFactory;
+                })
+                .additionalInterceptors(new OutboundHttpInterceptor(meterRegistry, maxInFlightPerHost, hostLimits,
+                        acquireTimeoutMillis))
+                .build();
+    }
+}
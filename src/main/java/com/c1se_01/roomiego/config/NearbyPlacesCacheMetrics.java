@@ -0,0 +1,25 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.service.cache.NearbyPlacesCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the meters of {@link NearbyPlacesCache} as {@code cache.*} meters tagged {@code cache=nearbyPlaces}.
+ */
+@Component
+@RequiredArgsConstructor
+public class NearbyPlacesCacheMetrics implements MeterBinder {
+
+    static final String CACHE_NAME = "nearbyPlaces";
+
+    private final NearbyPlacesCache nearbyPlacesCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, nearbyPlacesCache.cache(), CACHE_NAME);
+    }
+}
@@ -0,0 +1,168 @@
+package com.c1se_01.roomiego.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PushbackInputStream;
+import java.net.http.HttpTimeoutException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Applies the outbound HTTP policies that the JDK client lacks: a bound on the requests in flight to each
+ * host, gzip responses, and a latency histogram per host. A request waits at most the acquire timeout for
+ * a slot of its host, then fails as an I/O error instead of queueing behind a stuck server.
+ */
+public class OutboundHttpInterceptor implements ClientHttpRequestInterceptor {
+
+    /** Time to the response headers, tagged by host, method and outcome. */
+    static final String TIMER = "http.client.outbound";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxInFlightPerHost;
+    private final Map<String, Integer> hostLimits;
+    private final long acquireTimeoutMillis;
+    private final Map<String, Semaphore> slots = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxInFlightPerHost   requests in flight to one host
+     * @param hostLimits           overrides of maxInFlightPerHost by host name
+     * @param acquireTimeoutMillis longest wait for a free slot
+     */
+    public OutboundHttpInterceptor(MeterRegistry meterRegistry, int maxInFlightPerHost,
+            Map<String, Integer> hostLimits, long acquireTimeoutMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxInFlightPerHost = maxInFlightPerHost;
+        this.hostLimits = Map.copyOf(hostLimits);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = String.valueOf(request.getURI().getHost());
+        Semaphore semaphore = slots.computeIfAbsent(host,
+                key -> new Semaphore(hostLimits.getOrDefault(key, maxInFlightPerHost)));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "REJECTED";
+        try {
+            if (!semaphore.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Too many requests in flight to " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sample.stop(timer(host, request, outcome));
+            throw new InterruptedIOException("Interrupted waiting for a request slot to " + host);
+        } catch (IOException e) {
+            sample.stop(timer(host, request, outcome));
+            throw e;
+        }
+
+        outcome = "IO_ERROR";
+        try {
+            if (!request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+                request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+            }
+            ClientHttpResponse response = execution.execute(request, body);
+            outcome = outcome(response.getStatusCode());
+            return isGzip(response) ? new GzipClientHttpResponse(response) : response;
+        } catch (CancellationException e) {
+            // the JDK request factory cancels the exchange at its timeout, surface it as an I/O error
+            outcome = "TIMEOUT";
+            HttpTimeoutException timeout = new HttpTimeoutException("Request to " + host + " timed out");
+            timeout.initCause(e);
+            throw timeout;
+        } finally {
+            semaphore.release();
+            sample.stop(timer(host, request, outcome));
+        }
+    }
+
+    private Timer timer(String host, HttpRequest request, String outcome) {
+        return Timer.builder(TIMER)
+                .tag("host", host)
+                .tag("method", request.getMethod().name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        if (status.is2xxSuccessful() || status.is3xxRedirection()) {
+            return "SUCCESS";
+        }
+        return status.is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+    }
+
+    private static boolean isGzip(ClientHttpResponse response) {
+        String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        return encoding != null && encoding.trim().equalsIgnoreCase("gzip");
+    }
+
+    /**
+     * A gzip encoded response, read decoded. Its headers no longer announce the encoding nor the length.
+     */
+    private static final class GzipClientHttpResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        private GzipClientHttpResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+            this.headers = new HttpHeaders();
+            this.headers.putAll(delegate.getHeaders());
+            this.headers.remove(HttpHeaders.CONTENT_ENCODING);
+            this.headers.remove(HttpHeaders.CONTENT_LENGTH);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                // an empty body has no gzip header to read
+                PushbackInputStream raw = new PushbackInputStream(delegate.getBody());
+                int first = raw.read();
+                if (first == -1) {
+                    body = InputStream.nullInputStream();
+                } else {
+                    raw.unread(first);
+                    body = new GZIPInputStream(raw);
+                }
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.service.resilience.ExternalApiGuard;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * One {@link ExternalApiGuard} per external API. The concurrency and the rate are set per API under
+ * {@code resilience.<api>.*}, the circuit breaker settings are shared under {@code resilience.circuit.*}.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    public static final String GOOGLE_MAPS = "google-maps";
+    public static final String FPT_AI = "fpt-ai";
+    public static final String AI_SERVICE = "ai-service";
+
+    @Bean
+    public ExternalApiGuard googleMapsGuard(Environment environment) {
+        return guard(environment, GOOGLE_MAPS, 48, 50);
+    }
+
+    @Bean
+    public ExternalApiGuard fptAiGuard(Environment environment) {
+        return guard(environment, FPT_AI, 8, 5);
+    }
+
+    @Bean
+    public ExternalApiGuard aiServiceGuard(Environment environment) {
+        return guard(environment, AI_SERVICE, 10, 20);
+    }
+
+    private static ExternalApiGuard guard(Environment environment, String name, int defaultMaxConcurrentCalls,
+            double defaultPermitsPerSecond) {
+        String prefix = "resilience." + name + ".";
+        double permitsPerSecond = environment.getProperty(prefix + "permits-per-second", Double.class,
+                defaultPermitsPerSecond);
+        return new ExternalApiGuard(name, new ExternalApiGuard.Settings(
+                environment.getProperty(prefix + "max-concurrent-calls", Integer.class, defaultMaxConcurrentCalls),
+                permitsPerSecond,
+                environment.getProperty(prefix + "burst", Integer.class, (int) Math.ceil(permitsPerSecond)),
+                environment.getProperty("resilience.circuit.sliding-window-size", Integer.class, 20),
+                environment.getProperty("resilience.circuit.minimum-calls", Integer.class, 10),
+                environment.getProperty("resilience.circuit.failure-rate-threshold", Double.class, 50.0),
+                Duration.ofMillis(environment.getProperty("resilience.circuit.open-duration-ms", Long.class, 30_000L)),
+                environment.getProperty("resilience.circuit.half-open-probes", Integer.class, 3)));
+    }
+}
@@ -0,0 +1,28 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.service.cache.RoomQueryCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the size, hit/miss and eviction meters of {@link RoomQueryCache} as {@code cache.*} meters
+ * tagged {@code cache=roomDetails} and {@code cache=roomListings}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomQueryCacheMetrics implements MeterBinder {
+
+    static final String DETAILS_CACHE_NAME = "roomDetails";
+    static final String LISTINGS_CACHE_NAME = "roomListings";
+
+    private final RoomQueryCache roomQueryCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, roomQueryCache.detailsCache(), DETAILS_CACHE_NAME);
+        CaffeineCacheMetrics.monitor(registry, roomQueryCache.listingsCache(), LISTINGS_CACHE_NAME);
+    }
+}
@@ -4,7 +4,9 @@ import com.c1se_01.roomiego.dto.LocationMarkerRequest;
 import com.c1se_01.roomiego.dto.LocationMarkerResponse;
 import com.c1se_01.roomiego.dto.LocationResponse;
 import com.c1se_01.roomiego.dto.LocationSearchRequest;
+import com.c1se_01.roomiego.dto.MarkerTileResponse;
 import com.c1se_01.roomiego.service.impl.GoogleMapsService;
+import com.c1se_01.roomiego.service.index.RoomClusterIndex;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,6 +43,10 @@ public class MapsController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * @deprecated sends every room with its details, use {@code GET /maps/markers/tiles} for the map view
+     */
+    @Deprecated
     @PostMapping("/markers")
     public ResponseEntity<LocationMarkerResponse[]> getMarkers(@RequestBody LocationMarkerRequest[] request) {
         if (request.length == 0) {
@@ -50,4 +56,13 @@ public class MapsController {
         LocationMarkerResponse[] responses = googleMapsService.getMarkers(Arrays.stream(request).toList());
         return ResponseEntity.ok(responses);
     }
+
+    @GetMapping("/markers/tiles")
+    public ResponseEntity<MarkerTileResponse> getMarkerTile(@RequestParam int z, @RequestParam int x,
+            @RequestParam int y) {
+        if (!RoomClusterIndex.isValidTile(z, x, y)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(googleMapsService.getMarkerTile(z, x, y));
+    }
 }
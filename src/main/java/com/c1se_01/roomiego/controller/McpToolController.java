@@ -4,18 +4,30 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.c1se_01.roomiego.dto.DistanceMatrixRequest;
+import com.c1se_01.roomiego.dto.DistanceMatrixResponse;
+import com.c1se_01.roomiego.dto.DistanceMatrixResult;
 import com.c1se_01.roomiego.dto.RoomDTO;
 import com.c1se_01.roomiego.dto.UserDetailDTO;
 import com.c1se_01.roomiego.dto.common.FilterParam;
+import com.c1se_01.roomiego.dto.common.ResourceVersion;
+import com.c1se_01.roomiego.enums.DistancePrecision;
+import com.c1se_01.roomiego.exception.NotFoundException;
+import com.c1se_01.roomiego.service.impl.DistanceEstimator;
 import com.c1se_01.roomiego.service.impl.GoogleMapsService;
 import com.c1se_01.roomiego.service.RoomService;
 import com.c1se_01.roomiego.service.UserProfileService;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
@@ -30,31 +42,43 @@ import java.util.List;
 @Slf4j
 public class McpToolController {
 
+  /** Most origins, and most destinations, of one distance matrix. */
+  static final int MAX_MATRIX_PLACES = 50;
+
   private final UserProfileService userProfileService;
   private final RoomService roomService;
   private final GoogleMapsService googleMapsService;
+  private final DistanceEstimator distanceEstimator;
 
   public McpToolController(UserProfileService userProfileService, RoomService roomService,
-      GoogleMapsService googleMapsService) {
+      GoogleMapsService googleMapsService, DistanceEstimator distanceEstimator) {
     this.userProfileService = userProfileService;
     this.roomService = roomService;
     this.googleMapsService = googleMapsService;
+    this.distanceEstimator = distanceEstimator;
   }
 
   /**
    * Get owner/user details by ID
    * Endpoint: GET /api/mcp/tools/owner/{ownerId}
    * 
+   * Answers If-None-Match / If-Modified-Since with 304 without loading the owner
+   * 
    * @param ownerId The owner/user ID
    * @return Owner details including name, email, phone, etc.
    */
   @GetMapping("/owner/{ownerId}")
   public ResponseEntity<UserDetailDTO> getOwnerDetails(
-      @PathVariable Long ownerId) {
+      @PathVariable Long ownerId, WebRequest request) {
 
     log.info("[MCP Tool] Fetching owner details for ID: {}", ownerId);
 
     try {
+      ResourceVersion version = userProfileService.getUserProfileVersion(ownerId);
+      if (request.checkNotModified(version.etag(), version.lastModified())) {
+        return null;
+      }
+
       UserDetailDTO owner = userProfileService.getUserProfile(ownerId);
 
       if (owner == null) {
@@ -179,6 +203,9 @@ public class McpToolController {
    * - fromAddress: Source address (optional if fromPropertyId provided)
    * - toAddress: Destination address (optional if toAddress provided)
    * - mode: Travel mode - "driving" (default), "walking", "bicycling", "transit"
+   * - precision: "exact" (default) routes with Google Maps, "estimate" estimates
+   * locally without calling it. Exact distances that Google cannot answer are
+   * estimated too, with "estimated": true
    *
    * @return Distance information including kilometers, meters, duration, and
    *         travel mode
@@ -189,7 +216,14 @@ public class McpToolController {
       @RequestParam(required = false) Long toPropertyId,
       @RequestParam(required = false) String fromAddress,
       @RequestParam(required = false) String toAddress,
-      @RequestParam(required = false, defaultValue = "driving") String mode) {
+      @RequestParam(required = false, defaultValue = "driving") String mode,
+      @RequestParam(required = false) String precision) {
+    DistancePrecision distancePrecision;
+    try {
+      distancePrecision = DistancePrecision.from(precision);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(e.getMessage());
+    }
     try {
 
       log.info(
@@ -264,11 +298,14 @@ public class McpToolController {
 
       // Use Google Maps Distance Matrix API with coordinates (more reliable than
       // addresses)
-      var distanceResult = googleMapsService.calculateDistanceMatrix(
-          startLat, startLng, endLat, endLng, mode);
+      DistanceMatrixResult distanceResult = distancePrecision == DistancePrecision.ESTIMATE ? null
+          : googleMapsService.calculateDistanceMatrix(startLat, startLng, endLat, endLng, mode);
 
       if (distanceResult == null) {
-        return ResponseEntity.internalServerError().body("Failed to calculate distance using Google Maps API");
+        if (distancePrecision == DistancePrecision.EXACT) {
+          log.warn("[MCP Tool] Google Maps could not calculate the distance, estimating it");
+        }
+        distanceResult = distanceEstimator.estimate(mode, startLat, startLng, endLat, endLng);
       }
 
       var response = new HashMap<String, Object>();
@@ -279,6 +316,7 @@ public class McpToolController {
       response.put("durationSeconds", distanceResult.getDurationSeconds());
       response.put("durationText", distanceResult.getDurationText());
       response.put("travelMode", distanceResult.getTravelMode());
+      response.put("estimated", distanceResult.isEstimated());
       response.put("originAddress", originAddress);
       response.put("destinationAddress", destinationAddress);
       if (startLat != null && startLng != null) {
@@ -298,6 +336,142 @@ public class McpToolController {
     }
   }
 
+  /**
+   * Calculate distances from N origins to M destinations in one call
+   * Endpoint: POST /api/mcp/tools/distance/matrix
+   * Body: { "origins": [{ "propertyId": 1 }, ...], "destinations": [{ "address":
+   * "..." }, ...], "mode": "driving", "precision": "exact" }
+   *
+   * Each place is a property or an address, resolved like in GET /distance. Places
+   * that cannot be resolved are reported with an error and their routes are null.
+   *
+   * @return the resolved places and the routes by origin, then destination
+   */
+  @PostMapping("/distance/matrix")
+  public ResponseEntity<?> calculateDistanceMatrix(@RequestBody DistanceMatrixRequest request) {
+    List<DistanceMatrixRequest.Place> origins = request.getOrigins();
+    List<DistanceMatrixRequest.Place> destinations = request.getDestinations();
+    if (origins == null || origins.isEmpty() || destinations == null || destinations.isEmpty()) {
+      return ResponseEntity.badRequest().body("Must provide origins and destinations");
+    }
+    if (origins.size() > MAX_MATRIX_PLACES || destinations.size() > MAX_MATRIX_PLACES) {
+      return ResponseEntity.badRequest()
+          .body("At most " + MAX_MATRIX_PLACES + " origins and " + MAX_MATRIX_PLACES + " destinations");
+    }
+    String mode = request.getMode() != null && !request.getMode().isEmpty() ? request.getMode() : "driving";
+    DistancePrecision precision;
+    try {
+      precision = DistancePrecision.from(request.getPrecision());
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    try {
+      log.info("[MCP Tool] Calculating distance matrix - {} origins, {} destinations, Mode: {}",
+          origins.size(), destinations.size(), mode);
+
+      List<DistanceMatrixResponse.ResolvedPlace> resolvedOrigins = origins.stream()
+          .map(place -> resolvePlace(place, false))
+          .toList();
+      List<DistanceMatrixResponse.ResolvedPlace> resolvedDestinations = destinations.stream()
+          .map(place -> resolvePlace(place, true))
+          .toList();
+
+      List<DistanceMatrixResponse.ResolvedPlace> routedOrigins = resolvedOrigins.stream()
+          .filter(DistanceMatrixResponse.ResolvedPlace::isResolved)
+          .toList();
+      List<DistanceMatrixResponse.ResolvedPlace> routedDestinations = resolvedDestinations.stream()
+          .filter(DistanceMatrixResponse.ResolvedPlace::isResolved)
+          .toList();
+      DistanceMatrixResult[][] routes;
+      if (routedOrigins.isEmpty() || routedDestinations.isEmpty()) {
+        routes = new DistanceMatrixResult[0][0];
+      } else if (precision == DistancePrecision.ESTIMATE) {
+        routes = distanceEstimator.estimateMatrix(coordinates(routedOrigins), coordinates(routedDestinations), mode);
+      } else {
+        routes = googleMapsService.calculateDistanceMatrix(coordinates(routedOrigins),
+            coordinates(routedDestinations), mode);
+      }
+
+      List<List<DistanceMatrixResult>> rows = new ArrayList<>();
+      int routedOrigin = 0;
+      for (DistanceMatrixResponse.ResolvedPlace origin : resolvedOrigins) {
+        DistanceMatrixResult[] row = new DistanceMatrixResult[resolvedDestinations.size()];
+        if (origin.isResolved()) {
+          int routedDestination = 0;
+          for (int j = 0; j < row.length; j++) {
+            if (resolvedDestinations.get(j).isResolved()) {
+              row[j] = routes[routedOrigin][routedDestination++];
+            }
+          }
+          routedOrigin++;
+        }
+        rows.add(Arrays.asList(row));
+      }
+
+      return ResponseEntity.ok(new DistanceMatrixResponse(mode, resolvedOrigins, resolvedDestinations, rows));
+
+    } catch (Exception e) {
+      log.error("[MCP Tool] Error calculating distance matrix: {}", e.getMessage());
+      return ResponseEntity.internalServerError().body("Error calculating distance matrix: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Resolve the coordinates of a distance matrix place, from the property or by
+   * geocoding the address
+   *
+   * @param destination whether the place is a destination, whose addresses are
+   *                    searched in Đà Nẵng
+   */
+  private DistanceMatrixResponse.ResolvedPlace resolvePlace(DistanceMatrixRequest.Place place,
+      boolean destination) {
+    DistanceMatrixResponse.ResolvedPlace resolved = new DistanceMatrixResponse.ResolvedPlace();
+    if (place == null) {
+      resolved.setError("Must provide propertyId or address");
+      return resolved;
+    }
+    resolved.setPropertyId(place.getPropertyId());
+    resolved.setAddress(place.getAddress());
+    try {
+      String address = place.getAddress();
+      if (address != null && !address.isEmpty()) {
+        if (destination && !address.toLowerCase().contains("đà nẵng")
+            && !address.toLowerCase().contains("da nang")) {
+          address = address + ", Đà Nẵng";
+        }
+        var location = googleMapsService.geocodeAddress(address);
+        if (location == null) {
+          resolved.setError("Could not geocode address");
+          return resolved;
+        }
+        resolved.setAddress(location.getFormattedAddress());
+        resolved.setLatitude(location.getLatitude());
+        resolved.setLongitude(location.getLongitude());
+      } else if (place.getPropertyId() != null) {
+        RoomDTO property = roomService.getRoomById(place.getPropertyId());
+        resolved.setAddress(buildFullAddress(property));
+        if (property.getLatitude() == null || property.getLongitude() == null) {
+          resolved.setError("Property has no coordinates");
+          return resolved;
+        }
+        resolved.setLatitude(property.getLatitude());
+        resolved.setLongitude(property.getLongitude());
+      } else {
+        resolved.setError("Must provide propertyId or address");
+      }
+    } catch (NotFoundException e) {
+      resolved.setError("Property not found");
+    }
+    return resolved;
+  }
+
+  private static List<double[]> coordinates(List<DistanceMatrixResponse.ResolvedPlace> places) {
+    return places.stream()
+        .map(place -> new double[] { place.getLatitude(), place.getLongitude() })
+        .toList();
+  }
+
   /**
    * Build a full address string from RoomDTO fields
    * 
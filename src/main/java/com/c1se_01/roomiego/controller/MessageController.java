@@ -1,7 +1,9 @@
 package com.c1se_01.roomiego.controller;
 
+import com.c1se_01.roomiego.common.SliceCustom;
 import com.c1se_01.roomiego.dto.ConversationSummaryDTO;
 import com.c1se_01.roomiego.dto.MessageDto;
+import com.c1se_01.roomiego.dto.MessageHistoryDTO;
 import com.c1se_01.roomiego.dto.SendMessageRequest;
 import com.c1se_01.roomiego.model.Message;
 import com.c1se_01.roomiego.model.User;
@@ -15,6 +17,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -65,6 +69,17 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
 
+    // Cursor pagination of the history: selected when the size parameter is present, the newest page first
+    @GetMapping(value = "/api/messages/history/{user1}/{user2}", params = "size")
+    public ResponseEntity<MessageHistoryDTO> getChatHistoryPage(
+            @PathVariable String user1,
+            @PathVariable String user2,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam int size) {
+        return ResponseEntity.ok(messageService.findChatHistoryBetweenUsers(user1, user2, before, after, size));
+    }
+
     @MessageMapping("/message")
     @SendTo("/chatroom/public")
     public MessageDto receiveMessage(MessageDto messageDto) throws InterruptedException {
@@ -117,12 +132,38 @@ public class MessageController {
         return ResponseEntity.ok(conversations);
     }
 
+    // Keyset pagination: selected when the cursor parameter is present (empty for the first slice)
+    @GetMapping(value = "/api/messages/conversations/{userId}", params = "cursor")
+    public ResponseEntity<SliceCustom<ConversationSummaryDTO>> getInbox(
+            @PathVariable Long userId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(messageService.getInbox(userId, cursor, size));
+    }
+
+    @PostMapping("/conversation/{conversationId}/read")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RENTER', 'OWNER')")
+    public ResponseEntity<Void> markConversationRead(@PathVariable Long conversationId) {
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        messageService.markConversationRead(conversationId, user.getId());
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/conversation/{conversationId}")
     public ResponseEntity<List<Message>> getConversationMessages(@PathVariable Long conversationId) {
         List<Message> messages = messageService.getMessagesByConversationId(conversationId);
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping(value = "/conversation/{conversationId}", params = "size")
+    public ResponseEntity<MessageHistoryDTO> getConversationMessagesPage(
+            @PathVariable Long conversationId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam int size) {
+        return ResponseEntity.ok(messageService.getMessagesByConversationId(conversationId, before, after, size));
+    }
+
     @GetMapping("/conversation/{userId1}/{userId2}")
     public ResponseEntity<List<Message>> getOrCreateConversation(
             @PathVariable Long userId1,
@@ -130,4 +171,15 @@ public class MessageController {
         List<Message> messages = messageService.getOrCreateConversationMessages(userId1, userId2);
         return ResponseEntity.ok(messages);
     }
+
+    @GetMapping(value = "/conversation/{userId1}/{userId2}", params = "size")
+    public ResponseEntity<MessageHistoryDTO> getOrCreateConversationPage(
+            @PathVariable Long userId1,
+            @PathVariable Long userId2,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam int size) {
+        return ResponseEntity.ok(messageService.getOrCreateConversationMessages(userId1, userId2, before, after,
+                size));
+    }
 }
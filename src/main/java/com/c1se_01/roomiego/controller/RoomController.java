@@ -1,21 +1,30 @@
 package com.c1se_01.roomiego.controller;
 
+import com.c1se_01.roomiego.common.SliceCustom;
 import com.c1se_01.roomiego.dto.ApiResponse;
 import com.c1se_01.roomiego.dto.RoomDTO;
+import com.c1se_01.roomiego.dto.RoomListingDTO;
 import com.c1se_01.roomiego.dto.common.FilterParam;
+import com.c1se_01.roomiego.dto.common.ResourceVersion;
+import com.c1se_01.roomiego.enums.ExportFormat;
 import com.c1se_01.roomiego.model.User;
 import com.c1se_01.roomiego.service.RoomService;
 import com.c1se_01.roomiego.service.impl.FileStorageService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 @RestController
@@ -108,15 +117,56 @@ public class RoomController {
                 .body(new ApiResponse<>(200, "Tạo phòng thành công", createdRoom));
     }
 
+    // Answers If-None-Match / If-Modified-Since with 304 before the listing is loaded
     @GetMapping
     public ResponseEntity<ApiResponse<List<RoomDTO>>> getAllRooms(
+            FilterParam filterParam, WebRequest request) {
+        ResourceVersion version = roomService.getListingVersion();
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
+        List<RoomDTO> rooms = roomService.getAllRooms(filterParam);
+        return ResponseEntity.ok(new ApiResponse<>(200, "Danh sách phòng", rooms));
+    }
+
+    // Page of rooms plus the facet counts of the whole filtered listing, selected with facets=true
+    @GetMapping(params = { "facets=true", "!cursor" })
+    public ResponseEntity<ApiResponse<RoomListingDTO>> getAllRoomsWithFacets(
             FilterParam filterParam) {
         List<RoomDTO> rooms = roomService.getAllRooms(filterParam);
+        RoomListingDTO listing = new RoomListingDTO(rooms, roomService.getFacets(filterParam));
+        return ResponseEntity.ok(new ApiResponse<>(200, "Danh sách phòng", listing));
+    }
+
+    // Keyset pagination: selected when the cursor parameter is present (empty for the first slice)
+    @GetMapping(params = "cursor")
+    public ResponseEntity<ApiResponse<SliceCustom<RoomDTO>>> getRoomsByCursor(
+            FilterParam filterParam) {
+        SliceCustom<RoomDTO> rooms = roomService.getRoomsByCursor(filterParam);
         return ResponseEntity.ok(new ApiResponse<>(200, "Danh sách phòng", rooms));
     }
 
+    // Bulk export of every matching room, streamed; since (ISO date-time) keeps the rooms modified since then
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRooms(
+            FilterParam filterParam,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "since", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date since) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> roomService.exportRooms(filterParam, since, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=rooms." + exportFormat.getExtension())
+                .body(body);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<RoomDTO>> getRoomById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<RoomDTO>> getRoomById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = roomService.getRoomVersion(id);
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         RoomDTO roomDTO = roomService.getRoomById(id);
         return ResponseEntity.ok(new ApiResponse<>(200, "Chi tiết phòng", roomDTO));
     }
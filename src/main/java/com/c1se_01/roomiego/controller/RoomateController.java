@@ -4,6 +4,7 @@ import com.c1se_01.roomiego.dto.AiRecommendationDTO;
 import com.c1se_01.roomiego.dto.ApiResponse;
 import com.c1se_01.roomiego.dto.RoommateDTO;
 import com.c1se_01.roomiego.dto.RoommateResponseDTO;
+import com.c1se_01.roomiego.exception.ServiceUnavailableException;
 import com.c1se_01.roomiego.service.RoommateService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
@@ -65,6 +66,8 @@ public class RoomateController {
         try {
             List<AiRecommendationDTO> recommendations = roommateService.getRecommendations(userId);
             return ResponseEntity.ok(new ApiResponse<>(200, "Gợi ý roommate thành công", recommendations));
+        } catch (ServiceUnavailableException e) {
+            return ResponseEntity.status(503).body(new ApiResponse<>(503, e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(new ApiResponse<>(500, "Lỗi khi lấy gợi ý roommate", null));
         }
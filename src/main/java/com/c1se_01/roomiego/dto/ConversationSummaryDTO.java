@@ -16,5 +16,7 @@ public class ConversationSummaryDTO {
     private String partnerRole;
     private String lastMessage;
     private Long lastTimestamp;
+    /** Messages the user has not read yet. */
+    private int unreadCount;
 }
 
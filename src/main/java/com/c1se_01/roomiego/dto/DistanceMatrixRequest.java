@@ -0,0 +1,29 @@
+package com.c1se_01.roomiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistanceMatrixRequest {
+    private List<Place> origins;
+    private List<Place> destinations;
+    private String mode;
+    /** "exact" (default) or "estimate". */
+    private String precision;
+
+    /**
+     * A property, or an address to geocode when no property is given.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Place {
+        private Long propertyId;
+        private String address;
+    }
+}
@@ -0,0 +1,36 @@
+package com.c1se_01.roomiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistanceMatrixResponse {
+    private String travelMode;
+    private List<ResolvedPlace> origins;
+    private List<ResolvedPlace> destinations;
+    /** Routes by origin, then destination; null where no route was found. */
+    private List<List<DistanceMatrixResult>> rows;
+
+    /**
+     * A requested place with its coordinates, or the reason they could not be determined.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResolvedPlace {
+        private Long propertyId;
+        private String address;
+        private Double latitude;
+        private Double longitude;
+        private String error;
+
+        public boolean isResolved() {
+            return latitude != null && longitude != null;
+        }
+    }
+}
@@ -8,9 +8,19 @@ public class DistanceMatrixResult {
   private final int durationSeconds;
   private final String durationText;
   private final String travelMode;
+  private final boolean estimated;
 
   public DistanceMatrixResult(double distanceKm, int distanceMeters, String distanceText,
       int durationMinutes, int durationSeconds, String durationText, String travelMode) {
+    this(distanceKm, distanceMeters, distanceText, durationMinutes, durationSeconds, durationText, travelMode,
+        false);
+  }
+
+  /**
+   * @param estimated whether the route was estimated locally rather than returned by the API
+   */
+  public DistanceMatrixResult(double distanceKm, int distanceMeters, String distanceText,
+      int durationMinutes, int durationSeconds, String durationText, String travelMode, boolean estimated) {
     this.distanceKm = distanceKm;
     this.distanceMeters = distanceMeters;
     this.distanceText = distanceText;
@@ -18,6 +28,7 @@ public class DistanceMatrixResult {
     this.durationSeconds = durationSeconds;
     this.durationText = durationText;
     this.travelMode = travelMode;
+    this.estimated = estimated;
   }
 
   public double getDistanceKm() {
@@ -47,5 +58,9 @@ public class DistanceMatrixResult {
   public String getTravelMode() {
     return travelMode;
   }
+
+  public boolean isEstimated() {
+    return estimated;
+  }
   
 }
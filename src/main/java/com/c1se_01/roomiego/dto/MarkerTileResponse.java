@@ -0,0 +1,36 @@
+package com.c1se_01.roomiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarkerTileResponse {
+    private int zoom;
+    private int x;
+    private int y;
+    private List<Cluster> clusters;
+    private List<Marker> markers;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cluster {
+        private double latitude;
+        private double longitude;
+        private int count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Marker {
+        private Long id;
+        private double latitude;
+        private double longitude;
+    }
+}
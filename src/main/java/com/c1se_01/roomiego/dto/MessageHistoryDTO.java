@@ -0,0 +1,26 @@
+package com.c1se_01.roomiego.dto;
+
+import com.c1se_01.roomiego.model.Message;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the history of a conversation. The newest page is loaded first, older pages are loaded with
+ * {@link #before} while scrolling back and the messages received since with {@link #after}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageHistoryDTO {
+    /** The messages of the page, oldest first. */
+    private List<Message> messages;
+    /** Cursor to pass as before for the older messages, null when there are none. */
+    private String before;
+    /** Cursor to pass as after for the messages newer than the page, null for an empty conversation. */
+    private String after;
+    private boolean hasOlder;
+    private boolean hasNewer;
+}
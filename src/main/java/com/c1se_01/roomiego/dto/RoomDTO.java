@@ -1,5 +1,6 @@
 package com.c1se_01.roomiego.dto;
 
+import com.c1se_01.roomiego.enums.GeoStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,6 +20,8 @@ public class RoomDTO {
     private String location;
     private Double latitude;
     private Double longitude;
+    /** PENDING until the address of a room created without coordinates is geocoded. */
+    private GeoStatus geoStatus;
     private Float roomSize;
     private Integer numBedrooms;
     private Integer numBathrooms;
@@ -32,6 +35,7 @@ public class RoomDTO {
     private String addressDetails;
     private String ownerName;
     private List<String> imageUrls;
+    private Integer imageCount;
 
 
 }
@@ -0,0 +1,19 @@
+package com.c1se_01.roomiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of rooms together with the facet counts of the whole filtered listing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomListingDTO {
+    private List<RoomDTO> rooms;
+    private Map<String, List<FacetCount>> facets;
+}
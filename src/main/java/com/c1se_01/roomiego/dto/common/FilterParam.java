@@ -1,13 +1,11 @@
 package com.c1se_01.roomiego.dto.common;
 
 import com.c1se_01.roomiego.annotation.ValidFilter;
+import com.c1se_01.roomiego.utils.FilterPlanCache;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.springframework.data.domain.Sort.Direction;
 
@@ -18,6 +16,11 @@ public class FilterParam {
     private Integer size = 10;
     private String sort = "id";
     private Direction order = Direction.ASC;
+    /**
+     * Keyset pagination cursor. When present (empty for the first slice) page is ignored and
+     * the listing continues after the cursor instead of skipping rows.
+     */
+    private String cursor;
     @ValidFilter
     private String filter;
     @JsonIgnore()
@@ -25,35 +28,20 @@ public class FilterParam {
 
     public List<FilterCondition> getConditions() {
         if (conditions == null && filter != null) {
-            conditions = parseFilter(filter);
+            conditions = FilterPlanCache.get(filter).getConditions();
         }
         return conditions;
     }
 
-    // operator is captured in group 2
-    private static final Pattern TOKEN_PATTERN = Pattern.compile("^\\s*([^:<>~,]+?)\\s*(:>|:<|:|>|<|~)\\s*(.+)$");
-
-    private List<FilterCondition> parseFilter(String filter) {
-        List<FilterCondition> list = new ArrayList<>();
-        if (filter == null || filter.isBlank())
-            return list;
-        String[] parts = filter.split(",");
-        for (String part : parts) {
-            part = part.trim();
-            if (part.isEmpty())
-                continue;
-
-            Matcher m = TOKEN_PATTERN.matcher(part);
-            if (m.matches()) {
-                String field = m.group(1).trim();
-                String operator = m.group(2).trim();
-                String value = m.group(3).trim();
-
-                if (!field.isEmpty() && !value.isEmpty()) {
-                    list.add(new FilterCondition(field, operator, value));
-                }
-            }
+    /**
+     * The shared plan of the filter string, or null if there is no filter or the conditions were set directly.
+     */
+    @JsonIgnore
+    public FilterPlan getPlan() {
+        if (filter == null) {
+            return null;
         }
-        return list;
+        FilterPlan plan = FilterPlanCache.get(filter);
+        return conditions == null || conditions == plan.getConditions() ? plan : null;
     }
 }
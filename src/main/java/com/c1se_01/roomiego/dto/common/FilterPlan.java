@@ -0,0 +1,109 @@
+package com.c1se_01.roomiego.dto.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed and validated form of a filter string such as {@code price:>500,city:hanoi}.
+ * Plans are immutable and shared between requests through {@link com.c1se_01.roomiego.utils.FilterPlanCache},
+ * so everything derived from the conditions (specifications, parsed values) can be compiled once
+ * and attached to the plan with {@link #compiled(String, Function)}.
+ */
+public final class FilterPlan {
+
+    // operator is captured in group 2
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("^\\s*([^:<>~,]+?)\\s*(:>|:<|:|>|<|~)\\s*(.+)$");
+
+    private final String filter;
+    private final List<FilterCondition> conditions;
+    private final boolean valid;
+    private final Map<String, Object> compiled = new ConcurrentHashMap<>(4);
+
+    private FilterPlan(String filter, List<FilterCondition> conditions, boolean valid) {
+        this.filter = filter;
+        this.conditions = conditions;
+        this.valid = valid;
+    }
+
+    /**
+     * Parses the filter string. Malformed parts are skipped from the conditions and make the plan invalid.
+     * @param filter the filter string
+     * @return the plan
+     */
+    public static FilterPlan parse(String filter) {
+        List<FilterCondition> list = new ArrayList<>();
+        boolean valid = true;
+        if (filter != null && !filter.isBlank()) {
+            for (String part : filter.split(",")) {
+                part = part.trim();
+                if (part.isEmpty())
+                    continue;
+
+                Matcher m = TOKEN_PATTERN.matcher(part);
+                if (!m.matches()) {
+                    valid = false;
+                    continue;
+                }
+                String field = m.group(1).trim();
+                String operator = m.group(2).trim();
+                String value = m.group(3).trim();
+
+                if (!field.isEmpty() && !value.isEmpty()) {
+                    list.add(new FilterCondition(field, operator, value));
+                } else {
+                    valid = false;
+                }
+            }
+        }
+        return new FilterPlan(filter, Collections.unmodifiableList(list), valid);
+    }
+
+    /**
+     * Canonical form of a filter string used as cache key: surrounding whitespace and empty parts
+     * are dropped, so {@code " price:>5 , city:hanoi,"} and {@code "price:>5,city:hanoi"} share a plan.
+     */
+    public static String normalize(String filter) {
+        StringBuilder normalized = new StringBuilder(filter.length());
+        for (String part : filter.split(",")) {
+            String trimmed = part.trim();
+            if (!trimmed.isEmpty()) {
+                if (!normalized.isEmpty()) {
+                    normalized.append(',');
+                }
+                normalized.append(trimmed);
+            }
+        }
+        return normalized.toString();
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public List<FilterCondition> getConditions() {
+        return conditions;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Returns the artifact compiled from this plan under the given key, compiling it on first use.
+     * If the compiler throws, nothing is stored and the exception propagates, so invalid plans fail
+     * on every request just like without the cache.
+     * @param key      identifies what is compiled, e.g. the specification variant
+     * @param compiler builds the artifact from the plan
+     * @return the compiled artifact
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T compiled(String key, Function<FilterPlan, T> compiler) {
+        return (T) compiled.computeIfAbsent(key, k -> compiler.apply(this));
+    }
+}
@@ -0,0 +1,77 @@
+package com.c1se_01.roomiego.dto.common;
+
+import org.springframework.data.domain.Sort.Direction;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position for keyset pagination: the sort key and id of the last row of the previous slice.
+ *
+ * @param sort  the sort field the cursor was issued for
+ * @param order the sort direction the cursor was issued for
+ * @param id    the id of the last row
+ * @param value the sort key of the last row as a string, null if the row had no value
+ */
+public record KeysetCursor(String sort, Direction order, Long id, String value) {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+    private static final String NULL_MARKER = "N";
+    private static final String VALUE_MARKER = "V";
+
+    /**
+     * Encodes the cursor as a URL-safe token.
+     */
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, sort, order.name(), String.valueOf(id),
+                value == null ? NULL_MARKER : VALUE_MARKER + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     * @param token the cursor token
+     * @return the cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // the value goes last so it may itself contain the separator
+            parts = raw.split("\\|", 5);
+        } catch (IllegalArgumentException e) {
+            throw invalid(token, e);
+        }
+        if (parts.length != 5 || !VERSION.equals(parts[0])) {
+            throw invalid(token, null);
+        }
+
+        String value;
+        if (NULL_MARKER.equals(parts[4])) {
+            value = null;
+        } else if (parts[4].startsWith(VALUE_MARKER)) {
+            value = parts[4].substring(VALUE_MARKER.length());
+        } else {
+            throw invalid(token, null);
+        }
+
+        try {
+            return new KeysetCursor(parts[1], Direction.fromString(parts[2]), Long.parseLong(parts[3]), value);
+        } catch (IllegalArgumentException e) {
+            throw invalid(token, e);
+        }
+    }
+
+    /**
+     * Whether the cursor was issued for the given sort field and direction.
+     */
+    public boolean matches(String sort, Direction order) {
+        return this.sort.equals(sort) && this.order == order;
+    }
+
+    private static IllegalArgumentException invalid(String token, Exception cause) {
+        return new IllegalArgumentException("Invalid cursor: " + token, cause);
+    }
+}
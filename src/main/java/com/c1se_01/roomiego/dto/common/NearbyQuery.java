@@ -0,0 +1,45 @@
+package com.c1se_01.roomiego.dto.common;
+
+/**
+ * Parsed form of a {@code location:nearby:lat;lng;radius} (or {@code location nearby lat;lng;radius}) filter.
+ *
+ * @param latitude     center latitude in degrees
+ * @param longitude    center longitude in degrees
+ * @param radiusMeters search radius in meters
+ */
+public record NearbyQuery(double latitude, double longitude, double radiusMeters) {
+
+    private static final String NEARBY_PREFIX = "nearby:";
+
+    /**
+     * Parses a location filter condition.
+     * @param cond the filter condition, must have the field "location"
+     * @return the parsed query
+     * @throws IllegalArgumentException if the operator or value format is not supported
+     */
+    public static NearbyQuery from(FilterCondition cond) {
+        String op = cond.operator();
+        String value = cond.value();
+        if (":".equals(op) && value.startsWith(NEARBY_PREFIX)) {
+            return parse(value.substring(NEARBY_PREFIX.length()), value);
+        } else if ("nearby".equals(op)) {
+            return parse(value, value);
+        }
+        throw new IllegalArgumentException("Unsupported location operator: " + op);
+    }
+
+    private static NearbyQuery parse(String nearbyValue, String rawValue) {
+        String[] parts = nearbyValue.split(";");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid location format: " + rawValue);
+        }
+        return new NearbyQuery(
+                Double.parseDouble(parts[0]),
+                Double.parseDouble(parts[1]),
+                Double.parseDouble(parts[2]));
+    }
+
+    public double radiusKm() {
+        return radiusMeters / 1000.0;
+    }
+}
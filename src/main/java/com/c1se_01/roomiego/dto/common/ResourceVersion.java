@@ -0,0 +1,39 @@
+package com.c1se_01.roomiego.dto.common;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Validators of a representation for conditional GETs, read without loading the entities behind it.
+ *
+ * @param etag         the strong entity tag, quoted
+ * @param lastModified the last modification in epoch milliseconds, -1 if unknown
+ */
+public record ResourceVersion(String etag, long lastModified) {
+
+    /**
+     * Builds the version from the parts identifying the state of the representation.
+     * @param lastModified the candidate modification times, either {@link Date} or {@link LocalDateTime};
+     *                     nulls are ignored and the latest one wins
+     */
+    public static ResourceVersion of(String kind, Object[] parts, Object... lastModified) {
+        StringBuilder etag = new StringBuilder("\"").append(kind);
+        for (Object part : parts) {
+            etag.append('-').append(part == null ? 0 : part);
+        }
+        etag.append('"');
+
+        long latest = -1;
+        for (Object time : lastModified) {
+            long millis = -1;
+            if (time instanceof Date date) {
+                millis = date.getTime();
+            } else if (time instanceof LocalDateTime dateTime) {
+                millis = dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            }
+            latest = Math.max(latest, millis);
+        }
+        return new ResourceVersion(etag.toString(), latest);
+    }
+}
@@ -0,0 +1,42 @@
+package com.c1se_01.roomiego.dto.google;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * The routes of a Distance Matrix API response, by origin then destination; the echoed addresses are
+ * skipped while reading.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DistanceMatrixApiResponse implements GoogleApiResponse {
+
+    private String status;
+    private List<Row> rows;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Row {
+        private List<Element> elements;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Element {
+        private String status;
+        private TextValue distance;
+        private TextValue duration;
+    }
+
+    /**
+     * A distance in meters or a duration in seconds, with its text in the requested language.
+     */
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class TextValue {
+        private String text;
+        private int value;
+    }
+}
@@ -0,0 +1,36 @@
+package com.c1se_01.roomiego.dto.google;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * The fields of a Geocoding API response used to pick and locate a result; the others, such as the
+ * address components, are skipped while reading.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GeocodingApiResponse implements GoogleApiResponse {
+
+    private String status;
+    private List<Result> results;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Result {
+        @JsonProperty("formatted_address")
+        private String formattedAddress;
+
+        private GoogleGeometry geometry;
+
+        @JsonProperty("place_id")
+        private String placeId;
+
+        @JsonProperty("partial_match")
+        private boolean partialMatch;
+
+        private List<String> types;
+    }
+}
@@ -0,0 +1,10 @@
+package com.c1se_01.roomiego.dto.google;
+
+/**
+ * A response of a Google Maps web service. The status is "OK" or "ZERO_RESULTS" when the request was served,
+ * anything else when it was not.
+ */
+public interface GoogleApiResponse {
+
+    String getStatus();
+}
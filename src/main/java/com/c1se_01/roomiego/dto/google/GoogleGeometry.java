@@ -0,0 +1,21 @@
+package com.c1se_01.roomiego.dto.google;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/**
+ * The geometry of a geocoding or place result, of which only the location is read.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GoogleGeometry {
+
+    private Location location;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Location {
+        private double lat;
+        private double lng;
+    }
+}
@@ -0,0 +1,32 @@
+package com.c1se_01.roomiego.dto.google;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * The fields of a Places Nearby Search response shown for a nearby place; the others, such as the photos
+ * and opening hours, are skipped while reading.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class NearbySearchApiResponse implements GoogleApiResponse {
+
+    private String status;
+    private List<Place> results;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Place {
+        private String name;
+        private String vicinity;
+        private GoogleGeometry geometry;
+
+        @JsonProperty("place_id")
+        private String placeId;
+
+        private Double rating;
+    }
+}
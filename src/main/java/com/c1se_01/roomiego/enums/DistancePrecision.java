@@ -0,0 +1,26 @@
+package com.c1se_01.roomiego.enums;
+
+import java.util.Locale;
+
+/**
+ * How a distance is calculated: estimated locally, or routed by the Distance Matrix API.
+ */
+public enum DistancePrecision {
+    ESTIMATE,
+    EXACT;
+
+    /**
+     * Parses the precision parameter, case-insensitively. Missing means exact.
+     * @throws IllegalArgumentException if the precision is not supported
+     */
+    public static DistancePrecision from(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported precision: " + value);
+        }
+    }
+}
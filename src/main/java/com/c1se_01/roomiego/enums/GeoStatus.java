@@ -0,0 +1,12 @@
+package com.c1se_01.roomiego.enums;
+
+/**
+ * Whether the coordinates of a room are known.
+ */
+public enum GeoStatus {
+    /** Waiting for its address to be geocoded in the background. */
+    PENDING,
+    RESOLVED,
+    /** The address could not be geocoded, or there was none. */
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.c1se_01.roomiego.enums;
+
+public enum RoomChangeType {
+    CREATED,
+    UPDATED,
+    HIDDEN,
+    DELETED
+}
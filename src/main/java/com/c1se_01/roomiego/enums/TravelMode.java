@@ -0,0 +1,50 @@
+package com.c1se_01.roomiego.enums;
+
+import java.util.Locale;
+
+/**
+ * Travel modes of the Distance Matrix API, with the road circuity and the average speed assumed for
+ * them in the city before any route has been observed.
+ */
+public enum TravelMode {
+    DRIVING(1.35, 25),
+    WALKING(1.25, 4.8),
+    BICYCLING(1.30, 14),
+    TRANSIT(1.40, 15);
+
+    private final double defaultCircuity;
+    private final double defaultSpeedKmh;
+
+    TravelMode(double defaultCircuity, double defaultSpeedKmh) {
+        this.defaultCircuity = defaultCircuity;
+        this.defaultSpeedKmh = defaultSpeedKmh;
+    }
+
+    /** Road distance over straight-line distance. */
+    public double getDefaultCircuity() {
+        return defaultCircuity;
+    }
+
+    public double getDefaultSpeedKmh() {
+        return defaultSpeedKmh;
+    }
+
+    /** The value of the API {@code mode} parameter. */
+    public String getApiName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses the mode parameter, case-insensitively. Missing or unknown modes are driving, as for the API.
+     */
+    public static TravelMode from(String value) {
+        if (value == null) {
+            return DRIVING;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return DRIVING;
+        }
+    }
+}
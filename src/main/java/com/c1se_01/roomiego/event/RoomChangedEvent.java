@@ -0,0 +1,26 @@
+package com.c1se_01.roomiego.event;
+
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.model.Room;
+
+/**
+ * Published by the room write paths so in-memory indexes can follow the rooms table.
+ *
+ * @param room the room after the change (still populated for deletions)
+ * @param type the kind of change
+ */
+public record RoomChangedEvent(Room room, RoomChangeType type) {
+
+    public Long roomId() {
+        return room.getId();
+    }
+
+    /**
+     * Whether the room should still be visible to searches after this change.
+     */
+    public boolean isListed() {
+        return type != RoomChangeType.DELETED
+                && type != RoomChangeType.HIDDEN
+                && !Boolean.FALSE.equals(room.getIsRoomAvailable());
+    }
+}
@@ -0,0 +1,9 @@
+package com.c1se_01.roomiego.event;
+
+/**
+ * Published by {@code RoomImageRepository} saves and deletions of the images of a room.
+ *
+ * @param roomId the room whose images changed
+ */
+public record RoomImagesChangedEvent(Long roomId) {
+}
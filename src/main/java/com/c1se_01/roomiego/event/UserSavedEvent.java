@@ -0,0 +1,10 @@
+package com.c1se_01.roomiego.event;
+
+/**
+ * Published by {@code UserRepository} saves, so that read models holding user data can follow renames.
+ *
+ * @param userId   the saved user
+ * @param fullName the full name after the save
+ */
+public record UserSavedEvent(Long userId, String fullName) {
+}
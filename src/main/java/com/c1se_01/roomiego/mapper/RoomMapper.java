@@ -3,6 +3,7 @@ package com.c1se_01.roomiego.mapper;
 import com.c1se_01.roomiego.dto.RoomDTO;
 import com.c1se_01.roomiego.model.Room;
 import com.c1se_01.roomiego.model.RoomImage;
+import com.c1se_01.roomiego.model.RoomSearchView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -17,10 +18,19 @@ public interface RoomMapper {
     @Mapping(source = "owner.id", target = "ownerId")
     @Mapping(source = "roomImages", target = "imageUrls", qualifiedByName = "mapRoomImagesToUrls")
     @Mapping(source = "owner.fullName", target = "ownerName")
+    @Mapping(target = "imageCount", expression = "java(room.getRoomImages() == null ? null : room.getRoomImages().size())")
 
     RoomDTO toDTO(Room room);
 
+    // Listing rows carry only the first image, the detail endpoint returns them all
+    @Mapping(source = "firstImageUrl", target = "imageUrls", qualifiedByName = "firstImageUrlToUrls")
+    RoomDTO toDTO(RoomSearchView view);
+
+    // the geocoding status, the update time and the version are the server's to set
     @Mapping(source = "ownerId", target = "owner.id")
+    @Mapping(target = "geoStatus", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Room toEntity(RoomDTO roomDTO);
 
     List<RoomDTO> toDTOList(List<Room> rooms);
@@ -34,6 +44,11 @@ public interface RoomMapper {
                 .collect(Collectors.toList());
     }
 
+    @Named("firstImageUrlToUrls")
+    default List<String> firstImageUrlToUrls(String firstImageUrl) {
+        return firstImageUrl == null ? List.of() : List.of(firstImageUrl);
+    }
+
     default void updateEntityFromDTO(RoomDTO dto, Room entity) {
         Optional.ofNullable(dto.getTitle()).ifPresent(entity::setTitle);
         Optional.ofNullable(dto.getDescription()).ifPresent(entity::setDescription);
@@ -8,7 +8,9 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.CascadeType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -20,12 +22,15 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "conversations")
+@Table(name = "conversations", uniqueConstraints = @UniqueConstraint(name = "uk_conversations_pair",
+        columnNames = {"min_user_id", "max_user_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonIgnoreProperties({"user1", "user2", "messages"})
 public class Conversation {
+    public static final int PREVIEW_LENGTH = 255;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -38,9 +43,62 @@ public class Conversation {
     @JoinColumn(name = "user2_id", nullable = false)
     private User user2;
 
+    /** The smaller of the two user ids; with {@link #maxUserId}, the key of the pair whoever wrote first. */
+    @Column(name = "min_user_id", nullable = false)
+    private Long minUserId;
+
+    @Column(name = "max_user_id", nullable = false)
+    private Long maxUserId;
+
     @Column(nullable = false)
     private Date createdAt = new Date();
 
+    /** The latest message, kept on the conversation so that the inbox is read without the messages. */
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(name = "last_message_preview", length = PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    /** Timestamp of the latest message, the creation time until the first one; the order of the inbox. */
+    @Column(name = "last_message_at", nullable = false)
+    private Long lastMessageAt;
+
+    /** Messages received by user1 since they last read the conversation. */
+    @Column(name = "user1_unread_count", nullable = false)
+    private int user1UnreadCount;
+
+    @Column(name = "user2_unread_count", nullable = false)
+    private int user2UnreadCount;
+
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL)
     private List<Message> messages = new ArrayList<>();
+
+    @PrePersist
+    void fillPairKey() {
+        minUserId = Math.min(user1.getId(), user2.getId());
+        maxUserId = Math.max(user1.getId(), user2.getId());
+        if (lastMessageAt == null) {
+            lastMessageAt = createdAt.getTime();
+        }
+    }
+
+    /**
+     * The messages the user has not read yet.
+     */
+    public int unreadCountOf(Long userId) {
+        return user1.getId().equals(userId) ? user1UnreadCount : user2UnreadCount;
+    }
+
+    /**
+     * The start of a message as shown in the inbox, null if the message has no text.
+     */
+    public static String previewOf(String message) {
+        if (message == null || message.length() <= PREVIEW_LENGTH) {
+            return message;
+        }
+        // do not split a surrogate pair
+        int end = Character.isHighSurrogate(message.charAt(PREVIEW_LENGTH - 1)) ? PREVIEW_LENGTH - 1 : PREVIEW_LENGTH;
+        return message.substring(0, end);
+    }
 }
@@ -0,0 +1,45 @@
+package com.c1se_01.roomiego.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A geocoding result persisted by {@code GeocodeCache}. An entry without coordinates records an address
+ * that was not found.
+ */
+@Entity
+@Table(name = "geocode_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeocodeCacheEntry {
+    @Id
+    @Column(name = "address_key", length = 500)
+    private String addressKey;
+
+    @Column(name = "formatted_address", length = 500)
+    private String formattedAddress;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    @Column(name = "place_id")
+    private String placeId;
+
+    @Column(name = "matched_variation", length = 600)
+    private String matchedVariation;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
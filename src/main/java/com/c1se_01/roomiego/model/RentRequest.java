@@ -10,20 +10,23 @@ import java.util.Date;
 
 @Entity
 @Table(name = "rent_requests")
+@NamedEntityGraph(name = RentRequest.GRAPH_ROOM_AND_TENANT, attributeNodes = {
+        @NamedAttributeNode("room"), @NamedAttributeNode("tenant") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class RentRequest {
+    public static final String GRAPH_ROOM_AND_TENANT = "RentRequest.roomAndTenant";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tenant_id", nullable = false)
     private User tenant;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id", nullable = false)
     private Room room;
 
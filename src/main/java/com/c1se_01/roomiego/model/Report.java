@@ -10,11 +10,15 @@ import java.util.Date;
 
 @Entity
 @Table(name = "reports")
+@NamedEntityGraph(name = Report.GRAPH_ROOM_AND_REPORTER, attributeNodes = {
+        @NamedAttributeNode("room"), @NamedAttributeNode("reporter") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Report {
+    public static final String GRAPH_ROOM_AND_REPORTER = "Report.roomAndReporter";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
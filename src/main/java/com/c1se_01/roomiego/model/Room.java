@@ -1,22 +1,32 @@
 package com.c1se_01.roomiego.model;
 
+import com.c1se_01.roomiego.enums.GeoStatus;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.util.Date;
@@ -24,10 +34,14 @@ import java.util.List;
 
 @Entity
 @Table(name = "rooms")
+@NamedEntityGraph(name = Room.GRAPH_OWNER, attributeNodes = @NamedAttributeNode("owner"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Room {
+    /** Fetch plan loading the owner with the room, for listings mapping the owner name. */
+    public static final String GRAPH_OWNER = "Room.owner";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -45,6 +59,11 @@ public class Room {
 
     private Double longitude;
 
+    /** PENDING while the coordinates are geocoded in the background, see {@code RoomGeocodingWorker}. */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "geo_status", nullable = false, length = 16)
+    private GeoStatus geoStatus = GeoStatus.RESOLVED;
+
     @Column(name = "room_size")
     private Float roomSize;
 
@@ -65,12 +84,22 @@ public class Room {
     @Column(name = "created_at", updatable = false)
     private Date createdAt = new Date();
 
-    @ManyToOne
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "updated_at")
+    private Date updatedAt;
+
+    /** Incremented on every change of the room or of its images, the ETag of the room detail. */
+    @Version
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     @JsonBackReference
     private User owner;
 
+    // images of up to a page of rooms are loaded by one query instead of one per room
     @OneToMany(mappedBy = "room", cascade = CascadeType.ALL)
+    @BatchSize(size = 100)
     private List<RoomImage> roomImages;
 
     @Column(name = "city")
@@ -96,4 +125,9 @@ public class Room {
     @JsonIgnore
     private List<RentRequest> rentRequests;
 
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = new Date();
+    }
 }
@@ -0,0 +1,49 @@
+package com.c1se_01.roomiego.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A room waiting for its address to be geocoded, queued by room creation and drained by
+ * {@code RoomGeocodingWorker}. The room is referenced by id so that the worker does not load it to
+ * claim the job.
+ */
+@Entity
+@Table(name = "room_geocoding_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomGeocodingJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "room_id", nullable = false, unique = true)
+    private Long roomId;
+
+    @Column(nullable = false, length = 1000)
+    private String address;
+
+    /** Failed attempts so far. */
+    @Column(nullable = false)
+    private int attempts;
+
+    /** When the job is due, pushed forward while a worker holds it and by the backoff after a failure. */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,5 +1,6 @@
 package com.c1se_01.roomiego.model;
 
+import com.c1se_01.roomiego.event.RoomImagesChangedEvent;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -10,6 +11,9 @@ import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.DomainEvents;
+
+import java.util.List;
 
 @Entity
 @Table(name = "room_images")
@@ -27,4 +31,9 @@ public class RoomImage {
     private Room room;
 
     private String imageUrl;
+
+    @DomainEvents
+    List<Object> domainEvents() {
+        return room == null || room.getId() == null ? List.of() : List.of(new RoomImagesChangedEvent(room.getId()));
+    }
 }
@@ -0,0 +1,97 @@
+package com.c1se_01.roomiego.model;
+
+import com.c1se_01.roomiego.enums.GeoStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Flat read model of a room for the listings: the room columns plus the owner name and a summary of the
+ * images, so that a page is read with one query instead of walking {@link Room#getOwner()} and
+ * {@link Room#getRoomImages()} per row. Written by {@code RoomSearchViewProjector}, never by the listings.
+ */
+@Entity
+@Table(name = "room_search_view")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomSearchView {
+    @Id
+    @Column(name = "room_id")
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "owner_name")
+    private String ownerName;
+
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    private BigDecimal price;
+
+    private String location;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "geo_status", nullable = false, length = 16)
+    private GeoStatus geoStatus = GeoStatus.RESOLVED;
+
+    @Column(name = "room_size")
+    private Float roomSize;
+
+    @Column(name = "num_bedrooms")
+    private Integer numBedrooms;
+
+    @Column(name = "num_bathrooms")
+    private Integer numBathrooms;
+
+    @Temporal(TemporalType.DATE)
+    @Column(name = "available_from")
+    private Date availableFrom;
+
+    @Column(name = "is_room_available")
+    private Boolean isRoomAvailable;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at")
+    private Date createdAt;
+
+    @Column(name = "city")
+    private String city;
+
+    @Column(name = "district")
+    private String district;
+
+    @Column(name = "ward")
+    private String ward;
+
+    @Column(name = "street")
+    private String street;
+
+    @Column(name = "address_details")
+    private String addressDetails;
+
+    @Column(name = "first_image_url")
+    private String firstImageUrl;
+
+    @Column(name = "image_count", nullable = false)
+    private int imageCount;
+}
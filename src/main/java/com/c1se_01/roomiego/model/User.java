@@ -2,6 +2,7 @@ package com.c1se_01.roomiego.model;
 
 import com.c1se_01.roomiego.enums.Gender;
 import com.c1se_01.roomiego.enums.Role;
+import com.c1se_01.roomiego.event.UserSavedEvent;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.CascadeType;
@@ -19,6 +20,7 @@ import jakarta.persistence.TemporalType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.DomainEvents;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -28,6 +30,8 @@ import java.util.Date;
 import java.util.List;
 import java.time.LocalDateTime;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "users")
@@ -67,6 +71,13 @@ public class User implements UserDetails {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Version
+    @JsonIgnore
+    private Long version;
+
     @Column(name = "is_verified")
     private Boolean isVerified = false;
 
@@ -99,6 +110,17 @@ public class User implements UserDetails {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    @DomainEvents
+    List<Object> domainEvents() {
+        return id == null ? List.of() : List.of(new UserSavedEvent(id, fullName));
     }
 
     @Override
@@ -1,29 +1,101 @@
 package com.c1se_01.roomiego.repository;
 
 import com.c1se_01.roomiego.model.Conversation;
+import com.c1se_01.roomiego.repository.projection.ConversationInboxProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, Long> {
-    @Query("""
-        SELECT c FROM Conversation c
-        WHERE (c.user1.id = :user1Id AND c.user2.id = :user2Id)
-        OR (c.user1.id = :user2Id AND c.user2.id = :user1Id)
-    """)
-    Optional<Conversation> findByUser1IdAndUser2Id(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
+
+    /** The id of the conversation keyed by the pair, an index lookup on its unique key. */
+    @Query("SELECT c.id FROM Conversation c WHERE c.minUserId = :minUserId AND c.maxUserId = :maxUserId")
+    Optional<Long> findIdByPair(@Param("minUserId") Long minUserId, @Param("maxUserId") Long maxUserId);
+
+    /**
+     * The id of the conversation between two users, whichever of them wrote first.
+     */
+    default Optional<Long> findIdBetween(Long userId, Long otherUserId) {
+        return findIdByPair(Math.min(userId, otherUserId), Math.max(userId, otherUserId));
+    }
 
     @Query("""
         SELECT c FROM Conversation c
         JOIN FETCH c.user1
         JOIN FETCH c.user2
         WHERE c.user1.id = :userId OR c.user2.id = :userId
-        ORDER BY c.createdAt DESC
+        ORDER BY c.lastMessageAt DESC, c.id DESC
     """)
     List<Conversation> findAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * One page of the inbox of a user, latest activity first, starting after the given position. Each side of
+     * the union is a range of an (user, last_message_at, id) index read backwards up to the limit.
+     */
+    @Query(nativeQuery = true, value = """
+        (SELECT c.id AS conversationId, c.last_message_at AS lastMessageAt, c.last_message_preview AS lastMessage,
+                c.user1_unread_count AS unreadCount, u.id AS partnerId, u.email AS partnerEmail,
+                u.full_name AS partnerName, u.phone AS partnerPhone, u.role AS partnerRole
+         FROM conversations c JOIN users u ON u.id = c.user2_id
+         WHERE c.user1_id = :userId
+           AND (c.last_message_at < :afterAt OR (c.last_message_at = :afterAt AND c.id < :afterId))
+         ORDER BY c.last_message_at DESC, c.id DESC
+         LIMIT :limit)
+        UNION ALL
+        (SELECT c.id AS conversationId, c.last_message_at AS lastMessageAt, c.last_message_preview AS lastMessage,
+                c.user2_unread_count AS unreadCount, u.id AS partnerId, u.email AS partnerEmail,
+                u.full_name AS partnerName, u.phone AS partnerPhone, u.role AS partnerRole
+         FROM conversations c JOIN users u ON u.id = c.user1_id
+         WHERE c.user2_id = :userId AND c.user1_id <> :userId
+           AND (c.last_message_at < :afterAt OR (c.last_message_at = :afterAt AND c.id < :afterId))
+         ORDER BY c.last_message_at DESC, c.id DESC
+         LIMIT :limit)
+        ORDER BY lastMessageAt DESC, conversationId DESC
+        LIMIT :limit
+    """)
+    List<ConversationInboxProjection> findInboxPage(@Param("userId") Long userId, @Param("afterAt") long afterAt,
+            @Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Records a message on its conversation: it becomes the last message unless a later one was recorded
+     * first, and counts as unread for the participant who did not send it.
+     * @return 1 if the conversation exists
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Conversation c SET
+            c.lastMessageId = CASE WHEN c.lastMessageId IS NULL OR c.lastMessageAt <= :sentAt
+                THEN :messageId ELSE c.lastMessageId END,
+            c.lastMessagePreview = CASE WHEN c.lastMessageId IS NULL OR c.lastMessageAt <= :sentAt
+                THEN :preview ELSE c.lastMessagePreview END,
+            c.user1UnreadCount = c.user1UnreadCount + CASE WHEN c.user1.id = :senderId THEN 0 ELSE 1 END,
+            c.user2UnreadCount = c.user2UnreadCount + CASE WHEN c.user2.id = :senderId THEN 0 ELSE 1 END,
+            c.lastMessageAt = CASE WHEN c.lastMessageId IS NULL OR c.lastMessageAt <= :sentAt
+                THEN :sentAt ELSE c.lastMessageAt END
+        WHERE c.id = :conversationId
+    """)
+    int recordMessage(@Param("conversationId") Long conversationId, @Param("messageId") Long messageId,
+            @Param("preview") String preview, @Param("sentAt") Long sentAt, @Param("senderId") Long senderId);
+
+    /**
+     * Clears the unread count of one participant.
+     * @return 1 if the conversation exists and the user takes part in it
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Conversation c SET
+            c.user1UnreadCount = CASE WHEN c.user1.id = :userId THEN 0 ELSE c.user1UnreadCount END,
+            c.user2UnreadCount = CASE WHEN c.user2.id = :userId THEN 0 ELSE c.user2UnreadCount END
+        WHERE c.id = :conversationId AND (c.user1.id = :userId OR c.user2.id = :userId)
+    """)
+    int markRead(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
 }
@@ -0,0 +1,9 @@
+package com.c1se_01.roomiego.repository;
+
+import com.c1se_01.roomiego.model.GeocodeCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCacheEntry, String> {
+}
@@ -2,6 +2,7 @@ package com.c1se_01.roomiego.repository;
 
 import com.c1se_01.roomiego.model.Message;
 import com.c1se_01.roomiego.enums.MessageType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,8 +25,20 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
 
         List<Message> findBySenderId(Long senderId);
 
-        Message findTopByConversationIdOrderByTimestampDesc(Long conversationId);
-
         @Query("SELECT m FROM Message m WHERE m.conversationId = :conversationId ORDER BY m.timestamp ASC")
         List<Message> findByConversationIdOrderByTimestampAsc(@Param("conversationId") Long conversationId);
+
+        /** The messages of a conversation sent before a position, newest first. */
+        @Query("SELECT m FROM Message m WHERE m.conversationId = :conversationId "
+                        + "AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id)) "
+                        + "ORDER BY m.timestamp DESC, m.id DESC")
+        List<Message> findPageBefore(@Param("conversationId") Long conversationId,
+                        @Param("timestamp") long timestamp, @Param("id") long id, Pageable pageable);
+
+        /** The messages of a conversation sent after a position, oldest first. */
+        @Query("SELECT m FROM Message m WHERE m.conversationId = :conversationId "
+                        + "AND (m.timestamp > :timestamp OR (m.timestamp = :timestamp AND m.id > :id)) "
+                        + "ORDER BY m.timestamp ASC, m.id ASC")
+        List<Message> findPageAfter(@Param("conversationId") Long conversationId,
+                        @Param("timestamp") long timestamp, @Param("id") long id, Pageable pageable);
 }
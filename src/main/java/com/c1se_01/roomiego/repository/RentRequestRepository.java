@@ -1,6 +1,7 @@
 package com.c1se_01.roomiego.repository;
 
 import com.c1se_01.roomiego.model.RentRequest;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,5 +9,6 @@ import java.util.List;
 
 @Repository
 public interface RentRequestRepository extends JpaRepository<RentRequest, Long> {
+    @EntityGraph(RentRequest.GRAPH_ROOM_AND_TENANT)
     List<RentRequest> findByRoomOwnerId(Long ownerId);
 }
@@ -4,6 +4,7 @@ import com.c1se_01.roomiego.model.Report;
 import com.c1se_01.roomiego.model.Room;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +13,11 @@ import java.util.Optional;
 @Repository
 public interface ReportRepository extends JpaRepository<Report, Long> {
 
+    @Override
+    @EntityGraph(Report.GRAPH_ROOM_AND_REPORTER)
+    Page<Report> findAll(Pageable pageable);
+
+    @EntityGraph(Report.GRAPH_ROOM_AND_REPORTER)
     Optional<Page<Report>> findAllByIsHandled(Boolean isHandled, Pageable pageable);
 
     void deleteByRoom(Room room);
@@ -0,0 +1,32 @@
+package com.c1se_01.roomiego.repository;
+
+import com.c1se_01.roomiego.model.RoomGeocodingJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RoomGeocodingJobRepository extends JpaRepository<RoomGeocodingJob, Long> {
+
+    /** The jobs due at the given time, oldest first. */
+    @Query("SELECT j FROM RoomGeocodingJob j WHERE j.nextAttemptAt <= :now ORDER BY j.nextAttemptAt, j.id")
+    List<RoomGeocodingJob> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claims a job read as due by pushing it to the end of the lease, unless another worker did first.
+     * @return 1 if claimed
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RoomGeocodingJob j SET j.nextAttemptAt = :leaseEnd "
+            + "WHERE j.id = :id AND j.nextAttemptAt = :seenNextAttemptAt")
+    int claim(@Param("id") Long id, @Param("seenNextAttemptAt") LocalDateTime seenNextAttemptAt,
+            @Param("leaseEnd") LocalDateTime leaseEnd);
+}
@@ -4,6 +4,11 @@ import com.c1se_01.roomiego.model.RoomImage;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface RoomImageRepository extends JpaRepository<RoomImage, Long> {
+    long countByRoomId(Long roomId);
+
+    Optional<RoomImage> findFirstByRoomIdOrderByIdAsc(Long roomId);
 }
@@ -1,13 +1,69 @@
 package com.c1se_01.roomiego.repository;
 
 import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.repository.projection.RoomFacetProjection;
+import com.c1se_01.roomiego.repository.projection.RoomLocationProjection;
+import com.c1se_01.roomiego.repository.projection.RoomSearchProjection;
+import com.c1se_01.roomiego.repository.projection.RoomVersionProjection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface RoomRepository extends JpaRepository<Room, Long>, JpaSpecificationExecutor<Room> {
+public interface RoomRepository extends JpaRepository<Room, Long>, JpaSpecificationExecutor<Room>,
+        RoomRepositoryCustom {
     List<Room> findByOwnerId(Long ownerId);
+
+    @Override
+    @EntityGraph(Room.GRAPH_OWNER)
+    Page<Room> findAll(Specification<Room> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(Room.GRAPH_OWNER)
+    List<Room> findAllById(Iterable<Long> ids);
+
+    @Query("""
+        SELECT r.id AS id, r.latitude AS latitude, r.longitude AS longitude FROM Room r
+        WHERE r.latitude IS NOT NULL AND r.longitude IS NOT NULL
+        AND (r.isRoomAvailable IS NULL OR r.isRoomAvailable = true)
+    """)
+    List<RoomLocationProjection> findAvailableLocations();
+
+    @Query("""
+        SELECT r.id AS id, r.latitude AS latitude, r.longitude AS longitude FROM Room r
+        WHERE r.latitude BETWEEN :minLatitude AND :maxLatitude
+        AND r.longitude BETWEEN :minLongitude AND :maxLongitude
+        AND (r.isRoomAvailable IS NULL OR r.isRoomAvailable = true)
+    """)
+    List<RoomLocationProjection> findAvailableLocationsWithin(@Param("minLatitude") double minLatitude,
+            @Param("maxLatitude") double maxLatitude, @Param("minLongitude") double minLongitude,
+            @Param("maxLongitude") double maxLongitude);
+
+    @Query("""
+        SELECT r.id AS id, r.title AS title, r.description AS description,
+        r.street AS street, r.ward AS ward, r.district AS district FROM Room r
+    """)
+    List<RoomSearchProjection> findAllSearchDocuments();
+
+    @Query("""
+        SELECT r.id AS id, r.city AS city, r.district AS district, r.ward AS ward,
+        r.price AS price, r.roomSize AS roomSize FROM Room r
+    """)
+    List<RoomFacetProjection> findAllFacetDocuments();
+
+    @Query("""
+        SELECT r.version AS version, r.updatedAt AS updatedAt,
+        o.version AS ownerVersion, o.updatedAt AS ownerUpdatedAt
+        FROM Room r JOIN r.owner o WHERE r.id = :id
+    """)
+    Optional<RoomVersionProjection> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,41 @@
+package com.c1se_01.roomiego.repository;
+
+import com.c1se_01.roomiego.model.Room;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface RoomRepositoryCustom {
+    /**
+     * Selects only the ids of the rooms matching the specification, without hydrating the entities.
+     */
+    List<Long> findIds(Specification<Room> spec);
+
+    /**
+     * Selects the ids of one page of the rooms matching the specification, in the page's order and without
+     * a count query.
+     */
+    List<Long> findIds(Specification<Room> spec, Pageable pageable);
+
+    /**
+     * Loads at most {@code limit} rooms matching the specification in the given order, without a count query.
+     */
+    List<Room> findSlice(Specification<Room> spec, Sort sort, int limit);
+
+    /**
+     * Streams the rooms matching the specification from a database cursor, {@code fetchSize} rows at a time.
+     * The rooms are read-only and detached as they are read so that the persistence context does not grow:
+     * only their columns and owner id are readable. The stream must be closed, within the transaction.
+     */
+    Stream<Room> stream(Specification<Room> spec, Sort sort, int fetchSize);
+
+    /**
+     * Bumps the version of a room whose dependent rows (its images) changed. The version is moved through the
+     * persistence context, so that a copy of the room already managed by the transaction stays in step and
+     * its own update is not rejected as stale.
+     */
+    void touch(Long id);
+}
@@ -0,0 +1,103 @@
+package com.c1se_01.roomiego.repository;
+
+import com.c1se_01.roomiego.model.Room;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class RoomRepositoryCustomImpl implements RoomRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIds(Specification<Room> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Room> root = query.from(Room.class);
+        query.select(root.get("id"));
+        applySpecification(spec, root, query, cb);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Room> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Room> root = query.from(Room.class);
+        query.select(root.get("id"));
+        applySpecification(spec, root, query, cb);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public List<Room> findSlice(Specification<Room> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Room> query = cb.createQuery(Room.class);
+        Root<Room> root = query.from(Room.class);
+        query.select(root);
+        applySpecification(spec, root, query, cb);
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Room> stream(Specification<Room> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Room> query = cb.createQuery(Room.class);
+        Root<Room> root = query.from(Room.class);
+        query.select(root);
+        applySpecification(spec, root, query, cb);
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(room -> {
+                    entityManager.detach(room);
+                    return room;
+                });
+    }
+
+    @Override
+    @Transactional
+    public void touch(Long id) {
+        Room room = entityManager.find(Room.class, id);
+        if (room == null) {
+            return;
+        }
+        // increments the version right away and records it on the managed room
+        entityManager.lock(room, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+        room.setUpdatedAt(new Date());
+    }
+
+    private static <T> void applySpecification(Specification<Room> spec, Root<Room> root, CriteriaQuery<T> query,
+            CriteriaBuilder cb) {
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.c1se_01.roomiego.repository;
+
+import com.c1se_01.roomiego.model.RoomSearchView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface RoomSearchViewRepository extends JpaRepository<RoomSearchView, Long> {
+    List<RoomSearchView> findByOwnerId(Long ownerId);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE RoomSearchView v SET v.ownerName = :ownerName
+        WHERE v.ownerId = :ownerId AND (v.ownerName IS NULL OR v.ownerName <> :ownerName)
+    """)
+    int updateOwnerName(@Param("ownerId") Long ownerId, @Param("ownerName") String ownerName);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE RoomSearchView v SET v.firstImageUrl = :firstImageUrl, v.imageCount = :imageCount
+        WHERE v.id = :roomId
+    """)
+    int updateImages(@Param("roomId") Long roomId, @Param("firstImageUrl") String firstImageUrl,
+            @Param("imageCount") int imageCount);
+}
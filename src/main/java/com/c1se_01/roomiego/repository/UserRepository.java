@@ -2,9 +2,16 @@ package com.c1se_01.roomiego.repository;
 
 import com.c1se_01.roomiego.enums.Role;
 import com.c1se_01.roomiego.model.User;
+import com.c1se_01.roomiego.repository.projection.UserProfileVersionProjection;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +26,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByEmailIn(List<String> receiverEmails);
 
     Optional<User> findByCitizenIdNumber(String citizenIdNumber);
+
+    /**
+     * Loads the user with their rooms in one query, for the public profile.
+     */
+    @EntityGraph(attributePaths = "rooms")
+    Optional<User> findWithRoomsById(Long id);
+
+    @Query("""
+        SELECT u.version AS version, u.updatedAt AS updatedAt, COUNT(r) AS roomCount, MAX(r.id) AS maxRoomId,
+        COALESCE(SUM(r.version), 0) AS roomVersions, MAX(r.updatedAt) AS roomsUpdatedAt
+        FROM User u LEFT JOIN u.rooms r WHERE u.id = :id
+        GROUP BY u.id, u.version, u.updatedAt
+    """)
+    Optional<UserProfileVersionProjection> findProfileVersionById(@Param("id") Long id);
+
+    /**
+     * Moves the modification time of a user whose profile changed without a change of the user row
+     * (one of their rooms was deleted). The version is left alone so that a loaded user can still be saved.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.updatedAt = :now WHERE u.id = :id")
+    int touch(@Param("id") Long id, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,24 @@
+package com.c1se_01.roomiego.repository.projection;
+
+/**
+ * A conversation of the inbox of a user, with the other participant and the unread count of the user.
+ */
+public interface ConversationInboxProjection {
+    Long getConversationId();
+
+    Long getLastMessageAt();
+
+    String getLastMessage();
+
+    Integer getUnreadCount();
+
+    Long getPartnerId();
+
+    String getPartnerEmail();
+
+    String getPartnerName();
+
+    String getPartnerPhone();
+
+    String getPartnerRole();
+}
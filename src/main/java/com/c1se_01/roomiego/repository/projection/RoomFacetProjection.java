@@ -0,0 +1,20 @@
+package com.c1se_01.roomiego.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * The faceted fields of a room, used to build the in-memory facet index without hydrating rooms.
+ */
+public interface RoomFacetProjection {
+    Long getId();
+
+    String getCity();
+
+    String getDistrict();
+
+    String getWard();
+
+    BigDecimal getPrice();
+
+    Float getRoomSize();
+}
@@ -0,0 +1,12 @@
+package com.c1se_01.roomiego.repository.projection;
+
+/**
+ * Id and coordinates of a room, used to build the in-memory spatial index without hydrating rooms.
+ */
+public interface RoomLocationProjection {
+    Long getId();
+
+    Double getLatitude();
+
+    Double getLongitude();
+}
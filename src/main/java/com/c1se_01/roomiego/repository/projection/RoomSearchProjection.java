@@ -0,0 +1,18 @@
+package com.c1se_01.roomiego.repository.projection;
+
+/**
+ * Id and searchable text of a room, used to build the in-memory full-text index without hydrating rooms.
+ */
+public interface RoomSearchProjection {
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getStreet();
+
+    String getWard();
+
+    String getDistrict();
+}
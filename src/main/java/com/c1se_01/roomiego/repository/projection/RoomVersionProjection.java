@@ -0,0 +1,17 @@
+package com.c1se_01.roomiego.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * The version stamps of a room and of its owner, the validators of the room detail.
+ */
+public interface RoomVersionProjection {
+    Long getVersion();
+
+    Date getUpdatedAt();
+
+    Long getOwnerVersion();
+
+    LocalDateTime getOwnerUpdatedAt();
+}
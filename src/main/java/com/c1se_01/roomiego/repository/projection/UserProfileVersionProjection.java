@@ -0,0 +1,21 @@
+package com.c1se_01.roomiego.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * The version stamps of a user and aggregated ones of their rooms, the validators of the public profile.
+ */
+public interface UserProfileVersionProjection {
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getRoomCount();
+
+    Long getMaxRoomId();
+
+    Long getRoomVersions();
+
+    Date getRoomsUpdatedAt();
+}
@@ -9,6 +9,7 @@ public interface FptAiService {
    * 
    * @param imageBase64 Base64 encoded image of the ID card
    * @return FptAiIdRecognitionResponse containing extracted information
+   * @throws com.c1se_01.roomiego.exception.ServiceUnavailableException while FPT.AI is failing or saturated
    */
   FptAiIdRecognitionResponse recognizeIdCard(String imageBase64);
 }
@@ -1,6 +1,8 @@
 package com.c1se_01.roomiego.service;
 
+import com.c1se_01.roomiego.common.SliceCustom;
 import com.c1se_01.roomiego.dto.MessageDto;
+import com.c1se_01.roomiego.dto.MessageHistoryDTO;
 import com.c1se_01.roomiego.dto.SendMessageRequest;
 import com.c1se_01.roomiego.model.Message;
 import com.c1se_01.roomiego.enums.MessageType;
@@ -19,11 +21,44 @@ public interface MessageService {
 
     List<Message> findChatHistoryBetweenUsers(String user1, String user2);
 
+    /**
+     * One page of the history of the conversation between two users, empty if they have none.
+     * @see #getMessagesByConversationId(Long, String, String, int)
+     */
+    MessageHistoryDTO findChatHistoryBetweenUsers(String user1, String user2, String before, String after, int size);
+
     List<Message> findByType(MessageType type);
 
     List<ConversationSummaryDTO> getConversationsForUser(Long userId);
 
+    /**
+     * One slice of the inbox of a user, latest activity first.
+     * @param cursor the cursor of the previous slice, null or empty for the first
+     */
+    SliceCustom<ConversationSummaryDTO> getInbox(Long userId, String cursor, int size);
+
+    /**
+     * Clears the unread count of the user in the conversation.
+     * @throws com.c1se_01.roomiego.exception.NotFoundException if the user takes no part in the conversation
+     */
+    void markConversationRead(Long conversationId, Long userId);
+
     List<Message> getMessagesByConversationId(Long conversationId);
 
+    /**
+     * One page of the history of a conversation: the newest messages, or the ones before or after a cursor
+     * of a page loaded earlier.
+     * @param before the cursor to load the messages older than, null or empty if none
+     * @param after  the cursor to load the messages newer than, null or empty if none
+     */
+    MessageHistoryDTO getMessagesByConversationId(Long conversationId, String before, String after, int size);
+
     List<Message> getOrCreateConversationMessages(Long userId1, Long userId2);
+
+    /**
+     * One page of the history of the conversation between two users, created if they have none.
+     * @see #getMessagesByConversationId(Long, String, String, int)
+     */
+    MessageHistoryDTO getOrCreateConversationMessages(Long userId1, Long userId2, String before, String after,
+            int size);
 }
@@ -1,17 +1,46 @@
 package com.c1se_01.roomiego.service;
 
+import com.c1se_01.roomiego.common.SliceCustom;
+import com.c1se_01.roomiego.dto.FacetCount;
 import com.c1se_01.roomiego.dto.RoomDTO;
 import com.c1se_01.roomiego.dto.common.FilterParam;
+import com.c1se_01.roomiego.dto.common.ResourceVersion;
+import com.c1se_01.roomiego.enums.ExportFormat;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 public interface RoomService {
     RoomDTO createRoom(RoomDTO roomDTO, Long ownerId);
     RoomDTO updateRoom(Long id, RoomDTO roomDTO, Long ownerId);
 
     List<RoomDTO> getAllRooms(FilterParam filter);
+    SliceCustom<RoomDTO> getRoomsByCursor(FilterParam filter);
+    Map<String, List<FacetCount>> getFacets(FilterParam filter);
     List<RoomDTO> getRoomsByOwner(Long ownerId);
+
+    /**
+     * Writes every room matching the filter, and modified at or after {@code since} if given, to the stream
+     * in the requested format, oldest modification first. The rooms are streamed from a database cursor,
+     * so memory use does not depend on the number of rooms.
+     */
+    void exportRooms(FilterParam filter, Date since, ExportFormat format, OutputStream out) throws IOException;
     RoomDTO getRoomById(Long id);
+
+    /**
+     * The validators of {@link #getRoomById(Long)}, read without loading the room.
+     * @throws com.c1se_01.roomiego.exception.NotFoundException if the room does not exist
+     */
+    ResourceVersion getRoomVersion(Long id);
+
+    /**
+     * The validators of {@link #getAllRooms(FilterParam)}, read from memory: they change whenever any listed room
+     * or owner does.
+     */
+    ResourceVersion getListingVersion();
     void deleteRoom(Long id);
 
     void hideRoom(Long roomId);
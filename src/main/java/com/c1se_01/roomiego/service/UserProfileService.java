@@ -1,7 +1,13 @@
 package com.c1se_01.roomiego.service;
 
 import com.c1se_01.roomiego.dto.UserDetailDTO;
+import com.c1se_01.roomiego.dto.common.ResourceVersion;
 
 public interface UserProfileService {
   UserDetailDTO getUserProfile(Long userId);
+
+  /**
+   * The validators of {@link #getUserProfile(Long)}, read without loading the user or their rooms.
+   */
+  ResourceVersion getUserProfileVersion(Long userId);
 }
\ No newline at end of file
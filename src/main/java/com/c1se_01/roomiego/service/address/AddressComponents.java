@@ -0,0 +1,88 @@
+package com.c1se_01.roomiego.service.address;
+
+import com.c1se_01.roomiego.dto.LocationResponse;
+import com.c1se_01.roomiego.utils.VietnameseTextUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An address split by {@link AddressParser}. The administrative units are the ones of the gazetteer, the house
+ * number and the street are kept as written.
+ * @param houseNumber the house number with its alley if any, e.g. "K12/3", null if none
+ * @param street      the street without its "Đường" prefix, null if none
+ * @param resolved    false if some of the text is neither a house number, a street nor a known unit, e.g. the
+ *                    name of a landmark or a unit missing from the gazetteer
+ */
+public record AddressComponents(String houseNumber, String street, AdminUnit ward, AdminUnit district,
+        AdminUnit province, boolean resolved) {
+
+    /** The smallest unit of the address, null if none. */
+    public AdminUnit finest() {
+        return ward != null ? ward : district != null ? district : province;
+    }
+
+    /**
+     * Whether the address names administrative units only, which the gazetteer locates by itself.
+     */
+    public boolean isAdministrative() {
+        return resolved && houseNumber == null && street == null && finest() != null;
+    }
+
+    /**
+     * A key equal for all the spellings of the address: folded, without the unit types, with the units
+     * left out of the text filled in from the gazetteer.
+     * @return the key, or null if the address is not fully resolved down from its province
+     */
+    public String cacheKey() {
+        if (!resolved || province == null) {
+            return null;
+        }
+        List<String> parts = new ArrayList<>(4);
+        String place = join(houseNumber == null ? null : VietnameseTextUtils.fold(houseNumber),
+                street == null ? null : AdminUnit.fold(street));
+        if (!place.isEmpty()) {
+            parts.add(place);
+        }
+        for (AdminUnit unit : new AdminUnit[] {ward, district, province}) {
+            if (unit != null) {
+                parts.add(unit.foldedName());
+            }
+        }
+        return String.join(", ", parts);
+    }
+
+    /**
+     * The address written in full, e.g. "254 Nguyễn Văn Linh, Phường Thạc Gián, Quận Thanh Khê, Thành phố Đà Nẵng".
+     */
+    public String format() {
+        List<String> parts = new ArrayList<>(4);
+        String place = join(houseNumber, street);
+        if (!place.isEmpty()) {
+            parts.add(place);
+        }
+        for (AdminUnit unit : new AdminUnit[] {ward, district, province}) {
+            if (unit != null) {
+                parts.add(unit.displayName());
+            }
+        }
+        return String.join(", ", parts);
+    }
+
+    /**
+     * The reference point of the smallest unit, located as the address.
+     * @return the location, or null if the address names no unit
+     */
+    public LocationResponse.LocationData centroid() {
+        AdminUnit unit = finest();
+        return unit == null ? null
+                : new LocationResponse.LocationData(format(), unit.latitude(), unit.longitude(), null);
+    }
+
+    private static String join(String houseNumber, String street) {
+        if (houseNumber == null) {
+            return street == null ? "" : street;
+        }
+        return street == null ? houseNumber : houseNumber + " " + street;
+    }
+}
@@ -0,0 +1,400 @@
+package com.c1se_01.roomiego.service.address;
+
+import com.c1se_01.roomiego.utils.VietnameseTextUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits a free-text Vietnamese address into its house number, street, ward, district and province.
+ * The text is cut into parts at the commas and at the type words ("số nhà", "đường", "phường", "quận",
+ * "thành phố"... and their abbreviations), then the parts are matched against the {@link Gazetteer} from the
+ * province down: a part without a type word is split by the longest names of units ending it. What is left
+ * at the start of the address is the house number and the street.
+ */
+@Component
+@RequiredArgsConstructor
+public class AddressParser {
+
+    /** What the type word before a part says it is. */
+    private enum Label {
+        NONE, STREET,
+        WARD(AdminUnit.Level.WARD),
+        DISTRICT(AdminUnit.Level.DISTRICT),
+        CITY(AdminUnit.Level.PROVINCE, AdminUnit.Level.DISTRICT),
+        PROVINCE(AdminUnit.Level.PROVINCE);
+
+        private final Set<AdminUnit.Level> levels;
+
+        Label(AdminUnit.Level... levels) {
+            this.levels = levels.length == 0 ? EnumSet.noneOf(AdminUnit.Level.class) : EnumSet.of(levels[0], levels);
+        }
+    }
+
+    /**
+     * A type word. Recognized with its diacritics anywhere, or without them at the start of a part only,
+     * since "duong" or "phuong" are also syllables of names.
+     */
+    private record Keyword(List<String> words, List<String> folded, Label label) {
+        private static Keyword of(String text, Label label) {
+            List<String> words = List.of(text.split(" "));
+            return new Keyword(words, words.stream().map(VietnameseTextUtils::fold).toList(), label);
+        }
+    }
+
+    /** Longest first, so that "thành phố" wins over "phố". */
+    private static final List<Keyword> KEYWORDS = List.of(
+            Keyword.of("thành phố", Label.CITY),
+            Keyword.of("thị trấn", Label.WARD),
+            Keyword.of("thị xã", Label.DISTRICT),
+            Keyword.of("tp.", Label.CITY),
+            Keyword.of("tp", Label.CITY),
+            Keyword.of("tỉnh", Label.PROVINCE),
+            Keyword.of("quận", Label.DISTRICT),
+            Keyword.of("huyện", Label.DISTRICT),
+            Keyword.of("tx.", Label.DISTRICT),
+            Keyword.of("q.", Label.DISTRICT),
+            Keyword.of("phường", Label.WARD),
+            Keyword.of("xã", Label.WARD),
+            Keyword.of("tt.", Label.WARD),
+            Keyword.of("p.", Label.WARD),
+            Keyword.of("đường", Label.STREET),
+            Keyword.of("phố", Label.STREET),
+            Keyword.of("đ.", Label.STREET))
+            .stream()
+            .sorted(Comparator.comparingInt((Keyword keyword) -> keyword.words().size()).reversed())
+            .toList();
+
+    private static final Pattern PART_SEPARATOR = Pattern.compile("[,;\\n]+");
+    /** An abbreviated type glued to the name, e.g. "Q.1", "P12" or "TP.HCM". */
+    private static final Pattern GLUED_ABBREVIATION = Pattern.compile("(?i)(q|p|tp|tx|tt|đ)\\.(\\S+)");
+    private static final Pattern GLUED_NUMBER = Pattern.compile("(?i)([qp])(\\d{1,2})");
+    private static final Pattern SINGLE_ABBREVIATION = Pattern.compile("(?i)[qp]");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern LEADING_ZEROS = Pattern.compile("^0+(?=\\d)");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    /** A house number, with its alley, e.g. "12", "12A", "12/3", "K12/3" or "12-14", folded. */
+    private static final Pattern HOUSE_NUMBER = Pattern.compile("[kh]?\\d+[a-z]?(?:[/-]\\d+[a-z]?)*");
+    private static final Set<String> HOUSE_WORDS = Set.of("so", "nha");
+    private static final Set<String> ALLEY_WORDS = Set.of("kiet", "hem", "ngo", "ngach");
+    private static final Set<List<String>> COUNTRY = Set.of(List.of("viet", "nam"), List.of("vietnam"),
+            List.of("vn"));
+    private static final Set<AdminUnit.Level> ANY_LEVEL = EnumSet.allOf(AdminUnit.Level.class);
+
+    private final Gazetteer gazetteer;
+
+    /**
+     * A part of the address, with its words as written and folded.
+     */
+    private record Part(Label label, List<String> words, List<String> folded) {
+        private Part from(int index) {
+            return new Part(label, words.subList(index, words.size()), folded.subList(index, folded.size()));
+        }
+    }
+
+    /** The components found so far. */
+    private static final class Components {
+        private String houseNumber;
+        private String street;
+        private AdminUnit ward;
+        private AdminUnit district;
+        private AdminUnit province;
+        private boolean resolved = true;
+
+        private AdminUnit get(AdminUnit.Level level) {
+            return switch (level) {
+                case PROVINCE -> province;
+                case DISTRICT -> district;
+                case WARD -> ward;
+            };
+        }
+
+        private void set(AdminUnit unit) {
+            switch (unit.level()) {
+                case PROVINCE -> province = unit;
+                case DISTRICT -> district = unit;
+                case WARD -> ward = unit;
+            }
+        }
+
+        /** Whether the unit lies within the units found, and contains the smaller ones. */
+        private boolean admits(AdminUnit unit) {
+            for (AdminUnit found : new AdminUnit[] {province, district, ward}) {
+                if (found == null) {
+                    continue;
+                }
+                int order = found.level().compareTo(unit.level());
+                if (order == 0 || order < 0 && !found.contains(unit) || order > 0 && !unit.contains(found)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Parses the address. Never fails: what cannot be made sense of leaves the components unresolved.
+     */
+    public AddressComponents parse(String address) {
+        List<Part> parts = split(address);
+        Components components = new Components();
+        if (!parts.isEmpty() && parts.get(0).label() == Label.NONE) {
+            Part rest = takeHouseNumber(parts.get(0), components);
+            if (rest.words().isEmpty()) {
+                parts.remove(0);
+            } else {
+                parts.set(0, rest);
+            }
+        }
+
+        // from the province down, so that the smaller units are looked up within the larger ones
+        int firstUnitPart = parts.size();
+        int leftoverPart = -1;
+        int leftoverLength = 0;
+        int leftovers = 0;
+        for (int i = parts.size() - 1; i >= 0; i--) {
+            Part part = parts.get(i);
+            switch (part.label()) {
+                case NONE -> {
+                    int unmatched = matchUnits(part, components, 0);
+                    if (unmatched < part.words().size()) {
+                        firstUnitPart = i;
+                    }
+                    if (unmatched > 0) {
+                        leftovers++;
+                        leftoverPart = i;
+                        leftoverLength = unmatched;
+                    }
+                }
+                case STREET -> {
+                    // the units glued to the street, which keeps at least its first word
+                    int street = matchUnits(part, components, 1);
+                    if (street < part.words().size()) {
+                        firstUnitPart = i;
+                    }
+                    if (components.street == null) {
+                        components.street = String.join(" ", part.words().subList(0, street));
+                    } else {
+                        components.resolved = false;
+                    }
+                }
+                default -> {
+                    AdminUnit unit = pick(gazetteer.named(numbered(part.folded())), part.label().levels, components);
+                    if (unit == null) {
+                        components.resolved = false;
+                    } else {
+                        components.set(unit);
+                        firstUnitPart = i;
+                    }
+                }
+            }
+        }
+        // a single unknown text before the units is the street, anything else is not understood
+        if (leftovers == 1 && leftoverPart <= firstUnitPart && components.street == null) {
+            components.street = String.join(" ", parts.get(leftoverPart).words().subList(0, leftoverLength));
+        } else if (leftovers > 0) {
+            components.resolved = false;
+        }
+
+        if (components.ward != null && components.district == null) {
+            components.district = gazetteer.parentOf(components.ward).orElse(null);
+        }
+        if (components.district != null && components.province == null) {
+            components.province = gazetteer.parentOf(components.district).orElse(null);
+        }
+        return new AddressComponents(components.houseNumber, components.street, components.ward,
+                components.district, components.province, components.resolved);
+    }
+
+    /**
+     * Matches the names of units ending the part, from the last one back.
+     * @param keep the number of words at the start of the part not to match
+     * @return the number of words left unmatched at the start of the part
+     */
+    private int matchUnits(Part part, Components components, int keep) {
+        int end = part.folded().size();
+        boolean matched = true;
+        while (end > keep && matched) {
+            matched = false;
+            List<String> words = part.folded().subList(0, end);
+            // the first start wins, so the longest name ending the words
+            for (int from = keep; from < end && !matched; from++) {
+                for (NameTrie.Match<AdminUnit> match : gazetteer.namesStartingAt(words, from)) {
+                    if (from + match.length() != end) {
+                        continue;
+                    }
+                    // numbered units are only named after their type, "1" alone is no district
+                    AdminUnit unit = isNumber(words.subList(from, end)) ? null
+                            : pick(match.values(), ANY_LEVEL, components);
+                    if (unit != null) {
+                        components.set(unit);
+                        end = from;
+                        matched = true;
+                    }
+                    break;
+                }
+            }
+        }
+        return end;
+    }
+
+    /**
+     * The largest of the units that fit the units found, null if none or if several of that size do.
+     */
+    private static AdminUnit pick(List<AdminUnit> candidates, Set<AdminUnit.Level> levels, Components components) {
+        AdminUnit best = null;
+        boolean ambiguous = false;
+        for (AdminUnit candidate : candidates) {
+            if (!levels.contains(candidate.level()) || components.get(candidate.level()) != null
+                    || !components.admits(candidate)) {
+                continue;
+            }
+            if (best == null || candidate.level().compareTo(best.level()) < 0) {
+                best = candidate;
+                ambiguous = false;
+            } else if (candidate.level() == best.level() && !candidate.equals(best)) {
+                ambiguous = true;
+            }
+        }
+        return ambiguous ? null : best;
+    }
+
+    /**
+     * Takes the house number leading the first part, e.g. "Số 12", "K12/3" or "Kiệt 12".
+     * @return the rest of the part
+     */
+    private static Part takeHouseNumber(Part part, Components components) {
+        List<String> folded = part.folded();
+        int start = 0;
+        while (start < folded.size() && HOUSE_WORDS.contains(folded.get(start))) {
+            start++;
+        }
+        int number = start < folded.size() && ALLEY_WORDS.contains(folded.get(start)) ? start + 1 : start;
+        if (number >= part.words().size()
+                || !HOUSE_NUMBER.matcher(VietnameseTextUtils.fold(part.words().get(number))).matches()) {
+            return part;
+        }
+        components.houseNumber = String.join(" ", part.words().subList(start, number + 1));
+        return part.from(number + 1);
+    }
+
+    /**
+     * Cuts the address into parts at the separators and the type words.
+     */
+    private static List<Part> split(String address) {
+        List<Part> parts = new ArrayList<>();
+        if (address == null) {
+            return parts;
+        }
+        String text = Normalizer.normalize(address, Normalizer.Form.NFC).strip();
+        for (String segment : PART_SEPARATOR.split(text)) {
+            List<String> words = expand(WHITESPACE.split(segment.strip()));
+            Label label = Label.NONE;
+            int start = 0;
+            for (int i = 0; i < words.size(); ) {
+                Keyword keyword = keywordAt(words, i);
+                if (keyword == null) {
+                    i++;
+                    continue;
+                }
+                addPart(parts, label, words.subList(start, i));
+                label = keyword.label();
+                i += keyword.words().size();
+                start = i;
+            }
+            addPart(parts, label, words.subList(start, words.size()));
+        }
+        return parts;
+    }
+
+    private static void addPart(List<Part> parts, Label label, List<String> words) {
+        List<String> kept = new ArrayList<>(words.size());
+        List<String> folded = new ArrayList<>(words.size());
+        for (String word : words) {
+            String foldedWord = NON_ALPHANUMERIC.matcher(VietnameseTextUtils.fold(word)).replaceAll("");
+            if (!foldedWord.isEmpty()) {
+                kept.add(word);
+                folded.add(foldedWord);
+            }
+        }
+        // the country adds nothing
+        for (List<String> country : COUNTRY) {
+            int size = folded.size();
+            if (size >= country.size() && folded.subList(size - country.size(), size).equals(country)) {
+                kept = kept.subList(0, size - country.size());
+                folded = folded.subList(0, size - country.size());
+                break;
+            }
+        }
+        if (!kept.isEmpty()) {
+            parts.add(new Part(label, kept, folded));
+        }
+    }
+
+    /**
+     * The type word starting at the word, if any. A type word ending the part is taken as a name.
+     */
+    private static Keyword keywordAt(List<String> words, int index) {
+        for (Keyword keyword : KEYWORDS) {
+            int size = keyword.words().size();
+            if (index + size >= words.size()) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < size && matches; i++) {
+                String word = words.get(index + i);
+                matches = word.toLowerCase(Locale.ROOT).equals(keyword.words().get(i))
+                        || index == 0 && VietnameseTextUtils.fold(word).equals(keyword.folded().get(i));
+            }
+            if (matches) {
+                return keyword;
+            }
+        }
+        return null;
+    }
+
+    /** Splits the abbreviated types glued to the names, and dots the ones before a number, "Q 1". */
+    private static List<String> expand(String[] words) {
+        List<String> expanded = new ArrayList<>(words.length + 2);
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            Matcher glued = GLUED_ABBREVIATION.matcher(word);
+            Matcher gluedNumber = GLUED_NUMBER.matcher(word);
+            if (glued.matches()) {
+                expanded.add(glued.group(1).toLowerCase(Locale.ROOT) + ".");
+                expanded.add(glued.group(2));
+            } else if (gluedNumber.matches()) {
+                expanded.add(gluedNumber.group(1).toLowerCase(Locale.ROOT) + ".");
+                expanded.add(gluedNumber.group(2));
+            } else if (SINGLE_ABBREVIATION.matcher(word).matches() && i + 1 < words.length
+                    && NUMBER.matcher(words[i + 1]).matches()) {
+                expanded.add(word.toLowerCase(Locale.ROOT) + ".");
+            } else if (!word.isEmpty()) {
+                expanded.add(word);
+            }
+        }
+        return expanded;
+    }
+
+    /** The name of a numbered unit without its leading zeros, "01" is "1". */
+    private static List<String> numbered(List<String> folded) {
+        if (folded.size() == 1 && isNumber(folded)) {
+            return List.of(LEADING_ZEROS.matcher(folded.get(0)).replaceFirst(""));
+        }
+        return folded;
+    }
+
+    private static boolean isNumber(List<String> folded) {
+        return folded.stream().allMatch(word -> NUMBER.matcher(word).matches());
+    }
+}
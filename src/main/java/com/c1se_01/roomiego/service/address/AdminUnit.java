@@ -0,0 +1,72 @@
+package com.c1se_01.roomiego.service.address;
+
+import com.c1se_01.roomiego.utils.VietnameseTextUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A province, district or ward of the {@link Gazetteer}.
+ * @param type      the kind of unit as written before its name, e.g. "Quận" or "Thị xã"
+ * @param name      the name without the type, e.g. "Hải Châu" or "1"
+ * @param district  the name of the district of a ward, null otherwise
+ * @param province  the name of the province of a district or ward, null for a province
+ * @param latitude  the latitude of the reference point of the unit
+ * @param longitude the longitude of the reference point of the unit
+ * @param aliases   other names of the unit, e.g. "Sài Gòn"
+ */
+public record AdminUnit(Level level, String type, String name, String district, String province,
+        double latitude, double longitude, List<String> aliases) {
+
+    public enum Level {
+        PROVINCE, DISTRICT, WARD
+    }
+
+    /** The name as written in an address, e.g. "Quận Hải Châu". */
+    public String displayName() {
+        return type + " " + name;
+    }
+
+    /** The folded name, e.g. "hai chau". */
+    public String foldedName() {
+        return fold(name);
+    }
+
+    /**
+     * Identifies the unit by its folded name and the ones of its parents, e.g. "da nang/hai chau".
+     */
+    public String key() {
+        return String.join("/", path());
+    }
+
+    /** The key of the district or province containing the unit, null for a province. */
+    public String parentKey() {
+        List<String> path = path();
+        return path.size() == 1 ? null : String.join("/", path.subList(0, path.size() - 1));
+    }
+
+    /**
+     * Whether the other unit lies within this one.
+     */
+    public boolean contains(AdminUnit other) {
+        List<String> path = path();
+        List<String> otherPath = other.path();
+        return otherPath.size() > path.size() && otherPath.subList(0, path.size()).equals(path);
+    }
+
+    private List<String> path() {
+        List<String> path = new ArrayList<>(3);
+        if (province != null) {
+            path.add(fold(province));
+        }
+        if (district != null) {
+            path.add(fold(district));
+        }
+        path.add(fold(name));
+        return path;
+    }
+
+    static String fold(String name) {
+        return String.join(" ", VietnameseTextUtils.tokenize(name));
+    }
+}
@@ -0,0 +1,141 @@
+package com.c1se_01.roomiego.service.address;
+
+import com.c1se_01.roomiego.utils.VietnameseTextUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Local gazetteer of the provinces, districts and wards of Vietnam, with a reference point for each, so that
+ * an address naming only administrative units is geocoded without a network call. The units are loaded
+ * from the bundled {@code gazetteer/vn-admin-units.csv} and looked up by their folded names and aliases.
+ */
+@Slf4j
+@Component
+public class Gazetteer {
+
+    static final String RESOURCE = "gazetteer/vn-admin-units.csv";
+
+    private final Map<String, AdminUnit> units = new HashMap<>();
+    private final NameTrie<AdminUnit> names = new NameTrie<>();
+
+    /**
+     * Loads the bundled units.
+     */
+    public Gazetteer() {
+        this(load(RESOURCE));
+        log.info("Loaded {} administrative units into the gazetteer", units.size());
+    }
+
+    /**
+     * @param units the units, the parents of each must be among them
+     */
+    public Gazetteer(List<AdminUnit> units) {
+        for (AdminUnit unit : units) {
+            if (this.units.putIfAbsent(unit.key(), unit) != null) {
+                throw new IllegalArgumentException("Duplicate administrative unit: " + unit.key());
+            }
+            List<String> name = VietnameseTextUtils.tokenize(unit.name());
+            names.put(name, unit);
+            for (String alias : unit.aliases()) {
+                List<String> aliasWords = VietnameseTextUtils.tokenize(alias);
+                if (!aliasWords.isEmpty() && !aliasWords.equals(name)) {
+                    names.put(aliasWords, unit);
+                }
+            }
+        }
+        for (AdminUnit unit : units) {
+            if (unit.parentKey() != null && !this.units.containsKey(unit.parentKey())) {
+                throw new IllegalArgumentException("Unknown parent of administrative unit: " + unit.key());
+            }
+        }
+    }
+
+    /**
+     * The units of exactly this name or alias.
+     * @param words the folded words of the name
+     */
+    public List<AdminUnit> named(List<String> words) {
+        return names.get(words);
+    }
+
+    /**
+     * The names of units starting at a word of the text, shortest first.
+     * @param words the folded words of the text
+     */
+    public List<NameTrie.Match<AdminUnit>> namesStartingAt(List<String> words, int from) {
+        return names.prefixMatches(words, from);
+    }
+
+    /**
+     * The district of a ward, or the province of a district.
+     */
+    public Optional<AdminUnit> parentOf(AdminUnit unit) {
+        return Optional.ofNullable(unit.parentKey()).map(units::get);
+    }
+
+    public int size() {
+        return units.size();
+    }
+
+    static List<AdminUnit> load(String resource) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(resource).getInputStream(), StandardCharsets.UTF_8))) {
+            List<AdminUnit> loaded = new ArrayList<>();
+            boolean header = true;
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                loaded.add(parse(line, lineNumber));
+            }
+            return loaded;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load the gazetteer from " + resource, e);
+        }
+    }
+
+    /**
+     * Parses a {@code type,name,district,province,latitude,longitude,aliases} row.
+     */
+    static AdminUnit parse(String line, int lineNumber) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != 7) {
+            throw new IllegalStateException("Malformed gazetteer row " + lineNumber + ": " + line);
+        }
+        String district = blankToNull(columns[2]);
+        String province = blankToNull(columns[3]);
+        AdminUnit.Level level = province == null ? AdminUnit.Level.PROVINCE
+                : district == null ? AdminUnit.Level.DISTRICT : AdminUnit.Level.WARD;
+        List<String> aliases = columns[6].isBlank() ? List.of()
+                : Arrays.stream(columns[6].split("\\|")).map(String::strip).toList();
+        try {
+            return new AdminUnit(level, columns[0].strip(), columns[1].strip(), district, province,
+                    Double.parseDouble(columns[4]), Double.parseDouble(columns[5]), aliases);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Malformed coordinates in gazetteer row " + lineNumber + ": " + line);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value.isBlank() ? null : value.strip();
+    }
+}
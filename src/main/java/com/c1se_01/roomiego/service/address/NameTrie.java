@@ -0,0 +1,88 @@
+package com.c1se_01.roomiego.service.address;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie of names keyed by their folded words, which finds all the names starting at a word of a text in one
+ * walk. A name may stand for several values, e.g. the wards of the same name in different districts.
+ * Not thread-safe while being filled, safe to read once filled.
+ *
+ * @param <V> the values named
+ */
+public class NameTrie<V> {
+
+    /**
+     * A name found in a text.
+     * @param length the number of words of the name
+     * @param values the values of that name
+     */
+    public record Match<V>(int length, List<V> values) {
+    }
+
+    private static final class Node<V> {
+        private final Map<String, Node<V>> children = new HashMap<>();
+        private final List<V> values = new ArrayList<>(1);
+    }
+
+    private final Node<V> root = new Node<>();
+    private int size;
+
+    /**
+     * Adds a value under the name.
+     * @param words the folded words of the name
+     */
+    public void put(List<String> words, V value) {
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException("A name has at least one word");
+        }
+        Node<V> node = root;
+        for (String word : words) {
+            node = node.children.computeIfAbsent(word, w -> new Node<>());
+        }
+        node.values.add(value);
+        size++;
+    }
+
+    /**
+     * The values of exactly this name, empty if none.
+     */
+    public List<V> get(List<String> words) {
+        Node<V> node = root;
+        for (String word : words) {
+            node = node.children.get(word);
+            if (node == null) {
+                return List.of();
+            }
+        }
+        return Collections.unmodifiableList(node.values);
+    }
+
+    /**
+     * The names starting at a word of the text, shortest first.
+     * @param words the folded words of the text
+     * @param from  the index of the first word of the names
+     */
+    public List<Match<V>> prefixMatches(List<String> words, int from) {
+        List<Match<V>> matches = new ArrayList<>();
+        Node<V> node = root;
+        for (int i = from; i < words.size(); i++) {
+            node = node.children.get(words.get(i));
+            if (node == null) {
+                break;
+            }
+            if (!node.values.isEmpty()) {
+                matches.add(new Match<>(i - from + 1, Collections.unmodifiableList(node.values)));
+            }
+        }
+        return matches;
+    }
+
+    /** The number of values added. */
+    public int size() {
+        return size;
+    }
+}
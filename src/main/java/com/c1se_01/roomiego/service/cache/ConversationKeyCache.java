@@ -0,0 +1,50 @@
+package com.c1se_01.roomiego.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the conversation id of each pair of users, so that the messages of an open chat resolve
+ * their conversation without a query. A pair keeps its conversation for good, the entries are only
+ * evicted to bound the memory.
+ */
+@Component
+public class ConversationKeyCache {
+
+    static final int MAX_ENTRIES = 100_000;
+    static final Duration IDLE_TTL = Duration.ofHours(12);
+
+    record PairKey(long minUserId, long maxUserId) {
+    }
+
+    private final Cache<PairKey, Long> conversationIds = Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfterAccess(IDLE_TTL)
+            .recordStats()
+            .build();
+
+    /**
+     * Returns the cached conversation id of the pair, in either order, resolving it on a miss.
+     * @param loader finds or creates the conversation of the pair
+     */
+    public Long get(Long userId, Long otherUserId, Supplier<Long> loader) {
+        // not loaded through Cache.get: a loader creating a conversation would block its hash bin
+        PairKey key = new PairKey(Math.min(userId, otherUserId), Math.max(userId, otherUserId));
+        Long cached = conversationIds.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        return conversationIds.asMap().merge(key, loader.get(), (existing, loaded) -> existing);
+    }
+
+    /**
+     * The underlying cache, exposed for metrics.
+     */
+    public Cache<?, Long> cache() {
+        return conversationIds;
+    }
+}
@@ -0,0 +1,58 @@
+package com.c1se_01.roomiego.service.cache;
+
+import com.c1se_01.roomiego.dto.DistanceMatrixResult;
+import com.c1se_01.roomiego.utils.GeoUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded, TTL'd cache of the Distance Matrix routes per origin cell, destination cell and travel mode.
+ * The cells are geohashes of about 150 m, so the rooms of one block share the route to a destination and
+ * ranking the same rooms again is answered from memory. Only the routes found are cached.
+ */
+@Component
+public class DistanceMatrixCache {
+
+    /** Geohash length of the cells, about 150 m by 150 m. */
+    public static final int GEOHASH_PRECISION = 7;
+
+    static final int MAX_ENTRIES = 100_000;
+    static final Duration TTL = Duration.ofHours(24);
+
+    record PairKey(String originCell, String destinationCell, String travelMode) {
+    }
+
+    private final Cache<PairKey, DistanceMatrixResult> routes = Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfterWrite(TTL)
+            .recordStats()
+            .build();
+
+    /**
+     * The geohash of the cell containing the point.
+     */
+    public static String cellOf(double latitude, double longitude) {
+        return GeoUtils.geohash(latitude, longitude, GEOHASH_PRECISION);
+    }
+
+    /**
+     * @return the cached route between the cells, or null on a miss
+     */
+    public DistanceMatrixResult get(String originCell, String destinationCell, String travelMode) {
+        return routes.getIfPresent(new PairKey(originCell, destinationCell, travelMode));
+    }
+
+    public void put(String originCell, String destinationCell, String travelMode, DistanceMatrixResult result) {
+        routes.put(new PairKey(originCell, destinationCell, travelMode), result);
+    }
+
+    /**
+     * The underlying cache, exposed for metrics.
+     */
+    public Cache<?, DistanceMatrixResult> cache() {
+        return routes;
+    }
+}
@@ -0,0 +1,172 @@
+package com.c1se_01.roomiego.service.cache;
+
+import com.c1se_01.roomiego.dto.LocationResponse;
+import com.c1se_01.roomiego.model.GeocodeCacheEntry;
+import com.c1se_01.roomiego.repository.GeocodeCacheRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Two-tier cache of geocoding results: a bounded in-memory LRU in front of the {@code geocode_cache} table,
+ * which survives restarts and is shared by the instances. Keys are the NFC-normalized, case-folded address
+ * with collapsed whitespace. Addresses that were not found are cached too, with a shorter TTL, so that a
+ * typo does not cost a round of API calls on every request. Cache failures are logged and read as misses.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeocodeCache {
+
+    static final int MAX_ENTRIES = 10_000;
+    static final Duration FOUND_TTL = Duration.ofDays(30);
+    static final Duration NOT_FOUND_TTL = Duration.ofHours(12);
+
+    /** Longer addresses are not cached, they would not fit the key column. */
+    static final int MAX_KEY_LENGTH = 500;
+
+    /**
+     * A cached geocoding result.
+     * @param location         the location, or null if the address was not found
+     * @param matchedVariation the address variation that the API resolved, or null if not found
+     * @param expiresAt        when the entry stops being served
+     */
+    public record Entry(LocationResponse.LocationData location, String matchedVariation, LocalDateTime expiresAt) {
+
+        public boolean isFound() {
+            return location != null;
+        }
+
+        private Entry copy() {
+            return location == null ? this : new Entry(new LocationResponse.LocationData(
+                    location.getFormattedAddress(), location.getLatitude(), location.getLongitude(),
+                    location.getPlaceId()), matchedVariation, expiresAt);
+        }
+    }
+
+    private final GeocodeCacheRepository geocodeCacheRepository;
+
+    private final Cache<String, Entry> entries = Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfter(new Expiry<String, Entry>() {
+                @Override
+                public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                    return Math.max(Duration.between(LocalDateTime.now(), entry.expiresAt()).toNanos(), 0);
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, entry, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+
+    /**
+     * Looks the address up in memory, then in the table.
+     * @param address the address as typed
+     * @return the unexpired entry, empty on a miss
+     */
+    public Optional<Entry> get(String address) {
+        String key = keyOf(address);
+        if (key == null) {
+            return Optional.empty();
+        }
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            entry = load(key);
+            if (entry != null) {
+                entries.put(key, entry);
+            }
+        }
+        return Optional.ofNullable(entry).map(Entry::copy);
+    }
+
+    /**
+     * Caches the result of geocoding the address.
+     * @param address          the address as typed
+     * @param location         the location found, or null if the address was not found
+     * @param matchedVariation the address variation that the API resolved, if found
+     */
+    public void put(String address, LocationResponse.LocationData location, String matchedVariation) {
+        String key = keyOf(address);
+        if (key == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Entry entry = new Entry(location, location == null ? null : matchedVariation,
+                now.plus(location == null ? NOT_FOUND_TTL : FOUND_TTL));
+        entries.put(key, entry.copy());
+        try {
+            geocodeCacheRepository.save(toRow(key, entry, now));
+        } catch (Exception e) {
+            log.warn("Failed to persist geocode cache entry for '{}': {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * The underlying in-memory cache, exposed for metrics.
+     */
+    public Cache<String, Entry> cache() {
+        return entries;
+    }
+
+    /**
+     * The cache key of the address, or null if it is blank or too long to be cached.
+     */
+    public static String keyOf(String address) {
+        if (address == null) {
+            return null;
+        }
+        String key = Normalizer.normalize(address, Normalizer.Form.NFC)
+                .strip()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+        // lower-casing can decompose a few characters, normalize again
+        key = Normalizer.normalize(key, Normalizer.Form.NFC);
+        return key.isEmpty() || key.length() > MAX_KEY_LENGTH ? null : key;
+    }
+
+    private Entry load(String key) {
+        try {
+            return geocodeCacheRepository.findById(key)
+                    .filter(row -> row.getExpiresAt().isAfter(LocalDateTime.now()))
+                    .map(GeocodeCache::toEntry)
+                    .orElse(null);
+        } catch (Exception e) {
+            log.warn("Failed to read geocode cache entry for '{}': {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Entry toEntry(GeocodeCacheEntry row) {
+        LocationResponse.LocationData location = row.getLatitude() == null || row.getLongitude() == null ? null
+                : new LocationResponse.LocationData(row.getFormattedAddress(), row.getLatitude(),
+                        row.getLongitude(), row.getPlaceId());
+        return new Entry(location, row.getMatchedVariation(), row.getExpiresAt());
+    }
+
+    private static GeocodeCacheEntry toRow(String key, Entry entry, LocalDateTime now) {
+        LocationResponse.LocationData location = entry.location();
+        return new GeocodeCacheEntry(key,
+                location == null ? null : location.getFormattedAddress(),
+                location == null ? null : location.getLatitude(),
+                location == null ? null : location.getLongitude(),
+                location == null ? null : location.getPlaceId(),
+                entry.matchedVariation(), now, entry.expiresAt());
+    }
+}
@@ -0,0 +1,78 @@
+package com.c1se_01.roomiego.service.cache;
+
+import com.c1se_01.roomiego.dto.LocationResponse;
+import com.c1se_01.roomiego.utils.GeoUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL'd cache of the Places nearby search results per place type and geohash cell of about 150 m,
+ * so that the rooms of one neighborhood share one set of Places calls. The places of a cell are searched
+ * from its center; callers compute the distances from their own point.
+ */
+@Component
+public class NearbyPlacesCache {
+
+    /** Geohash length of the cells, about 150 m by 150 m. */
+    public static final int GEOHASH_PRECISION = 7;
+
+    static final int MAX_ENTRIES = 50_000;
+    static final Duration TTL = Duration.ofHours(24);
+
+    record CellKey(String geohash, String placeType) {
+    }
+
+    private final Cache<CellKey, List<LocationResponse.NearbyPlace>> places = Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfterWrite(TTL)
+            .recordStats()
+            .build();
+
+    /**
+     * The geohash of the cell containing the point.
+     */
+    public static String cellOf(double latitude, double longitude) {
+        return GeoUtils.geohash(latitude, longitude, GEOHASH_PRECISION);
+    }
+
+    /**
+     * @return the cached places of the cell, or null on a miss
+     */
+    public List<LocationResponse.NearbyPlace> getIfPresent(String geohash, String placeType) {
+        return places.getIfPresent(new CellKey(geohash, placeType));
+    }
+
+    /**
+     * Returns the cached places of the cell, searching them on a miss.
+     * @param geohash   the cell, see {@link #cellOf(double, double)}
+     * @param placeType the Places type
+     * @param loader    searches the places around the center of the cell, returns null on failure so that
+     *                  failures are not cached
+     * @return the places, or null if they are not cached and the search failed
+     */
+    public List<LocationResponse.NearbyPlace> get(String geohash, String placeType,
+            Supplier<List<LocationResponse.NearbyPlace>> loader) {
+        // not loaded through Cache.get: a slow search would block the other keys of its hash bin
+        List<LocationResponse.NearbyPlace> cached = getIfPresent(geohash, placeType);
+        if (cached != null) {
+            return cached;
+        }
+        List<LocationResponse.NearbyPlace> loaded = loader.get();
+        if (loaded == null) {
+            return null;
+        }
+        return places.asMap().merge(new CellKey(geohash, placeType), List.copyOf(loaded), (existing, replacement) -> existing);
+    }
+
+    /**
+     * The underlying cache, exposed for metrics.
+     */
+    public Cache<?, List<LocationResponse.NearbyPlace>> cache() {
+        return places;
+    }
+}
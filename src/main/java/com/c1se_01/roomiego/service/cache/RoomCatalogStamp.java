@@ -0,0 +1,76 @@
+package com.c1se_01.roomiego.service.cache;
+
+import com.c1se_01.roomiego.dto.common.ResourceVersion;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.event.RoomImagesChangedEvent;
+import com.c1se_01.roomiego.event.UserSavedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory version of the room listing, the validators of its conditional GETs, so that a revalidation
+ * costs no query. The stamp moves with every room, image and owner change once it is committed, and at
+ * least every {@link RoomQueryCache#LISTINGS_TTL}: a change made through another instance is then not
+ * validated for longer than the listings cached here are served.
+ */
+@Component
+public class RoomCatalogStamp {
+
+    static final Duration MAX_AGE = RoomQueryCache.LISTINGS_TTL;
+
+    private final LongSupplier clock;
+
+    /** Start of this instance, so that the tags of a restarted instance never match the old ones. */
+    private final long epoch;
+
+    // guarded by this
+    private long generation;
+    private long stampedAt;
+
+    public RoomCatalogStamp() {
+        this(System::currentTimeMillis);
+    }
+
+    RoomCatalogStamp(LongSupplier clock) {
+        this.clock = clock;
+        this.epoch = clock.getAsLong();
+        this.stampedAt = epoch;
+    }
+
+    public synchronized ResourceVersion current() {
+        long now = clock.getAsLong();
+        if (now - stampedAt >= MAX_AGE.toMillis()) {
+            bump(now);
+        }
+        return ResourceVersion.of("rooms", new Object[] { epoch, generation }, new Date(stampedAt));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomImagesChanged(RoomImagesChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSaved(UserSavedEvent event) {
+        bump();
+    }
+
+    private synchronized void bump() {
+        bump(clock.getAsLong());
+    }
+
+    private void bump(long now) {
+        generation++;
+        // never backwards, so that If-Modified-Since keeps working across a clock adjustment
+        stampedAt = Math.max(stampedAt, now);
+    }
+}
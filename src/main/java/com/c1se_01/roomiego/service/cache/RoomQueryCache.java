@@ -0,0 +1,151 @@
+package com.c1se_01.roomiego.service.cache;
+
+import com.c1se_01.roomiego.dto.RoomDTO;
+import com.c1se_01.roomiego.dto.common.FilterParam;
+import com.c1se_01.roomiego.dto.common.FilterPlan;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.event.RoomImagesChangedEvent;
+import com.c1se_01.roomiego.event.UserSavedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL'd cache of room detail DTOs and of the first page of room listings, keyed by the normalized
+ * filter. Entries are invalidated from the room, image and owner events once the change is committed:
+ * <ul>
+ *     <li>a created or updated room can enter, leave or move within any listing, so every listing is dropped,</li>
+ *     <li>a hidden or deleted room, or one whose images or owner changed, only alters the listings showing it.</li>
+ * </ul>
+ * The TTLs bound the staleness of an entry computed concurrently with an invalidation.
+ */
+@Slf4j
+@Component
+public class RoomQueryCache {
+
+    static final int MAX_DETAILS = 10_000;
+    static final int MAX_LISTINGS = 1_000;
+    static final Duration DETAILS_TTL = Duration.ofMinutes(10);
+    static final Duration LISTINGS_TTL = Duration.ofMinutes(5);
+
+    /** Larger pages are not cached, so that one entry stays small. */
+    static final int MAX_CACHED_PAGE_SIZE = 50;
+
+    /**
+     * The listing parameters that determine the first page.
+     */
+    record ListingKey(String search, int size, String sort, Direction order, String filter) {
+    }
+
+    private final Cache<Long, RoomDTO> details = Caffeine.newBuilder()
+            .maximumSize(MAX_DETAILS)
+            .expireAfterWrite(DETAILS_TTL)
+            .recordStats()
+            .build();
+
+    private final Cache<ListingKey, List<RoomDTO>> listings = Caffeine.newBuilder()
+            .maximumSize(MAX_LISTINGS)
+            .expireAfterWrite(LISTINGS_TTL)
+            .recordStats()
+            .build();
+
+    /**
+     * Returns the cached detail of the room, loading it on a miss. Exceptions of the loader are not cached.
+     */
+    public RoomDTO getRoom(Long roomId, Function<Long, RoomDTO> loader) {
+        return details.get(roomId, loader);
+    }
+
+    /**
+     * Returns the cached listing if the filter asks for a cacheable first page, loading it on a miss;
+     * other listings are always loaded.
+     */
+    public List<RoomDTO> getListing(FilterParam filterParam, Supplier<List<RoomDTO>> loader) {
+        ListingKey key = keyOf(filterParam);
+        if (key == null) {
+            return loader.get();
+        }
+        return listings.get(key, k -> List.copyOf(loader.get()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        Long roomId = event.room().getId();
+        if (roomId == null) {
+            return;
+        }
+        details.invalidate(roomId);
+        if (event.type() == RoomChangeType.CREATED || event.type() == RoomChangeType.UPDATED) {
+            listings.invalidateAll();
+        } else {
+            invalidateListings(room -> roomId.equals(room.getId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomImagesChanged(RoomImagesChangedEvent event) {
+        details.invalidate(event.roomId());
+        invalidateListings(room -> event.roomId().equals(room.getId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSaved(UserSavedEvent event) {
+        Predicate<RoomDTO> ownedByUser = room -> event.userId().equals(room.getOwnerId());
+        details.asMap().values().removeIf(ownedByUser);
+        invalidateListings(ownedByUser);
+    }
+
+    /**
+     * The underlying detail cache, exposed for metrics.
+     */
+    public Cache<Long, RoomDTO> detailsCache() {
+        return details;
+    }
+
+    /**
+     * The underlying listing cache, exposed for metrics.
+     */
+    public Cache<?, List<RoomDTO>> listingsCache() {
+        return listings;
+    }
+
+    private void invalidateListings(Predicate<RoomDTO> affected) {
+        listings.asMap().values().removeIf(rooms -> rooms.stream().anyMatch(affected));
+    }
+
+    /**
+     * The cache key of the listing, or null if it is not a first page or its conditions were set directly
+     * instead of from a filter string.
+     */
+    static ListingKey keyOf(FilterParam filterParam) {
+        if (filterParam.getPage() != 0 || filterParam.getCursor() != null
+                || filterParam.getSize() > MAX_CACHED_PAGE_SIZE) {
+            return null;
+        }
+        String filter = null;
+        if (filterParam.getFilter() != null) {
+            if (filterParam.getPlan() == null) {
+                return null;
+            }
+            filter = FilterPlan.normalize(filterParam.getFilter());
+        } else if (filterParam.getConditions() != null) {
+            return null;
+        }
+        String search = filterParam.getSearch() == null ? null
+                : filterParam.getSearch().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return new ListingKey(search == null || search.isEmpty() ? null : search, filterParam.getSize(),
+                Objects.requireNonNullElse(filterParam.getSort(), "id"), filterParam.getOrder(), filter);
+    }
+}
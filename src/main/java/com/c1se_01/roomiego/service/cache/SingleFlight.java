@@ -0,0 +1,105 @@
+package com.c1se_01.roomiego.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical lookups: the first caller of a key starts the lookup on an executor, the
+ * callers arriving while it is in flight share its result instead of issuing their own. Every caller, the
+ * first one included, gets its own view of the shared lookup: a caller that times out or cancels its
+ * future gives up on the result, it never interrupts the lookup the others are waiting for. Nothing is kept
+ * once the lookup completes, caching the results is left to the caches behind it.
+ * Issued and coalesced lookups are counted as {@code outbound.lookups}, tagged by lookup and outcome.
+ *
+ * @param <K> the normalized key of a lookup
+ * @param <V> the result of a lookup
+ */
+public class SingleFlight<K, V> {
+
+    static final String COUNTER = "outbound.lookups";
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter issued;
+    private final Counter coalesced;
+
+    /**
+     * @param lookup the name of the lookup in the counters
+     */
+    public SingleFlight(String lookup, MeterRegistry meterRegistry) {
+        this.issued = meterRegistry.counter(COUNTER, "lookup", lookup, "outcome", "issued");
+        this.coalesced = meterRegistry.counter(COUNTER, "lookup", lookup, "outcome", "coalesced");
+    }
+
+    /**
+     * Starts the lookup on the executor, or joins the one of the same key in flight. The lookup runs on the
+     * caller's thread with a direct executor, only for callers that are never cancelled.
+     * @return the caller's own future of the result, cancelling it leaves the lookup running
+     */
+    public CompletableFuture<V> submit(K key, Supplier<V> lookup, Executor executor) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            coalesced.increment();
+            return leader.copy();
+        }
+
+        issued.increment();
+        try {
+            CompletableFuture.supplyAsync(lookup, executor).whenComplete((result, failure) -> {
+                // removed first, so that the callers seeing the result start a new lookup
+                inFlight.remove(key, flight);
+                if (failure != null) {
+                    flight.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure);
+                } else {
+                    flight.complete(result);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+        }
+        return flight.copy();
+    }
+
+    /**
+     * Runs the lookup, or joins the one of the same key in flight, and waits for its result until the
+     * timeout. The exceptions of the lookup are thrown to every caller sharing it.
+     * @throws TimeoutException if the result is not there in time, the lookup goes on for the others
+     * @throws CancellationException if interrupted while waiting
+     */
+    public V execute(K key, Supplier<V> lookup, Executor executor, long timeout, TimeUnit unit)
+            throws TimeoutException {
+        try {
+            return submit(key, lookup, executor).get(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted waiting for a coalesced lookup");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /** The lookups in flight. */
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,152 @@
+package com.c1se_01.roomiego.service.export;
+
+import com.c1se_01.roomiego.enums.ExportFormat;
+import com.c1se_01.roomiego.model.Room;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes rooms one at a time as NDJSON (one JSON object per line) or CSV (RFC 4180, with a header row),
+ * so that an export never holds more than one room in memory.
+ */
+public class RoomExportWriter implements Flushable {
+
+    static final List<String> COLUMNS = List.of("id", "ownerId", "title", "description", "price", "location",
+            "latitude", "longitude", "roomSize", "numBedrooms", "numBathrooms", "availableFrom", "isRoomAvailable",
+            "city", "district", "ward", "street", "addressDetails", "createdAt", "updatedAt");
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ExportFormat format;
+    private final JsonGenerator json;
+    private final Writer csv;
+
+    public RoomExportWriter(OutputStream out, ExportFormat format) throws IOException {
+        this.format = format;
+        if (format == ExportFormat.NDJSON) {
+            json = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+            json.setRootValueSeparator(null);
+            csv = null;
+        } else {
+            json = null;
+            csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Writes the CSV header row, nothing for NDJSON.
+     */
+    public void writeHeader() throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeCsvRow(COLUMNS.toArray());
+        }
+    }
+
+    public void write(Room room) throws IOException {
+        Object[] values = values(room);
+        if (format == ExportFormat.CSV) {
+            writeCsvRow(values);
+            return;
+        }
+        json.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            json.writeFieldName(COLUMNS.get(i));
+            writeJsonValue(values[i]);
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (json != null) {
+            json.flush();
+        } else {
+            csv.flush();
+        }
+    }
+
+    private static Object[] values(Room room) {
+        return new Object[] {
+                room.getId(),
+                // the id of a lazy owner is known without loading it
+                room.getOwner() == null ? null : room.getOwner().getId(),
+                room.getTitle(),
+                room.getDescription(),
+                room.getPrice(),
+                room.getLocation(),
+                room.getLatitude(),
+                room.getLongitude(),
+                room.getRoomSize(),
+                room.getNumBedrooms(),
+                room.getNumBathrooms(),
+                room.getAvailableFrom() == null ? null
+                        : new java.sql.Date(room.getAvailableFrom().getTime()).toLocalDate().toString(),
+                room.getIsRoomAvailable(),
+                room.getCity(),
+                room.getDistrict(),
+                room.getWard(),
+                room.getStreet(),
+                room.getAddressDetails(),
+                timestamp(room.getCreatedAt()),
+                timestamp(room.getUpdatedAt())
+        };
+    }
+
+    private static String timestamp(Date date) {
+        return date == null ? null : Instant.ofEpochMilli(date.getTime()).toString();
+    }
+
+    private void writeJsonValue(Object value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else if (value instanceof BigDecimal decimal) {
+            json.writeNumber(decimal);
+        } else if (value instanceof Long number) {
+            json.writeNumber(number);
+        } else if (value instanceof Integer number) {
+            json.writeNumber(number);
+        } else if (value instanceof Double number) {
+            json.writeNumber(number);
+        } else if (value instanceof Float number) {
+            json.writeNumber(number);
+        } else if (value instanceof Boolean bool) {
+            json.writeBoolean(bool);
+        } else {
+            json.writeString(value.toString());
+        }
+    }
+
+    private void writeCsvRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            if (values[i] != null) {
+                csv.write(csvField(values[i] instanceof BigDecimal decimal ? decimal.toPlainString()
+                        : values[i].toString()));
+            }
+        }
+        csv.write("\r\n");
+    }
+
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
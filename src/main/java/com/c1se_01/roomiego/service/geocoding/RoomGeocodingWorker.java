@@ -0,0 +1,181 @@
+package com.c1se_01.roomiego.service.geocoding;
+
+import com.c1se_01.roomiego.dto.LocationResponse;
+import com.c1se_01.roomiego.enums.GeoStatus;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.model.RoomGeocodingJob;
+import com.c1se_01.roomiego.repository.RoomGeocodingJobRepository;
+import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.service.impl.GoogleMapsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Geocodes the rooms created without coordinates, outside of the request creating them. The rooms are
+ * queued in the {@code room_geocoding_jobs} table, which survives restarts, and drained in batches.
+ * A failed attempt is retried with an exponential backoff, up to a number of attempts after which the
+ * room is marked FAILED. An address Google found nothing for is not retried: the answer is cached as not
+ * found for longer than the whole backoff schedule, so the room is marked FAILED at once. Several instances may drain the queue: a job is claimed by pushing its due time
+ * to the end of a lease, so that it is retried if the instance holding it dies.
+ * A geocoded room is published as UPDATED, which refreshes the indexes, the read model and the caches.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomGeocodingWorker {
+
+    /** Outcomes of the attempts, tagged resolved, retried or failed. */
+    static final String ATTEMPTS = "room.geocoding.attempts";
+
+    static final int MAX_ERROR_LENGTH = 500;
+
+    @Value("${geocoding.worker.batch-size:20}")
+    private int batchSize = 20;
+
+    @Value("${geocoding.worker.max-attempts:6}")
+    private int maxAttempts = 6;
+
+    /** Delay before the first retry, doubled at each further one. */
+    @Value("${geocoding.worker.initial-backoff-ms:30000}")
+    private long initialBackoffMillis = 30_000;
+
+    @Value("${geocoding.worker.max-backoff-ms:3600000}")
+    private long maxBackoffMillis = 3_600_000;
+
+    /** Time a worker holds a claimed job before another may take it over. */
+    @Value("${geocoding.worker.lease-ms:300000}")
+    private long leaseMillis = 300_000;
+
+    private final RoomGeocodingJobRepository jobRepository;
+    private final RoomRepository roomRepository;
+    private final GoogleMapsService googleMapsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Queues a room for geocoding, in the transaction saving it.
+     * @param address the address to geocode
+     */
+    public void enqueue(Long roomId, String address) {
+        LocalDateTime now = LocalDateTime.now();
+        jobRepository.save(new RoomGeocodingJob(null, roomId, address, 0, now, null, now));
+    }
+
+    /**
+     * Processes the jobs due, one batch per run.
+     */
+    @Scheduled(fixedDelayString = "${geocoding.worker.delay-ms:5000}",
+            initialDelayString = "${geocoding.worker.initial-delay-ms:10000}")
+    public void drain() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RoomGeocodingJob> due;
+        try {
+            due = jobRepository.findDue(now, PageRequest.of(0, batchSize));
+        } catch (Exception e) {
+            log.warn("Failed to read the room geocoding queue: {}", e.getMessage());
+            return;
+        }
+        LocalDateTime leaseEnd = now.plus(Duration.ofMillis(leaseMillis));
+        for (RoomGeocodingJob job : due) {
+            if (jobRepository.claim(job.getId(), job.getNextAttemptAt(), leaseEnd) == 0) {
+                // taken by another instance
+                continue;
+            }
+            process(job);
+        }
+    }
+
+    private void process(RoomGeocodingJob job) {
+        LocationResponse.LocationData location = null;
+        String error = "Address not found";
+        boolean notFound = false;
+        try {
+            location = googleMapsService.geocodeAddress(job.getAddress());
+            notFound = location == null && googleMapsService.isKnownNotFound(job.getAddress());
+        } catch (Exception e) {
+            error = e.getMessage();
+        }
+
+        LocationResponse.LocationData found = location;
+        String lastError = error;
+        boolean definitive = notFound;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (found != null) {
+                    resolve(job, found);
+                } else if (definitive) {
+                    fail(job, job.getAttempts() + 1, lastError);
+                } else {
+                    retryOrFail(job, lastError);
+                }
+            });
+        } catch (Exception e) {
+            // the lease runs out and the job is taken again
+            log.warn("Failed to record the geocoding of room {}: {}", job.getRoomId(), e.getMessage());
+        }
+    }
+
+    private void resolve(RoomGeocodingJob job, LocationResponse.LocationData location) {
+        jobRepository.deleteById(job.getId());
+        Room room = roomRepository.findById(job.getRoomId()).orElse(null);
+        if (room == null) {
+            return;
+        }
+        // coordinates set by the owner in the meantime are kept
+        if (room.getLatitude() == null || room.getLongitude() == null) {
+            room.setLatitude(location.getLatitude());
+            room.setLongitude(location.getLongitude());
+        }
+        room.setGeoStatus(GeoStatus.RESOLVED);
+        Room saved = roomRepository.save(room);
+        eventPublisher.publishEvent(new RoomChangedEvent(saved, RoomChangeType.UPDATED));
+        meterRegistry.counter(ATTEMPTS, "outcome", "resolved").increment();
+        log.debug("Geocoded room {} after {} failed attempts", room.getId(), job.getAttempts());
+    }
+
+    private void retryOrFail(RoomGeocodingJob job, String error) {
+        int attempts = job.getAttempts() + 1;
+        if (attempts < maxAttempts) {
+            job.setAttempts(attempts);
+            job.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+            job.setLastError(error == null ? null : error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH)));
+            jobRepository.save(job);
+            meterRegistry.counter(ATTEMPTS, "outcome", "retried").increment();
+            return;
+        }
+        fail(job, attempts, error);
+    }
+
+    private void fail(RoomGeocodingJob job, int attempts, String error) {
+        jobRepository.deleteById(job.getId());
+        roomRepository.findById(job.getRoomId()).ifPresent(room -> {
+            room.setGeoStatus(GeoStatus.FAILED);
+            Room saved = roomRepository.save(room);
+            eventPublisher.publishEvent(new RoomChangedEvent(saved, RoomChangeType.UPDATED));
+        });
+        meterRegistry.counter(ATTEMPTS, "outcome", "failed").increment();
+        log.warn("Giving up geocoding room {} after {} attempts: {}", job.getRoomId(), attempts, error);
+    }
+
+    /**
+     * Delay before the given retry, counted from 1.
+     */
+    Duration backoff(int attempts) {
+        long millis = initialBackoffMillis << Math.min(attempts - 1, 30);
+        return Duration.ofMillis(millis <= 0 ? maxBackoffMillis : Math.min(millis, maxBackoffMillis));
+    }
+}
@@ -0,0 +1,142 @@
+package com.c1se_01.roomiego.service.impl;
+
+import com.c1se_01.roomiego.dto.DistanceMatrixResult;
+import com.c1se_01.roomiego.enums.TravelMode;
+import com.c1se_01.roomiego.utils.GeoUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Local estimate of road distances and durations: the straight-line distance times the road circuity of
+ * the travel mode, at the average speed of the mode. Both factors start from the defaults of
+ * {@link TravelMode} and are learned from the routes returned by the Distance Matrix API.
+ * The estimates only read two doubles per mode and allocate nothing, so that thousands of pairs can be
+ * scored per request; they also stand in for the API when it fails.
+ */
+@Service
+public class DistanceEstimator {
+
+    /** Routes shorter than this in straight line say more about the endpoints than about the roads. */
+    static final double MIN_CALIBRATION_METERS = 300;
+
+    /** Routes winding more than this (rivers, one-way detours) are not learned from. */
+    static final double MAX_CIRCUITY = 3;
+
+    /** Weight of the defaults, in straight-line meters, so that the first routes do not swing the factors. */
+    static final double PRIOR_METERS = 20_000;
+
+    /** Weight kept by the observed routes at every new one, so that the factors follow recent traffic. */
+    static final double DECAY = 0.999;
+
+    private static final Locale VIETNAMESE = Locale.forLanguageTag("vi");
+
+    /**
+     * The factors of one mode, replaced as a whole so that a reader never sees a half-updated pair.
+     */
+    private record Factors(double circuity, double metersPerSecond) {
+    }
+
+    private final AtomicReferenceArray<Factors> factors = new AtomicReferenceArray<>(TravelMode.values().length);
+
+    /** Observed straight-line meters, road meters and road seconds per mode, guarded by this. */
+    private final double[][] observed = new double[TravelMode.values().length][3];
+
+    public DistanceEstimator() {
+        for (TravelMode mode : TravelMode.values()) {
+            factors.set(mode.ordinal(), new Factors(mode.getDefaultCircuity(), mode.getDefaultSpeedKmh() / 3.6));
+        }
+    }
+
+    /**
+     * @return the estimated road distance between the points, in meters
+     */
+    public double estimateMeters(TravelMode mode, double lat1, double lng1, double lat2, double lng2) {
+        return GeoUtils.haversineMeters(lat1, lng1, lat2, lng2) * factors.get(mode.ordinal()).circuity();
+    }
+
+    /**
+     * @return the estimated time to travel the road distance, in seconds
+     */
+    public double estimateSeconds(TravelMode mode, double roadMeters) {
+        return roadMeters / factors.get(mode.ordinal()).metersPerSecond();
+    }
+
+    /**
+     * Estimates the route between two points, in the shape of a Distance Matrix result.
+     * @param mode the travel mode parameter, driving when missing or unknown
+     */
+    public DistanceMatrixResult estimate(String mode, double lat1, double lng1, double lat2, double lng2) {
+        TravelMode travelMode = TravelMode.from(mode);
+        double meters = estimateMeters(travelMode, lat1, lng1, lat2, lng2);
+        double seconds = estimateSeconds(travelMode, meters);
+        int distanceMeters = (int) Math.round(meters);
+        int durationSeconds = (int) Math.round(seconds);
+        return new DistanceMatrixResult(distanceMeters / 1000.0, distanceMeters, distanceText(distanceMeters),
+                durationSeconds / 60, durationSeconds, durationText(durationSeconds), travelMode.getApiName(),
+                true);
+    }
+
+    /**
+     * Estimates the routes from every origin to every destination.
+     * @return the results by origin, then destination
+     */
+    public DistanceMatrixResult[][] estimateMatrix(List<double[]> origins, List<double[]> destinations,
+            String mode) {
+        DistanceMatrixResult[][] results = new DistanceMatrixResult[origins.size()][destinations.size()];
+        for (int i = 0; i < origins.size(); i++) {
+            double[] origin = origins.get(i);
+            for (int j = 0; j < destinations.size(); j++) {
+                double[] destination = destinations.get(j);
+                results[i][j] = estimate(mode, origin[0], origin[1], destination[0], destination[1]);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Learns from a route returned by the Distance Matrix API.
+     * @param roadMeters  the distance of the route
+     * @param roadSeconds the duration of the route
+     */
+    public void calibrate(TravelMode mode, double lat1, double lng1, double lat2, double lng2,
+            double roadMeters, double roadSeconds) {
+        double straightMeters = GeoUtils.haversineMeters(lat1, lng1, lat2, lng2);
+        if (straightMeters < MIN_CALIBRATION_METERS || roadSeconds <= 0
+                || roadMeters < straightMeters || roadMeters > straightMeters * MAX_CIRCUITY) {
+            return;
+        }
+        int index = mode.ordinal();
+        synchronized (this) {
+            double[] sums = observed[index];
+            sums[0] = sums[0] * DECAY + straightMeters;
+            sums[1] = sums[1] * DECAY + roadMeters;
+            sums[2] = sums[2] * DECAY + roadSeconds;
+            double priorRoadMeters = PRIOR_METERS * mode.getDefaultCircuity();
+            double priorSeconds = priorRoadMeters / (mode.getDefaultSpeedKmh() / 3.6);
+            factors.set(index, new Factors((priorRoadMeters + sums[1]) / (PRIOR_METERS + sums[0]),
+                    (priorRoadMeters + sums[1]) / (priorSeconds + sums[2])));
+        }
+    }
+
+    /** Road distance over straight-line distance currently assumed for the mode. */
+    public double circuity(TravelMode mode) {
+        return factors.get(mode.ordinal()).circuity();
+    }
+
+    /** Average speed currently assumed for the mode, in meters per second. */
+    public double metersPerSecond(TravelMode mode) {
+        return factors.get(mode.ordinal()).metersPerSecond();
+    }
+
+    private static String distanceText(int meters) {
+        return meters < 1000 ? meters + " m" : String.format(VIETNAMESE, "%.1f km", meters / 1000.0);
+    }
+
+    private static String durationText(int seconds) {
+        int minutes = Math.max(1, Math.round(seconds / 60f));
+        return minutes < 60 ? minutes + " phút" : (minutes / 60) + " giờ " + (minutes % 60) + " phút";
+    }
+}
@@ -1,8 +1,11 @@
 package com.c1se_01.roomiego.service.impl;
 
 import com.c1se_01.roomiego.dto.FptAiIdRecognitionResponse;
+import com.c1se_01.roomiego.exception.ServiceUnavailableException;
 import com.c1se_01.roomiego.service.FptAiService;
+import com.c1se_01.roomiego.service.resilience.ExternalApiGuard;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
@@ -23,9 +26,11 @@ public class FptAiServiceImpl implements FptAiService {
   private final String API_URL = "https://api.fpt.ai/vision/idr/vnm";
 
   private final RestTemplate restTemplate;
+  private final ExternalApiGuard fptAiGuard;
 
-  public FptAiServiceImpl() {
-    this.restTemplate = new RestTemplate();
+  public FptAiServiceImpl(RestTemplate restTemplate, @Qualifier("fptAiGuard") ExternalApiGuard fptAiGuard) {
+    this.restTemplate = restTemplate;
+    this.fptAiGuard = fptAiGuard;
   }
 
   @Override
@@ -73,12 +78,16 @@ public class FptAiServiceImpl implements FptAiService {
 
       HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
 
-      // Make API call
-      ResponseEntity<FptAiIdRecognitionResponse> response = restTemplate.exchange(
+      // Make API call, unless FPT.AI is failing or saturated. The 5xx answers are thrown by RestTemplate and
+      // counted as failures by the guard.
+      ResponseEntity<FptAiIdRecognitionResponse> response = fptAiGuard.call(() -> restTemplate.exchange(
           API_URL,
           HttpMethod.POST,
           requestEntity,
-          FptAiIdRecognitionResponse.class);
+          FptAiIdRecognitionResponse.class), () -> {
+            log.warn("FPT.AI call refused by its guard");
+            throw new ServiceUnavailableException("FPT.AI is temporarily unavailable, please try again later");
+          });
 
       if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
         FptAiIdRecognitionResponse responseBody = response.getBody();
@@ -93,6 +102,8 @@ public class FptAiServiceImpl implements FptAiService {
         return errorResponse;
       }
 
+    } catch (ServiceUnavailableException e) {
+      throw e;
     } catch (Exception e) {
       log.error("Error calling FPT.AI ID Recognition API: ", e);
       FptAiIdRecognitionResponse errorResponse = new FptAiIdRecognitionResponse();
@@ -4,18 +4,34 @@ import com.c1se_01.roomiego.dto.DistanceMatrixResult;
 import com.c1se_01.roomiego.dto.LocationMarkerRequest;
 import com.c1se_01.roomiego.dto.LocationMarkerResponse;
 import com.c1se_01.roomiego.dto.LocationResponse;
+import com.c1se_01.roomiego.dto.MarkerTileResponse;
 import com.c1se_01.roomiego.dto.RoomDTO;
 import com.c1se_01.roomiego.dto.common.FilterParam;
+import com.c1se_01.roomiego.dto.google.DistanceMatrixApiResponse;
+import com.c1se_01.roomiego.dto.google.GeocodingApiResponse;
+import com.c1se_01.roomiego.dto.google.GoogleApiResponse;
+import com.c1se_01.roomiego.dto.google.GoogleGeometry;
+import com.c1se_01.roomiego.dto.google.NearbySearchApiResponse;
+import com.c1se_01.roomiego.enums.TravelMode;
 import com.c1se_01.roomiego.service.RoomService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.c1se_01.roomiego.service.address.AddressComponents;
+import com.c1se_01.roomiego.service.address.AddressParser;
+import com.c1se_01.roomiego.service.cache.DistanceMatrixCache;
+import com.c1se_01.roomiego.service.cache.GeocodeCache;
+import com.c1se_01.roomiego.service.cache.NearbyPlacesCache;
+import com.c1se_01.roomiego.service.cache.SingleFlight;
+import com.c1se_01.roomiego.service.index.RoomClusterIndex;
+import com.c1se_01.roomiego.service.resilience.ExternalApiGuard;
+import com.c1se_01.roomiego.utils.GeoUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -23,8 +39,25 @@ import org.springframework.web.util.UriComponentsBuilder;
 import java.text.Normalizer;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -33,19 +66,151 @@ public class GoogleMapsService {
     @Value("${google.maps.api.key}")
     private String googleMapsApiKey;
 
-    private RestTemplate restTemplate = new RestTemplate();
-    private ObjectMapper objectMapper = new ObjectMapper();
+    /** Time budget of one geocodeAddress call, all variations together. */
+    @Value("${google.maps.geocode.deadline-ms:3000}")
+    private long geocodeDeadlineMillis = 3000;
+
+    /** Time budget of the nearby places search, the place types not answered by then are left out. */
+    @Value("${google.maps.nearby.deadline-ms:2500}")
+    private long nearbyDeadlineMillis = 2500;
+
+    /** Time budget of one batch distance matrix, the chunks not answered by then are left empty. */
+    @Value("${google.maps.distance-matrix.deadline-ms:5000}")
+    private long distanceMatrixDeadlineMillis = 5000;
+
+    private final RestTemplate restTemplate;
     private final RoomService roomService;
+    private final RoomClusterIndex roomClusterIndex;
+    private final GeocodeCache geocodeCache;
+    private final ExecutorService geocodingExecutor;
+    private final ExecutorService nearbySearchExecutor;
+    private final NearbyPlacesCache nearbyPlacesCache;
+    private final ExecutorService distanceMatrixExecutor;
+    private final DistanceMatrixCache distanceMatrixCache;
+    private final DistanceEstimator distanceEstimator;
+    private final AddressParser addressParser;
+    private final ExternalApiGuard googleMapsGuard;
+    private final MeterRegistry meterRegistry;
+
+    // concurrent identical lookups share one call
+    private final SingleFlight<String, LocationResponse.LocationData> geocodeFlight;
+    private final SingleFlight<String, List<LocationResponse.NearbyPlace>> nearbySearchFlight;
+    private final SingleFlight<String, DistanceMatrixResult> distanceMatrixFlight;
+    private final SingleFlight<String, Map<CellPair, DistanceMatrixResult>> distanceMatrixChunkFlight;
 
     private static final String GEOCODING_URL = "https://maps.googleapis.com/maps/api/geocode/json";
     private static final String NEARBY_SEARCH_URL = "https://maps.googleapis.com/maps/api/place/nearbysearch/json";
     private static final String DISTANCE_MATRIX_URL = "https://maps.googleapis.com/maps/api/distancematrix/json";
     private static final int RADIUS_METERS = 500; // 500m
 
-    public GoogleMapsService(@Lazy RoomService roomService) {
+    /** Limits of one Distance Matrix request. */
+    static final int MAX_MATRIX_ORIGINS = 25;
+    static final int MAX_MATRIX_DESTINATIONS = 25;
+    static final int MAX_MATRIX_ELEMENTS = 100;
+
+    /** Response statuses telling that the service, not the request, failed. */
+    private static final Set<String> SERVICE_FAILURE_STATUSES = Set.of(
+            "OVER_QUERY_LIMIT", "OVER_DAILY_LIMIT", "UNKNOWN_ERROR");
+
+    /** Important place types to search around a location. */
+    private static final String[] PLACE_TYPES = {
+            "hospital", "police", "university", "school",
+            "fire_station", "supermarket", "restaurant", "train_station", "gas_station", "park"
+    };
+
+    /** Timer of the Geocoding API calls, tagged by variation strategy and outcome. */
+    static final String VARIATION_TIMER = "geocode.variation";
+    /** Counter of the variations whose result was returned, tagged by strategy. */
+    static final String VARIATION_WINS = "geocode.variation.wins";
+    /** Strategy of the addresses located by the gazetteer, without calling the API. */
+    static final String GAZETTEER_STRATEGY = "gazetteer";
+
+    // keywords of the queries, to rank the results of the API
+    private static final Pattern STREET_KEYWORD = Pattern.compile(
+            "(?:đường|phố|street)\\s+([\\p{L}\\s]+?)(?:,|$|\\s+(?:phường|quận|huyện|thành phố))",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern DISTRICT_KEYWORD = Pattern.compile(
+            "(?:quận|huyện)\\s+([\\p{L}0-9\\s]+?)(?:,|$)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern UNIVERSITY_KEYWORD = Pattern.compile(
+            "(?:đại học|trường|university)\\s+([\\p{L}\\s]+?)(?:cơ sở|campus|,|$)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern CAMPUS_KEYWORD = Pattern.compile(
+            "cơ sở\\s+([\\p{L}\\s]+?)(?:,|$)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern ADDRESS_WORD = Pattern.compile(
+            "(?i)đường|phố|phường|quận|huyện|thành|phố|tỉnh|xã|street|ward|district|city|province");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[,\\s]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern LEADING_NUMBER = Pattern.compile("^\\d+.*");
+
+    /**
+     * Outcome of one Geocoding API call. A failed call (quota, network...) says nothing about the address,
+     * so it must not be cached as not found.
+     */
+    private record GeocodeAttempt(LocationResponse.LocationData location, boolean failed) {
+        private static final GeocodeAttempt NOT_FOUND = new GeocodeAttempt(null, false);
+        private static final GeocodeAttempt FAILED = new GeocodeAttempt(null, true);
+    }
+
+    /**
+     * An address rewrite to geocode, named after the rule that produced it.
+     */
+    private record AddressVariation(String address, String strategy) {
+    }
+
+    /**
+     * An origin and a destination geohash cell of a batch distance matrix.
+     */
+    private record CellPair(String originCell, String destinationCell) {
+    }
+
+    /**
+     * One Distance Matrix request of a batch, with the cells and points it was sent.
+     */
+    private record MatrixChunk(List<Map.Entry<String, double[]>> origins,
+            List<Map.Entry<String, double[]>> destinations, Future<Map<CellPair, DistanceMatrixResult>> routes) {
+    }
+
+    public GoogleMapsService(RestTemplate restTemplate, @Lazy RoomService roomService, RoomClusterIndex roomClusterIndex,
+            GeocodeCache geocodeCache, @Qualifier("geocodingExecutor") ExecutorService geocodingExecutor,
+            @Qualifier("nearbySearchExecutor") ExecutorService nearbySearchExecutor,
+            NearbyPlacesCache nearbyPlacesCache,
+            @Qualifier("distanceMatrixExecutor") ExecutorService distanceMatrixExecutor,
+            DistanceMatrixCache distanceMatrixCache, DistanceEstimator distanceEstimator, AddressParser addressParser,
+            @Qualifier("googleMapsGuard") ExternalApiGuard googleMapsGuard, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
         this.roomService = roomService;
+        this.roomClusterIndex = roomClusterIndex;
+        this.geocodeCache = geocodeCache;
+        this.geocodingExecutor = geocodingExecutor;
+        this.nearbySearchExecutor = nearbySearchExecutor;
+        this.nearbyPlacesCache = nearbyPlacesCache;
+        this.distanceMatrixExecutor = distanceMatrixExecutor;
+        this.distanceMatrixCache = distanceMatrixCache;
+        this.distanceEstimator = distanceEstimator;
+        this.addressParser = addressParser;
+        this.googleMapsGuard = googleMapsGuard;
+        this.meterRegistry = meterRegistry;
+        this.geocodeFlight = new SingleFlight<>("geocode", meterRegistry);
+        this.nearbySearchFlight = new SingleFlight<>("nearby_search", meterRegistry);
+        this.distanceMatrixFlight = new SingleFlight<>("distance_matrix", meterRegistry);
+        this.distanceMatrixChunkFlight = new SingleFlight<>("distance_matrix_chunk", meterRegistry);
+    }
+
+    /**
+     * Markers of the rooms in one map tile, clustered below the street zoom levels.
+     * Unlike {@link #getMarkers(List)} the payload is bounded by the tile, not by the number of rooms.
+     */
+    public MarkerTileResponse getMarkerTile(int zoom, int x, int y) {
+        return roomClusterIndex.tile(zoom, x, y);
     }
 
+    /**
+     * @deprecated loads the full details of up to 1000 rooms on every call, use
+     * {@link #getMarkerTile(int, int, int)} for the map view
+     */
+    @Deprecated
     public LocationMarkerResponse[] getMarkers(List<LocationMarkerRequest> requests) {
         List<LocationMarkerResponse> responses = new ArrayList<>();
         FilterParam filter = new FilterParam();
@@ -121,45 +286,167 @@ public class GoogleMapsService {
         return Normalizer.normalize(raw, Normalizer.Form.NFC).trim();
     }
 
+    /**
+     * Geocodes an address. An address naming a province, district or ward only is located by the gazetteer,
+     * the API is only called for the addresses of a street or house. Those go through the cache, keyed by
+     * their canonical components when the parser resolves them, so that the spellings of an address share
+     * an entry. Concurrent calls for the same key share one lookup and its result.
+     * @return the location, or null if the address was not found or could not be geocoded
+     */
     public LocationResponse.LocationData geocodeAddress(String address) {
+        AddressComponents components = addressParser.parse(address);
+        if (components.isAdministrative()) {
+            meterRegistry.counter(VARIATION_WINS, "strategy", GAZETTEER_STRATEGY).increment();
+            return components.centroid();
+        }
+        String cacheAddress = cacheAddressOf(address, components);
+        String key = GeocodeCache.keyOf(cacheAddress);
+        if (key == null) {
+            return lookupAddress(address, cacheAddress, components);
+        }
         try {
-            // Try multiple variations of the address for better accuracy
-            String[] addressVariations = createAddressVariations(address);
+            // the callers are never cancelled, the first one looks up on its own thread
+            return geocodeFlight.execute(key, () -> lookupAddress(address, cacheAddress, components), Runnable::run,
+                    geocodeDeadlineMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Geocoding deadline exceeded waiting for a shared lookup of {}", address);
+            return null;
+        }
+    }
+
+    /**
+     * Whether Google is known to find nothing for the address: none of its variations matched when it was
+     * last looked up, less than {@link GeocodeCache#NOT_FOUND_TTL} ago. Otherwise a null location from
+     * {@link #geocodeAddress(String)} comes from a failed lookup.
+     */
+    public boolean isKnownNotFound(String address) {
+        AddressComponents components = addressParser.parse(address);
+        if (components.isAdministrative()) {
+            return false;
+        }
+        return geocodeCache.get(cacheAddressOf(address, components))
+                .filter(entry -> !entry.isFound())
+                .isPresent();
+    }
+
+    private static String cacheAddressOf(String address, AddressComponents components) {
+        return components.cacheKey() != null ? components.cacheKey() : address;
+    }
+
+    /**
+     * @param cacheAddress the address the result is cached under
+     */
+    private LocationResponse.LocationData lookupAddress(String address, String cacheAddress,
+            AddressComponents components) {
+        Optional<GeocodeCache.Entry> cached = geocodeCache.get(cacheAddress);
+        if (cached.isPresent()) {
+            log.debug("Geocode cache hit for address: {} (variation: {})", address,
+                    cached.get().matchedVariation());
+            return cached.get().location();
+        }
+
+        // Try multiple variations of the address for better accuracy. They are all sent at once, but their
+        // results are taken in priority order: a variation wins only if the ones before it found nothing.
+        List<AddressVariation> variations = createAddressVariations(address, components);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(geocodeDeadlineMillis);
+        List<Future<GeocodeAttempt>> attempts = new ArrayList<>(variations.size());
+        try {
+            for (AddressVariation variation : variations) {
+                attempts.add(geocodingExecutor.submit(() -> timedGeocode(variation)));
+            }
 
-            for (String addressVariation : addressVariations) {
-                log.debug("Trying address variation: {}", addressVariation);
-                LocationResponse.LocationData result = tryGeocode(addressVariation);
+            boolean anyFailed = false;
+            for (int i = 0; i < variations.size(); i++) {
+                GeocodeAttempt attempt = await(attempts.get(i), deadline, variations.get(i));
+                anyFailed |= attempt.failed();
+                LocationResponse.LocationData result = attempt.location();
                 if (result != null) {
-                    // Validate the result is actually in Vietnam (rough bounds check)
-                    if (isInVietnam(result.getLatitude(), result.getLongitude())) {
-                        log.debug("Found valid Vietnam location: {}", result);
-                        return result;
-                    } else {
-                        log.debug("Location found but outside Vietnam bounds: lat={}, lng={}",
-                                result.getLatitude(), result.getLongitude());
-                    }
+                    AddressVariation variation = variations.get(i);
+                    log.debug("Found valid Vietnam location with variation {}: {}", variation.strategy(), result);
+                    meterRegistry.counter(VARIATION_WINS, "strategy", variation.strategy()).increment();
+                    geocodeCache.put(cacheAddress, result, variation.address());
+                    return result;
                 }
             }
 
             log.warn("No valid results found for any address variation");
+            if (!anyFailed) {
+                geocodeCache.put(cacheAddress, null, null);
+            }
             return null;
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
         } catch (Exception e) {
             log.error("Error geocoding address: {}", address, e);
             return null;
+        } finally {
+            // the variations after the winner, or still running at the deadline, are not needed anymore
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    /**
+     * Geocodes one variation and records its latency. A location outside Vietnam counts as not found.
+     */
+    private GeocodeAttempt timedGeocode(AddressVariation variation) {
+        long start = System.nanoTime();
+        GeocodeAttempt attempt = tryGeocode(variation.address());
+        String outcome;
+        if (Thread.currentThread().isInterrupted()) {
+            outcome = "cancelled";
+        } else if (attempt.failed()) {
+            outcome = "failed";
+        } else if (attempt.location() == null) {
+            outcome = "not_found";
+        } else if (!isInVietnam(attempt.location().getLatitude(), attempt.location().getLongitude())) {
+            log.debug("Location found but outside Vietnam bounds: lat={}, lng={}",
+                    attempt.location().getLatitude(), attempt.location().getLongitude());
+            attempt = GeocodeAttempt.NOT_FOUND;
+            outcome = "outside";
+        } else {
+            outcome = "found";
         }
+        Timer.builder(VARIATION_TIMER)
+                .tag("strategy", variation.strategy())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return attempt;
     }
 
-    private String[] createAddressVariations(String address) {
+    private static GeocodeAttempt await(Future<GeocodeAttempt> attempt, long deadline, AddressVariation variation)
+            throws InterruptedException {
+        try {
+            return attempt.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Geocoding deadline exceeded for variation {}: {}", variation.strategy(), variation.address());
+            return GeocodeAttempt.FAILED;
+        } catch (ExecutionException e) {
+            log.error("Error geocoding variation: {}", variation.address(), e.getCause());
+            return GeocodeAttempt.FAILED;
+        }
+    }
+
+    private List<AddressVariation> createAddressVariations(String address, AddressComponents components) {
         String normalized = normalizeAddress(address);
-        List<String> variations = new ArrayList<>();
+        List<AddressVariation> variations = new ArrayList<>();
 
         // Original address
-        variations.add(normalized);
+        variations.add(new AddressVariation(normalized, "original"));
+
+        // The parsed address written in full, with the units the text left out
+        if (components.cacheKey() != null) {
+            String canonical = components.format() + ", Việt Nam";
+            if (!canonical.equalsIgnoreCase(normalized)) {
+                variations.add(new AddressVariation(canonical, "canonical"));
+            }
+        }
 
         // Add ", Vietnam" if not present
         if (!normalized.toLowerCase().contains("vietnam") && !normalized.toLowerCase().contains("việt nam")) {
-            variations.add(normalized + ", Việt Nam");
+            variations.add(new AddressVariation(normalized + ", Việt Nam", "country"));
         }
 
         // Try with common Vietnamese address prefixes if they're missing
@@ -167,9 +454,9 @@ public class GoogleMapsService {
 
         // Add "Đường" prefix to potential street names (if address starts with a
         // number)
-        if (addressLower.matches("^\\d+.*")) {
+        if (LEADING_NUMBER.matcher(addressLower).matches()) {
             // Extract potential street name (everything after the house number and slash)
-            String[] parts = normalized.split("\\s+", 3); // Split into max 3 parts
+            String[] parts = WHITESPACE.split(normalized, 3); // Split into max 3 parts
             if (parts.length >= 2) {
                 // If second part doesn't start with common prefixes, try adding "Đường"
                 String secondPart = parts[1];
@@ -178,16 +465,16 @@ public class GoogleMapsService {
                         !secondPart.toLowerCase().startsWith("street")) {
                     String withStreetPrefix = parts[0] + " Đường "
                             + String.join(" ", java.util.Arrays.copyOfRange(parts, 1, parts.length));
-                    variations.add(withStreetPrefix);
-                    variations.add(withStreetPrefix + ", Vietnam");
+                    variations.add(new AddressVariation(withStreetPrefix, "street_prefix"));
+                    variations.add(new AddressVariation(withStreetPrefix + ", Vietnam", "street_prefix_country"));
                 }
             }
         }
 
-        return variations.toArray(new String[0]);
+        return variations;
     }
 
-    private LocationResponse.LocationData tryGeocode(String address) {
+    private GeocodeAttempt tryGeocode(String address) {
         try {
             String url = UriComponentsBuilder.fromUriString(GEOCODING_URL)
                     .queryParam("address", address)
@@ -205,48 +492,47 @@ public class GoogleMapsService {
             headers.set("Accept", "application/json");
             headers.set("Accept-Language", "vi-VN,vi;q=0.9,en;q=0.8");
 
-            ResponseEntity<String> response = restTemplate.exchange(
+            GeocodingApiResponse response = callGoogleMaps(() -> restTemplate.exchange(
                     url,
                     HttpMethod.GET,
                     new HttpEntity<>(headers),
-                    String.class);
-
-            log.debug("API Response: {}", response.getBody());
-
-            JsonNode root = objectMapper.readTree(response.getBody());
+                    GeocodingApiResponse.class).getBody());
+            if (response == null) {
+                return GeocodeAttempt.FAILED;
+            }
 
-            String status = root.path("status").asText();
+            String status = response.getStatus();
             if (!"OK".equals(status)) {
                 log.warn("Geocoding failed with status: {} for address: {}", status, address);
-                return null;
+                return "ZERO_RESULTS".equals(status) ? GeocodeAttempt.NOT_FOUND : GeocodeAttempt.FAILED;
             }
 
-            JsonNode results = root.path("results");
-            if (!results.isArray() || results.isEmpty()) {
+            List<GeocodingApiResponse.Result> results = response.getResults();
+            if (results == null || results.isEmpty()) {
                 log.warn("No results found for address: {}", address);
-                return null;
+                return GeocodeAttempt.NOT_FOUND;
             }
+            log.debug("Geocoding returned {} results for address: {}", results.size(), address);
 
             // Find the best matching result based on the original query
-            JsonNode bestMatch = findBestMatchingResult(results, address);
+            GeocodingApiResponse.Result bestMatch = findBestMatchingResult(results, address);
 
-            if (bestMatch == null) {
+            GoogleGeometry.Location location = bestMatch.getGeometry() == null ? null
+                    : bestMatch.getGeometry().getLocation();
+            if (location == null) {
                 log.warn("No suitable match found for address: {}", address);
-                return null;
+                return GeocodeAttempt.NOT_FOUND;
             }
 
-            JsonNode geometry = bestMatch.path("geometry");
-            JsonNode location = geometry.path("location");
-
-            return new LocationResponse.LocationData(
-                    bestMatch.path("formatted_address").asText(),
-                    location.path("lat").asDouble(),
-                    location.path("lng").asDouble(),
-                    bestMatch.path("place_id").asText());
+            return new GeocodeAttempt(new LocationResponse.LocationData(
+                    bestMatch.getFormattedAddress(),
+                    location.getLat(),
+                    location.getLng(),
+                    bestMatch.getPlaceId()), false);
 
         } catch (Exception e) {
             log.error("Error in tryGeocode for address: {}", address, e);
-            return null;
+            return GeocodeAttempt.FAILED;
         }
     }
 
@@ -254,7 +540,8 @@ public class GoogleMapsService {
      * Find the best matching result from geocoding API based on the query string
      * Prioritizes results that contain key parts of the original query
      */
-    private JsonNode findBestMatchingResult(JsonNode results, String query) {
+    private GeocodingApiResponse.Result findBestMatchingResult(List<GeocodingApiResponse.Result> results,
+            String query) {
         // Extract important keywords from the query using regex
         // Look for street names, district names, university names, etc.
         String normalizedQuery = normalizeAddress(query).toLowerCase();
@@ -265,11 +552,11 @@ public class GoogleMapsService {
         log.debug("Extracted keywords from query '{}': {}", query, keywords);
 
         int bestScore = -1;
-        JsonNode bestResult = null;
+        GeocodingApiResponse.Result bestResult = null;
 
         for (int i = 0; i < results.size(); i++) {
-            JsonNode result = results.get(i);
-            String formattedAddress = result.path("formatted_address").asText().toLowerCase();
+            GeocodingApiResponse.Result result = results.get(i);
+            String formattedAddress = Objects.toString(result.getFormattedAddress(), "").toLowerCase();
 
             int score = 0;
 
@@ -281,16 +568,15 @@ public class GoogleMapsService {
             }
 
             // Prefer results that are NOT partial matches (exact match is better)
-            boolean isPartialMatch = result.path("partial_match").asBoolean(false);
+            boolean isPartialMatch = result.isPartialMatch();
             if (!isPartialMatch) {
                 score += 5;
             }
 
             // Prefer more specific location types (street_address > route > locality)
-            JsonNode types = result.path("types");
-            if (types.isArray()) {
-                for (JsonNode type : types) {
-                    String typeStr = type.asText();
+            List<String> types = result.getTypes();
+            if (types != null) {
+                for (String typeStr : types) {
                     if ("street_address".equals(typeStr) || "premise".equals(typeStr)) {
                         score += 3;
                     } else if ("route".equals(typeStr)) {
@@ -323,51 +609,39 @@ public class GoogleMapsService {
 
         // Common Vietnamese address patterns
         // 1. Street names (after "đường", "phố", or standalone capitalized words)
-        java.util.regex.Pattern streetPattern = java.util.regex.Pattern.compile(
-                "(?:đường|phố|street)\\s+([\\p{L}\\s]+?)(?:,|$|\\s+(?:phường|quận|huyện|thành phố))",
-                java.util.regex.Pattern.CASE_INSENSITIVE);
-        java.util.regex.Matcher streetMatcher = streetPattern.matcher(normalizedQuery);
+        Matcher streetMatcher = STREET_KEYWORD.matcher(normalizedQuery);
         while (streetMatcher.find()) {
             keywords.add(streetMatcher.group(1).trim());
         }
 
         // 2. District/Ward names
-        java.util.regex.Pattern districtPattern = java.util.regex.Pattern.compile(
-                "(?:quận|huyện)\\s+([\\p{L}0-9\\s]+?)(?:,|$)",
-                java.util.regex.Pattern.CASE_INSENSITIVE);
-        java.util.regex.Matcher districtMatcher = districtPattern.matcher(normalizedQuery);
+        Matcher districtMatcher = DISTRICT_KEYWORD.matcher(normalizedQuery);
         while (districtMatcher.find()) {
             keywords.add(districtMatcher.group(1).trim());
         }
 
         // 3. University/Institution names
-        java.util.regex.Pattern uniPattern = java.util.regex.Pattern.compile(
-                "(?:đại học|trường|university)\\s+([\\p{L}\\s]+?)(?:cơ sở|campus|,|$)",
-                java.util.regex.Pattern.CASE_INSENSITIVE);
-        java.util.regex.Matcher uniMatcher = uniPattern.matcher(normalizedQuery);
+        Matcher uniMatcher = UNIVERSITY_KEYWORD.matcher(normalizedQuery);
         while (uniMatcher.find()) {
             keywords.add(uniMatcher.group(1).trim());
         }
 
         // 4. Campus/Branch location (cơ sở ...)
-        java.util.regex.Pattern campusPattern = java.util.regex.Pattern.compile(
-                "cơ sở\\s+([\\p{L}\\s]+?)(?:,|$)",
-                java.util.regex.Pattern.CASE_INSENSITIVE);
-        java.util.regex.Matcher campusMatcher = campusPattern.matcher(normalizedQuery);
+        Matcher campusMatcher = CAMPUS_KEYWORD.matcher(normalizedQuery);
         while (campusMatcher.find()) {
             String campusLocation = campusMatcher.group(1).trim();
             keywords.add(campusLocation);
             // Also add as a potential street name
-            keywords.add(campusLocation.replaceAll("\\s+", " "));
+            keywords.add(WHITESPACE.matcher(campusLocation).replaceAll(" "));
         }
 
         // 5. Extract standalone capitalized words (potential proper nouns)
         // This helps catch multi-word street/place names
-        String[] words = normalizedQuery.split("[,\\s]+");
+        String[] words = WORD_SEPARATOR.split(normalizedQuery);
         StringBuilder properNoun = new StringBuilder();
         for (String word : words) {
             // Skip common Vietnamese address keywords
-            if (word.matches("(?i)đường|phố|phường|quận|huyện|thành|phố|tỉnh|xã|street|ward|district|city|province")) {
+            if (ADDRESS_WORD.matcher(word).matches()) {
                 if (properNoun.length() > 0) {
                     keywords.add(properNoun.toString().trim());
                     properNoun = new StringBuilder();
@@ -396,19 +670,36 @@ public class GoogleMapsService {
                 longitude >= 102.0 && longitude <= 110.0;
     }
 
+    /**
+     * Searches the important places around a location. The place types are searched concurrently and
+     * cached per geohash cell, from the center of the cell, so the distances are computed here from the
+     * location itself. Concurrent misses of the same cell and type share one search. The types not
+     * answered by the deadline are left out, their searches go on for the callers sharing them.
+     */
     private List<LocationResponse.NearbyPlace> searchNearbyPlaces(double latitude, double longitude) {
         List<LocationResponse.NearbyPlace> nearbyPlaces = new ArrayList<>();
-
-        // Define important place types to search for
-        String[] placeTypes = {
-                "hospital", "police", "university", "school",
-                "fire_station", "supermarket", "restaurant", "train_station", "gas_station", "park"
-        };
+        String cell = NearbyPlacesCache.cellOf(latitude, longitude);
+        double[] center = GeoUtils.geohashCenter(cell);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(nearbyDeadlineMillis);
+        Map<String, Future<List<LocationResponse.NearbyPlace>>> searches = new LinkedHashMap<>();
 
         try {
-            // Search for each place type
-            for (String placeType : placeTypes) {
-                searchPlacesByType(latitude, longitude, placeType, nearbyPlaces);
+            for (String placeType : PLACE_TYPES) {
+                List<LocationResponse.NearbyPlace> cached = nearbyPlacesCache.getIfPresent(cell, placeType);
+                searches.put(placeType, cached != null ? CompletableFuture.completedFuture(cached)
+                        : nearbySearchFlight.submit(cell + "/" + placeType, () -> nearbyPlacesCache.get(cell,
+                                placeType, () -> searchPlacesByType(center[0], center[1], placeType)),
+                                nearbySearchExecutor));
+            }
+
+            for (Map.Entry<String, Future<List<LocationResponse.NearbyPlace>>> search : searches.entrySet()) {
+                List<LocationResponse.NearbyPlace> places = awaitPlaces(search.getValue(), deadline, search.getKey());
+                for (LocationResponse.NearbyPlace place : places) {
+                    nearbyPlaces.add(new LocationResponse.NearbyPlace(place.getName(), place.getAddress(),
+                            place.getLatitude(), place.getLongitude(), place.getPlaceId(), place.getRating(),
+                            place.getType(),
+                            calculateDistance(latitude, longitude, place.getLatitude(), place.getLongitude())));
+                }
             }
 
             // Remove duplicates based on place_id and sort by distance
@@ -425,6 +716,8 @@ public class GoogleMapsService {
                     .sorted(Comparator.comparingDouble(LocationResponse.NearbyPlace::getDistanceInMeters))
                     .toList();
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             log.error("Error searching nearby places: {}", e.getMessage(), e);
         }
@@ -432,8 +725,27 @@ public class GoogleMapsService {
         return nearbyPlaces;
     }
 
-    private void searchPlacesByType(double latitude, double longitude, String placeType,
-            List<LocationResponse.NearbyPlace> nearbyPlaces) {
+    private static List<LocationResponse.NearbyPlace> awaitPlaces(Future<List<LocationResponse.NearbyPlace>> search,
+            long deadline, String placeType) throws InterruptedException {
+        try {
+            List<LocationResponse.NearbyPlace> places = search.get(Math.max(deadline - System.nanoTime(), 0),
+                    TimeUnit.NANOSECONDS);
+            return places == null ? List.of() : places;
+        } catch (TimeoutException e) {
+            log.warn("Nearby search deadline exceeded for type {}", placeType);
+            return List.of();
+        } catch (ExecutionException e) {
+            log.debug("Error searching for place type {}: {}", placeType, e.getCause().getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Searches the places of one type around a point.
+     * @return the places, with their distance to the point, or null if the search failed
+     */
+    private List<LocationResponse.NearbyPlace> searchPlacesByType(double latitude, double longitude,
+            String placeType) {
         try {
             String url = UriComponentsBuilder.fromUriString(NEARBY_SEARCH_URL)
                     .queryParam("location", latitude + "," + longitude)
@@ -442,38 +754,47 @@ public class GoogleMapsService {
                     .queryParam("key", googleMapsApiKey)
                     .toUriString();
 
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
+            NearbySearchApiResponse response = callGoogleMaps(
+                    () -> restTemplate.getForObject(url, NearbySearchApiResponse.class));
+            if (response == null) {
+                return null;
+            }
 
-            if (!"OK".equals(root.get("status").asText())) {
-                log.debug("Nearby search failed for type {} with status: {}", placeType, root.get("status").asText());
-                return;
+            String status = response.getStatus();
+            if ("ZERO_RESULTS".equals(status)) {
+                return List.of();
+            }
+            if (!"OK".equals(status)) {
+                log.debug("Nearby search failed for type {} with status: {}", placeType, status);
+                return null;
             }
 
-            JsonNode results = root.get("results");
-            for (JsonNode place : results) {
-                JsonNode location = place.get("geometry").get("location");
-                double placeLat = location.get("lat").asDouble();
-                double placeLng = location.get("lng").asDouble();
+            List<LocationResponse.NearbyPlace> nearbyPlaces = new ArrayList<>();
+            for (NearbySearchApiResponse.Place place : response.getResults()) {
+                GoogleGeometry.Location location = place.getGeometry().getLocation();
+                double placeLat = location.getLat();
+                double placeLng = location.getLng();
 
                 // Calculate distance
                 double distance = calculateDistance(latitude, longitude, placeLat, placeLng);
 
                 LocationResponse.NearbyPlace nearbyPlace = new LocationResponse.NearbyPlace(
-                        place.get("name").asText(),
-                        place.has("vicinity") ? place.get("vicinity").asText() : "",
+                        place.getName(),
+                        place.getVicinity() != null ? place.getVicinity() : "",
                         placeLat,
                         placeLng,
-                        place.get("place_id").asText(),
-                        place.has("rating") ? place.get("rating").asDouble() : 0.0,
+                        place.getPlaceId(),
+                        place.getRating() != null ? place.getRating() : 0.0,
                         placeType, // Use the searched place type
                         distance);
 
                 nearbyPlaces.add(nearbyPlace);
             }
+            return nearbyPlaces;
 
         } catch (Exception e) {
             log.debug("Error searching for place type {}: {}", placeType, e.getMessage());
+            return null;
         }
     }
 
@@ -492,8 +813,28 @@ public class GoogleMapsService {
      */
     public DistanceMatrixResult calculateDistanceMatrix(
             String originAddress, String destAddress, String mode) {
+        String travelMode = (mode != null && !mode.isEmpty()) ? mode : "driving";
+        return shareDistanceMatrix(travelMode + ":" + normalizeAddress(originAddress) + ">"
+                + normalizeAddress(destAddress), () -> requestDistanceMatrix(originAddress, destAddress, travelMode));
+    }
+
+    /**
+     * Requests one route on the Distance Matrix pool, sharing the request with the concurrent calls of the
+     * same key.
+     * @return the route, or null if it failed or missed the deadline
+     */
+    private DistanceMatrixResult shareDistanceMatrix(String key, Supplier<DistanceMatrixResult> request) {
+        try {
+            return distanceMatrixFlight.execute(key, request, distanceMatrixExecutor, distanceMatrixDeadlineMillis,
+                    TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Distance Matrix deadline exceeded for {}", key);
+            return null;
+        }
+    }
+
+    private DistanceMatrixResult requestDistanceMatrix(String originAddress, String destAddress, String travelMode) {
         try {
-            String travelMode = (mode != null && !mode.isEmpty()) ? mode : "driving";
 
             String url = UriComponentsBuilder.fromUriString(DISTANCE_MATRIX_URL)
                     .queryParam("origins", originAddress)
@@ -511,57 +852,57 @@ public class GoogleMapsService {
             HttpHeaders headers = new HttpHeaders();
             HttpEntity<String> entity = new HttpEntity<>(headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
+            DistanceMatrixApiResponse response = callGoogleMaps(() -> restTemplate.exchange(
                     url,
                     HttpMethod.GET,
                     entity,
-                    String.class);
-
-            log.debug("Distance Matrix API Response: {}", response.getBody());
+                    DistanceMatrixApiResponse.class).getBody());
+            if (response == null) {
+                return null;
+            }
 
-            JsonNode root = objectMapper.readTree(response.getBody());
-            String status = root.get("status").asText();
+            String status = response.getStatus();
 
             if (!"OK".equals(status)) {
                 log.warn("Distance Matrix API returned status: {}", status);
                 return null;
             }
 
-            JsonNode rows = root.get("rows");
-            if (rows == null || !rows.isArray() || rows.isEmpty()) {
+            List<DistanceMatrixApiResponse.Row> rows = response.getRows();
+            if (rows == null || rows.isEmpty()) {
                 log.warn("No rows in Distance Matrix API response");
                 return null;
             }
 
-            JsonNode elements = rows.get(0).get("elements");
-            if (elements == null || !elements.isArray() || elements.isEmpty()) {
+            List<DistanceMatrixApiResponse.Element> elements = rows.get(0).getElements();
+            if (elements == null || elements.isEmpty()) {
                 log.warn("No elements in Distance Matrix API response");
                 return null;
             }
 
-            JsonNode element = elements.get(0);
-            String elementStatus = element.get("status").asText();
+            DistanceMatrixApiResponse.Element element = elements.get(0);
+            String elementStatus = element.getStatus();
 
             if (!"OK".equals(elementStatus)) {
                 log.warn("Distance Matrix element status: {}", elementStatus);
                 return null;
             }
 
-            JsonNode distanceNode = element.get("distance");
-            JsonNode durationNode = element.get("duration");
+            DistanceMatrixApiResponse.TextValue distance = element.getDistance();
+            DistanceMatrixApiResponse.TextValue duration = element.getDuration();
 
-            if (distanceNode == null || durationNode == null) {
+            if (distance == null || duration == null) {
                 log.warn("Missing distance or duration in response");
                 return null;
             }
 
-            int distanceMeters = distanceNode.get("value").asInt();
+            int distanceMeters = distance.getValue();
             double distanceKm = distanceMeters / 1000.0;
-            String distanceText = distanceNode.get("text").asText();
+            String distanceText = distance.getText();
 
-            int durationSeconds = durationNode.get("value").asInt();
+            int durationSeconds = duration.getValue();
             int durationMinutes = durationSeconds / 60;
-            String durationText = durationNode.get("text").asText();
+            String durationText = duration.getText();
 
             log.info("Distance Matrix result - Distance: {} km, Duration: {} minutes (mode: {})",
                     distanceKm, durationMinutes, travelMode);
@@ -598,8 +939,15 @@ public class GoogleMapsService {
             double originLat, double originLng,
             double destLat, double destLng,
             String mode) {
+        String travelMode = (mode != null && !mode.isEmpty()) ? mode : "driving";
+        return shareDistanceMatrix(String.format(Locale.ROOT, "%s:%.6f,%.6f>%.6f,%.6f", travelMode,
+                originLat, originLng, destLat, destLng),
+                () -> requestDistanceMatrix(originLat, originLng, destLat, destLng, travelMode));
+    }
+
+    private DistanceMatrixResult requestDistanceMatrix(double originLat, double originLng, double destLat,
+            double destLng, String travelMode) {
         try {
-            String travelMode = (mode != null && !mode.isEmpty()) ? mode : "driving";
 
             String url = UriComponentsBuilder.fromUriString(DISTANCE_MATRIX_URL)
                     .queryParam("origins", String.format("%.6f,%.6f", originLat, originLng))
@@ -615,60 +963,62 @@ public class GoogleMapsService {
             HttpHeaders headers = new HttpHeaders();
             HttpEntity<String> entity = new HttpEntity<>(headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
+            DistanceMatrixApiResponse response = callGoogleMaps(() -> restTemplate.exchange(
                     url,
                     HttpMethod.GET,
                     entity,
-                    String.class);
-
-            log.debug("Distance Matrix API Response: {}", response.getBody());
+                    DistanceMatrixApiResponse.class).getBody());
+            if (response == null) {
+                return null;
+            }
 
-            JsonNode root = objectMapper.readTree(response.getBody());
-            String status = root.get("status").asText();
+            String status = response.getStatus();
 
             if (!"OK".equals(status)) {
                 log.warn("Distance Matrix API returned status: {}", status);
                 return null;
             }
 
-            JsonNode rows = root.get("rows");
-            if (rows == null || !rows.isArray() || rows.isEmpty()) {
+            List<DistanceMatrixApiResponse.Row> rows = response.getRows();
+            if (rows == null || rows.isEmpty()) {
                 log.warn("No rows in Distance Matrix API response");
                 return null;
             }
 
-            JsonNode elements = rows.get(0).get("elements");
-            if (elements == null || !elements.isArray() || elements.isEmpty()) {
+            List<DistanceMatrixApiResponse.Element> elements = rows.get(0).getElements();
+            if (elements == null || elements.isEmpty()) {
                 log.warn("No elements in Distance Matrix API response");
                 return null;
             }
 
-            JsonNode element = elements.get(0);
-            String elementStatus = element.get("status").asText();
+            DistanceMatrixApiResponse.Element element = elements.get(0);
+            String elementStatus = element.getStatus();
 
             if (!"OK".equals(elementStatus)) {
                 log.warn("Distance Matrix element status: {}", elementStatus);
                 return null;
             }
 
-            JsonNode distanceNode = element.get("distance");
-            JsonNode durationNode = element.get("duration");
+            DistanceMatrixApiResponse.TextValue distance = element.getDistance();
+            DistanceMatrixApiResponse.TextValue duration = element.getDuration();
 
-            if (distanceNode == null || durationNode == null) {
+            if (distance == null || duration == null) {
                 log.warn("Missing distance or duration in response");
                 return null;
             }
 
-            int distanceMeters = distanceNode.get("value").asInt();
+            int distanceMeters = distance.getValue();
             double distanceKm = distanceMeters / 1000.0;
-            String distanceText = distanceNode.get("text").asText();
+            String distanceText = distance.getText();
 
-            int durationSeconds = durationNode.get("value").asInt();
+            int durationSeconds = duration.getValue();
             int durationMinutes = durationSeconds / 60;
-            String durationText = durationNode.get("text").asText();
+            String durationText = duration.getText();
 
             log.info("Distance Matrix result - Distance: {} km, Duration: {} minutes (mode: {})",
                     distanceKm, durationMinutes, travelMode);
+            distanceEstimator.calibrate(TravelMode.from(travelMode), originLat, originLng, destLat, destLng,
+                    distanceMeters, durationSeconds);
 
             return new DistanceMatrixResult(
                     distanceKm,
@@ -685,16 +1035,235 @@ public class GoogleMapsService {
         }
     }
 
+    /**
+     * Calculate the distances and durations from every origin to every destination.
+     * The routes are cached per geohash cell of both ends and travel mode; the missing ones are
+     * requested in chunks within the element limits of the Distance Matrix API, concurrently.
+     * The points of one cell share its route, measured from the first of them. The routes of the
+     * chunks that fail or miss the deadline are estimated locally by {@link DistanceEstimator}.
+     * The chunks of concurrent identical batches are requested once.
+     *
+     * @param origins      latitude and longitude of each origin
+     * @param destinations latitude and longitude of each destination
+     * @param mode         Travel mode: "driving", "walking", "bicycling", "transit"
+     *                     (default: "driving")
+     * @return the results by origin, then destination; null where no route was
+     *         found
+     */
+    public DistanceMatrixResult[][] calculateDistanceMatrix(
+            List<double[]> origins, List<double[]> destinations, String mode) {
+        String travelMode = (mode != null && !mode.isEmpty()) ? mode : "driving";
+        DistanceMatrixResult[][] results = new DistanceMatrixResult[origins.size()][destinations.size()];
+        List<String> originCells = origins.stream()
+                .map(point -> DistanceMatrixCache.cellOf(point[0], point[1]))
+                .toList();
+        List<String> destinationCells = destinations.stream()
+                .map(point -> DistanceMatrixCache.cellOf(point[0], point[1]))
+                .toList();
+
+        // cells of the pairs to request, with the point sent for them
+        Map<String, double[]> missingOrigins = new LinkedHashMap<>();
+        Map<String, double[]> missingDestinations = new LinkedHashMap<>();
+        for (int i = 0; i < origins.size(); i++) {
+            for (int j = 0; j < destinations.size(); j++) {
+                results[i][j] = distanceMatrixCache.get(originCells.get(i), destinationCells.get(j), travelMode);
+                if (results[i][j] == null) {
+                    missingOrigins.putIfAbsent(originCells.get(i), origins.get(i));
+                    missingDestinations.putIfAbsent(destinationCells.get(j), destinations.get(j));
+                }
+            }
+        }
+        if (missingOrigins.isEmpty()) {
+            return results;
+        }
+
+        // the missing cells are requested as a whole, a few of their pairs may have been cached already
+        List<Map.Entry<String, double[]>> originList = new ArrayList<>(missingOrigins.entrySet());
+        List<Map.Entry<String, double[]>> destinationList = new ArrayList<>(missingDestinations.entrySet());
+        int destinationsPerChunk = Math.min(destinationList.size(), MAX_MATRIX_DESTINATIONS);
+        int originsPerChunk = Math.min(MAX_MATRIX_ORIGINS, MAX_MATRIX_ELEMENTS / destinationsPerChunk);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(distanceMatrixDeadlineMillis);
+        List<MatrixChunk> chunks = new ArrayList<>();
+        Map<CellPair, DistanceMatrixResult> fetched = new HashMap<>();
+        Set<CellPair> answered = new HashSet<>();
+
+        try {
+            for (int o = 0; o < originList.size(); o += originsPerChunk) {
+                List<Map.Entry<String, double[]>> chunkOrigins = originList.subList(o,
+                        Math.min(o + originsPerChunk, originList.size()));
+                for (int d = 0; d < destinationList.size(); d += destinationsPerChunk) {
+                    List<Map.Entry<String, double[]>> chunkDestinations = destinationList.subList(d,
+                            Math.min(d + destinationsPerChunk, destinationList.size()));
+                    chunks.add(new MatrixChunk(chunkOrigins, chunkDestinations, distanceMatrixChunkFlight.submit(
+                            chunkKey(chunkOrigins, chunkDestinations, travelMode),
+                            () -> requestDistanceMatrix(chunkOrigins, chunkDestinations, travelMode),
+                            distanceMatrixExecutor)));
+                }
+            }
+            for (MatrixChunk chunk : chunks) {
+                Map<CellPair, DistanceMatrixResult> routes = awaitChunk(chunk.routes(), deadline);
+                if (routes != null) {
+                    fetched.putAll(routes);
+                    for (Map.Entry<String, double[]> origin : chunk.origins()) {
+                        for (Map.Entry<String, double[]> destination : chunk.destinations()) {
+                            answered.add(new CellPair(origin.getKey(), destination.getKey()));
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (int i = 0; i < origins.size(); i++) {
+            for (int j = 0; j < destinations.size(); j++) {
+                if (results[i][j] != null) {
+                    continue;
+                }
+                CellPair pair = new CellPair(originCells.get(i), destinationCells.get(j));
+                if (answered.contains(pair)) {
+                    results[i][j] = fetched.get(pair);
+                } else {
+                    double[] origin = origins.get(i);
+                    double[] destination = destinations.get(j);
+                    results[i][j] = distanceEstimator.estimate(travelMode, origin[0], origin[1], destination[0],
+                            destination[1]);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return the routes of the chunk, or null if it failed or missed the deadline
+     */
+    private static Map<CellPair, DistanceMatrixResult> awaitChunk(Future<Map<CellPair, DistanceMatrixResult>> chunk,
+            long deadline) throws InterruptedException {
+        try {
+            return chunk.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Distance Matrix deadline exceeded, estimating a chunk");
+            return null;
+        } catch (ExecutionException e) {
+            log.error("Error calling Distance Matrix API: {}", e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Requests one chunk of a batch distance matrix, caches the routes found and calibrates the
+     * estimator with them.
+     * @return the routes found by cell pair, or null if the request failed
+     */
+    private Map<CellPair, DistanceMatrixResult> requestDistanceMatrix(List<Map.Entry<String, double[]>> origins,
+            List<Map.Entry<String, double[]>> destinations, String travelMode) {
+        try {
+            String url = UriComponentsBuilder.fromUriString(DISTANCE_MATRIX_URL)
+                    .queryParam("origins", toWaypoints(origins))
+                    .queryParam("destinations", toWaypoints(destinations))
+                    .queryParam("mode", travelMode)
+                    .queryParam("language", "vi")
+                    .queryParam("key", googleMapsApiKey)
+                    .build()
+                    .toUriString();
+
+            DistanceMatrixApiResponse response = callGoogleMaps(() -> restTemplate.exchange(
+                    url,
+                    HttpMethod.GET,
+                    new HttpEntity<>(new HttpHeaders()),
+                    DistanceMatrixApiResponse.class).getBody());
+            if (response == null) {
+                return null;
+            }
+
+            String status = response.getStatus();
+            if (!"OK".equals(status)) {
+                log.warn("Distance Matrix API returned status: {}", status);
+                return null;
+            }
+
+            Map<CellPair, DistanceMatrixResult> routes = new HashMap<>();
+            List<DistanceMatrixApiResponse.Row> rows = response.getRows();
+            for (int i = 0; i < origins.size() && i < rows.size(); i++) {
+                List<DistanceMatrixApiResponse.Element> elements = rows.get(i).getElements();
+                for (int j = 0; j < destinations.size() && j < elements.size(); j++) {
+                    DistanceMatrixResult result = toDistanceMatrixResult(elements.get(j), travelMode);
+                    if (result != null) {
+                        Map.Entry<String, double[]> origin = origins.get(i);
+                        Map.Entry<String, double[]> destination = destinations.get(j);
+                        distanceMatrixCache.put(origin.getKey(), destination.getKey(), travelMode, result);
+                        routes.put(new CellPair(origin.getKey(), destination.getKey()), result);
+                        distanceEstimator.calibrate(TravelMode.from(travelMode), origin.getValue()[0],
+                                origin.getValue()[1], destination.getValue()[0], destination.getValue()[1],
+                                result.getDistanceMeters(), result.getDurationSeconds());
+                    }
+                }
+            }
+            log.debug("Distance Matrix chunk of {}x{} returned {} routes", origins.size(), destinations.size(),
+                    routes.size());
+            return routes;
+
+        } catch (Exception e) {
+            log.error("Error calling Distance Matrix API: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Calls a Google Maps web service through the guard. An exception, an empty body or a status showing the
+     * service failing, such as an exceeded quota, counts against the circuit breaker.
+     * @param request the call, binding the response body straight from the stream to the fields used
+     * @return the response, or null when the guard refused the call
+     */
+    private <T extends GoogleApiResponse> T callGoogleMaps(Supplier<T> request) {
+        return googleMapsGuard.call(() -> {
+            T response = request.get();
+            if (response == null) {
+                throw new IllegalStateException("Empty response from Google Maps");
+            }
+            return response;
+        }, response -> SERVICE_FAILURE_STATUSES.contains(response.getStatus()), () -> null);
+    }
+
+    /**
+     * The cells of a chunk, identical for the chunks of identical batches.
+     */
+    private static String chunkKey(List<Map.Entry<String, double[]>> origins,
+            List<Map.Entry<String, double[]>> destinations, String travelMode) {
+        return travelMode + ":" + origins.stream().map(Map.Entry::getKey).collect(Collectors.joining(","))
+                + ">" + destinations.stream().map(Map.Entry::getKey).collect(Collectors.joining(","));
+    }
+
+    private static String toWaypoints(List<Map.Entry<String, double[]>> points) {
+        return points.stream()
+                .map(point -> String.format(Locale.ROOT, "%.6f,%.6f", point.getValue()[0], point.getValue()[1]))
+                .collect(Collectors.joining("|"));
+    }
+
+    /**
+     * @return the route of one Distance Matrix element, or null if the element has none
+     */
+    private static DistanceMatrixResult toDistanceMatrixResult(DistanceMatrixApiResponse.Element element,
+            String travelMode) {
+        DistanceMatrixApiResponse.TextValue distance = element.getDistance();
+        DistanceMatrixApiResponse.TextValue duration = element.getDuration();
+        if (!"OK".equals(element.getStatus()) || distance == null || duration == null) {
+            return null;
+        }
+        int distanceMeters = distance.getValue();
+        int durationSeconds = duration.getValue();
+        return new DistanceMatrixResult(
+                distanceMeters / 1000.0,
+                distanceMeters,
+                distance.getText(),
+                durationSeconds / 60,
+                durationSeconds,
+                duration.getText(),
+                travelMode);
+    }
+
     private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Radius of the earth in km
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                        * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
         // distance in meters
-        return R * c * 1000;
+        return GeoUtils.haversineMeters(lat1, lon1, lat2, lon2);
     }
 }
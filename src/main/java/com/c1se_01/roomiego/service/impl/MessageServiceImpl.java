@@ -1,8 +1,11 @@
 package com.c1se_01.roomiego.service.impl;
 
+import com.c1se_01.roomiego.common.SliceCustom;
 import com.c1se_01.roomiego.dto.ConversationSummaryDTO;
 import com.c1se_01.roomiego.dto.MessageDto;
+import com.c1se_01.roomiego.dto.MessageHistoryDTO;
 import com.c1se_01.roomiego.dto.SendMessageRequest;
+import com.c1se_01.roomiego.dto.common.KeysetCursor;
 import com.c1se_01.roomiego.enums.MessageType;
 import com.c1se_01.roomiego.enums.Status;
 import com.c1se_01.roomiego.exception.NotFoundException;
@@ -12,14 +15,25 @@ import com.c1se_01.roomiego.model.User;
 import com.c1se_01.roomiego.repository.ConversationRepository;
 import com.c1se_01.roomiego.repository.MessageRepository;
 import com.c1se_01.roomiego.repository.UserRepository;
+import com.c1se_01.roomiego.repository.projection.ConversationInboxProjection;
 import com.c1se_01.roomiego.service.MessageService;
+import com.c1se_01.roomiego.service.cache.ConversationKeyCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +44,15 @@ public class MessageServiceImpl implements MessageService {
     private final ConversationRepository conversationRepository;
     private final UserRepository userRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final ConversationKeyCache conversationKeyCache;
+    private final TransactionTemplate transactionTemplate;
+
+    /** Sort name carried by the inbox cursors. */
+    static final String INBOX_CURSOR_SORT = "lastMessageAt";
+    static final int MAX_INBOX_PAGE_SIZE = 100;
+    /** Sort name carried by the message history cursors. */
+    static final String HISTORY_CURSOR_SORT = "timestamp";
+    static final int MAX_HISTORY_PAGE_SIZE = 100;
 
     @Override
     public Message sendMessage(SendMessageRequest request) {
@@ -47,20 +70,7 @@ public class MessageServiceImpl implements MessageService {
 
         Long user2Id = Long.parseLong(parts[2]);
 
-        // Find or create conversation
-        Conversation conversation = conversationRepository.findByUser1IdAndUser2Id(user1Id, user2Id)
-                .orElseGet(() -> {
-                    User user1 = userRepository.findById(user1Id)
-                            .orElseThrow(() -> new NotFoundException("User 1 not found"));
-                    User user2 = userRepository.findById(user2Id)
-                            .orElseThrow(() -> new NotFoundException("User 2 not found"));
-
-                    Conversation newConversation = new Conversation();
-                    newConversation.setUser1(user1);
-                    newConversation.setUser2(user2);
-                    newConversation.setCreatedAt(new Date());
-                    return conversationRepository.save(newConversation);
-                });
+        Long conversationId = getOrCreateConversationId(user1Id, user2Id);
 
         // Create and save message
         Message message = new Message();
@@ -69,18 +79,20 @@ public class MessageServiceImpl implements MessageService {
         message.setTimestamp(System.currentTimeMillis());
         message.setType(MessageType.PRIVATE);
         message.setStatus(Status.MESSAGE);
-        message.setConversationId(conversation.getId());
+        message.setConversationId(conversationId);
 
         // Set sender and receiver names
         User sender = userRepository.findById(request.getSenderId())
                 .orElseThrow(() -> new NotFoundException("Sender not found"));
         message.setSenderName(sender.getEmail());
 
-        User receiver = request.getSenderId().equals(user1Id) ? conversation.getUser2() : conversation.getUser1();
+        Long receiverId = request.getSenderId().equals(user1Id) ? user2Id : user1Id;
+        User receiver = userRepository.findById(receiverId)
+                .orElseThrow(() -> new NotFoundException("Receiver not found"));
         message.setReceiverName(receiver.getEmail());
         message.setReceiverId(receiver.getId());
 
-        Message savedMessage = messageRepository.save(message);
+        Message savedMessage = saveAndRecord(message);
 
         // Send WebSocket notification
         messagingTemplate.convertAndSend("/topic/messages/" + request.getConversationId(), savedMessage);
@@ -129,22 +141,7 @@ public class MessageServiceImpl implements MessageService {
                 messageDto.getReceiverName(), resolvedReceiverId);
         String conversationId = messageDto.getConversationId();
         if (resolvedSenderId != null && resolvedReceiverId != null) {
-            final Long senderIdFinal = resolvedSenderId;
-            final Long receiverIdFinal = resolvedReceiverId;
-            Conversation conversation = conversationRepository
-                    .findByUser1IdAndUser2Id(senderIdFinal, receiverIdFinal)
-                    .orElseGet(() -> {
-                        User sender = userRepository.findById(senderIdFinal)
-                                .orElseThrow(() -> new NotFoundException("Sender not found"));
-                        User receiver = userRepository.findById(receiverIdFinal)
-                                .orElseThrow(() -> new NotFoundException("Receiver not found"));
-                        Conversation newConversation = new Conversation();
-                        newConversation.setUser1(sender);
-                        newConversation.setUser2(receiver);
-                        newConversation.setCreatedAt(new Date());
-                        return conversationRepository.save(newConversation);
-                    });
-            message.setConversationId(conversation.getId());
+            message.setConversationId(getOrCreateConversationId(resolvedSenderId, resolvedReceiverId));
         } else if (conversationId != null) {
             try {
                 Long numericConversationId = Long.parseLong(conversationId);
@@ -153,7 +150,7 @@ public class MessageServiceImpl implements MessageService {
             }
         }
 
-        messageRepository.save(message);
+        saveAndRecord(message);
     }
 
     @Override
@@ -192,24 +189,9 @@ public class MessageServiceImpl implements MessageService {
 
         String conversationId = messageDto.getConversationId();
         if (resolvedSenderId != null && resolvedReceiverId != null) {
-            final Long senderIdFinal = resolvedSenderId;
-            final Long receiverIdFinal = resolvedReceiverId;
-            Conversation conversation = conversationRepository
-                    .findByUser1IdAndUser2Id(senderIdFinal, receiverIdFinal)
-                    .orElseGet(() -> {
-                        User sender = userRepository.findById(senderIdFinal)
-                                .orElseThrow(() -> new NotFoundException("Sender not found"));
-                        User receiver = userRepository.findById(receiverIdFinal)
-                                .orElseThrow(() -> new NotFoundException("Receiver not found"));
-                        Conversation newConversation = new Conversation();
-                        newConversation.setUser1(sender);
-                        newConversation.setUser2(receiver);
-                        newConversation.setCreatedAt(new Date());
-                        log.info("Creating new conversation between {} and {}", senderIdFinal, receiverIdFinal);
-                        return conversationRepository.save(newConversation);
-                    });
-            message.setConversationId(conversation.getId());
-            log.info("Message assigned to conversation ID: {}", conversation.getId());
+            Long resolvedConversationId = getOrCreateConversationId(resolvedSenderId, resolvedReceiverId);
+            message.setConversationId(resolvedConversationId);
+            log.info("Message assigned to conversation ID: {}", resolvedConversationId);
         } else if (conversationId != null) {
             try {
                 Long numericConversationId = Long.parseLong(conversationId);
@@ -218,7 +200,7 @@ public class MessageServiceImpl implements MessageService {
             }
         }
 
-        return messageRepository.save(message);
+        return saveAndRecord(message);
     }
 
     @Override
@@ -231,6 +213,21 @@ public class MessageServiceImpl implements MessageService {
         return messageRepository.findChatHistoryBetweenUsers(user1Id, user2Id);
     }
 
+    @Override
+    public MessageHistoryDTO findChatHistoryBetweenUsers(String user1, String user2, String before, String after,
+            int size) {
+        Long user1Id = resolveUserId(user1);
+        Long user2Id = resolveUserId(user2);
+        Optional<Long> conversationId = user1Id == null || user2Id == null
+                ? Optional.empty()
+                : conversationRepository.findIdBetween(user1Id, user2Id);
+        if (conversationId.isEmpty()) {
+            validateHistoryPage(before, after, size);
+            return new MessageHistoryDTO(List.of(), null, null, false, false);
+        }
+        return getMessagesByConversationId(conversationId.get(), before, after, size);
+    }
+
     @Override
     public List<Message> findByType(MessageType type) {
         return messageRepository.findByType(type);
@@ -238,6 +235,7 @@ public class MessageServiceImpl implements MessageService {
 
     @Override
     public List<ConversationSummaryDTO> getConversationsForUser(Long userId) {
+        // the last message is kept on the conversation, no query per conversation
         List<Conversation> conversations = conversationRepository.findAllByUserId(userId);
         return conversations.stream()
                 .map(conversation -> {
@@ -245,9 +243,6 @@ public class MessageServiceImpl implements MessageService {
                             ? conversation.getUser2()
                             : conversation.getUser1();
 
-                    Message lastMessage = messageRepository
-                            .findTopByConversationIdOrderByTimestampDesc(conversation.getId());
-
                     ConversationSummaryDTO dto = new ConversationSummaryDTO();
                     dto.setConversationId(conversation.getId());
                     dto.setPartnerId(partner.getId());
@@ -255,42 +250,203 @@ public class MessageServiceImpl implements MessageService {
                     dto.setPartnerName(partner.getFullName());
                     dto.setPartnerPhone(partner.getPhone());
                     dto.setPartnerRole(partner.getRole() != null ? partner.getRole().name() : null);
-                    dto.setLastMessage(lastMessage != null ? lastMessage.getMessage() : null);
-                    Long lastTimestamp = lastMessage != null
-                            ? lastMessage.getTimestamp()
-                            : conversation.getCreatedAt() != null
-                                    ? conversation.getCreatedAt().getTime()
-                                    : new Date().getTime();
-                    dto.setLastTimestamp(lastTimestamp);
+                    dto.setLastMessage(conversation.getLastMessagePreview());
+                    dto.setLastTimestamp(conversation.getLastMessageAt());
+                    dto.setUnreadCount(conversation.unreadCountOf(userId));
                     return dto;
                 })
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public SliceCustom<ConversationSummaryDTO> getInbox(Long userId, String cursor, int size) {
+        if (size < 1 || size > MAX_INBOX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_INBOX_PAGE_SIZE);
+        }
+        long afterAt = Long.MAX_VALUE;
+        long afterId = Long.MAX_VALUE;
+        if (StringUtils.hasText(cursor)) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            if (!position.matches(INBOX_CURSOR_SORT, Direction.DESC) || position.value() == null) {
+                throw new IllegalArgumentException("Cursor was not issued for the inbox");
+            }
+            try {
+                afterAt = Long.parseLong(position.value());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+            afterId = position.id();
+        }
+
+        // One extra row tells whether there is a next slice without a count query
+        List<ConversationInboxProjection> rows = conversationRepository.findInboxPage(userId, afterAt, afterId,
+                size + 1);
+        boolean hasNext = rows.size() > size;
+        List<ConversationInboxProjection> slice = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            ConversationInboxProjection last = slice.get(slice.size() - 1);
+            nextCursor = new KeysetCursor(INBOX_CURSOR_SORT, Direction.DESC, last.getConversationId(),
+                    String.valueOf(last.getLastMessageAt())).encode();
+        }
+        return new SliceCustom<>(slice.stream()
+                .map(row -> new ConversationSummaryDTO(row.getConversationId(), row.getPartnerId(),
+                        row.getPartnerEmail(), row.getPartnerName(), row.getPartnerPhone(), row.getPartnerRole(),
+                        row.getLastMessage(), row.getLastMessageAt(),
+                        row.getUnreadCount() != null ? row.getUnreadCount() : 0))
+                .collect(Collectors.toList()), nextCursor, hasNext);
+    }
+
+    @Override
+    public void markConversationRead(Long conversationId, Long userId) {
+        if (conversationRepository.markRead(conversationId, userId) == 0) {
+            throw new NotFoundException("Conversation not found");
+        }
+    }
+
     @Override
     public List<Message> getMessagesByConversationId(Long conversationId) {
         return messageRepository.findByConversationIdOrderByTimestampAsc(conversationId);
     }
 
+    @Override
+    public MessageHistoryDTO getMessagesByConversationId(Long conversationId, String before, String after,
+            int size) {
+        validateHistoryPage(before, after, size);
+        // One extra row tells whether there is a further page without a count query
+        Pageable limit = PageRequest.of(0, size + 1);
+        if (StringUtils.hasText(after)) {
+            KeysetCursor position = decodeHistoryCursor(after);
+            List<Message> rows = messageRepository.findPageAfter(conversationId, historyTimestampOf(position),
+                    position.id(), limit);
+            boolean hasNewer = rows.size() > size;
+            List<Message> page = hasNewer ? rows.subList(0, size) : rows;
+            return historyPage(page, true, hasNewer, after);
+        }
+
+        long beforeTimestamp = Long.MAX_VALUE;
+        long beforeId = Long.MAX_VALUE;
+        boolean fromCursor = StringUtils.hasText(before);
+        if (fromCursor) {
+            KeysetCursor position = decodeHistoryCursor(before);
+            beforeTimestamp = historyTimestampOf(position);
+            beforeId = position.id();
+        }
+        List<Message> rows = messageRepository.findPageBefore(conversationId, beforeTimestamp, beforeId, limit);
+        boolean hasOlder = rows.size() > size;
+        List<Message> page = new ArrayList<>(hasOlder ? rows.subList(0, size) : rows);
+        Collections.reverse(page);
+        return historyPage(page, hasOlder, fromCursor, null);
+    }
+
     @Override
     public List<Message> getOrCreateConversationMessages(Long userId1, Long userId2) {
-        // Find or create conversation
-        Conversation conversation = conversationRepository.findByUser1IdAndUser2Id(userId1, userId2)
-                .orElseGet(() -> {
-                    User user1 = userRepository.findById(userId1)
-                            .orElseThrow(() -> new NotFoundException("User 1 not found"));
-                    User user2 = userRepository.findById(userId2)
-                            .orElseThrow(() -> new NotFoundException("User 2 not found"));
-
-                    Conversation newConversation = new Conversation();
-                    newConversation.setUser1(user1);
-                    newConversation.setUser2(user2);
-                    newConversation.setCreatedAt(new Date());
-                    return conversationRepository.save(newConversation);
-                });
+        Long conversationId = getOrCreateConversationId(userId1, userId2);
 
         // Return messages for this conversation
-        return messageRepository.findByConversationIdOrderByTimestampAsc(conversation.getId());
+        return messageRepository.findByConversationIdOrderByTimestampAsc(conversationId);
+    }
+
+    @Override
+    public MessageHistoryDTO getOrCreateConversationMessages(Long userId1, Long userId2, String before,
+            String after, int size) {
+        validateHistoryPage(before, after, size);
+        return getMessagesByConversationId(getOrCreateConversationId(userId1, userId2), before, after, size);
+    }
+
+    private static void validateHistoryPage(String before, String after, int size) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        if (StringUtils.hasText(before) && StringUtils.hasText(after)) {
+            throw new IllegalArgumentException("Only one of before and after can be given");
+        }
+    }
+
+    private static KeysetCursor decodeHistoryCursor(String cursor) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        if (!position.matches(HISTORY_CURSOR_SORT, Direction.ASC) || position.value() == null) {
+            throw new IllegalArgumentException("Cursor was not issued for a message history");
+        }
+        return position;
+    }
+
+    private static long historyTimestampOf(KeysetCursor position) {
+        try {
+            return Long.parseLong(position.value());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor value for sort " + HISTORY_CURSOR_SORT, e);
+        }
+    }
+
+    private static String historyCursorOf(Message message) {
+        return new KeysetCursor(HISTORY_CURSOR_SORT, Direction.ASC, message.getId(),
+                String.valueOf(message.getTimestamp())).encode();
+    }
+
+    /**
+     * @param page       the messages, oldest first
+     * @param emptyAfter the after cursor of an empty page: the one it was loaded with, so that polling resumes
+     *                   from the same position
+     */
+    private static MessageHistoryDTO historyPage(List<Message> page, boolean hasOlder, boolean hasNewer,
+            String emptyAfter) {
+        if (page.isEmpty()) {
+            return new MessageHistoryDTO(page, null, emptyAfter, false, hasNewer);
+        }
+        return new MessageHistoryDTO(page,
+                hasOlder ? historyCursorOf(page.get(0)) : null,
+                historyCursorOf(page.get(page.size() - 1)),
+                hasOlder,
+                hasNewer);
+    }
+
+    /**
+     * Saves a message and records it on its conversation in one transaction, so that the last message and
+     * the unread counts of the inbox never miss a saved message.
+     */
+    private Message saveAndRecord(Message message) {
+        return transactionTemplate.execute(status -> {
+            Message saved = messageRepository.save(message);
+            if (saved.getConversationId() != null && saved.getSenderId() != null) {
+                conversationRepository.recordMessage(saved.getConversationId(), saved.getId(),
+                        Conversation.previewOf(saved.getMessage()), saved.getTimestamp(), saved.getSenderId());
+            }
+            return saved;
+        });
+    }
+
+    /**
+     * The id of the conversation between two users, created with their first message. Served from the cache
+     * once known.
+     */
+    private Long getOrCreateConversationId(Long userId, Long otherUserId) {
+        return conversationKeyCache.get(userId, otherUserId,
+                () -> conversationRepository.findIdBetween(userId, otherUserId)
+                        .orElseGet(() -> createConversation(userId, otherUserId)));
+    }
+
+    /**
+     * Inserts the conversation of a pair. The unique key of the pair lets a single insert win when first
+     * messages race; the others read the conversation it created.
+     */
+    private Long createConversation(Long userId, Long otherUserId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User " + userId + " not found"));
+        User otherUser = userRepository.findById(otherUserId)
+                .orElseThrow(() -> new NotFoundException("User " + otherUserId + " not found"));
+
+        Conversation conversation = new Conversation();
+        conversation.setUser1(user);
+        conversation.setUser2(otherUser);
+        conversation.setCreatedAt(new Date());
+        try {
+            Long conversationId = conversationRepository.saveAndFlush(conversation).getId();
+            log.info("Created conversation {} between {} and {}", conversationId, userId, otherUserId);
+            return conversationId;
+        } catch (DataIntegrityViolationException e) {
+            return conversationRepository.findIdBetween(userId, otherUserId).orElseThrow(() -> e);
+        }
     }
 
     private Long resolveUserId(String identifier) {
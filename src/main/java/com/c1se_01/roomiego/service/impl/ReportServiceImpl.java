@@ -9,6 +9,8 @@ import com.c1se_01.roomiego.dto.ReportRequest;
 import com.c1se_01.roomiego.dto.ReportResponse;
 import com.c1se_01.roomiego.enums.NotificationType;
 import com.c1se_01.roomiego.enums.Role;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
 import com.c1se_01.roomiego.model.Report;
 import com.c1se_01.roomiego.mapper.ReportMapper;
 import com.c1se_01.roomiego.model.Room;
@@ -19,6 +21,7 @@ import com.c1se_01.roomiego.repository.UserRepository;
 import com.c1se_01.roomiego.service.NotificationService;
 import com.c1se_01.roomiego.service.ReportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -42,6 +45,7 @@ public class ReportServiceImpl implements ReportService {
     private final NotificationService notificationService;
     private final SimpMessagingTemplate messagingTemplate;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public void reportRoom(ReportRequest request) {
@@ -122,6 +126,7 @@ public class ReportServiceImpl implements ReportService {
 
             // Xóa Room
             roomRepository.delete(roomToDelete);
+            eventPublisher.publishEvent(new RoomChangedEvent(roomToDelete, RoomChangeType.DELETED));
 
             notificationDto.setUserId(report.getRoom().getOwner().getId());
             notificationDto.setMessage("Bài đăng của bạn đã bị xóa do vi phạm!");
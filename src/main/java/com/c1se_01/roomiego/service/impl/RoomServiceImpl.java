@@ -1,33 +1,68 @@
 package com.c1se_01.roomiego.service.impl;
 
+import com.c1se_01.roomiego.common.SliceCustom;
+import com.c1se_01.roomiego.dto.FacetCount;
 import com.c1se_01.roomiego.dto.RoomDTO;
 import com.c1se_01.roomiego.dto.common.FilterParam;
+import com.c1se_01.roomiego.dto.common.KeysetCursor;
+import com.c1se_01.roomiego.dto.common.NearbyQuery;
+import com.c1se_01.roomiego.dto.common.ResourceVersion;
+import com.c1se_01.roomiego.enums.ExportFormat;
+import com.c1se_01.roomiego.enums.GeoStatus;
 import com.c1se_01.roomiego.enums.Role;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
 import com.c1se_01.roomiego.exception.ForbiddenException;
 import com.c1se_01.roomiego.exception.NotFoundException;
 import com.c1se_01.roomiego.mapper.RoomMapper;
 import com.c1se_01.roomiego.model.Room;
 import com.c1se_01.roomiego.model.RoomImage;
+import com.c1se_01.roomiego.model.RoomSearchView;
 import com.c1se_01.roomiego.model.User;
 import com.c1se_01.roomiego.repository.RoomImageRepository;
 import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.repository.RoomSearchViewRepository;
 import com.c1se_01.roomiego.repository.UserRepository;
 import com.c1se_01.roomiego.service.RoomService;
+import com.c1se_01.roomiego.service.cache.RoomCatalogStamp;
+import com.c1se_01.roomiego.service.cache.RoomQueryCache;
+import com.c1se_01.roomiego.service.export.RoomExportWriter;
+import com.c1se_01.roomiego.service.geocoding.RoomGeocodingWorker;
+import com.c1se_01.roomiego.service.index.RankedHit;
+import com.c1se_01.roomiego.service.index.RoomFacetIndex;
+import com.c1se_01.roomiego.service.index.RoomSearchIndex;
+import com.c1se_01.roomiego.service.index.RoomSpatialIndex;
+import com.c1se_01.roomiego.service.index.SearchQuery;
+import com.c1se_01.roomiego.service.specification.RoomKeyset;
 import com.c1se_01.roomiego.service.specification.RoomSpecification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -35,13 +70,53 @@ import java.util.stream.Collectors;
 public class RoomServiceImpl implements RoomService {
     private final RoomRepository roomRepository;
     private final RoomImageRepository roomImageRepository;
+    private final RoomSearchViewRepository roomSearchViewRepository;
 
     private final UserRepository userRepository;
-    private final GoogleMapsService googleMapsService;
+    private final RoomGeocodingWorker roomGeocodingWorker;
 
     private final RoomMapper roomMapper;
 
+    private final RoomSpatialIndex roomSpatialIndex;
+    private final RoomSearchIndex roomSearchIndex;
+    private final RoomFacetIndex roomFacetIndex;
+    private final RoomQueryCache roomQueryCache;
+    private final RoomCatalogStamp roomCatalogStamp;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final String DEFAULT_SORT = "id";
+
+    /**
+     * Sort name carried by cursors of nearby searches, which are always ordered by distance.
+     */
+    private static final String NEARBY_CURSOR_SORT = "distance";
+
+    /**
+     * Sort name carried by cursors of text searches ranked by relevance.
+     */
+    private static final String RELEVANCE_CURSOR_SORT = "relevance";
+
+    /**
+     * Above this many index hits the criteria query selects all matching ids instead of an IN list.
+     */
+    private static final int MAX_ID_IN_SIZE = 1000;
+
+    /**
+     * Ids read per query when the rows matching the criteria are kept to the index hits in memory.
+     */
+    private static final int ID_SCAN_BATCH_SIZE = 500;
+
+    /**
+     * Rows fetched per round trip by exports, and rows written between two flushes of the response.
+     * MySQL only honours it with {@code useCursorFetch=true}, set on the connections in application.properties.
+     */
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    /** Export order, so that an incremental pull can resume from the last updatedAt it received. */
+    private static final Sort EXPORT_SORT = Sort.by("updatedAt", "id");
+
     @Override
+    @Transactional
     public RoomDTO createRoom(RoomDTO roomDTO, Long ownerId) {
         User user = userRepository.findById(ownerId)
                 .orElseThrow(() -> new NotFoundException("User không tồn tại"));
@@ -52,22 +127,18 @@ public class RoomServiceImpl implements RoomService {
 
         roomDTO.setOwnerId(ownerId); // Gán ownerId chính xác
 
+        Room room = roomMapper.toEntity(roomDTO);
+        room.setOwner(user);
+        // a room without coordinates is geocoded in the background, creation does not wait for Google
+        String fullAddress = null;
         if (roomDTO.getLatitude() == null || roomDTO.getLongitude() == null) {
-            String fullAddress = buildFullAddress(roomDTO);
-            if (fullAddress != null) {
-                var locationResponse = googleMapsService.geocodeAddress(fullAddress);
-                if (locationResponse != null) {
-                    roomDTO.setLatitude(locationResponse.getLatitude());
-                    roomDTO.setLongitude(locationResponse.getLongitude());
-                } else {
-                    throw new NotFoundException("Không thể lấy tọa độ cho địa chỉ đã cho");
-                }
-
-            }
+            fullAddress = buildFullAddress(roomDTO);
+            room.setGeoStatus(fullAddress == null ? GeoStatus.FAILED : GeoStatus.PENDING);
         }
-
-        Room room = roomMapper.toEntity(roomDTO);
         Room savedRoom = roomRepository.save(room);
+        if (fullAddress != null) {
+            roomGeocodingWorker.enqueue(savedRoom.getId(), fullAddress);
+        }
 
         if (roomDTO.getImageUrls() != null && !roomDTO.getImageUrls().isEmpty()) {
             List<RoomImage> roomImages = roomDTO.getImageUrls().stream()
@@ -77,11 +148,29 @@ public class RoomServiceImpl implements RoomService {
             savedRoom.setRoomImages(roomImages);
         }
 
+        eventPublisher.publishEvent(new RoomChangedEvent(savedRoom, RoomChangeType.CREATED));
         return roomMapper.toDTO(savedRoom);
     }
 
     @Override
     public List<RoomDTO> getAllRooms(FilterParam filterParam) {
+        return roomQueryCache.getListing(filterParam, () -> loadListing(filterParam));
+    }
+
+    private List<RoomDTO> loadListing(FilterParam filterParam) {
+        Ranking ranking = rankInMemory(filterParam);
+        if (ranking != null) {
+            List<RankedHit> hits = ranking.hits();
+            long from = (long) filterParam.getPage() * filterParam.getSize();
+            if (from >= hits.size()) {
+                return List.of();
+            }
+            int to = (int) Math.min(hits.size(), from + filterParam.getSize());
+            return loadInOrder(hits.subList((int) from, to).stream()
+                    .map(RankedHit::roomId)
+                    .collect(Collectors.toList()));
+        }
+
         // Build sort
         Direction direction = filterParam.getOrder() == Direction.ASC
                 ? Direction.ASC
@@ -90,19 +179,323 @@ public class RoomServiceImpl implements RoomService {
 
         Pageable pageable = PageRequest.of(filterParam.getPage(), filterParam.getSize(), sort);
 
-        Specification<Room> spec = RoomSpecification.buildSpecification(filterParam);
-        log.debug("Room Specification: {}", spec);
-        Page<Room> roomPage = roomRepository.findAll(spec, pageable);
-        List<Room> rooms = roomPage.getContent();
+        ListingCriteria criteria = buildListingCriteria(filterParam);
+        log.debug("Room Specification: {}", criteria.spec());
+        if (criteria.indexHits() == null) {
+            // Ids of the page only, the rows themselves come from the read model
+            return loadInOrder(roomRepository.findIds(criteria.spec(), pageable));
+        }
+        Sort totalOrder = "id".equals(filterParam.getSort()) ? sort : sort.and(Sort.by(direction, "id"));
+        return loadInOrder(findKeptIds(criteria.spec(), criteria, totalOrder, pageable.getOffset(),
+                pageable.getPageSize()));
+    }
+
+    @Override
+    public SliceCustom<RoomDTO> getRoomsByCursor(FilterParam filterParam) {
+        int size = filterParam.getSize();
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        KeysetCursor cursor = StringUtils.hasText(filterParam.getCursor())
+                ? KeysetCursor.decode(filterParam.getCursor())
+                : null;
+
+        Ranking ranking = rankInMemory(filterParam);
+        if (ranking != null) {
+            return sliceRanking(ranking, cursor, size);
+        }
+
+        Direction direction = filterParam.getOrder() == Direction.ASC
+                ? Direction.ASC
+                : Direction.DESC;
+        String sortField = filterParam.getSort();
+
+        ListingCriteria criteria = buildListingCriteria(filterParam);
+        Specification<Room> spec = criteria.spec();
+        if (cursor != null) {
+            if (!cursor.matches(sortField, direction)) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+            spec = spec.and(RoomKeyset.after(cursor));
+        }
+
+        // One extra row tells whether there is a next slice without a count query
+        Sort keysetSort = RoomKeyset.sort(sortField, direction);
+        List<Room> rooms;
+        if (criteria.indexHits() == null) {
+            rooms = roomRepository.findSlice(spec, keysetSort, size + 1);
+        } else {
+            rooms = findAllInOrder(findKeptIds(spec, criteria, keysetSort, 0, size + 1));
+        }
+        boolean hasNext = rooms.size() > size;
+        List<Room> slice = hasNext ? rooms.subList(0, size) : rooms;
+        String nextCursor = hasNext
+                ? RoomKeyset.cursorOf(slice.get(slice.size() - 1), sortField, direction).encode()
+                : null;
+
+        return new SliceCustom<>(
+                loadInOrder(slice.stream().map(Room::getId).collect(Collectors.toList())),
+                nextCursor,
+                hasNext);
+    }
+
+    @Override
+    public Map<String, List<FacetCount>> getFacets(FilterParam filterParam) {
+        if (!roomFacetIndex.isReady()) {
+            log.warn("Room facet index is not ready, returning no facet counts");
+            return Map.of();
+        }
+        Ranking ranking = rankInMemory(filterParam);
+        if (ranking != null) {
+            return roomFacetIndex.count(ranking.hits().stream()
+                    .map(RankedHit::roomId)
+                    .collect(Collectors.toList()));
+        }
+        if (!RoomSpecification.hasCriteria(filterParam, true, true)) {
+            return roomFacetIndex.countAll();
+        }
+        // one id-only query for the whole listing, the counting itself is done on the bitsets
+        ListingCriteria criteria = buildListingCriteria(filterParam);
+        return roomFacetIndex.count(criteria.keep(roomRepository.findIds(criteria.spec())));
+    }
+
+    /**
+     * Hits of an in-memory index in result order, with the sort name and direction their cursors carry.
+     */
+    private record Ranking(String sort, Direction direction, List<RankedHit> hits) {
+        Comparator<RankedHit> order() {
+            return direction.isAscending() ? RankedHit.BY_VALUE_ASC : RankedHit.BY_VALUE_DESC;
+        }
+    }
+
+    /**
+     * Answers the listing from the in-memory indexes when they can order it: nearby searches by distance
+     * and, when no other sort is requested, text searches by relevance. The remaining criteria are applied
+     * as an id-only query so that only the requested page is loaded.
+     * @return the ranking, or null if the listing has to be answered by the database
+     */
+    private Ranking rankInMemory(FilterParam filterParam) {
+        NearbyQuery nearby = RoomSpecification.findNearbyQuery(filterParam);
+        boolean spatial = nearby != null && roomSpatialIndex.isReady();
+        SearchQuery search = parseIndexedSearch(filterParam);
+        boolean rankBySearch = search != null && DEFAULT_SORT.equals(filterParam.getSort());
+        if (!spatial && !rankBySearch) {
+            return null;
+        }
+
+        Ranking ranking;
+        if (spatial) {
+            List<RankedHit> hits = roomSpatialIndex
+                    .findNearby(nearby.latitude(), nearby.longitude(), nearby.radiusMeters());
+            if (search != null && !hits.isEmpty()) {
+                Set<Long> matchingIds = roomSearchIndex.search(search).stream()
+                        .map(RankedHit::roomId)
+                        .collect(Collectors.toSet());
+                hits = hits.stream()
+                        .filter(hit -> matchingIds.contains(hit.roomId()))
+                        .collect(Collectors.toList());
+            }
+            ranking = new Ranking(NEARBY_CURSOR_SORT, Direction.ASC, hits);
+        } else {
+            ranking = new Ranking(RELEVANCE_CURSOR_SORT, Direction.DESC, roomSearchIndex.search(search));
+        }
+
+        boolean includeSearch = search == null;
+        if (ranking.hits().isEmpty() || !RoomSpecification.hasCriteria(filterParam, !spatial, includeSearch)) {
+            return ranking;
+        }
+        Specification<Room> spec = RoomSpecification.buildSpecification(filterParam, !spatial, includeSearch);
+        return new Ranking(ranking.sort(), ranking.direction(), filterByCriteria(ranking.hits(), spec));
+    }
+
+    /**
+     * Keyset slicing of an in-memory ranking: the cursor holds the value and id of the last hit.
+     */
+    private SliceCustom<RoomDTO> sliceRanking(Ranking ranking, KeysetCursor cursor, int size) {
+        List<RankedHit> hits = ranking.hits();
+        int from = 0;
+        if (cursor != null) {
+            if (!cursor.matches(ranking.sort(), ranking.direction()) || cursor.value() == null) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+            RankedHit last;
+            try {
+                last = new RankedHit(cursor.id(), Double.parseDouble(cursor.value()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor value for sort " + ranking.sort(), e);
+            }
+            int position = Collections.binarySearch(hits, last, ranking.order());
+            from = position >= 0 ? position + 1 : -position - 1;
+        }
+
+        int to = Math.min(hits.size(), from + size);
+        List<RankedHit> slice = hits.subList(from, to);
+        boolean hasNext = to < hits.size();
+        String nextCursor = null;
+        if (hasNext) {
+            RankedHit last = slice.get(slice.size() - 1);
+            nextCursor = new KeysetCursor(ranking.sort(), ranking.direction(), last.roomId(),
+                    String.valueOf(last.value())).encode();
+        }
+        return new SliceCustom<>(loadInOrder(slice.stream()
+                .map(RankedHit::roomId)
+                .collect(Collectors.toList())), nextCursor, hasNext);
+    }
+
+    /**
+     * The database criteria of a listing.
+     * @param indexHits the search index hits the rows of the specification are kept to in memory, null if the
+     *                  specification alone selects the listing
+     */
+    private record ListingCriteria(Specification<Room> spec, Set<Long> indexHits) {
+        boolean keeps(Long roomId) {
+            return indexHits == null || indexHits.contains(roomId);
+        }
+
+        List<Long> keep(List<Long> ids) {
+            return indexHits == null ? ids : ids.stream().filter(this::keeps).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * The database criteria of the listing. When the search index is ready the search text is matched by the
+     * index (accent-insensitive, over all text fields) instead of the title LIKE: up to {@link #MAX_ID_IN_SIZE}
+     * hits become an IN list, above it the rows matching the other criteria are kept to the hits in memory.
+     */
+    private ListingCriteria buildListingCriteria(FilterParam filterParam) {
+        SearchQuery search = parseIndexedSearch(filterParam);
+        if (search == null) {
+            return new ListingCriteria(RoomSpecification.buildSpecification(filterParam), null);
+        }
+        List<Long> matchingIds = roomSearchIndex.search(search).stream()
+                .map(RankedHit::roomId)
+                .collect(Collectors.toList());
+        Specification<Room> spec = RoomSpecification.buildSpecification(filterParam, true, false);
+        if (matchingIds.size() <= MAX_ID_IN_SIZE) {
+            return new ListingCriteria(spec.and(RoomSpecification.idIn(matchingIds)), null);
+        }
+        return new ListingCriteria(spec, new HashSet<>(matchingIds));
+    }
+
+    /**
+     * Parses the search text if the search index can answer it, null otherwise.
+     */
+    private SearchQuery parseIndexedSearch(FilterParam filterParam) {
+        if (!RoomSpecification.hasSearch(filterParam) || !roomSearchIndex.isReady()) {
+            return null;
+        }
+        SearchQuery query = SearchQuery.parse(filterParam.getSearch());
+        return query.isEmpty() ? null : query;
+    }
+
+    /**
+     * Keeps the hits matching the specification, in their original order.
+     */
+    private List<RankedHit> filterByCriteria(List<RankedHit> hits, Specification<Room> spec) {
+        Specification<Room> idSpec = spec;
+        if (hits.size() <= MAX_ID_IN_SIZE) {
+            idSpec = spec.and(RoomSpecification.idIn(hits.stream()
+                    .map(RankedHit::roomId)
+                    .collect(Collectors.toList())));
+        }
+        Set<Long> matchingIds = new HashSet<>(roomRepository.findIds(idSpec));
+        return hits.stream()
+                .filter(hit -> matchingIds.contains(hit.roomId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Selects the ids of the rows matching the specification and kept by the criteria, in the given order:
+     * {@code limit} of them after skipping {@code skip}. The ids are read a batch at a time and the reading
+     * stops once enough are kept, so only the rows up to the requested page are scanned.
+     * @param sort a total order, so that the batches neither skip nor repeat rows
+     */
+    private List<Long> findKeptIds(Specification<Room> spec, ListingCriteria criteria, Sort sort, long skip,
+            int limit) {
+        List<Long> kept = new ArrayList<>();
+        long skipped = 0;
+        for (int batch = 0;; batch++) {
+            List<Long> ids = roomRepository.findIds(spec, PageRequest.of(batch, ID_SCAN_BATCH_SIZE, sort));
+            for (Long id : ids) {
+                if (!criteria.keeps(id)) {
+                    continue;
+                }
+                if (skipped < skip) {
+                    skipped++;
+                    continue;
+                }
+                kept.add(id);
+                if (kept.size() == limit) {
+                    return kept;
+                }
+            }
+            if (ids.size() < ID_SCAN_BATCH_SIZE) {
+                return kept;
+            }
+        }
+    }
+
+    /**
+     * Loads the rooms in the order of the ids.
+     */
+    private List<Room> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Room> rooms = roomRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Room::getId, room -> room));
+        return ids.stream()
+                .map(rooms::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
 
-        return rooms.stream().map(roomMapper::toDTO).collect(Collectors.toList());
+    /**
+     * Reads the rooms from the {@code room_search_view} read model in one query, in the order of the ids.
+     * Rooms missing from the view (written outside of the application) are loaded from the rooms table.
+     */
+    private List<RoomDTO> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, RoomDTO> rooms = new HashMap<>();
+        for (RoomSearchView view : roomSearchViewRepository.findAllById(ids)) {
+            rooms.put(view.getId(), roomMapper.toDTO(view));
+        }
+        if (rooms.size() < ids.size()) {
+            List<Long> missing = ids.stream()
+                    .filter(id -> !rooms.containsKey(id))
+                    .collect(Collectors.toList());
+            log.warn("Rooms {} are missing from room_search_view, loading them from rooms", missing);
+            roomRepository.findAllById(missing).forEach(room -> rooms.put(room.getId(), roomMapper.toDTO(room)));
+        }
+        return ids.stream()
+                .map(rooms::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     @Override
     public RoomDTO getRoomById(Long roomId) {
-        Room room = roomRepository.findById(roomId)
+        return roomQueryCache.getRoom(roomId, id -> {
+            Room room = roomRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Phòng không tồn tại"));
+            return roomMapper.toDTO(room);
+        });
+    }
+
+    @Override
+    public ResourceVersion getRoomVersion(Long roomId) {
+        return roomRepository.findVersionById(roomId)
+                .map(version -> ResourceVersion.of("room",
+                        new Object[] { roomId, version.getVersion(), version.getOwnerVersion() },
+                        version.getUpdatedAt(), version.getOwnerUpdatedAt()))
                 .orElseThrow(() -> new NotFoundException("Phòng không tồn tại"));
-        return roomMapper.toDTO(room);
+    }
+
+    @Override
+    public ResourceVersion getListingVersion() {
+        return roomCatalogStamp.current();
     }
 
     @Override
@@ -116,6 +509,7 @@ public class RoomServiceImpl implements RoomService {
 
         roomMapper.updateEntityFromDTO(roomDTO, existingRoom);
         Room updatedRoom = roomRepository.save(existingRoom);
+        eventPublisher.publishEvent(new RoomChangedEvent(updatedRoom, RoomChangeType.UPDATED));
         return roomMapper.toDTO(updatedRoom);
     }
 
@@ -125,6 +519,7 @@ public class RoomServiceImpl implements RoomService {
                 .orElseThrow(() -> new NotFoundException("Phòng không tồn tại"));
 
         roomRepository.delete(room);
+        eventPublisher.publishEvent(new RoomChangedEvent(room, RoomChangeType.DELETED));
     }
 
     @Override
@@ -134,11 +529,12 @@ public class RoomServiceImpl implements RoomService {
 
         room.setIsRoomAvailable(false);
         roomRepository.save(room);
+        eventPublisher.publishEvent(new RoomChangedEvent(room, RoomChangeType.HIDDEN));
     }
 
     @Override
     public List<RoomDTO> getRoomsByOwner(Long ownerId) {
-        List<Room> rooms = roomRepository.findByOwnerId(ownerId);
+        List<RoomSearchView> rooms = roomSearchViewRepository.findByOwnerId(ownerId);
         if (rooms.isEmpty()) {
             throw new NotFoundException("Không có phòng nào được tìm thay cho owner này");
         }
@@ -147,6 +543,36 @@ public class RoomServiceImpl implements RoomService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportRooms(FilterParam filterParam, Date since, ExportFormat format, OutputStream out)
+            throws IOException {
+        ListingCriteria criteria = buildListingCriteria(filterParam);
+        Specification<Room> spec = criteria.spec();
+        if (since != null) {
+            spec = spec.and(RoomSpecification.updatedSince(since));
+        }
+
+        RoomExportWriter writer = new RoomExportWriter(out, format);
+        writer.writeHeader();
+        long count = 0;
+        try (Stream<Room> rooms = roomRepository.stream(spec, EXPORT_SORT, EXPORT_FETCH_SIZE)) {
+            Iterator<Room> iterator = rooms.iterator();
+            while (iterator.hasNext()) {
+                Room room = iterator.next();
+                if (!criteria.keeps(room.getId())) {
+                    continue;
+                }
+                writer.write(room);
+                if (++count % EXPORT_FETCH_SIZE == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Exported {} rooms as {}", count, format);
+    }
+
     private String buildFullAddress(RoomDTO roomDTO) {
         List<String> addressParts = new java.util.ArrayList<>();
 
@@ -4,11 +4,13 @@ import com.c1se_01.roomiego.dto.AiRecommendationDTO;
 import com.c1se_01.roomiego.dto.RoommateDTO;
 import com.c1se_01.roomiego.dto.RoommateResponseDTO;
 import com.c1se_01.roomiego.exception.NotFoundException;
+import com.c1se_01.roomiego.exception.ServiceUnavailableException;
 import com.c1se_01.roomiego.model.Roommate;
 import com.c1se_01.roomiego.model.User;
 import com.c1se_01.roomiego.repository.RoommateRepository;
 import com.c1se_01.roomiego.repository.UserRepository;
 import com.c1se_01.roomiego.service.RoommateService;
+import com.c1se_01.roomiego.service.resilience.ExternalApiGuard;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -32,7 +34,8 @@ import java.util.Objects;
 public class RoommateServiceImpl implements RoommateService {
     private final RoommateRepository roommateRepository;
     private final UserRepository userRepository;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+    private final ExternalApiGuard aiServiceGuard;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${ai.service.url}")
@@ -121,11 +124,14 @@ public class RoommateServiceImpl implements RoommateService {
         String url = aiServiceUrl + "/recommend?user_id=" + userId;
         log.debug("Calling AI service at: {}", url);
 
-        ResponseEntity<String> responseEntity = restTemplate.exchange(
+        // fail fast while the AI service is failing or saturated, its 5xx answers are thrown by RestTemplate
+        ResponseEntity<String> responseEntity = aiServiceGuard.call(() -> restTemplate.exchange(
                 url,
                 HttpMethod.GET,
                 null,
-                String.class);
+                String.class), () -> {
+                    throw new ServiceUnavailableException("Dịch vụ gợi ý tạm thời không khả dụng, vui lòng thử lại sau");
+                });
 
         int statusCode = responseEntity.getStatusCode().value();
         log.debug("AI service response status: {}", statusCode);
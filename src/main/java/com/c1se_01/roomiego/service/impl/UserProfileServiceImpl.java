@@ -2,6 +2,7 @@ package com.c1se_01.roomiego.service.impl;
 
 import com.c1se_01.roomiego.dto.RoomDTO;
 import com.c1se_01.roomiego.dto.UserDetailDTO;
+import com.c1se_01.roomiego.dto.common.ResourceVersion;
 import com.c1se_01.roomiego.mapper.RoomMapper;
 import com.c1se_01.roomiego.model.User;
 import com.c1se_01.roomiego.repository.UserRepository;
@@ -24,7 +25,7 @@ public class UserProfileServiceImpl implements UserProfileService {
 
   @Override
   public UserDetailDTO getUserProfile(Long userId) {
-    Optional<User> userOptional = userRepository.findById(userId);
+    Optional<User> userOptional = userRepository.findWithRoomsById(userId);
     if (userOptional.isPresent()) {
       User user = userOptional.get();
       UserDetailDTO userDetailDTO = new UserDetailDTO();
@@ -49,4 +50,14 @@ public class UserProfileServiceImpl implements UserProfileService {
       throw new RuntimeException("User not found");
     }
   }
+
+  @Override
+  public ResourceVersion getUserProfileVersion(Long userId) {
+    return userRepository.findProfileVersionById(userId)
+        .map(version -> ResourceVersion.of("user",
+            new Object[] { userId, version.getVersion(), version.getRoomCount(), version.getMaxRoomId(),
+                version.getRoomVersions() },
+            version.getUpdatedAt(), version.getRoomsUpdatedAt()))
+        .orElseThrow(() -> new RuntimeException("User not found"));
+  }
 }
\ No newline at end of file
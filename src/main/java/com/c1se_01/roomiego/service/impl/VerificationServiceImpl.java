@@ -2,6 +2,7 @@ package com.c1se_01.roomiego.service.impl;
 
 import com.c1se_01.roomiego.dto.FptAiIdRecognitionResponse;
 import com.c1se_01.roomiego.dto.VerificationDto;
+import com.c1se_01.roomiego.exception.ServiceUnavailableException;
 import com.c1se_01.roomiego.model.User;
 import com.c1se_01.roomiego.repository.UserRepository;
 import com.c1se_01.roomiego.service.FptAiService;
@@ -367,6 +368,10 @@ public class VerificationServiceImpl implements VerificationService {
         log.error("FPT.AI API error for user {}: {}", user.getId(), errorMessage.toString());
       }
 
+    } catch (ServiceUnavailableException e) {
+      // FPT.AI is failing or saturated, the client retries later instead of resubmitting
+      response.setStatusCode(503);
+      response.setError(e.getMessage());
     } catch (Exception e) {
       log.error("Error during FPT.AI verification: ", e);
       response.setStatusCode(500);
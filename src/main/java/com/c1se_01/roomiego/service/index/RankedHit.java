@@ -0,0 +1,27 @@
+package com.c1se_01.roomiego.service.index;
+
+import java.util.Comparator;
+
+/**
+ * A room returned by an in-memory index together with the value it is ranked by
+ * (distance for spatial searches, relevance score for text searches).
+ *
+ * @param roomId the room id
+ * @param value  the ranking value
+ */
+public record RankedHit(Long roomId, double value) {
+    /**
+     * Lowest value first, then id so that equal values have a stable order.
+     */
+    public static final Comparator<RankedHit> BY_VALUE_ASC = Comparator
+            .comparingDouble(RankedHit::value)
+            .thenComparing(RankedHit::roomId);
+
+    /**
+     * Highest value first, then id so that equal values have a stable order.
+     */
+    public static final Comparator<RankedHit> BY_VALUE_DESC = Comparator
+            .comparingDouble(RankedHit::value)
+            .reversed()
+            .thenComparing(RankedHit::roomId);
+}
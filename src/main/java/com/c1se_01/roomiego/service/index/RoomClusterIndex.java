@@ -0,0 +1,311 @@
+package com.c1se_01.roomiego.service.index;
+
+import com.c1se_01.roomiego.dto.MarkerTileResponse;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.repository.projection.RoomLocationProjection;
+import com.c1se_01.roomiego.utils.GeoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory marker clustering of available rooms on Web Mercator tiles.
+ * Up to {@link #MAX_CLUSTER_ZOOM} every tile is split in a grid of cells keeping the count and the
+ * coordinate sums of their rooms, so a tile answers with at most {@link #CELLS_PER_TILE} clusters
+ * however many rooms it holds. Above it the tiles list their rooms as individual markers.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomClusterIndex {
+
+    /** Highest zoom answered with clusters. */
+    static final int MAX_CLUSTER_ZOOM = 15;
+
+    /** Highest zoom accepted, the one of the Google Maps street view. */
+    static final int MAX_ZOOM = 22;
+
+    /** Cells per tile side are 2^CELL_BITS. */
+    static final int CELL_BITS = 3;
+
+    static final int CELLS_PER_TILE = 1 << (2 * CELL_BITS);
+
+    /** Zoom of the buckets serving the marker tiles, their ancestor at any higher zoom. */
+    private static final int MARKER_ZOOM = MAX_CLUSTER_ZOOM + 1;
+
+    /**
+     * The rooms of one grid cell. The ids are summed so that the id of a lone room is known
+     * without keeping the members of every cell at every zoom.
+     */
+    private static final class Cell {
+        private int count;
+        private double latitudeSum;
+        private double longitudeSum;
+        private long idSum;
+
+        private void add(Long roomId, double[] point) {
+            count++;
+            latitudeSum += point[0];
+            longitudeSum += point[1];
+            idSum += roomId;
+        }
+
+        private void subtract(Long roomId, double[] point) {
+            count--;
+            latitudeSum -= point[0];
+            longitudeSum -= point[1];
+            idSum -= roomId;
+        }
+    }
+
+    private final RoomRepository roomRepository;
+
+    /** room id -> latitude, longitude, mercator x, mercator y */
+    private final Map<Long, double[]> points = new HashMap<>();
+    /** zoom -> tile -> cell -> rooms */
+    private final List<Map<Long, Map<Long, Cell>>> levels = newLevels();
+    /** tile at {@link #MARKER_ZOOM} -> room ids */
+    private final Map<Long, Set<Long>> markerTiles = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            List<RoomLocationProjection> locations = roomRepository.findAvailableLocations();
+            points.clear();
+            levels.forEach(Map::clear);
+            markerTiles.clear();
+            for (RoomLocationProjection location : locations) {
+                put(location.getId(), location.getLatitude(), location.getLongitude());
+            }
+            ready = true;
+            log.info("Room cluster index loaded with {} rooms", points.size());
+        } catch (Exception e) {
+            log.error("Failed to load room cluster index, marker tiles fall back to SQL: {}", e.getMessage(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        Room room = event.room();
+        if (room.getId() == null) {
+            return;
+        }
+        if (event.isListed() && room.getLatitude() != null && room.getLongitude() != null) {
+            upsert(room.getId(), room.getLatitude(), room.getLongitude());
+        } else {
+            remove(room.getId());
+        }
+    }
+
+    public void upsert(Long roomId, double latitude, double longitude) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(roomId);
+            put(roomId, latitude, longitude);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long roomId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(roomId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the markers of one map tile. Cells holding a single room are sent as markers too.
+     * Before the index is loaded the tile is built from the rooms of its bounding box.
+     * @param zoom the zoom level, from 0 to {@link #MAX_ZOOM}
+     * @param x    the tile column
+     * @param y    the tile row
+     * @return clusters (largest first) and markers (by id) of the tile
+     */
+    public MarkerTileResponse tile(int zoom, int x, int y) {
+        if (!isValidTile(zoom, x, y)) {
+            throw new IllegalArgumentException("Invalid tile " + zoom + "/" + x + "/" + y);
+        }
+        if (!ready) {
+            return tileFromDatabase(zoom, x, y);
+        }
+        lock.readLock().lock();
+        try {
+            if (zoom <= MAX_CLUSTER_ZOOM) {
+                Map<Long, Cell> cells = levels.get(zoom).getOrDefault(key(x, y), Map.of());
+                return clusterTile(zoom, x, y, cells.values(), points);
+            }
+            int shift = zoom - MARKER_ZOOM;
+            Set<Long> roomIds = markerTiles.getOrDefault(key(x >> shift, y >> shift), Set.of());
+            List<Long> inTile = new ArrayList<>();
+            for (Long roomId : roomIds) {
+                double[] point = points.get(roomId);
+                if (GeoUtils.tileIndex(point[2], zoom) == x && GeoUtils.tileIndex(point[3], zoom) == y) {
+                    inTile.add(roomId);
+                }
+            }
+            return markerTile(zoom, x, y, inTile, points);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static boolean isValidTile(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            return false;
+        }
+        int tiles = 1 << zoom;
+        return x >= 0 && x < tiles && y >= 0 && y < tiles;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private MarkerTileResponse tileFromDatabase(int zoom, int x, int y) {
+        List<RoomLocationProjection> locations = roomRepository.findAvailableLocationsWithin(
+                GeoUtils.tileLatitude(y + 1, zoom), GeoUtils.tileLatitude(y, zoom),
+                GeoUtils.tileLongitude(x, zoom), GeoUtils.tileLongitude(x + 1, zoom));
+        Map<Long, double[]> tilePoints = new HashMap<>();
+        for (RoomLocationProjection location : locations) {
+            double[] point = point(location.getLatitude(), location.getLongitude());
+            // the bounding box includes the edges shared with the next tiles
+            if (GeoUtils.tileIndex(point[2], zoom) == x && GeoUtils.tileIndex(point[3], zoom) == y) {
+                tilePoints.put(location.getId(), point);
+            }
+        }
+        if (zoom > MAX_CLUSTER_ZOOM) {
+            return markerTile(zoom, x, y, tilePoints.keySet(), tilePoints);
+        }
+        Map<Long, Cell> cells = new HashMap<>();
+        tilePoints.forEach((roomId, point) -> cells.computeIfAbsent(cellKey(point, zoom), key -> new Cell())
+                .add(roomId, point));
+        return clusterTile(zoom, x, y, cells.values(), tilePoints);
+    }
+
+    private static MarkerTileResponse clusterTile(int zoom, int x, int y, Collection<Cell> cells,
+            Map<Long, double[]> points) {
+        List<MarkerTileResponse.Cluster> clusters = new ArrayList<>();
+        List<Long> lone = new ArrayList<>();
+        for (Cell cell : cells) {
+            if (cell.count == 1) {
+                lone.add(cell.idSum);
+            } else {
+                clusters.add(new MarkerTileResponse.Cluster(cell.latitudeSum / cell.count,
+                        cell.longitudeSum / cell.count, cell.count));
+            }
+        }
+        clusters.sort(Comparator.comparingInt(MarkerTileResponse.Cluster::getCount).reversed()
+                .thenComparingDouble(MarkerTileResponse.Cluster::getLatitude)
+                .thenComparingDouble(MarkerTileResponse.Cluster::getLongitude));
+        return new MarkerTileResponse(zoom, x, y, clusters, markers(lone, points));
+    }
+
+    private static MarkerTileResponse markerTile(int zoom, int x, int y, Collection<Long> roomIds,
+            Map<Long, double[]> points) {
+        return new MarkerTileResponse(zoom, x, y, List.of(), markers(roomIds, points));
+    }
+
+    private static List<MarkerTileResponse.Marker> markers(Collection<Long> roomIds, Map<Long, double[]> points) {
+        return roomIds.stream()
+                .sorted()
+                .map(roomId -> {
+                    double[] point = points.get(roomId);
+                    return new MarkerTileResponse.Marker(roomId, point[0], point[1]);
+                })
+                .toList();
+    }
+
+    private void put(Long roomId, double latitude, double longitude) {
+        double[] point = point(latitude, longitude);
+        points.put(roomId, point);
+        for (int zoom = 0; zoom <= MAX_CLUSTER_ZOOM; zoom++) {
+            levels.get(zoom)
+                    .computeIfAbsent(tileKey(point, zoom), key -> new HashMap<>())
+                    .computeIfAbsent(cellKey(point, zoom), key -> new Cell())
+                    .add(roomId, point);
+        }
+        markerTiles.computeIfAbsent(tileKey(point, MARKER_ZOOM), key -> new HashSet<>()).add(roomId);
+    }
+
+    private void removeInternal(Long roomId) {
+        double[] previous = points.remove(roomId);
+        if (previous == null) {
+            return;
+        }
+        for (int zoom = 0; zoom <= MAX_CLUSTER_ZOOM; zoom++) {
+            long tileKey = tileKey(previous, zoom);
+            Map<Long, Cell> cells = levels.get(zoom).get(tileKey);
+            long cellKey = cellKey(previous, zoom);
+            Cell cell = cells.get(cellKey);
+            cell.subtract(roomId, previous);
+            if (cell.count == 0) {
+                cells.remove(cellKey);
+                if (cells.isEmpty()) {
+                    levels.get(zoom).remove(tileKey);
+                }
+            }
+        }
+        long markerKey = tileKey(previous, MARKER_ZOOM);
+        Set<Long> roomIds = markerTiles.get(markerKey);
+        roomIds.remove(roomId);
+        if (roomIds.isEmpty()) {
+            markerTiles.remove(markerKey);
+        }
+    }
+
+    private static double[] point(double latitude, double longitude) {
+        return new double[] { latitude, longitude, GeoUtils.mercatorX(longitude), GeoUtils.mercatorY(latitude) };
+    }
+
+    private static long tileKey(double[] point, int zoom) {
+        return key(GeoUtils.tileIndex(point[2], zoom), GeoUtils.tileIndex(point[3], zoom));
+    }
+
+    private static long cellKey(double[] point, int zoom) {
+        return tileKey(point, zoom + CELL_BITS);
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    private static List<Map<Long, Map<Long, Cell>>> newLevels() {
+        List<Map<Long, Map<Long, Cell>>> levels = new ArrayList<>(MAX_CLUSTER_ZOOM + 1);
+        for (int zoom = 0; zoom <= MAX_CLUSTER_ZOOM; zoom++) {
+            levels.add(new HashMap<>());
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,298 @@
+package com.c1se_01.roomiego.service.index;
+
+import com.c1se_01.roomiego.dto.FacetCount;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.repository.projection.RoomFacetProjection;
+import com.c1se_01.roomiego.utils.VietnameseTextUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory facet counts of rooms by city, district, ward, price band and size band.
+ * Every room gets a dense ordinal and every facet value keeps the bitset of the rooms having it,
+ * so the counts of a filtered listing are the cardinalities of the value bitsets intersected with
+ * the bitset of the listing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomFacetIndex {
+
+    public static final String CITY = "city";
+    public static final String DISTRICT = "district";
+    public static final String WARD = "ward";
+    public static final String PRICE = "price";
+    public static final String ROOM_SIZE = "roomSize";
+
+    /** Upper bounds (exclusive) of the price bands, in VND. */
+    static final long[] PRICE_BOUNDS = { 1_000_000, 2_000_000, 3_000_000, 5_000_000, 10_000_000 };
+
+    /** Upper bounds (exclusive) of the room size bands, in square meters. */
+    static final long[] ROOM_SIZE_BOUNDS = { 15, 25, 40, 60 };
+
+    private static final String[] FACETS = { CITY, DISTRICT, WARD, PRICE, ROOM_SIZE };
+    /** The first facets hold free text, the others hold band labels. */
+    private static final int TEXT_FACET_COUNT = 3;
+    private static final List<String> PRICE_BANDS = bandLabels(PRICE_BOUNDS);
+    private static final List<String> ROOM_SIZE_BANDS = bandLabels(ROOM_SIZE_BOUNDS);
+
+    /**
+     * The rooms having one value of a facet. Text values are grouped by their folded form and
+     * shown with the spelling of the first room that had them.
+     */
+    private static final class FacetValue {
+        private final String label;
+        private final BitSet rooms = new BitSet();
+
+        private FacetValue(String label) {
+            this.label = label;
+        }
+    }
+
+    private final RoomRepository roomRepository;
+
+    /** facet -> value key -> rooms */
+    private final Map<String, Map<String, FacetValue>> facets = new LinkedHashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    /** ordinal -> value keys of the room, in the order of {@link #FACETS}, null for a free ordinal */
+    private final List<String[]> docValues = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            List<RoomFacetProjection> documents = roomRepository.findAllFacetDocuments();
+            facets.clear();
+            ordinals.clear();
+            docValues.clear();
+            live.clear();
+            for (RoomFacetProjection doc : documents) {
+                put(doc.getId(), doc.getCity(), doc.getDistrict(), doc.getWard(), doc.getPrice(), doc.getRoomSize());
+            }
+            ready = true;
+            log.info("Room facet index loaded with {} rooms", ordinals.size());
+        } catch (Exception e) {
+            log.error("Failed to load room facet index, facet counts are unavailable: {}", e.getMessage(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        Room room = event.room();
+        if (room.getId() == null) {
+            return;
+        }
+        if (event.type() == RoomChangeType.DELETED) {
+            remove(room.getId());
+        } else {
+            // hidden rooms are still listed, so they are still counted
+            upsert(room.getId(), room.getCity(), room.getDistrict(), room.getWard(), room.getPrice(),
+                    room.getRoomSize());
+        }
+    }
+
+    public void upsert(Long roomId, String city, String district, String ward, BigDecimal price, Float roomSize) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(roomId);
+            put(roomId, city, district, ward, price, roomSize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long roomId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(roomId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts every indexed room.
+     * @return the counts per facet, see {@link #count(Collection)}
+     */
+    public Map<String, List<FacetCount>> countAll() {
+        lock.readLock().lock();
+        try {
+            return countInternal(live);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the given rooms. Ids unknown to the index are ignored.
+     * @param roomIds the rooms of the filtered listing
+     * @return the counts per facet: text values with at least one room, most frequent first,
+     *         and every price and size band in ascending order
+     */
+    public Map<String, List<FacetCount>> count(Collection<Long> roomIds) {
+        lock.readLock().lock();
+        try {
+            BitSet selection = new BitSet(docValues.size());
+            for (Long roomId : roomIds) {
+                Integer ordinal = ordinals.get(roomId);
+                if (ordinal != null) {
+                    selection.set(ordinal);
+                }
+            }
+            return countInternal(selection);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String priceBand(BigDecimal price) {
+        return price == null ? null : PRICE_BANDS.get(band(price.longValue(), PRICE_BOUNDS));
+    }
+
+    static String roomSizeBand(Float roomSize) {
+        return roomSize == null ? null : ROOM_SIZE_BANDS.get(band((long) Math.floor(roomSize), ROOM_SIZE_BOUNDS));
+    }
+
+    private Map<String, List<FacetCount>> countInternal(BitSet selection) {
+        Map<String, List<FacetCount>> result = new LinkedHashMap<>();
+        BitSet intersection = new BitSet(docValues.size());
+        for (String facet : FACETS) {
+            Map<String, FacetValue> values = facets.getOrDefault(facet, Map.of());
+            List<FacetCount> counts = new ArrayList<>();
+            if (PRICE.equals(facet) || ROOM_SIZE.equals(facet)) {
+                for (String band : PRICE.equals(facet) ? PRICE_BANDS : ROOM_SIZE_BANDS) {
+                    FacetValue value = values.get(band);
+                    counts.add(new FacetCount(band, value == null ? 0 : cardinality(value.rooms, selection, intersection)));
+                }
+            } else {
+                for (FacetValue value : values.values()) {
+                    int count = cardinality(value.rooms, selection, intersection);
+                    if (count > 0) {
+                        counts.add(new FacetCount(value.label, count));
+                    }
+                }
+                counts.sort(Comparator.comparingLong(FacetCount::getCount).reversed()
+                        .thenComparing(FacetCount::getValue));
+            }
+            result.put(facet, counts);
+        }
+        return result;
+    }
+
+    private static int cardinality(BitSet rooms, BitSet selection, BitSet intersection) {
+        intersection.clear();
+        intersection.or(rooms);
+        intersection.and(selection);
+        return intersection.cardinality();
+    }
+
+    private void put(Long roomId, String city, String district, String ward, BigDecimal price, Float roomSize) {
+        // reuse the ordinals of removed rooms so that the bitsets stay dense
+        int ordinal = live.nextClearBit(0);
+        ordinals.put(roomId, ordinal);
+        String[] labels = { trimToNull(city), trimToNull(district), trimToNull(ward), priceBand(price),
+                roomSizeBand(roomSize) };
+        String[] keys = new String[FACETS.length];
+        for (int i = 0; i < FACETS.length; i++) {
+            if (labels[i] == null) {
+                continue;
+            }
+            String label = labels[i];
+            keys[i] = i < TEXT_FACET_COUNT ? VietnameseTextUtils.fold(label) : label;
+            facets.computeIfAbsent(FACETS[i], key -> new HashMap<>())
+                    .computeIfAbsent(keys[i], key -> new FacetValue(label))
+                    .rooms.set(ordinal);
+        }
+        while (docValues.size() <= ordinal) {
+            docValues.add(null);
+        }
+        docValues.set(ordinal, keys);
+        live.set(ordinal);
+    }
+
+    private void removeInternal(Long roomId) {
+        Integer ordinal = ordinals.remove(roomId);
+        if (ordinal == null) {
+            return;
+        }
+        String[] keys = docValues.set(ordinal, null);
+        for (int i = 0; i < FACETS.length; i++) {
+            if (keys[i] == null) {
+                continue;
+            }
+            Map<String, FacetValue> values = facets.get(FACETS[i]);
+            FacetValue value = values.get(keys[i]);
+            value.rooms.clear(ordinal);
+            if (value.rooms.isEmpty()) {
+                values.remove(keys[i]);
+            }
+        }
+        live.clear(ordinal);
+    }
+
+    private static int band(long value, long[] bounds) {
+        int band = 0;
+        while (band < bounds.length && value >= bounds[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    /**
+     * Labels of the bands delimited by the bounds: {@code 0-b0}, {@code b0-b1}, ..., {@code bn+}.
+     */
+    private static List<String> bandLabels(long[] bounds) {
+        List<String> labels = new ArrayList<>(bounds.length + 1);
+        long lower = 0;
+        for (long bound : bounds) {
+            labels.add(lower + "-" + bound);
+            lower = bound;
+        }
+        labels.add(lower + "+");
+        return List.copyOf(labels);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,288 @@
+package com.c1se_01.roomiego.service.index;
+
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.repository.projection.RoomSearchProjection;
+import com.c1se_01.roomiego.utils.VietnameseTextUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the searchable text of rooms (title, description, street, ward, district).
+ * Terms are folded with {@link VietnameseTextUtils}, postings keep word positions for phrase queries,
+ * the term dictionary is sorted for prefix queries and results are ranked with BM25.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomSearchIndex {
+
+    /** BM25 term frequency saturation. */
+    static final double K1 = 1.2;
+
+    /** BM25 document length normalization. */
+    static final double B = 0.75;
+
+    /** Position gap between fields, so that phrases never match across two fields. */
+    private static final int FIELD_GAP = 100;
+
+    /** Upper bound on the number of terms a single prefix expands to. */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final RoomRepository roomRepository;
+
+    /** term -> (room id -> sorted positions) */
+    private final NavigableMap<String, Map<Long, int[]>> postings = new TreeMap<>();
+    private final Map<Long, Integer> docLengths = new HashMap<>();
+    private final Map<Long, String[]> docTerms = new HashMap<>();
+    private long totalLength;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            List<RoomSearchProjection> documents = roomRepository.findAllSearchDocuments();
+            postings.clear();
+            docLengths.clear();
+            docTerms.clear();
+            totalLength = 0;
+            for (RoomSearchProjection doc : documents) {
+                put(doc.getId(), doc.getTitle(), doc.getDescription(), doc.getStreet(), doc.getWard(),
+                        doc.getDistrict());
+            }
+            ready = true;
+            log.info("Room search index loaded with {} rooms and {} terms", docLengths.size(), postings.size());
+        } catch (Exception e) {
+            log.error("Failed to load room search index, search falls back to SQL: {}", e.getMessage(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        Room room = event.room();
+        if (room.getId() == null) {
+            return;
+        }
+        if (event.type() == RoomChangeType.DELETED) {
+            remove(room.getId());
+        } else {
+            // hidden rooms stay searchable, like with the SQL search
+            upsert(room.getId(), room.getTitle(), room.getDescription(), room.getStreet(), room.getWard(),
+                    room.getDistrict());
+        }
+    }
+
+    public void upsert(Long roomId, String... fields) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(roomId);
+            put(roomId, fields);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long roomId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(roomId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the rooms matching every clause of the query, ranked by BM25.
+     * @param query the parsed query
+     * @return the hits valued by their score, most relevant first
+     */
+    public List<RankedHit> search(SearchQuery query) {
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (SearchQuery.Clause clause : query.clauses()) {
+                Map<Long, Double> clauseScores = score(clause);
+                if (scores == null) {
+                    scores = clauseScores;
+                } else {
+                    Map<Long, Double> smaller = scores.size() <= clauseScores.size() ? scores : clauseScores;
+                    Map<Long, Double> larger = smaller == scores ? clauseScores : scores;
+                    Map<Long, Double> combined = new HashMap<>();
+                    smaller.forEach((roomId, score) -> {
+                        Double other = larger.get(roomId);
+                        if (other != null) {
+                            combined.put(roomId, score + other);
+                        }
+                    });
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<RankedHit> hits = new ArrayList<>(scores.size());
+            scores.forEach((roomId, score) -> hits.add(new RankedHit(roomId, score)));
+            hits.sort(RankedHit.BY_VALUE_DESC);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docLengths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> score(SearchQuery.Clause clause) {
+        if (clause.isPhrase()) {
+            return scorePhrase(clause.terms());
+        }
+        String term = clause.terms().get(0);
+        if (!clause.prefix()) {
+            return scoreTerm(term);
+        }
+
+        // a document matching several expansions keeps its best one, so short prefixes are not over-weighted
+        Map<Long, Double> scores = new HashMap<>();
+        postings.subMap(term, true, term + Character.MAX_VALUE, true).keySet().stream()
+                .sorted(Comparator.comparingInt(candidate -> postings.get(candidate).size()).reversed())
+                .limit(MAX_PREFIX_EXPANSIONS)
+                .forEach(expansion -> scoreTerm(expansion)
+                        .forEach((roomId, score) -> scores.merge(roomId, score, Math::max)));
+        return scores;
+    }
+
+    private Map<Long, Double> scoreTerm(String term) {
+        Map<Long, int[]> termPostings = postings.get(term);
+        if (termPostings == null) {
+            return Map.of();
+        }
+        double idf = idf(termPostings.size());
+        Map<Long, Double> scores = new HashMap<>();
+        termPostings.forEach((roomId, positions) -> scores.put(roomId, bm25(idf, positions.length, roomId)));
+        return scores;
+    }
+
+    private Map<Long, Double> scorePhrase(List<String> terms) {
+        List<Map<Long, int[]>> termPostings = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Map<Long, int[]> p = postings.get(term);
+            if (p == null) {
+                return Map.of();
+            }
+            termPostings.add(p);
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        Map<Long, int[]> first = termPostings.get(0);
+        for (Map.Entry<Long, int[]> entry : first.entrySet()) {
+            Long roomId = entry.getKey();
+            if (containsPhrase(roomId, entry.getValue(), termPostings)) {
+                double score = 0;
+                for (Map<Long, int[]> p : termPostings) {
+                    score += bm25(idf(p.size()), p.get(roomId).length, roomId);
+                }
+                scores.put(roomId, score);
+            }
+        }
+        return scores;
+    }
+
+    private static boolean containsPhrase(Long roomId, int[] startPositions, List<Map<Long, int[]>> termPostings) {
+        for (int start : startPositions) {
+            boolean matches = true;
+            for (int i = 1; i < termPostings.size() && matches; i++) {
+                int[] positions = termPostings.get(i).get(roomId);
+                matches = positions != null && Arrays.binarySearch(positions, start + i) >= 0;
+            }
+            if (matches) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double idf(int documentFrequency) {
+        int documentCount = docLengths.size();
+        return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private double bm25(double idf, int termFrequency, Long roomId) {
+        double averageLength = docLengths.isEmpty() ? 1 : (double) totalLength / docLengths.size();
+        double lengthRatio = docLengths.getOrDefault(roomId, 0) / averageLength;
+        return idf * (termFrequency * (K1 + 1)) / (termFrequency + K1 * (1 - B + B * lengthRatio));
+    }
+
+    private void put(Long roomId, String... fields) {
+        Map<String, List<Integer>> positions = new HashMap<>();
+        int position = 0;
+        int length = 0;
+        for (String field : fields) {
+            List<String> tokens = VietnameseTextUtils.tokenize(field);
+            for (String token : tokens) {
+                positions.computeIfAbsent(token, key -> new ArrayList<>()).add(position++);
+            }
+            length += tokens.size();
+            position += FIELD_GAP;
+        }
+
+        positions.forEach((term, list) -> postings.computeIfAbsent(term, key -> new HashMap<>())
+                .put(roomId, list.stream().mapToInt(Integer::intValue).toArray()));
+        docTerms.put(roomId, positions.keySet().toArray(new String[0]));
+        docLengths.put(roomId, length);
+        totalLength += length;
+    }
+
+    private void removeInternal(Long roomId) {
+        String[] terms = docTerms.remove(roomId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, int[]> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(roomId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        Integer length = docLengths.remove(roomId);
+        if (length != null) {
+            totalLength -= length;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.c1se_01.roomiego.service.index;
+
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.repository.projection.RoomLocationProjection;
+import com.c1se_01.roomiego.utils.GeoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory uniform grid over the coordinates of available rooms.
+ * Answers {@code location:nearby} filters with an exact haversine check and distance ordering,
+ * so the database only has to hydrate the requested page.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomSpatialIndex {
+
+    /** Grid cell size in degrees, roughly 1.1 km of latitude. */
+    static final double CELL_SIZE_DEGREES = 0.01;
+
+    private final RoomRepository roomRepository;
+
+    private final Map<Long, double[]> points = new HashMap<>();
+    private final Map<Long, Set<Long>> cells = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            List<RoomLocationProjection> locations = roomRepository.findAvailableLocations();
+            points.clear();
+            cells.clear();
+            for (RoomLocationProjection location : locations) {
+                put(location.getId(), location.getLatitude(), location.getLongitude());
+            }
+            ready = true;
+            log.info("Room spatial index loaded with {} rooms", points.size());
+        } catch (Exception e) {
+            log.error("Failed to load room spatial index, nearby search falls back to SQL: {}", e.getMessage(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        Room room = event.room();
+        if (room.getId() == null) {
+            return;
+        }
+        if (event.isListed() && room.getLatitude() != null && room.getLongitude() != null) {
+            upsert(room.getId(), room.getLatitude(), room.getLongitude());
+        } else {
+            remove(room.getId());
+        }
+    }
+
+    public void upsert(Long roomId, double latitude, double longitude) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(roomId);
+            put(roomId, latitude, longitude);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long roomId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(roomId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the rooms within the radius, ordered by distance (then id).
+     * @param latitude     center latitude in degrees
+     * @param longitude    center longitude in degrees
+     * @param radiusMeters search radius in meters
+     * @return the hits valued by their distance in meters, nearest first
+     */
+    public List<RankedHit> findNearby(double latitude, double longitude, double radiusMeters) {
+        double latDelta = GeoUtils.metersToLatDegrees(radiusMeters);
+        double lngDelta = GeoUtils.metersToLngDegrees(radiusMeters, latitude);
+        int minLatCell = cellOf(latitude - latDelta);
+        int maxLatCell = cellOf(latitude + latDelta);
+        int minLngCell = cellOf(longitude - lngDelta);
+        int maxLngCell = cellOf(longitude + lngDelta);
+
+        List<RankedHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long cellCount = (long) (maxLatCell - minLatCell + 1) * (maxLngCell - minLngCell + 1);
+            if (cellCount > points.size()) {
+                // Radius covers more cells than there are rooms: a linear scan is cheaper
+                points.forEach((roomId, point) -> collect(roomId, point, latitude, longitude, radiusMeters, hits));
+            } else {
+                for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+                    for (int lngCell = minLngCell; lngCell <= maxLngCell; lngCell++) {
+                        Set<Long> roomIds = cells.get(cellKey(latCell, lngCell));
+                        if (roomIds == null) {
+                            continue;
+                        }
+                        for (Long roomId : roomIds) {
+                            collect(roomId, points.get(roomId), latitude, longitude, radiusMeters, hits);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(RankedHit.BY_VALUE_ASC);
+        return hits;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void collect(Long roomId, double[] point, double latitude, double longitude,
+            double radiusMeters, List<RankedHit> hits) {
+        double distance = GeoUtils.haversineMeters(latitude, longitude, point[0], point[1]);
+        if (distance <= radiusMeters) {
+            hits.add(new RankedHit(roomId, distance));
+        }
+    }
+
+    private void put(Long roomId, double latitude, double longitude) {
+        points.put(roomId, new double[] { latitude, longitude });
+        cells.computeIfAbsent(cellKey(cellOf(latitude), cellOf(longitude)), key -> new HashSet<>()).add(roomId);
+    }
+
+    private void removeInternal(Long roomId) {
+        double[] previous = points.remove(roomId);
+        if (previous == null) {
+            return;
+        }
+        long key = cellKey(cellOf(previous[0]), cellOf(previous[1]));
+        Set<Long> roomIds = cells.get(key);
+        if (roomIds != null) {
+            roomIds.remove(roomId);
+            if (roomIds.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private static int cellOf(double degrees) {
+        return (int) Math.floor(degrees / CELL_SIZE_DEGREES);
+    }
+
+    private static long cellKey(int latCell, int lngCell) {
+        return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+    }
+}
@@ -0,0 +1,74 @@
+package com.c1se_01.roomiego.service.index;
+
+import com.c1se_01.roomiego.utils.VietnameseTextUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed full-text query. Every clause must match:
+ * <ul>
+ *     <li>{@code nang} matches the folded term exactly,</li>
+ *     <li>{@code nan*} matches any term starting with the prefix,</li>
+ *     <li>{@code "da nang"} matches the terms as consecutive words.</li>
+ * </ul>
+ * Diacritics and case are ignored, so {@code da nang} and {@code Đà Nẵng} are the same query.
+ *
+ * @param clauses the clauses of the query
+ */
+public record SearchQuery(List<Clause> clauses) {
+
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]*)\"");
+    private static final String PREFIX_MARKER = "*";
+
+    /**
+     * One clause of the query.
+     *
+     * @param terms  the folded terms, more than one for a phrase
+     * @param prefix whether the (single) term is a prefix
+     */
+    public record Clause(List<String> terms, boolean prefix) {
+        public boolean isPhrase() {
+            return terms.size() > 1;
+        }
+    }
+
+    /**
+     * Parses the raw search string.
+     * @param text the search string as typed by the user
+     * @return the query, with no clauses if the text has no searchable term
+     */
+    public static SearchQuery parse(String text) {
+        List<Clause> clauses = new ArrayList<>();
+        if (text == null) {
+            return new SearchQuery(clauses);
+        }
+
+        Matcher matcher = PHRASE.matcher(text);
+        StringBuilder rest = new StringBuilder();
+        while (matcher.find()) {
+            List<String> terms = VietnameseTextUtils.tokenize(matcher.group(1));
+            if (!terms.isEmpty()) {
+                clauses.add(new Clause(terms, false));
+            }
+            matcher.appendReplacement(rest, " ");
+        }
+        matcher.appendTail(rest);
+
+        for (String word : rest.toString().trim().split("\\s+")) {
+            boolean prefix = word.endsWith(PREFIX_MARKER);
+            List<String> terms = VietnameseTextUtils.tokenize(word);
+            for (int i = 0; i < terms.size(); i++) {
+                // "nẵng,quận*" yields two terms; only the last one is a prefix
+                clauses.add(new Clause(List.of(terms.get(i)), prefix && i == terms.size() - 1));
+            }
+        }
+        return new SearchQuery(clauses);
+    }
+
+    public boolean isEmpty() {
+        return clauses.isEmpty();
+    }
+}
@@ -0,0 +1,38 @@
+package com.c1se_01.roomiego.service.readmodel;
+
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.event.RoomImagesChangedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves the version stamps behind the ETags when a representation changes without a change of its own row:
+ * a room when its images change, and an owner when one of their rooms is deleted.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResourceVersionUpdater {
+
+    private final RoomRepository roomRepository;
+    private final UserRepository userRepository;
+
+    @EventListener
+    public void onRoomImagesChanged(RoomImagesChangedEvent event) {
+        roomRepository.touch(event.roomId());
+    }
+
+    @EventListener
+    public void onRoomChanged(RoomChangedEvent event) {
+        Room room = event.room();
+        if (event.type() == RoomChangeType.DELETED && room.getOwner() != null) {
+            userRepository.touch(room.getOwner().getId(), LocalDateTime.now());
+        }
+    }
+}
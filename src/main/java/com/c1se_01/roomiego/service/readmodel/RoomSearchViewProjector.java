@@ -0,0 +1,93 @@
+package com.c1se_01.roomiego.service.readmodel;
+
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.event.RoomImagesChangedEvent;
+import com.c1se_01.roomiego.event.UserSavedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.model.RoomImage;
+import com.c1se_01.roomiego.model.RoomSearchView;
+import com.c1se_01.roomiego.repository.RoomImageRepository;
+import com.c1se_01.roomiego.repository.RoomSearchViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@code room_search_view} read model in sync with the rooms, their images and their owners.
+ * The listeners run in the publishing thread, so the view is written in the same transaction as the
+ * change when there is one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomSearchViewProjector {
+
+    private final RoomSearchViewRepository roomSearchViewRepository;
+    private final RoomImageRepository roomImageRepository;
+
+    @EventListener
+    public void onRoomChanged(RoomChangedEvent event) {
+        Room room = event.room();
+        if (room.getId() == null) {
+            return;
+        }
+        if (event.type() == RoomChangeType.DELETED) {
+            roomSearchViewRepository.deleteById(room.getId());
+        } else {
+            roomSearchViewRepository.save(project(room));
+        }
+    }
+
+    @EventListener
+    public void onRoomImagesChanged(RoomImagesChangedEvent event) {
+        // a no-op while the room is being created: its row is written by the CREATED event
+        roomSearchViewRepository.updateImages(event.roomId(), firstImageUrl(event.roomId()),
+                (int) roomImageRepository.countByRoomId(event.roomId()));
+    }
+
+    @EventListener
+    public void onUserSaved(UserSavedEvent event) {
+        int updated = roomSearchViewRepository.updateOwnerName(event.userId(), event.fullName());
+        if (updated > 0) {
+            log.debug("Renamed owner {} on {} room listings", event.userId(), updated);
+        }
+    }
+
+    RoomSearchView project(Room room) {
+        RoomSearchView view = new RoomSearchView();
+        view.setId(room.getId());
+        if (room.getOwner() != null) {
+            view.setOwnerId(room.getOwner().getId());
+            view.setOwnerName(room.getOwner().getFullName());
+        }
+        view.setTitle(room.getTitle());
+        view.setDescription(room.getDescription());
+        view.setPrice(room.getPrice());
+        view.setLocation(room.getLocation());
+        view.setLatitude(room.getLatitude());
+        view.setLongitude(room.getLongitude());
+        view.setGeoStatus(room.getGeoStatus());
+        view.setRoomSize(room.getRoomSize());
+        view.setNumBedrooms(room.getNumBedrooms());
+        view.setNumBathrooms(room.getNumBathrooms());
+        view.setAvailableFrom(room.getAvailableFrom());
+        view.setIsRoomAvailable(room.getIsRoomAvailable());
+        view.setCreatedAt(room.getCreatedAt());
+        view.setCity(room.getCity());
+        view.setDistrict(room.getDistrict());
+        view.setWard(room.getWard());
+        view.setStreet(room.getStreet());
+        view.setAddressDetails(room.getAddressDetails());
+        view.setFirstImageUrl(firstImageUrl(room.getId()));
+        view.setImageCount((int) roomImageRepository.countByRoomId(room.getId()));
+        return view;
+    }
+
+    private String firstImageUrl(Long roomId) {
+        return roomImageRepository.findFirstByRoomIdOrderByIdAsc(roomId)
+                .map(RoomImage::getImageUrl)
+                .orElse(null);
+    }
+}
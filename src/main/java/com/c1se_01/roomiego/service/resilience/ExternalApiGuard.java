@@ -0,0 +1,286 @@
+package com.c1se_01.roomiego.service.resilience;
+
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Guards the calls to one external API so that a slow or failing API cannot hold the request threads:
+ * a circuit breaker stops calling the API while most of the recent calls fail and lets a few probes through
+ * after a pause, a token bucket keeps the calls within the API quota, and a bulkhead bounds the calls in
+ * flight. A call refused by any of them returns the fallback of the caller at once.
+ */
+public class ExternalApiGuard {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /** Why a call was not made. */
+    public enum Rejection {
+        CIRCUIT_OPEN, RATE_LIMITED, BULKHEAD_FULL
+    }
+
+    /**
+     * @param maxConcurrentCalls   calls in flight at once
+     * @param permitsPerSecond     sustained call rate, the API quota
+     * @param burst                calls allowed at once after an idle period
+     * @param slidingWindowSize    last calls the failure rate is computed on
+     * @param minimumCalls         calls in the window before the breaker may open
+     * @param failureRateThreshold percentage of failed calls opening the breaker
+     * @param openDuration         pause before probing the API again
+     * @param halfOpenProbes       probes that must all succeed to close the breaker
+     */
+    public record Settings(int maxConcurrentCalls, double permitsPerSecond, int burst, int slidingWindowSize,
+            int minimumCalls, double failureRateThreshold, Duration openDuration, int halfOpenProbes) {
+
+        public Settings {
+            if (maxConcurrentCalls < 1 || permitsPerSecond <= 0 || burst < 1 || slidingWindowSize < 1
+                    || minimumCalls < 1 || minimumCalls > slidingWindowSize || halfOpenProbes < 1) {
+                throw new IllegalArgumentException("Invalid guard settings: " + this);
+            }
+        }
+    }
+
+    private final String name;
+    private final Settings settings;
+    private final LongSupplier nanoClock;
+    private final Semaphore bulkhead;
+
+    private final AtomicLong successfulCalls = new AtomicLong();
+    private final AtomicLong failedCalls = new AtomicLong();
+    private final AtomicLong cancelledCalls = new AtomicLong();
+    private final Map<Rejection, AtomicLong> rejectedCalls = new EnumMap<>(Rejection.class);
+
+    // token bucket, guarded by this
+    private double tokens;
+    private long refilledAt;
+
+    // circuit breaker, guarded by this
+    private State state = State.CLOSED;
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCalls;
+    private int windowFailures;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public ExternalApiGuard(String name, Settings settings) {
+        this(name, settings, System::nanoTime);
+    }
+
+    ExternalApiGuard(String name, Settings settings, LongSupplier nanoClock) {
+        this.name = name;
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+        this.bulkhead = new Semaphore(settings.maxConcurrentCalls());
+        this.window = new boolean[settings.slidingWindowSize()];
+        this.tokens = settings.burst();
+        this.refilledAt = nanoClock.getAsLong();
+        for (Rejection rejection : Rejection.values()) {
+            rejectedCalls.put(rejection, new AtomicLong());
+        }
+    }
+
+    /**
+     * Calls the API unless the guard refuses the call. Exceptions thrown by the call, the 5xx answers thrown by
+     * RestTemplate among them, are counted as failures and rethrown, except the 4xx answers other than 429 which show the API alive, and the interruption of a
+     * call cancelled by its caller (e.g. the loser of a hedged lookup) which says nothing about the API.
+     * @param action       the call
+     * @param isFailure    whether a returned result shows the API failing
+     * @param whenRejected the result when the call is refused, it may throw
+     */
+    public <T> T call(Supplier<T> action, Predicate<? super T> isFailure, Supplier<T> whenRejected) {
+        boolean probe;
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            if (state == State.OPEN && now - openedAt >= settings.openDuration().toNanos()) {
+                state = State.HALF_OPEN;
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            if (state == State.OPEN || state == State.HALF_OPEN && probesStarted >= settings.halfOpenProbes()) {
+                return reject(Rejection.CIRCUIT_OPEN, whenRejected);
+            }
+            if (!tryTakeToken(now)) {
+                return reject(Rejection.RATE_LIMITED, whenRejected);
+            }
+            probe = state == State.HALF_OPEN;
+            if (probe) {
+                probesStarted++;
+            }
+        }
+        if (!bulkhead.tryAcquire()) {
+            returnProbe(probe);
+            return reject(Rejection.BULKHEAD_FULL, whenRejected);
+        }
+        boolean failed = true;
+        boolean cancelled = false;
+        try {
+            T result = action.get();
+            failed = isFailure.test(result);
+            return result;
+        } catch (HttpClientErrorException e) {
+            failed = e.getStatusCode().value() == 429;
+            throw e;
+        } catch (RuntimeException e) {
+            cancelled = isInterruption(e);
+            throw e;
+        } finally {
+            bulkhead.release();
+            if (cancelled) {
+                cancelledCalls.incrementAndGet();
+                returnProbe(probe);
+            } else {
+                record(!failed, probe);
+            }
+        }
+    }
+
+    /**
+     * Calls the API unless the guard refuses the call, counting only the exceptions as failures.
+     */
+    public <T> T call(Supplier<T> action, Supplier<T> whenRejected) {
+        return call(action, result -> false, whenRejected);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= settings.openDuration().toNanos()) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /** Percentage of failed calls in the window, or -1 before the minimum number of calls. */
+    public synchronized double getFailureRate() {
+        return windowCalls < settings.minimumCalls() ? -1 : 100.0 * windowFailures / windowCalls;
+    }
+
+    public synchronized int getBufferedCalls() {
+        return windowCalls;
+    }
+
+    public int getAvailableConcurrentCalls() {
+        return bulkhead.availablePermits();
+    }
+
+    public synchronized double getAvailablePermits() {
+        refill(nanoClock.getAsLong());
+        return tokens;
+    }
+
+    public long getSuccessfulCalls() {
+        return successfulCalls.get();
+    }
+
+    public long getFailedCalls() {
+        return failedCalls.get();
+    }
+
+    /** Calls interrupted by their caller, counted neither as successes nor as failures. */
+    public long getCancelledCalls() {
+        return cancelledCalls.get();
+    }
+
+    public long getRejectedCalls(Rejection rejection) {
+        return rejectedCalls.get(rejection).get();
+    }
+
+    private <T> T reject(Rejection rejection, Supplier<T> whenRejected) {
+        rejectedCalls.get(rejection).incrementAndGet();
+        return whenRejected.get();
+    }
+
+    private boolean tryTakeToken(long now) {
+        refill(now);
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(settings.burst(), tokens + (now - refilledAt) * settings.permitsPerSecond() / 1e9);
+        refilledAt = now;
+    }
+
+    /**
+     * Whether the call failed because its thread was interrupted. The HTTP clients restore the interrupt flag
+     * and wrap the {@link InterruptedException} into an I/O error, which RestTemplate wraps again.
+     */
+    static boolean isInterruption(Throwable error) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Gives back the probe of a call that was not made or tells nothing about the API. */
+    private synchronized void returnProbe(boolean probe) {
+        if (probe && state == State.HALF_OPEN) {
+            probesStarted--;
+        }
+    }
+
+    private synchronized void record(boolean success, boolean probe) {
+        (success ? successfulCalls : failedCalls).incrementAndGet();
+        if (probe) {
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            if (!success) {
+                open();
+            } else if (++probesSucceeded >= settings.halfOpenProbes()) {
+                close();
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            // a call started before the breaker opened
+            return;
+        }
+        if (windowCalls == window.length) {
+            windowFailures -= window[windowNext] ? 1 : 0;
+        } else {
+            windowCalls++;
+        }
+        window[windowNext] = !success;
+        windowFailures += success ? 0 : 1;
+        windowNext = (windowNext + 1) % window.length;
+        if (windowCalls >= settings.minimumCalls()
+                && 100.0 * windowFailures / windowCalls >= settings.failureRateThreshold()) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowNext = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+}
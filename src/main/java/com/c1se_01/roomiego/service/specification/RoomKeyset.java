@@ -0,0 +1,112 @@
+package com.c1se_01.roomiego.service.specification;
+
+import com.c1se_01.roomiego.dto.common.KeysetCursor;
+import com.c1se_01.roomiego.model.Room;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset (seek) pagination over rooms: ordering by {@code (sortKey, id)} and continuing after a cursor
+ * instead of skipping rows with an offset.
+ * NULL sort keys are treated as the lowest values, matching the default ordering of MySQL and H2.
+ */
+public class RoomKeyset {
+
+    private record SortKey(Function<String, Comparable<?>> parser, Function<Room, Object> extractor,
+            Function<Object, String> formatter) {
+    }
+
+    private static final Map<String, SortKey> SORT_KEYS = Map.of(
+            "id", new SortKey(Long::valueOf, Room::getId, String::valueOf),
+            "price", new SortKey(BigDecimal::new, Room::getPrice, value -> ((BigDecimal) value).toPlainString()),
+            "roomSize", new SortKey(Float::valueOf, Room::getRoomSize, String::valueOf),
+            "numBedrooms", new SortKey(Integer::valueOf, Room::getNumBedrooms, String::valueOf),
+            "numBathrooms", new SortKey(Integer::valueOf, Room::getNumBathrooms, String::valueOf),
+            "title", new SortKey(value -> value, Room::getTitle, String::valueOf),
+            "createdAt", new SortKey(value -> new Date(Long.parseLong(value)), Room::getCreatedAt,
+                    value -> String.valueOf(((Date) value).getTime())),
+            "availableFrom", new SortKey(value -> new Date(Long.parseLong(value)), Room::getAvailableFrom,
+                    value -> String.valueOf(((Date) value).getTime())));
+
+    private RoomKeyset() {
+    }
+
+    public static boolean supports(String sort) {
+        return SORT_KEYS.containsKey(sort);
+    }
+
+    /**
+     * The seek ordering: the sort field, then id as tie-breaker, both in the same direction.
+     */
+    public static Sort sort(String sort, Direction direction) {
+        requireSupported(sort);
+        if ("id".equals(sort)) {
+            return Sort.by(direction, "id");
+        }
+        return Sort.by(direction, sort).and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Builds the cursor pointing after the given room.
+     */
+    public static KeysetCursor cursorOf(Room room, String sort, Direction direction) {
+        SortKey key = requireSupported(sort);
+        Object value = key.extractor().apply(room);
+        return new KeysetCursor(sort, direction, room.getId(), value == null ? null : key.formatter().apply(value));
+    }
+
+    /**
+     * Restricts the query to the rows strictly after the cursor in the seek ordering.
+     * @param cursor the cursor of the last row of the previous slice
+     * @return the specification
+     * @throws IllegalArgumentException if the cursor's sort field is not supported or its value cannot be parsed
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static Specification<Room> after(KeysetCursor cursor) {
+        SortKey key = requireSupported(cursor.sort());
+        boolean ascending = cursor.order().isAscending();
+        Long lastId = cursor.id();
+        Comparable value;
+        try {
+            value = cursor.value() == null ? null : key.parser().apply(cursor.value());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor value for sort " + cursor.sort(), e);
+        }
+
+        return (root, query, cb) -> {
+            Expression<Long> id = root.get("id");
+            Predicate idAfter = ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+            if ("id".equals(cursor.sort())) {
+                return idAfter;
+            }
+
+            Expression<Comparable> field = root.get(cursor.sort());
+            if (value == null) {
+                // NULLs come first ascending and last descending
+                Predicate sameKey = cb.and(cb.isNull(field), idAfter);
+                return ascending ? cb.or(sameKey, cb.isNotNull(field)) : sameKey;
+            }
+            Predicate sameKey = cb.and(cb.equal(field, value), idAfter);
+            Predicate keyAfter = ascending ? cb.greaterThan(field, value) : cb.lessThan(field, value);
+            return ascending
+                    ? cb.or(keyAfter, sameKey)
+                    : cb.or(keyAfter, sameKey, cb.isNull(field));
+        };
+    }
+
+    private static SortKey requireSupported(String sort) {
+        SortKey key = SORT_KEYS.get(sort);
+        if (key == null) {
+            throw new IllegalArgumentException("Unsupported sort field for cursor pagination: " + sort);
+        }
+        return key;
+    }
+}
@@ -2,34 +2,126 @@ package com.c1se_01.roomiego.service.specification;
 
 import com.c1se_01.roomiego.dto.common.FilterCondition;
 import com.c1se_01.roomiego.dto.common.FilterParam;
+import com.c1se_01.roomiego.dto.common.FilterPlan;
+import com.c1se_01.roomiego.dto.common.NearbyQuery;
 import com.c1se_01.roomiego.model.Room;
 import com.c1se_01.roomiego.utils.FilterPredicateBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 public class RoomSpecification {
 
+    private static final String PLAN_SPEC = "room-spec";
+    private static final String PLAN_SPEC_WITHOUT_LOCATION = "room-spec-without-location";
+    private static final String PLAN_NEARBY = "room-nearby";
+
     private RoomSpecification() {
     }
 
     public static Specification<Room> buildSpecification(FilterParam filterParam) {
+        return buildSpecification(filterParam, true, true);
+    }
+
+    /**
+     * Builds the room specification for the given filter.
+     * @param filterParam the filter parameters
+     * @param includeLocation whether location conditions become bounding-box predicates; pass false when
+     *                        they are answered by the spatial index instead
+     * @param includeSearch whether the search text becomes a title LIKE predicate; pass false when
+     *                      it is answered by the search index instead
+     * @return the specification
+     */
+    public static Specification<Room> buildSpecification(FilterParam filterParam, boolean includeLocation,
+            boolean includeSearch) {
         Specification<Room> spec = Specification.where(null);
-        if (filterParam.getSearch() != null && !filterParam.getSearch().isEmpty()) {
+        if (includeSearch && hasSearch(filterParam)) {
             spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("title")),
                     "%" + filterParam.getSearch().toLowerCase() + "%"));
         }
 
+        FilterPlan plan = filterParam.getPlan();
+        if (plan != null) {
+            // compiled once per distinct filter string and reused by every request sending it
+            return spec.and(plan.compiled(includeLocation ? PLAN_SPEC : PLAN_SPEC_WITHOUT_LOCATION,
+                    compiledPlan -> buildConditions(compiledPlan.getConditions(), includeLocation)));
+        }
         List<FilterCondition> conditions = filterParam.getConditions();
         if (conditions != null) {
-            for (FilterCondition cond : conditions) {
-                spec = spec.and(buildPredicate(cond));
+            spec = spec.and(buildConditions(conditions, includeLocation));
+        }
+        return spec;
+    }
+
+    private static Specification<Room> buildConditions(List<FilterCondition> conditions, boolean includeLocation) {
+        Specification<Room> spec = Specification.where(null);
+        for (FilterCondition cond : conditions) {
+            if (!includeLocation && isLocation(cond)) {
+                continue;
             }
+            spec = spec.and(buildPredicate(cond));
         }
         return spec;
     }
 
+    /**
+     * Returns the nearby query of the filter, or null if the filter has no location condition.
+     */
+    public static NearbyQuery findNearbyQuery(FilterParam filterParam) {
+        FilterPlan plan = filterParam.getPlan();
+        if (plan != null) {
+            return plan.<Optional<NearbyQuery>>compiled(PLAN_NEARBY,
+                    compiledPlan -> Optional.ofNullable(findNearbyQuery(compiledPlan.getConditions())))
+                    .orElse(null);
+        }
+        List<FilterCondition> conditions = filterParam.getConditions();
+        return conditions == null ? null : findNearbyQuery(conditions);
+    }
+
+    private static NearbyQuery findNearbyQuery(List<FilterCondition> conditions) {
+        for (FilterCondition cond : conditions) {
+            if (isLocation(cond)) {
+                return NearbyQuery.from(cond);
+            }
+        }
+        return null;
+    }
+
+    public static boolean hasSearch(FilterParam filterParam) {
+        return filterParam.getSearch() != null && !filterParam.getSearch().isEmpty();
+    }
+
+    /**
+     * Whether {@link #buildSpecification(FilterParam, boolean, boolean)} with the same flags restricts anything.
+     */
+    public static boolean hasCriteria(FilterParam filterParam, boolean includeLocation, boolean includeSearch) {
+        if (includeSearch && hasSearch(filterParam)) {
+            return true;
+        }
+        List<FilterCondition> conditions = filterParam.getConditions();
+        return conditions != null && conditions.stream().anyMatch(cond -> includeLocation || !isLocation(cond));
+    }
+
+    public static Specification<Room> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    /**
+     * Rooms modified at or after the given time, inclusive so that an incremental pull never misses a room
+     * modified in the same instant as the last one it saw.
+     */
+    public static Specification<Room> updatedSince(Date since) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("updatedAt"), since);
+    }
+
+    private static boolean isLocation(FilterCondition cond) {
+        return "location".equals(cond.field());
+    }
+
     private static Specification<Room> buildPredicate(FilterCondition cond) {
         String field = cond.field();
         String op = cond.operator();
@@ -42,32 +134,9 @@ public class RoomSpecification {
             case "ward" -> FilterPredicateBuilder.buildStringEqualPredicate("ward", op, value);
             case "street" -> FilterPredicateBuilder.buildStringEqualPredicate("street", op, value);
             case "location" -> {
-                if (":".equals(op) && value.startsWith("nearby:")) {
-                    // Handle location:nearby:lat;lng;radius format
-                    String nearbyValue = value.substring("nearby:".length());
-                    String[] parts = nearbyValue.split(";");
-                    if (parts.length == 3) {
-                        double lat = Double.parseDouble(parts[0]);
-                        double lng = Double.parseDouble(parts[1]);
-                        double radiusKm = Double.parseDouble(parts[2]) / 1000.0; // Convert meters to km
-                        yield buildNearbyLocationPredicate(lat, lng, radiusKm);
-                    } else {
-                        throw new IllegalArgumentException("Invalid location format: " + value);
-                    }
-                } else if ("nearby".equals(op)) {
-                    // Parse lat;lng;radius from value
-                    String[] parts = value.split(";");
-                    if (parts.length == 3) {
-                        double lat = Double.parseDouble(parts[0]);
-                        double lng = Double.parseDouble(parts[1]);
-                        double radiusKm = Double.parseDouble(parts[2]) / 1000.0; // Convert meters to km
-                        yield buildNearbyLocationPredicate(lat, lng, radiusKm);
-                    } else {
-                        throw new IllegalArgumentException("Invalid location format: " + value);
-                    }
-                } else {
-                    throw new IllegalArgumentException("Unsupported location operator: " + op);
-                }
+                // Handle location:nearby:lat;lng;radius format
+                NearbyQuery nearby = NearbyQuery.from(cond);
+                yield buildNearbyLocationPredicate(nearby.latitude(), nearby.longitude(), nearby.radiusKm());
             }
             default -> throw new IllegalArgumentException("Unknown field: " + field);
         };
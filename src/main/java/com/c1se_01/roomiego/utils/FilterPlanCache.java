@@ -0,0 +1,41 @@
+package com.c1se_01.roomiego.utils;
+
+import com.c1se_01.roomiego.dto.common.FilterPlan;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Bounded LRU cache of parsed filter strings. Filter strings come from a small set of client presets,
+ * so parsing, validation and specification building run once per distinct filter instead of per request.
+ * It is static because {@link com.c1se_01.roomiego.dto.common.FilterParam} and the filter validator
+ * are not Spring beans.
+ */
+public final class FilterPlanCache {
+    /**
+     * Maximum number of distinct filters kept.
+     */
+    public static final int MAXIMUM_SIZE = 1_000;
+
+    private static final Cache<String, FilterPlan> CACHE = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .recordStats()
+            .build();
+
+    private FilterPlanCache() {}
+
+    /**
+     * Returns the plan of the filter string, parsing it on a miss.
+     * @param filter the filter string, not null
+     * @return the shared plan
+     */
+    public static FilterPlan get(String filter) {
+        return CACHE.get(FilterPlan.normalize(filter), FilterPlan::parse);
+    }
+
+    /**
+     * The underlying cache, exposed for metrics.
+     */
+    public static Cache<String, FilterPlan> cache() {
+        return CACHE;
+    }
+}
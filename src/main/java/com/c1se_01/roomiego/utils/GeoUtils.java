@@ -0,0 +1,197 @@
+package com.c1se_01.roomiego.utils;
+
+/**
+ * Utility class for geographic calculations on WGS84 coordinates.
+ */
+public final class GeoUtils {
+    /**
+     * Mean radius of the earth in meters.
+     */
+    public static final double EARTH_RADIUS_METERS = 6_371_000d;
+
+    /**
+     * Approximate length of one degree of latitude in meters.
+     */
+    public static final double METERS_PER_DEGREE_LAT = 111_320d;
+
+    private static final String GEOHASH_BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private GeoUtils() {}
+
+    /**
+     * Calculates the great-circle distance between two points using the haversine formula.
+     * @param lat1 latitude of the first point in degrees
+     * @param lng1 longitude of the first point in degrees
+     * @param lat2 latitude of the second point in degrees
+     * @param lng2 longitude of the second point in degrees
+     * @return the distance in meters
+     */
+    public static double haversineMeters(double lat1, double lng1, double lat2, double lng2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lngDistance = Math.toRadians(lng2 - lng1);
+        double sinLat = Math.sin(latDistance / 2);
+        double sinLng = Math.sin(lngDistance / 2);
+        double a = sinLat * sinLat
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLng * sinLng;
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_METERS * c;
+    }
+
+    /**
+     * Converts a distance in meters to degrees of latitude.
+     * @param meters the distance in meters
+     * @return the distance in degrees of latitude
+     */
+    public static double metersToLatDegrees(double meters) {
+        return meters / METERS_PER_DEGREE_LAT;
+    }
+
+    /**
+     * Converts a distance in meters to degrees of longitude at the given latitude.
+     * @param meters the distance in meters
+     * @param latitude the latitude in degrees where the distance is measured
+     * @return the distance in degrees of longitude
+     */
+    public static double metersToLngDegrees(double meters, double latitude) {
+        double cos = Math.cos(Math.toRadians(latitude));
+        if (cos < 1e-6) {
+            return 360d;
+        }
+        return meters / (METERS_PER_DEGREE_LAT * cos);
+    }
+
+    /**
+     * Latitude limit of the Web Mercator projection, where the map is square.
+     */
+    public static final double MAX_MERCATOR_LATITUDE = 85.05112878;
+
+    /**
+     * Projects a longitude on the Web Mercator x axis.
+     * @param longitude the longitude in degrees
+     * @return the x coordinate in [0, 1], from the antimeridian eastwards
+     */
+    public static double mercatorX(double longitude) {
+        return Math.min(Math.max((longitude + 180d) / 360d, 0d), 1d);
+    }
+
+    /**
+     * Projects a latitude on the Web Mercator y axis.
+     * @param latitude the latitude in degrees, clamped to {@link #MAX_MERCATOR_LATITUDE}
+     * @return the y coordinate in [0, 1], from the north edge southwards
+     */
+    public static double mercatorY(double latitude) {
+        double clamped = Math.min(Math.max(latitude, -MAX_MERCATOR_LATITUDE), MAX_MERCATOR_LATITUDE);
+        double sin = Math.sin(Math.toRadians(clamped));
+        return Math.min(Math.max(0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI), 0d), 1d);
+    }
+
+    /**
+     * Finds the tile column or row containing a projected coordinate.
+     * @param mercator the coordinate returned by {@link #mercatorX(double)} or {@link #mercatorY(double)}
+     * @param zoom the zoom level, the map being split in 2^zoom tiles per axis
+     * @return the tile index in [0, 2^zoom)
+     */
+    public static int tileIndex(double mercator, int zoom) {
+        int tiles = 1 << zoom;
+        return Math.min(Math.max((int) Math.floor(mercator * tiles), 0), tiles - 1);
+    }
+
+    /**
+     * Longitude of the west edge of a tile column.
+     * @param x the tile column
+     * @param zoom the zoom level
+     * @return the longitude in degrees
+     */
+    public static double tileLongitude(int x, int zoom) {
+        return x / (double) (1 << zoom) * 360d - 180d;
+    }
+
+    /**
+     * Latitude of the north edge of a tile row.
+     * @param y the tile row
+     * @param zoom the zoom level
+     * @return the latitude in degrees
+     */
+    public static double tileLatitude(int y, int zoom) {
+        double n = Math.PI * (1 - 2 * y / (double) (1 << zoom));
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    /**
+     * Encodes a point as a geohash. A precision of 7 gives cells of about 150 m.
+     * @param latitude  the latitude in degrees
+     * @param longitude the longitude in degrees
+     * @param precision the number of base32 characters
+     * @return the geohash of the cell containing the point
+     */
+    public static String geohash(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLng = mid;
+                } else {
+                    ch <<= 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(GEOHASH_BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Decodes the center of a geohash cell.
+     * @param geohash the geohash
+     * @return the latitude and the longitude of the center, in degrees
+     */
+    public static double[] geohashCenter(String geohash) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        boolean evenBit = true;
+        for (int i = 0; i < geohash.length(); i++) {
+            int ch = GEOHASH_BASE32.indexOf(geohash.charAt(i));
+            if (ch < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + geohash);
+            }
+            for (int mask = 16; mask > 0; mask >>= 1) {
+                if (evenBit) {
+                    double mid = (minLng + maxLng) / 2;
+                    if ((ch & mask) != 0) {
+                        minLng = mid;
+                    } else {
+                        maxLng = mid;
+                    }
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if ((ch & mask) != 0) {
+                        minLat = mid;
+                    } else {
+                        maxLat = mid;
+                    }
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new double[] { (minLat + maxLat) / 2, (minLng + maxLng) / 2 };
+    }
+}
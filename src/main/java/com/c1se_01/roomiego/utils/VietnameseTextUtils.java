@@ -0,0 +1,46 @@
+package com.c1se_01.roomiego.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for accent-insensitive matching of Vietnamese text.
+ */
+public final class VietnameseTextUtils {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_TOKEN_CHARS = Pattern.compile("[^a-z0-9]+");
+
+    private VietnameseTextUtils() {}
+
+    /**
+     * Lower-cases the text and strips diacritics, so that "Đà Nẵng" and "da nang" compare equal.
+     * @param text the text to fold, may be null
+     * @return the folded text, empty if the text is null
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        // đ has no decomposition, it is a separate letter
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").replace('đ', 'd');
+    }
+
+    /**
+     * Folds the text and splits it into alphanumeric tokens.
+     * @param text the text to tokenize, may be null
+     * @return the tokens in order of appearance
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_TOKEN_CHARS.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
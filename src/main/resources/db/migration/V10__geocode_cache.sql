@@ -0,0 +1,13 @@
+-- Geocoding results keyed by the normalized address, including the addresses that were not found.
+-- The binary collation keeps addresses differing only by their accents apart.
+CREATE TABLE geocode_cache (
+  address_key VARCHAR(500) NOT NULL,
+  formatted_address VARCHAR(500) DEFAULT NULL,
+  latitude DOUBLE DEFAULT NULL,
+  longitude DOUBLE DEFAULT NULL,
+  place_id VARCHAR(255) DEFAULT NULL,
+  matched_variation VARCHAR(600) DEFAULT NULL,
+  created_at DATETIME(6) NOT NULL,
+  expires_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (address_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin;
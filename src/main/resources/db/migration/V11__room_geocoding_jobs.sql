@@ -0,0 +1,21 @@
+-- Rooms created without coordinates are saved at once and geocoded in the background
+ALTER TABLE rooms ADD COLUMN geo_status VARCHAR(16) NOT NULL DEFAULT 'RESOLVED';
+
+-- Durable queue of the rooms to geocode, drained in batches by RoomGeocodingWorker.
+-- A job is due once next_attempt_at has passed; a worker claims it by pushing next_attempt_at forward.
+CREATE TABLE room_geocoding_jobs (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  room_id BIGINT NOT NULL,
+  address VARCHAR(1000) NOT NULL,
+  attempts INT NOT NULL DEFAULT 0,
+  next_attempt_at DATETIME(6) NOT NULL,
+  last_error VARCHAR(500) DEFAULT NULL,
+  created_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (id),
+  UNIQUE KEY uk_room_geocoding_jobs_room (room_id),
+  KEY idx_room_geocoding_jobs_due (next_attempt_at, id),
+  CONSTRAINT fk_room_geocoding_jobs_room FOREIGN KEY (room_id) REFERENCES rooms (id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Rooms already missing their coordinates
+UPDATE rooms SET geo_status = 'FAILED' WHERE latitude IS NULL OR longitude IS NULL;
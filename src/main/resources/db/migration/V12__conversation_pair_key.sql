@@ -0,0 +1,28 @@
+-- One conversation per pair of users, keyed by the pair in a canonical order so that it is found by one
+-- index lookup and a concurrent first message cannot create a second one.
+ALTER TABLE conversations ADD COLUMN min_user_id BIGINT DEFAULT NULL;
+ALTER TABLE conversations ADD COLUMN max_user_id BIGINT DEFAULT NULL;
+
+UPDATE conversations
+SET min_user_id = LEAST(user1_id, user2_id), max_user_id = GREATEST(user1_id, user2_id);
+
+-- Merge the duplicates into the oldest conversation of their pair
+UPDATE messages m
+JOIN conversations c ON c.id = m.conversation_id
+JOIN (SELECT min_user_id, max_user_id, MIN(id) AS kept_id
+      FROM conversations
+      GROUP BY min_user_id, max_user_id) k
+  ON k.min_user_id = c.min_user_id AND k.max_user_id = c.max_user_id
+SET m.conversation_id = k.kept_id
+WHERE c.id <> k.kept_id;
+
+DELETE c FROM conversations c
+JOIN (SELECT min_user_id, max_user_id, MIN(id) AS kept_id
+      FROM conversations
+      GROUP BY min_user_id, max_user_id) k
+  ON k.min_user_id = c.min_user_id AND k.max_user_id = c.max_user_id
+WHERE c.id <> k.kept_id;
+
+ALTER TABLE conversations MODIFY min_user_id BIGINT NOT NULL;
+ALTER TABLE conversations MODIFY max_user_id BIGINT NOT NULL;
+ALTER TABLE conversations ADD CONSTRAINT uk_conversations_pair UNIQUE (min_user_id, max_user_id);
@@ -0,0 +1,28 @@
+-- The last message and the unread counts kept on each conversation, so that the inbox of a user is one
+-- query over the conversations instead of one query per conversation for its last message.
+ALTER TABLE conversations ADD COLUMN last_message_id BIGINT DEFAULT NULL;
+ALTER TABLE conversations ADD COLUMN last_message_preview VARCHAR(255) DEFAULT NULL;
+ALTER TABLE conversations ADD COLUMN last_message_at BIGINT DEFAULT NULL;
+ALTER TABLE conversations ADD COLUMN user1_unread_count INT NOT NULL DEFAULT 0;
+ALTER TABLE conversations ADD COLUMN user2_unread_count INT NOT NULL DEFAULT 0;
+
+UPDATE conversations c
+SET c.last_message_id = (SELECT m.id FROM messages m
+                         WHERE m.conversation_id = c.id
+                         ORDER BY m.timestamp DESC, m.id DESC
+                         LIMIT 1);
+
+UPDATE conversations c
+JOIN messages m ON m.id = c.last_message_id
+SET c.last_message_preview = LEFT(m.message, 255), c.last_message_at = m.timestamp;
+
+-- Conversations without messages sort by their creation
+UPDATE conversations
+SET last_message_at = FLOOR(UNIX_TIMESTAMP(created_at) * 1000)
+WHERE last_message_at IS NULL;
+
+ALTER TABLE conversations MODIFY last_message_at BIGINT NOT NULL;
+
+-- The inbox of a user is read from one of these per side of the conversation
+CREATE INDEX idx_conversations_user1_inbox ON conversations (user1_id, last_message_at, id);
+CREATE INDEX idx_conversations_user2_inbox ON conversations (user2_id, last_message_at, id);
@@ -0,0 +1,2 @@
+-- The history of a conversation is read a page at a time, before or after a (timestamp, id) position
+CREATE INDEX idx_messages_conversation_timestamp ON messages (conversation_id, timestamp, id);
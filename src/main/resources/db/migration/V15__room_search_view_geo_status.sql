@@ -0,0 +1,6 @@
+-- Listings show whether a room is still being geocoded
+ALTER TABLE room_search_view ADD COLUMN geo_status VARCHAR(16) NOT NULL DEFAULT 'RESOLVED';
+
+UPDATE room_search_view v
+JOIN rooms r ON r.id = v.room_id
+SET v.geo_status = r.geo_status;
@@ -0,0 +1,38 @@
+-- Flat read model of the room listings, written by the application from room, image and owner events
+CREATE TABLE room_search_view (
+  room_id BIGINT NOT NULL,
+  owner_id BIGINT NOT NULL,
+  owner_name VARCHAR(255) DEFAULT NULL,
+  title VARCHAR(255) DEFAULT NULL,
+  description TEXT,
+  price DECIMAL(38,2) DEFAULT NULL,
+  location VARCHAR(255) DEFAULT NULL,
+  latitude DOUBLE DEFAULT NULL,
+  longitude DOUBLE DEFAULT NULL,
+  room_size FLOAT DEFAULT NULL,
+  num_bedrooms INT DEFAULT NULL,
+  num_bathrooms INT DEFAULT NULL,
+  available_from DATE DEFAULT NULL,
+  is_room_available BIT(1) DEFAULT NULL,
+  created_at DATETIME(6) DEFAULT NULL,
+  city VARCHAR(255) DEFAULT NULL,
+  district VARCHAR(255) DEFAULT NULL,
+  ward VARCHAR(255) DEFAULT NULL,
+  street VARCHAR(255) DEFAULT NULL,
+  address_details VARCHAR(255) DEFAULT NULL,
+  first_image_url VARCHAR(255) DEFAULT NULL,
+  image_count INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (room_id),
+  KEY idx_room_search_view_owner (owner_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO room_search_view (room_id, owner_id, owner_name, title, description, price, location, latitude,
+  longitude, room_size, num_bedrooms, num_bathrooms, available_from, is_room_available, created_at, city,
+  district, ward, street, address_details, first_image_url, image_count)
+SELECT r.id, r.owner_id, u.full_name, r.title, r.description, r.price, r.location, r.latitude, r.longitude,
+  r.room_size, r.num_bedrooms, r.num_bathrooms, r.available_from, r.is_room_available, r.created_at, r.city,
+  r.district, r.ward, r.street, r.address_details,
+  (SELECT i.image_url FROM room_images i WHERE i.room_id = r.id ORDER BY i.id LIMIT 1),
+  (SELECT COUNT(*) FROM room_images i WHERE i.room_id = r.id)
+FROM rooms r
+JOIN users u ON u.id = r.owner_id;
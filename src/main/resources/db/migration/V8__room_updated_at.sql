@@ -0,0 +1,6 @@
+-- Last modification time of a room, for incremental exports
+ALTER TABLE rooms ADD COLUMN updated_at DATETIME(6) DEFAULT NULL;
+
+UPDATE rooms SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP(6));
+
+CREATE INDEX idx_rooms_updated_at ON rooms (updated_at, id);
@@ -0,0 +1,7 @@
+-- Versions of rooms and users, for optimistic locking and the ETags of the room and profile endpoints
+ALTER TABLE rooms ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN updated_at DATETIME(6) DEFAULT NULL;
+
+UPDATE users SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP(6));
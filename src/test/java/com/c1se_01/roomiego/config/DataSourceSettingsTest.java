@@ -0,0 +1,29 @@
+package com.c1se_01.roomiego.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The connection settings the repositories rely on.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DataSourceSettingsTest {
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Test
+  void connections_useServerSideCursorsForStreamedExports() {
+    HikariDataSource hikari = assertInstanceOf(HikariDataSource.class, dataSource);
+
+    assertEquals("true", hikari.getDataSourceProperties().getProperty("useCursorFetch"));
+  }
+}
@@ -0,0 +1,27 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.dto.DistanceMatrixResult;
+import com.c1se_01.roomiego.service.cache.DistanceMatrixCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceMatrixCacheMetricsTest {
+
+  @Test
+  void bindTo_registersMetersOfTheCache() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    DistanceMatrixCache cache = new DistanceMatrixCache();
+    new DistanceMatrixCacheMetrics(cache).bindTo(registry);
+
+    cache.put("w6ugq4w", "w6ugmf2", "driving", new DistanceMatrixResult(1, 1000, "1 km", 2, 120, "2 phút", "driving"));
+    cache.get("w6ugq4w", "w6ugmf2", "driving");
+    cache.get("w6ugq4w", "w6ugmf2", "walking");
+
+    assertEquals(1, registry.find("cache.gets").tag("cache", "distanceMatrix").tag("result", "hit")
+        .functionCounter().count());
+    assertEquals(1, registry.find("cache.gets").tag("cache", "distanceMatrix").tag("result", "miss")
+        .functionCounter().count());
+  }
+}
@@ -0,0 +1,51 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.service.resilience.ExternalApiGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalApiGuardMetricsTest {
+
+  private final ExternalApiGuard guard = new ExternalApiGuard("google-maps",
+      new ExternalApiGuard.Settings(4, 1000, 1000, 1, 1, 50, Duration.ofHours(1), 1));
+
+  private void openCircuit() {
+    assertThrows(IllegalStateException.class, () -> guard.call(() -> {
+      throw new IllegalStateException("down");
+    }, () -> null));
+    guard.call(() -> "ok", () -> "fallback");
+  }
+
+  @Test
+  void bindTo_registersTheStateAndTheCallsOfEveryGuard() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    new ExternalApiGuardMetrics(List.of(guard)).bindTo(registry);
+
+    openCircuit();
+
+    assertEquals(ExternalApiGuard.State.OPEN.ordinal(),
+        registry.get(ExternalApiGuardMetrics.STATE).tag("api", "google-maps").gauge().value());
+    assertEquals(100.0, registry.get(ExternalApiGuardMetrics.FAILURE_RATE).tag("api", "google-maps").gauge().value());
+    assertEquals(1, registry.get(ExternalApiGuardMetrics.CALLS).tag("outcome", "FAILURE").functionCounter().count());
+    assertEquals(1, registry.get(ExternalApiGuardMetrics.CALLS).tag("outcome", "CIRCUIT_OPEN").functionCounter()
+        .count());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void endpoint_showsTheStateOfEveryGuard() {
+    openCircuit();
+
+    Map<String, Object> api = new ExternalApisEndpoint(List.of(guard)).guards().get("google-maps");
+
+    assertEquals(ExternalApiGuard.State.OPEN, api.get("state"));
+    assertEquals(4, api.get("availableConcurrentCalls"));
+    assertEquals(1L, ((Map<String, Long>) api.get("rejectedCalls")).get("CIRCUIT_OPEN"));
+  }
+}
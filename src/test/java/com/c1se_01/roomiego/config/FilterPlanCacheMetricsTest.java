@@ -0,0 +1,22 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.utils.FilterPlanCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterPlanCacheMetricsTest {
+
+  @Test
+  void bindTo_registersCacheMeters() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    new FilterPlanCacheMetrics().bindTo(registry);
+
+    FilterPlanCache.get("city:danang-metrics");
+
+    assertNotNull(registry.find("cache.gets").tag("cache", "filterPlans").tag("result", "miss").functionCounter());
+    assertNotNull(registry.find("cache.gets").tag("cache", "filterPlans").tag("result", "hit").functionCounter());
+    assertNotNull(registry.find("cache.size").tag("cache", "filterPlans").gauge());
+  }
+}
@@ -0,0 +1,27 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.dto.LocationResponse;
+import com.c1se_01.roomiego.repository.GeocodeCacheRepository;
+import com.c1se_01.roomiego.service.cache.GeocodeCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class GeocodeCacheMetricsTest {
+
+  @Test
+  void bindTo_registersMetersOfTheMemoryTier() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    GeocodeCache cache = new GeocodeCache(mock(GeocodeCacheRepository.class));
+    new GeocodeCacheMetrics(cache).bindTo(registry);
+
+    cache.put("Hải Châu", new LocationResponse.LocationData("Hải Châu", 16.05, 108.2, "place1"), "Hải Châu");
+    cache.get("Hải Châu");
+
+    assertEquals(1, registry.find("cache.gets").tag("cache", "geocode").tag("result", "hit")
+        .functionCounter().count());
+    assertNotNull(registry.find("cache.size").tag("cache", "geocode").gauge());
+  }
+}
@@ -0,0 +1,78 @@
+package com.c1se_01.roomiego.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientConfigTest {
+
+  private HttpServer server;
+  private RestTemplate restTemplate;
+  private String baseUrl;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/ok", exchange -> {
+      byte[] body = "pong".getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.createContext("/hung", exchange -> {
+      try {
+        Thread.sleep(5_000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.sendResponseHeaders(204, -1);
+      exchange.close();
+    });
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+    HttpClientConfig config = new HttpClientConfig();
+    ReflectionTestUtils.setField(config, "connectTimeoutMillis", 1_000L);
+    ReflectionTestUtils.setField(config, "timeoutMillis", 1_000L);
+    ReflectionTestUtils.setField(config, "maxInFlightPerHost", 4);
+    ReflectionTestUtils.setField(config, "hostLimits", Map.of());
+    ReflectionTestUtils.setField(config, "acquireTimeoutMillis", 100L);
+    restTemplate = config.outboundRestTemplate(new RestTemplateBuilder(), config.outboundHttpClient(),
+        new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  void outboundRestTemplate_callsThroughTheSharedClient() {
+    assertEquals("pong", restTemplate.getForObject(baseUrl + "/ok", String.class));
+  }
+
+  @Test
+  void outboundRestTemplate_hungServer_timesOut() {
+    long start = System.nanoTime();
+
+    assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(baseUrl + "/hung", String.class));
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 4_000);
+  }
+}
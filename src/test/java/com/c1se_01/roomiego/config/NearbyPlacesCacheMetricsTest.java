@@ -0,0 +1,25 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.service.cache.NearbyPlacesCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearbyPlacesCacheMetricsTest {
+
+  @Test
+  void bindTo_registersMetersOfTheCache() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    NearbyPlacesCache cache = new NearbyPlacesCache();
+    new NearbyPlacesCacheMetrics(cache).bindTo(registry);
+
+    cache.get("w6ugq4w", "park", List::of);
+    cache.get("w6ugq4w", "park", List::of);
+
+    assertEquals(1, registry.find("cache.gets").tag("cache", "nearbyPlaces").tag("result", "hit")
+        .functionCounter().count());
+  }
+}
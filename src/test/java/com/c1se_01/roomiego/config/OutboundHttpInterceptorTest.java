@@ -0,0 +1,125 @@
+package com.c1se_01.roomiego.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundHttpInterceptorTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private final OutboundHttpInterceptor interceptor = new OutboundHttpInterceptor(registry, 4,
+      Map.of("api.fpt.ai", 1), 50);
+
+  private static MockClientHttpRequest request(String url) {
+    return new MockClientHttpRequest(HttpMethod.GET, URI.create(url));
+  }
+
+  private static byte[] gzip(String text) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+    return bytes.toByteArray();
+  }
+
+  @Test
+  void intercept_asksForGzipAndDecodesIt() throws Exception {
+    MockClientHttpRequest request = request("https://maps.googleapis.com/maps/api/geocode/json?address=a");
+
+    ClientHttpResponse response = interceptor.intercept(request, new byte[0], (sent, body) -> {
+      assertEquals("gzip", sent.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+      MockClientHttpResponse gzipped = new MockClientHttpResponse(gzip("{\"status\":\"OK\"}"), HttpStatus.OK);
+      gzipped.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+      gzipped.getHeaders().setContentLength(42);
+      return gzipped;
+    });
+
+    assertEquals("{\"status\":\"OK\"}", new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+    assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertEquals(-1, response.getHeaders().getContentLength());
+  }
+
+  @Test
+  void intercept_emptyGzipBody_readsEmpty() throws Exception {
+    ClientHttpResponse response = interceptor.intercept(request("https://maps.googleapis.com/x"), new byte[0],
+        (sent, body) -> {
+          MockClientHttpResponse empty = new MockClientHttpResponse(new byte[0], HttpStatus.NO_CONTENT);
+          empty.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+          return empty;
+        });
+
+    assertEquals(0, response.getBody().readAllBytes().length);
+  }
+
+  @Test
+  void intercept_recordsLatencyPerHostAndOutcome() throws Exception {
+    interceptor.intercept(request("https://maps.googleapis.com/a"), new byte[0],
+        (sent, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+    interceptor.intercept(request("https://maps.googleapis.com/b"), new byte[0],
+        (sent, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.BAD_GATEWAY));
+    assertThrows(IOException.class, () -> interceptor.intercept(request("http://localhost:8000/recommend"),
+        new byte[0], (sent, body) -> {
+          throw new IOException("Connection refused");
+        }));
+
+    assertEquals(1, registry.get(OutboundHttpInterceptor.TIMER).tag("host", "maps.googleapis.com")
+        .tag("outcome", "SUCCESS").timer().count());
+    assertEquals(1, registry.get(OutboundHttpInterceptor.TIMER).tag("host", "maps.googleapis.com")
+        .tag("outcome", "SERVER_ERROR").timer().count());
+    assertEquals(1, registry.get(OutboundHttpInterceptor.TIMER).tag("host", "localhost")
+        .tag("outcome", "IO_ERROR").timer().count());
+  }
+
+  @Test
+  void intercept_hostAtItsLimit_rejectsAfterTheAcquireTimeout() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<ClientHttpResponse> slow = CompletableFuture.supplyAsync(() -> {
+      try {
+        return interceptor.intercept(request("https://api.fpt.ai/vision/idr/vnm"), new byte[0], (sent, body) -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        });
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    IOException rejected = assertThrows(IOException.class, () -> interceptor.intercept(
+        request("https://api.fpt.ai/vision/idr/vnm"), new byte[0],
+        (sent, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK)));
+    // other hosts keep their own slots
+    interceptor.intercept(request("https://maps.googleapis.com/a"), new byte[0],
+        (sent, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+    release.countDown();
+    slow.get(5, TimeUnit.SECONDS);
+
+    assertTrue(rejected.getMessage().contains("api.fpt.ai"));
+    assertEquals(1, registry.get(OutboundHttpInterceptor.TIMER).tag("host", "api.fpt.ai")
+        .tag("outcome", "REJECTED").timer().count());
+  }
+}
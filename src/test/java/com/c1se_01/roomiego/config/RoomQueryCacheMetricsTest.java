@@ -0,0 +1,26 @@
+package com.c1se_01.roomiego.config;
+
+import com.c1se_01.roomiego.dto.RoomDTO;
+import com.c1se_01.roomiego.service.cache.RoomQueryCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomQueryCacheMetricsTest {
+
+  @Test
+  void bindTo_registersMetersOfBothCaches() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    RoomQueryCache cache = new RoomQueryCache();
+    new RoomQueryCacheMetrics(cache).bindTo(registry);
+
+    cache.getRoom(1L, id -> new RoomDTO());
+    cache.getRoom(1L, id -> new RoomDTO());
+
+    assertEquals(1, registry.find("cache.gets").tag("cache", "roomDetails").tag("result", "hit")
+        .functionCounter().count());
+    assertNotNull(registry.find("cache.evictions").tag("cache", "roomDetails").functionCounter());
+    assertNotNull(registry.find("cache.size").tag("cache", "roomListings").gauge());
+  }
+}
@@ -4,6 +4,7 @@ import com.c1se_01.roomiego.dto.LocationMarkerRequest;
 import com.c1se_01.roomiego.dto.LocationMarkerResponse;
 import com.c1se_01.roomiego.dto.LocationResponse;
 import com.c1se_01.roomiego.dto.LocationSearchRequest;
+import com.c1se_01.roomiego.dto.MarkerTileResponse;
 import com.c1se_01.roomiego.service.impl.GoogleMapsService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,10 +18,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.http.MediaType;
 
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.util.List;
 import java.util.Optional;
 
 @ExtendWith(MockitoExtension.class)
@@ -124,7 +130,9 @@ public class MapsControllerTest {
                 .andExpect(jsonPath("$.message").value("Location not found"));
     }
 
+    // covers the legacy POST /markers endpoint until it is removed
     @Test
+    @SuppressWarnings("deprecation")
     public void testGetMarkers_HappyCase() throws Exception {
         // Arrange
         LocationMarkerRequest[] requests = new LocationMarkerRequest[1];
@@ -155,4 +163,39 @@ public class MapsControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.length()").value(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetMarkerTile_HappyCase() throws Exception {
+        MarkerTileResponse tile = new MarkerTileResponse(12, 3279, 1877,
+                List.of(new MarkerTileResponse.Cluster(16.05, 108.2, 25)),
+                List.of(new MarkerTileResponse.Marker(7L, 16.06, 108.21)));
+        when(googleMapsService.getMarkerTile(12, 3279, 1877)).thenReturn(tile);
+
+        mockMvc.perform(get("/maps/markers/tiles")
+                .param("z", "12")
+                .param("x", "3279")
+                .param("y", "1877"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.zoom").value(12))
+                .andExpect(jsonPath("$.clusters[0].count").value(25))
+                .andExpect(jsonPath("$.markers[0].id").value(7));
+    }
+
+    @Test
+    public void testGetMarkerTile_OutOfRange() throws Exception {
+        mockMvc.perform(get("/maps/markers/tiles")
+                .param("z", "2")
+                .param("x", "4")
+                .param("y", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(googleMapsService, never()).getMarkerTile(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testGetMarkerTile_MissingParameter() throws Exception {
+        mockMvc.perform(get("/maps/markers/tiles")
+                .param("z", "2"))
+                .andExpect(status().isBadRequest());
+    }
+}
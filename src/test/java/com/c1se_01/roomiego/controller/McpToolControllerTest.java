@@ -0,0 +1,206 @@
+package com.c1se_01.roomiego.controller;
+
+import com.c1se_01.roomiego.dto.DistanceMatrixRequest;
+import com.c1se_01.roomiego.dto.DistanceMatrixResult;
+import com.c1se_01.roomiego.dto.LocationResponse;
+import com.c1se_01.roomiego.dto.RoomDTO;
+import com.c1se_01.roomiego.exception.NotFoundException;
+import com.c1se_01.roomiego.service.RoomService;
+import com.c1se_01.roomiego.service.UserProfileService;
+import com.c1se_01.roomiego.service.impl.DistanceEstimator;
+import com.c1se_01.roomiego.service.impl.GoogleMapsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class McpToolControllerTest {
+
+  @Mock
+  private UserProfileService userProfileService;
+
+  @Mock
+  private RoomService roomService;
+
+  @Mock
+  private GoogleMapsService googleMapsService;
+
+  @Mock
+  private DistanceEstimator distanceEstimator;
+
+  @InjectMocks
+  private McpToolController mcpToolController;
+
+  private MockMvc mockMvc;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.standaloneSetup(mcpToolController).build();
+  }
+
+  private static RoomDTO property(Long id, Double lat, Double lng) {
+    RoomDTO room = new RoomDTO();
+    room.setId(id);
+    room.setLocation("Phòng " + id);
+    room.setLatitude(lat);
+    room.setLongitude(lng);
+    return room;
+  }
+
+  private String body(List<DistanceMatrixRequest.Place> origins, List<DistanceMatrixRequest.Place> destinations)
+      throws Exception {
+    return body(origins, destinations, null);
+  }
+
+  private String body(List<DistanceMatrixRequest.Place> origins, List<DistanceMatrixRequest.Place> destinations,
+      String precision) throws Exception {
+    return objectMapper.writeValueAsString(new DistanceMatrixRequest(origins, destinations, null, precision));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void calculateDistanceMatrix_routesResolvedPlacesOnly() throws Exception {
+    when(roomService.getRoomById(1L)).thenReturn(property(1L, 16.05, 108.20));
+    when(roomService.getRoomById(2L)).thenThrow(new NotFoundException("Phòng không tồn tại"));
+    when(roomService.getRoomById(3L)).thenReturn(property(3L, 16.07, 108.22));
+    when(googleMapsService.geocodeAddress("Đại học Duy Tân, Đà Nẵng"))
+        .thenReturn(new LocationResponse.LocationData("254 Nguyễn Văn Linh", 16.06, 108.21, "place1"));
+    DistanceMatrixResult route = new DistanceMatrixResult(2.5, 2500, "2,5 km", 10, 600, "10 phút", "driving");
+    when(googleMapsService.calculateDistanceMatrix(anyList(), anyList(), eq("driving")))
+        .thenReturn(new DistanceMatrixResult[][] { { route }, { null } });
+
+    mockMvc.perform(post("/api/mcp/tools/distance/matrix")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(body(
+            List.of(new DistanceMatrixRequest.Place(1L, null), new DistanceMatrixRequest.Place(2L, null),
+                new DistanceMatrixRequest.Place(3L, null)),
+            List.of(new DistanceMatrixRequest.Place(null, "Đại học Duy Tân")))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.travelMode").value("driving"))
+        .andExpect(jsonPath("$.origins[1].error").value("Property not found"))
+        .andExpect(jsonPath("$.destinations[0].address").value("254 Nguyễn Văn Linh"))
+        .andExpect(jsonPath("$.rows[0][0].distanceMeters").value(2500))
+        .andExpect(jsonPath("$.rows[1][0]").isEmpty())
+        .andExpect(jsonPath("$.rows[2][0]").isEmpty());
+
+    ArgumentCaptor<List<double[]>> origins = ArgumentCaptor.forClass(List.class);
+    verify(googleMapsService).calculateDistanceMatrix(origins.capture(), anyList(), eq("driving"));
+    assertEquals(2, origins.getValue().size());
+    assertArrayEquals(new double[] { 16.07, 108.22 }, origins.getValue().get(1));
+  }
+
+  @Test
+  void calculateDistanceMatrix_nothingResolved_skipsTheApi() throws Exception {
+    when(googleMapsService.geocodeAddress(anyString())).thenReturn(null);
+
+    mockMvc.perform(post("/api/mcp/tools/distance/matrix")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(body(List.of(new DistanceMatrixRequest.Place(null, "nowhere")),
+            List.of(new DistanceMatrixRequest.Place(null, "Đà Nẵng")))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.origins[0].error").value("Could not geocode address"))
+        .andExpect(jsonPath("$.rows[0][0]").isEmpty());
+
+    verify(googleMapsService, never()).calculateDistanceMatrix(anyList(), anyList(), any());
+  }
+
+  @Test
+  void calculateDistanceMatrix_missingOrTooManyPlaces_returnsBadRequest() throws Exception {
+    mockMvc.perform(post("/api/mcp/tools/distance/matrix")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(body(List.of(), List.of(new DistanceMatrixRequest.Place(1L, null)))))
+        .andExpect(status().isBadRequest());
+
+    List<DistanceMatrixRequest.Place> tooMany = Collections.nCopies(McpToolController.MAX_MATRIX_PLACES + 1,
+        new DistanceMatrixRequest.Place(1L, null));
+    mockMvc.perform(post("/api/mcp/tools/distance/matrix")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(body(List.of(new DistanceMatrixRequest.Place(1L, null)), tooMany)))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(roomService, googleMapsService);
+  }
+
+  @Test
+  void calculateDistanceMatrix_estimatePrecision_skipsGoogle() throws Exception {
+    when(roomService.getRoomById(1L)).thenReturn(property(1L, 16.05, 108.20));
+    when(roomService.getRoomById(3L)).thenReturn(property(3L, 16.07, 108.22));
+    DistanceMatrixResult estimate = new DistanceMatrixResult(3.9, 3900, "3,9 km", 9, 560, "9 phút", "driving",
+        true);
+    when(distanceEstimator.estimateMatrix(anyList(), anyList(), eq("driving")))
+        .thenReturn(new DistanceMatrixResult[][] { { estimate } });
+
+    mockMvc.perform(post("/api/mcp/tools/distance/matrix")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(body(List.of(new DistanceMatrixRequest.Place(1L, null)),
+            List.of(new DistanceMatrixRequest.Place(3L, null)), "estimate")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.rows[0][0].distanceMeters").value(3900))
+        .andExpect(jsonPath("$.rows[0][0].estimated").value(true));
+
+    verify(googleMapsService, never()).calculateDistanceMatrix(anyList(), anyList(), any());
+  }
+
+  @Test
+  void calculateDistanceMatrix_unknownPrecision_returnsBadRequest() throws Exception {
+    mockMvc.perform(post("/api/mcp/tools/distance/matrix")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(body(List.of(new DistanceMatrixRequest.Place(1L, null)),
+            List.of(new DistanceMatrixRequest.Place(3L, null)), "roughly")))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(roomService, googleMapsService, distanceEstimator);
+  }
+
+  @Test
+  void calculateDistance_estimatePrecision_skipsGoogle() throws Exception {
+    when(roomService.getRoomById(1L)).thenReturn(property(1L, 16.05, 108.20));
+    when(roomService.getRoomById(3L)).thenReturn(property(3L, 16.07, 108.22));
+    when(distanceEstimator.estimate("walking", 16.05, 108.20, 16.07, 108.22))
+        .thenReturn(new DistanceMatrixResult(3.9, 3900, "3,9 km", 49, 2925, "49 phút", "walking", true));
+
+    mockMvc.perform(get("/api/mcp/tools/distance")
+        .param("fromPropertyId", "1").param("toPropertyId", "3")
+        .param("mode", "walking").param("precision", "estimate"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.distanceMeters").value(3900))
+        .andExpect(jsonPath("$.estimated").value(true));
+
+    verifyNoInteractions(googleMapsService);
+  }
+
+  @Test
+  void calculateDistance_googleFails_fallsBackToTheEstimate() throws Exception {
+    when(roomService.getRoomById(1L)).thenReturn(property(1L, 16.05, 108.20));
+    when(roomService.getRoomById(3L)).thenReturn(property(3L, 16.07, 108.22));
+    when(googleMapsService.calculateDistanceMatrix(16.05, 108.20, 16.07, 108.22, "driving")).thenReturn(null);
+    when(distanceEstimator.estimate("driving", 16.05, 108.20, 16.07, 108.22))
+        .thenReturn(new DistanceMatrixResult(3.9, 3900, "3,9 km", 9, 560, "9 phút", "driving", true));
+
+    mockMvc.perform(get("/api/mcp/tools/distance")
+        .param("fromPropertyId", "1").param("toPropertyId", "3"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.durationMinutes").value(9))
+        .andExpect(jsonPath("$.estimated").value(true));
+  }
+}
@@ -1,7 +1,9 @@
 package com.c1se_01.roomiego.controller;
 
+import com.c1se_01.roomiego.common.SliceCustom;
 import com.c1se_01.roomiego.dto.ConversationSummaryDTO;
 import com.c1se_01.roomiego.dto.MessageDto;
+import com.c1se_01.roomiego.dto.MessageHistoryDTO;
 import com.c1se_01.roomiego.dto.SendMessageRequest;
 import com.c1se_01.roomiego.model.Message;
 import com.c1se_01.roomiego.model.User;
@@ -16,6 +18,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -25,6 +29,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -199,6 +204,35 @@ public class MessageControllerTest {
         .andExpect(jsonPath("$.length()").value(1));
   }
 
+  @Test
+  @WithMockUser
+  void getInbox_withCursor_returnsASlice() throws Exception {
+    ConversationSummaryDTO conversation = new ConversationSummaryDTO();
+    conversation.setConversationId(5L);
+    conversation.setUnreadCount(2);
+    when(messageService.getInbox(1L, "", 20)).thenReturn(new SliceCustom<>(List.of(conversation), "next", true));
+
+    mockMvc.perform(get("/messages/api/messages/conversations/1").param("cursor", ""))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].conversationId").value(5L))
+        .andExpect(jsonPath("$.data[0].unreadCount").value(2))
+        .andExpect(jsonPath("$.next_cursor").value("next"))
+        .andExpect(jsonPath("$.has_next").value(true));
+  }
+
+  @Test
+  void markConversationRead_marksItForTheAuthenticatedUser() throws Exception {
+    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null));
+    try {
+      mockMvc.perform(post("/messages/conversation/5/read"))
+          .andExpect(status().isNoContent());
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+
+    verify(messageService).markConversationRead(5L, 1L);
+  }
+
   @Test
   @WithMockUser
   void getConversationMessages_HappyCase() throws Exception {
@@ -210,6 +244,20 @@ public class MessageControllerTest {
         .andExpect(jsonPath("$[0].id").value(1L));
   }
 
+  @Test
+  @WithMockUser
+  void getConversationMessages_withSize_returnsAPage() throws Exception {
+    when(messageService.getMessagesByConversationId(1L, "older", null, 30))
+        .thenReturn(new MessageHistoryDTO(List.of(message), "before", "after", true, true));
+
+    mockMvc.perform(get("/messages/conversation/1").param("size", "30").param("before", "older"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.messages[0].id").value(1L))
+        .andExpect(jsonPath("$.before").value("before"))
+        .andExpect(jsonPath("$.after").value("after"))
+        .andExpect(jsonPath("$.hasOlder").value(true));
+  }
+
   @Test
   @WithMockUser
   void getOrCreateConversation_HappyCase() throws Exception {
@@ -1,7 +1,13 @@
 package com.c1se_01.roomiego.controller;
 
+import com.c1se_01.roomiego.common.SliceCustom;
+import com.c1se_01.roomiego.dto.FacetCount;
 import com.c1se_01.roomiego.dto.RoomDTO;
 import com.c1se_01.roomiego.dto.common.FilterParam;
+import com.c1se_01.roomiego.dto.common.ResourceVersion;
+import com.c1se_01.roomiego.enums.ExportFormat;
+import com.c1se_01.roomiego.exception.GlobalExceptionHandler;
+import com.c1se_01.roomiego.model.Room;
 import com.c1se_01.roomiego.model.User;
 import com.c1se_01.roomiego.service.RoomService;
 import com.c1se_01.roomiego.service.impl.FileStorageService;
@@ -13,6 +19,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -20,9 +27,13 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
@@ -60,6 +71,9 @@ public class RoomControllerTest {
     Mockito.lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
     SecurityContextHolder.setContext(securityContext);
 
+    Mockito.lenient().when(roomService.getListingVersion()).thenReturn(new ResourceVersion("\"rooms-3\"", 1_700_000_000_000L));
+    Mockito.lenient().when(roomService.getRoomVersion(anyLong())).thenReturn(new ResourceVersion("\"room-1-4\"", 1_700_000_000_000L));
+
     // Setup mock RoomDTO
     mockRoomDTO = new RoomDTO();
     mockRoomDTO.setId(1L);
@@ -223,6 +237,148 @@ public class RoomControllerTest {
         .andExpect(jsonPath("$.message").value("Danh sách phòng"));
   }
 
+  @Test
+  public void testGetAllRoomsWithFacets_HappyCase() throws Exception {
+    when(roomService.getAllRooms(any(FilterParam.class))).thenReturn(Arrays.asList(mockRoomDTO));
+    when(roomService.getFacets(any(FilterParam.class)))
+        .thenReturn(Map.of("district", List.of(new FacetCount("Hải Châu", 4))));
+
+    mockMvc.perform(get("/api/rooms").param("facets", "true").param("filter", "city:Đà Nẵng"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.message").value("Danh sách phòng"))
+        .andExpect(jsonPath("$.data.rooms[0].id").value(1L))
+        .andExpect(jsonPath("$.data.facets.district[0].value").value("Hải Châu"))
+        .andExpect(jsonPath("$.data.facets.district[0].count").value(4));
+
+    Mockito.verify(roomService).getFacets(argThat(fp -> "city:Đà Nẵng".equals(fp.getFilter())));
+  }
+
+  @Test
+  public void testGetAllRooms_FacetsWithCursor_UsesCursorListing() throws Exception {
+    when(roomService.getRoomsByCursor(any(FilterParam.class)))
+        .thenReturn(new SliceCustom<>(List.of(), null, false));
+
+    mockMvc.perform(get("/api/rooms").param("facets", "true").param("cursor", ""))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.has_next").value(false));
+
+    Mockito.verify(roomService, Mockito.never()).getFacets(any(FilterParam.class));
+  }
+
+  @Test
+  public void testGetRoomsByCursor_FirstSlice() throws Exception {
+    SliceCustom<RoomDTO> slice = new SliceCustom<>(Arrays.asList(mockRoomDTO), "next-token", true);
+    when(roomService.getRoomsByCursor(any(FilterParam.class))).thenReturn(slice);
+
+    mockMvc.perform(get("/api/rooms").param("cursor", ""))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value(200))
+        .andExpect(jsonPath("$.data.data[0].id").value(1L))
+        .andExpect(jsonPath("$.data.next_cursor").value("next-token"))
+        .andExpect(jsonPath("$.data.has_next").value(true));
+
+    Mockito.verify(roomService, Mockito.never()).getAllRooms(any(FilterParam.class));
+  }
+
+  @Test
+  public void testGetRoomsByCursor_PassesCursorAndSort() throws Exception {
+    when(roomService.getRoomsByCursor(any(FilterParam.class)))
+        .thenReturn(new SliceCustom<>(List.of(), null, false));
+
+    mockMvc.perform(get("/api/rooms")
+        .param("cursor", "abc")
+        .param("sort", "price")
+        .param("size", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.has_next").value(false));
+
+    Mockito.verify(roomService).getRoomsByCursor(argThat(fp ->
+        "abc".equals(fp.getCursor()) && "price".equals(fp.getSort()) && fp.getSize() == 5));
+  }
+
+  @Test
+  public void testExportRooms_StreamsCsv() throws Exception {
+    Mockito.doAnswer(invocation -> {
+      invocation.getArgument(3, OutputStream.class).write("id\r\n1\r\n".getBytes(StandardCharsets.UTF_8));
+      return null;
+    }).when(roomService).exportRooms(any(FilterParam.class), any(Date.class), eq(ExportFormat.CSV), any(OutputStream.class));
+
+    var result = mockMvc.perform(get("/api/rooms/export")
+        .param("format", "csv")
+        .param("since", "2024-05-01T00:00:00Z")
+        .param("filter", "city:Đà Nẵng"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Disposition", "attachment; filename=rooms.csv"))
+        .andExpect(content().contentType("text/csv;charset=UTF-8"))
+        .andExpect(content().string("id\r\n1\r\n"));
+
+    Mockito.verify(roomService).exportRooms(argThat(fp -> "city:Đà Nẵng".equals(fp.getFilter())),
+        argThat(since -> since.getTime() == 1714521600000L), eq(ExportFormat.CSV), any(OutputStream.class));
+  }
+
+  @Test
+  public void testExportRooms_DefaultsToNdjson() throws Exception {
+    var result = mockMvc.perform(get("/api/rooms/export"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-ndjson"));
+
+    Mockito.verify(roomService).exportRooms(any(FilterParam.class), isNull(), eq(ExportFormat.NDJSON),
+        any(OutputStream.class));
+  }
+
+  @Test
+  public void testGetRoomById_EmitsValidators() throws Exception {
+    when(roomService.getRoomById(1L)).thenReturn(mockRoomDTO);
+
+    mockMvc.perform(get("/api/rooms/1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"room-1-4\""))
+        .andExpect(header().dateValue("Last-Modified", 1_700_000_000_000L));
+  }
+
+  @Test
+  public void testGetRoomById_IfNoneMatch_NotModifiedWithoutLoading() throws Exception {
+    mockMvc.perform(get("/api/rooms/1").header("If-None-Match", "\"room-1-4\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", "\"room-1-4\""))
+        .andExpect(content().string(""));
+
+    Mockito.verify(roomService, Mockito.never()).getRoomById(anyLong());
+  }
+
+  @Test
+  public void testGetRoomById_StaleETag_ReturnsRoom() throws Exception {
+    when(roomService.getRoomById(1L)).thenReturn(mockRoomDTO);
+
+    mockMvc.perform(get("/api/rooms/1").header("If-None-Match", "\"room-1-3\""))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.id").value(1L));
+  }
+
+  @Test
+  public void testGetAllRooms_IfNoneMatch_NotModifiedWithoutLoading() throws Exception {
+    mockMvc.perform(get("/api/rooms").header("If-None-Match", "\"rooms-3\""))
+        .andExpect(status().isNotModified());
+
+    Mockito.verify(roomService, Mockito.never()).getAllRooms(any(FilterParam.class));
+  }
+
+  @Test
+  public void testGetAllRooms_IfModifiedSince_NotModified() throws Exception {
+    mockMvc.perform(get("/api/rooms").header("If-Modified-Since", "Tue, 14 Nov 2023 22:13:20 GMT"))
+        .andExpect(status().isNotModified());
+
+    Mockito.verify(roomService, Mockito.never()).getAllRooms(any(FilterParam.class));
+  }
+
   @Test
   public void testGetRoomById_HappyCase() throws Exception {
     when(roomService.getRoomById(1L)).thenReturn(mockRoomDTO);
@@ -286,4 +442,16 @@ public class RoomControllerTest {
         .andExpect(status().isOk())
         .andExpect(content().string("Room hidden successfully"));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testHideRoom_concurrentlyModified_isAConflict() throws Exception {
+    Mockito.doThrow(new ObjectOptimisticLockingFailureException(Room.class, 1L)).when(roomService).hideRoom(1L);
+    MockMvc advisedMockMvc = MockMvcBuilders.standaloneSetup(new RoomController(roomService, fileStorageService))
+        .setControllerAdvice(new GlobalExceptionHandler())
+        .build();
+
+    advisedMockMvc.perform(post("/api/rooms/1/hide"))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.status").value(409));
+  }
+}
@@ -0,0 +1,64 @@
+package com.c1se_01.roomiego.dto.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterPlanTest {
+
+  @Test
+  void parse_validFilter() {
+    FilterPlan plan = FilterPlan.parse("price:>500,city:hanoi");
+
+    assertTrue(plan.isValid());
+    assertEquals(List.of(
+        new FilterCondition("price", ":>", "500"),
+        new FilterCondition("city", ":", "hanoi")), plan.getConditions());
+  }
+
+  @Test
+  void parse_malformedPart_isInvalidAndSkipped() {
+    FilterPlan plan = FilterPlan.parse("price:>500,invalid");
+
+    assertFalse(plan.isValid());
+    assertEquals(List.of(new FilterCondition("price", ":>", "500")), plan.getConditions());
+  }
+
+  @Test
+  void parse_blank_isValidAndEmpty() {
+    FilterPlan plan = FilterPlan.parse(" ");
+
+    assertTrue(plan.isValid());
+    assertTrue(plan.getConditions().isEmpty());
+  }
+
+  @Test
+  void normalize_dropsWhitespaceAndEmptyParts() {
+    assertEquals("price:>5,city:hanoi", FilterPlan.normalize(" price:>5 , city:hanoi,"));
+    assertEquals("", FilterPlan.normalize(" , "));
+  }
+
+  @Test
+  void compiled_compilesOncePerKey() {
+    FilterPlan plan = FilterPlan.parse("price:>500");
+    AtomicInteger compilations = new AtomicInteger();
+
+    String first = plan.compiled("key", p -> "value-" + compilations.incrementAndGet());
+    String second = plan.compiled("key", p -> "value-" + compilations.incrementAndGet());
+
+    assertEquals("value-1", first);
+    assertSame(first, second);
+    assertEquals(1, compilations.get());
+  }
+
+  @Test
+  void compiled_failure_isNotCached() {
+    FilterPlan plan = FilterPlan.parse("price:>abc");
+
+    assertThrows(NumberFormatException.class, () -> plan.compiled("key", p -> Integer.parseInt("abc")));
+    assertEquals(1, plan.<Integer>compiled("key", p -> 1));
+  }
+}
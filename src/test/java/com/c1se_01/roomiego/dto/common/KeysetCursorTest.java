@@ -0,0 +1,69 @@
+package com.c1se_01.roomiego.dto.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort.Direction;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+  @Test
+  void encodeDecode_roundTrip() {
+    KeysetCursor cursor = new KeysetCursor("price", Direction.DESC, 42L, "1500000");
+
+    assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+  }
+
+  @Test
+  void encodeDecode_nullValue() {
+    KeysetCursor cursor = new KeysetCursor("price", Direction.ASC, 7L, null);
+
+    assertNull(KeysetCursor.decode(cursor.encode()).value());
+  }
+
+  @Test
+  void encodeDecode_valueContainingSeparator() {
+    KeysetCursor cursor = new KeysetCursor("title", Direction.ASC, 7L, "Phòng | view biển");
+
+    assertEquals("Phòng | view biển", KeysetCursor.decode(cursor.encode()).value());
+  }
+
+  @Test
+  void encode_isUrlSafe() {
+    String token = new KeysetCursor("title", Direction.ASC, 7L, "???>>>").encode();
+
+    assertTrue(token.matches("[A-Za-z0-9_-]+"));
+  }
+
+  @Test
+  void decode_notBase64_throwsException() {
+    assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not a cursor!"));
+  }
+
+  @Test
+  void decode_unknownVersion_throwsException() {
+    String token = Base64.getUrlEncoder().encodeToString("v0|id|ASC|1|V1".getBytes(StandardCharsets.UTF_8));
+
+    assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(token));
+  }
+
+  @Test
+  void decode_badId_throwsException() {
+    String token = Base64.getUrlEncoder().encodeToString("v1|id|ASC|x|V1".getBytes(StandardCharsets.UTF_8));
+
+    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(token));
+    assertTrue(ex.getMessage().startsWith("Invalid cursor"));
+  }
+
+  @Test
+  void matches_comparesSortAndOrder() {
+    KeysetCursor cursor = new KeysetCursor("price", Direction.ASC, 1L, "1");
+
+    assertTrue(cursor.matches("price", Direction.ASC));
+    assertFalse(cursor.matches("price", Direction.DESC));
+    assertFalse(cursor.matches("id", Direction.ASC));
+  }
+}
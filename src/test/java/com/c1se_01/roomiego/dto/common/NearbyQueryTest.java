@@ -0,0 +1,41 @@
+package com.c1se_01.roomiego.dto.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearbyQueryTest {
+
+  @Test
+  void from_colonOperatorWithNearbyPrefix() {
+    NearbyQuery query = NearbyQuery.from(new FilterCondition("location", ":", "nearby:16.05;108.2;1500"));
+
+    assertEquals(16.05, query.latitude());
+    assertEquals(108.2, query.longitude());
+    assertEquals(1500, query.radiusMeters());
+    assertEquals(1.5, query.radiusKm());
+  }
+
+  @Test
+  void from_nearbyOperator() {
+    NearbyQuery query = NearbyQuery.from(new FilterCondition("location", "nearby", "16.05;108.2;500"));
+
+    assertEquals(new NearbyQuery(16.05, 108.2, 500), query);
+  }
+
+  @Test
+  void from_unsupportedOperator_throwsException() {
+    FilterCondition cond = new FilterCondition("location", ">", "16.05;108.2;500");
+
+    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> NearbyQuery.from(cond));
+    assertEquals("Unsupported location operator: >", ex.getMessage());
+  }
+
+  @Test
+  void from_wrongNumberOfParts_throwsException() {
+    FilterCondition cond = new FilterCondition("location", ":", "nearby:16.05;108.2");
+
+    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> NearbyQuery.from(cond));
+    assertEquals("Invalid location format: nearby:16.05;108.2", ex.getMessage());
+  }
+}
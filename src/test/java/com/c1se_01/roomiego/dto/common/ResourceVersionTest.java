@@ -0,0 +1,28 @@
+package com.c1se_01.roomiego.dto.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceVersionTest {
+
+  @Test
+  void of_quotesTagAndKeepsLatestTime() {
+    LocalDateTime later = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+    long laterMillis = later.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    ResourceVersion version = ResourceVersion.of("room", new Object[] { 1L, 3L, null }, new Date(1_000), later, null);
+
+    assertEquals("\"room-1-3-0\"", version.etag());
+    assertEquals(laterMillis, version.lastModified());
+  }
+
+  @Test
+  void of_withoutTimes_lastModifiedUnknown() {
+    assertEquals(-1, ResourceVersion.of("rooms", new Object[] { 0L }).lastModified());
+  }
+}
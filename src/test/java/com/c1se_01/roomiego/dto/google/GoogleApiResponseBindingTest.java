@@ -0,0 +1,136 @@
+package com.c1se_01.roomiego.dto.google;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class GoogleApiResponseBindingTest {
+
+  private static final ObjectMapper JSON = new ObjectMapper();
+
+  /** A Nearby Search response as returned by the API, with the fields we do not read. */
+  private static String nearbySearch(int places) {
+    StringBuilder results = new StringBuilder();
+    for (int i = 0; i < places; i++) {
+      results.append(i == 0 ? "" : ",").append("""
+          {"business_status":"OPERATIONAL","geometry":{"location":{"lat":16.05%d,"lng":108.20%d},
+          "viewport":{"northeast":{"lat":16.0561,"lng":108.2035},"southwest":{"lat":16.0534,"lng":108.2008}}},
+          "icon":"https://maps.gstatic.com/mapfiles/place_api/icons/v1/png_71/generic_business-71.png",
+          "icon_background_color":"#7B9EB0","name":"Bệnh viện %d","opening_hours":{"open_now":true},
+          "photos":[{"height":3024,"html_attributions":["<a href=\\"https://maps.google.com/maps/contrib/1\\">A</a>"],
+          "photo_reference":"AWU5eFjnQz2pH7Yk9Yx3o1W6vA8XfQeT0fG4bM9sR2kL7nP1cD5hJ8uV3wE6yZ0tQ4iO2aS9dF7gH1jK5lM8","width":4032}],
+          "place_id":"ChIJ%d","plus_code":{"compound_code":"3634+2X Hải Châu","global_code":"7FXX3634+2X"},
+          "rating":4.%d,"reference":"ChIJ%d","scope":"GOOGLE","types":["hospital","health","point_of_interest"],
+          "user_ratings_total":%d,"vicinity":"%d Lê Duẩn, Hải Châu"}
+          """.formatted(i, i, i, i, i % 10, i, 100 + i, i));
+    }
+    return "{\"html_attributions\":[],\"next_page_token\":\"AWU5eFh\",\"results\":[" + results + "],\"status\":\"OK\"}";
+  }
+
+  @Test
+  void nearbySearch_readsOnlyTheFieldsUsed() throws IOException {
+    NearbySearchApiResponse response = JSON.readValue(nearbySearch(2), NearbySearchApiResponse.class);
+
+    assertEquals("OK", response.getStatus());
+    assertEquals(2, response.getResults().size());
+    NearbySearchApiResponse.Place place = response.getResults().get(1);
+    assertEquals("Bệnh viện 1", place.getName());
+    assertEquals("1 Lê Duẩn, Hải Châu", place.getVicinity());
+    assertEquals("ChIJ1", place.getPlaceId());
+    assertEquals(4.1, place.getRating());
+    assertEquals(16.051, place.getGeometry().getLocation().getLat());
+  }
+
+  @Test
+  void geocoding_readsTheFieldsUsedToPickAResult() throws IOException {
+    GeocodingApiResponse response = JSON.readValue("""
+        {"results":[{"address_components":[{"long_name":"Hải Châu","short_name":"Hải Châu",
+        "types":["administrative_area_level_2","political"]}],"formatted_address":"Hải Châu, Đà Nẵng",
+        "geometry":{"location":{"lat":16.047,"lng":108.219},"location_type":"APPROXIMATE"},
+        "partial_match":true,"place_id":"p1","types":["administrative_area_level_2","political"]}],
+        "status":"OK"}""", GeocodingApiResponse.class);
+
+    GeocodingApiResponse.Result result = response.getResults().get(0);
+    assertEquals("Hải Châu, Đà Nẵng", result.getFormattedAddress());
+    assertEquals(108.219, result.getGeometry().getLocation().getLng());
+    assertTrue(result.isPartialMatch());
+    assertEquals("p1", result.getPlaceId());
+    assertEquals(2, result.getTypes().size());
+  }
+
+  @Test
+  void distanceMatrix_readsTheRoutes() throws IOException {
+    DistanceMatrixApiResponse response = JSON.readValue("""
+        {"destination_addresses":["Hải Châu"],"origin_addresses":["Thanh Khê"],"rows":[{"elements":[
+        {"distance":{"text":"2,5 km","value":2500},"duration":{"text":"10 phút","value":600},"status":"OK"},
+        {"status":"ZERO_RESULTS"}]}],"status":"OK"}""", DistanceMatrixApiResponse.class);
+
+    DistanceMatrixApiResponse.Element route = response.getRows().get(0).getElements().get(0);
+    assertEquals(2500, route.getDistance().getValue());
+    assertEquals("10 phút", route.getDuration().getText());
+    assertNull(response.getRows().get(0).getElements().get(1).getDistance());
+  }
+
+  @Test
+  void restTemplate_bindsTheBodyToTheResponseType() {
+    RestTemplate restTemplate = new RestTemplateBuilder().build();
+    MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+    server.expect(requestTo("https://maps.test/nearby"))
+        .andRespond(withSuccess(nearbySearch(3), MediaType.APPLICATION_JSON));
+
+    NearbySearchApiResponse response = restTemplate.getForObject("https://maps.test/nearby",
+        NearbySearchApiResponse.class);
+
+    assertEquals(3, response.getResults().size());
+    server.verify();
+  }
+
+  /**
+   * Stands in for a JMH benchmark: compares the bytes allocated per response by reading the body as a
+   * String then as a tree, as before, and by binding it to the typed response straight from the stream.
+   */
+  @Test
+  void typedBinding_allocatesLessThanAStringAndATree() throws IOException {
+    assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+    byte[] body = nearbySearch(20).getBytes(StandardCharsets.UTF_8);
+
+    long tree = allocatedPerCall(() -> JSON.readTree(
+        StreamUtils.copyToString(new ByteArrayInputStream(body), StandardCharsets.UTF_8)));
+    long typed = allocatedPerCall(() -> JSON.readValue(new ByteArrayInputStream(body),
+        NearbySearchApiResponse.class));
+
+    assertTrue(typed * 2 < tree, "typed binding allocated " + typed + " bytes per call, the tree " + tree);
+  }
+
+  private interface Parse {
+    Object run() throws IOException;
+  }
+
+  private static long allocatedPerCall(Parse parse) throws IOException {
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    int calls = 500;
+    for (int i = 0; i < calls; i++) {
+      assertNotNull(parse.run());
+    }
+    long before = threads.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < calls; i++) {
+      assertNotNull(parse.run());
+    }
+    return (threads.getThreadAllocatedBytes(threadId) - before) / calls;
+  }
+}
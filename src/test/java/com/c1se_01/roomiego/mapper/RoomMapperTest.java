@@ -3,6 +3,7 @@ package com.c1se_01.roomiego.mapper;
 import com.c1se_01.roomiego.dto.RoomDTO;
 import com.c1se_01.roomiego.model.Room;
 import com.c1se_01.roomiego.model.RoomImage;
+import com.c1se_01.roomiego.model.RoomSearchView;
 import com.c1se_01.roomiego.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -87,6 +88,7 @@ class RoomMapperTest {
     assertEquals("John Doe", dto.getOwnerName());
     assertNotNull(dto.getImageUrls());
     assertEquals(2, dto.getImageUrls().size());
+    assertEquals(2, dto.getImageCount());
     assertTrue(dto.getImageUrls().contains("url1"));
     assertTrue(dto.getImageUrls().contains("url2"));
   }
@@ -328,6 +330,48 @@ class RoomMapperTest {
     assertEquals("New Details", entity.getAddressDetails());
   }
 
+  @Test
+  void testToDTO_FromSearchView() {
+    // Arrange
+    RoomSearchView view = new RoomSearchView();
+    view.setId(1L);
+    view.setOwnerId(2L);
+    view.setOwnerName("John Doe");
+    view.setTitle("Test Room");
+    view.setPrice(BigDecimal.valueOf(1000));
+    view.setLatitude(10.0);
+    view.setCity("City");
+    view.setWard("Ward");
+    view.setFirstImageUrl("url1");
+    view.setImageCount(3);
+
+    // Act
+    RoomDTO dto = roomMapper.toDTO(view);
+
+    // Assert
+    assertEquals(1L, dto.getId());
+    assertEquals(2L, dto.getOwnerId());
+    assertEquals("John Doe", dto.getOwnerName());
+    assertEquals("Test Room", dto.getTitle());
+    assertEquals(BigDecimal.valueOf(1000), dto.getPrice());
+    assertEquals(10.0, dto.getLatitude());
+    assertEquals("City", dto.getCity());
+    assertEquals("Ward", dto.getWard());
+    assertEquals(List.of("url1"), dto.getImageUrls());
+    assertEquals(3, dto.getImageCount());
+  }
+
+  @Test
+  void testToDTO_FromSearchView_NoImages() {
+    RoomSearchView view = new RoomSearchView();
+    view.setId(1L);
+
+    RoomDTO dto = roomMapper.toDTO(view);
+
+    assertTrue(dto.getImageUrls().isEmpty());
+    assertEquals(0, dto.getImageCount());
+  }
+
   @Test
   void testUpdateEntityFromDTO_PartialUpdate() {
     // Arrange
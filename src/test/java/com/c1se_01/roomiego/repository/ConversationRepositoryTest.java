@@ -0,0 +1,144 @@
+package com.c1se_01.roomiego.repository;
+
+import com.c1se_01.roomiego.enums.Role;
+import com.c1se_01.roomiego.model.Conversation;
+import com.c1se_01.roomiego.model.User;
+import com.c1se_01.roomiego.repository.projection.ConversationInboxProjection;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A pair of users has one conversation, found whichever of them is asked first, and the inbox of a user is read
+ * from the conversations alone.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ConversationRepositoryTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private ConversationRepository conversationRepository;
+
+  private User tenant;
+  private User owner;
+
+  private User user(String email, Role role) {
+    User user = new User();
+    user.setFullName(email);
+    user.setEmail(email);
+    user.setPassword("secret");
+    user.setRole(role);
+    return entityManager.persist(user);
+  }
+
+  private static Conversation conversation(User user1, User user2) {
+    Conversation conversation = new Conversation();
+    conversation.setUser1(user1);
+    conversation.setUser2(user2);
+    return conversation;
+  }
+
+  @BeforeEach
+  void setUp() {
+    tenant = user("tenant@example.com", Role.RENTER);
+    owner = user("owner@example.com", Role.OWNER);
+  }
+
+  @Test
+  void findIdBetween_findsThePairInEitherOrder() {
+    Long id = entityManager.persistFlushFind(conversation(owner, tenant)).getId();
+
+    assertEquals(Optional.of(id), conversationRepository.findIdBetween(tenant.getId(), owner.getId()));
+    assertEquals(Optional.of(id), conversationRepository.findIdBetween(owner.getId(), tenant.getId()));
+    assertTrue(conversationRepository.findIdBetween(tenant.getId(), tenant.getId()).isEmpty());
+  }
+
+  @Test
+  void aSecondConversationOfThePairIsRejected() {
+    entityManager.persistAndFlush(conversation(owner, tenant));
+
+    assertThrows(PersistenceException.class, () -> entityManager.persistAndFlush(conversation(tenant, owner)));
+  }
+
+  private Conversation reload(Conversation conversation) {
+    entityManager.clear();
+    return entityManager.find(Conversation.class, conversation.getId());
+  }
+
+  @Test
+  void recordMessage_keepsTheLatestMessageAndCountsItForTheReceiver() {
+    Conversation conversation = entityManager.persistFlushFind(conversation(owner, tenant));
+
+    conversationRepository.recordMessage(conversation.getId(), 10L, "Còn phòng không?", 5_000L, tenant.getId());
+    conversationRepository.recordMessage(conversation.getId(), 11L, "Còn ạ", 6_000L, owner.getId());
+    // saved later but sent earlier
+    conversationRepository.recordMessage(conversation.getId(), 12L, "Cho mình xem phòng", 5_500L, tenant.getId());
+
+    Conversation recorded = reload(conversation);
+    assertEquals(11L, recorded.getLastMessageId());
+    assertEquals("Còn ạ", recorded.getLastMessagePreview());
+    assertEquals(6_000L, recorded.getLastMessageAt());
+    assertEquals(2, recorded.unreadCountOf(owner.getId()));
+    assertEquals(1, recorded.unreadCountOf(tenant.getId()));
+
+    conversationRepository.markRead(conversation.getId(), owner.getId());
+    assertEquals(0, reload(conversation).unreadCountOf(owner.getId()));
+    assertEquals(1, reload(conversation).unreadCountOf(tenant.getId()));
+  }
+
+  @Test
+  void markRead_onlyByAParticipant() {
+    Conversation conversation = entityManager.persistFlushFind(conversation(owner, tenant));
+    conversationRepository.recordMessage(conversation.getId(), 10L, "Còn phòng không?", 5_000L, tenant.getId());
+    User outsider = user("outsider@example.com", Role.RENTER);
+
+    assertEquals(0, conversationRepository.markRead(conversation.getId(), outsider.getId()));
+    assertEquals(1, reload(conversation).unreadCountOf(owner.getId()));
+    assertEquals(1, conversationRepository.markRead(conversation.getId(), owner.getId()));
+  }
+
+  @Test
+  void findInboxPage_ordersBothSidesByTheLastActivity() {
+    User other = user("other@example.com", Role.RENTER);
+    User third = user("third@example.com", Role.OWNER);
+    Conversation started = entityManager.persist(conversation(owner, tenant));
+    Conversation received = entityManager.persist(conversation(other, owner));
+    Conversation quiet = entityManager.persist(conversation(third, owner));
+    entityManager.persist(conversation(other, tenant));
+    entityManager.flush();
+    conversationRepository.recordMessage(started.getId(), 1L, "a", Long.MAX_VALUE - 3, tenant.getId());
+    conversationRepository.recordMessage(received.getId(), 2L, "b", Long.MAX_VALUE - 2, other.getId());
+    conversationRepository.recordMessage(quiet.getId(), 3L, "c", Long.MAX_VALUE - 3, owner.getId());
+
+    List<ConversationInboxProjection> first = conversationRepository.findInboxPage(owner.getId(), Long.MAX_VALUE,
+        Long.MAX_VALUE, 2);
+
+    assertEquals(List.of(received.getId(), Math.max(started.getId(), quiet.getId())),
+        first.stream().map(ConversationInboxProjection::getConversationId).toList());
+    ConversationInboxProjection latest = first.get(0);
+    assertEquals(other.getId(), latest.getPartnerId());
+    assertEquals("other@example.com", latest.getPartnerEmail());
+    assertEquals("RENTER", latest.getPartnerRole());
+    assertEquals("b", latest.getLastMessage());
+    assertEquals(1, latest.getUnreadCount());
+
+    ConversationInboxProjection last = first.get(1);
+    List<ConversationInboxProjection> second = conversationRepository.findInboxPage(owner.getId(),
+        last.getLastMessageAt(), last.getConversationId(), 2);
+
+    assertEquals(List.of(Math.min(started.getId(), quiet.getId())),
+        second.stream().map(ConversationInboxProjection::getConversationId).toList());
+  }
+}
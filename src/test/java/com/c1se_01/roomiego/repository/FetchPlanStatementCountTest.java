@@ -0,0 +1,178 @@
+package com.c1se_01.roomiego.repository;
+
+import com.c1se_01.roomiego.dto.RentRequestResponse;
+import com.c1se_01.roomiego.dto.ReportResponse;
+import com.c1se_01.roomiego.dto.RoomDTO;
+import com.c1se_01.roomiego.enums.Role;
+import com.c1se_01.roomiego.mapper.RentRequestMapper;
+import com.c1se_01.roomiego.mapper.ReportMapper;
+import com.c1se_01.roomiego.mapper.RoomMapper;
+import com.c1se_01.roomiego.model.RentRequest;
+import com.c1se_01.roomiego.model.Report;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.model.RoomImage;
+import com.c1se_01.roomiego.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The listing fetch plans load a page and everything its DTOs read in a fixed number of statements,
+ * whatever the number of rows.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class FetchPlanStatementCountTest {
+
+  private static final int OWNERS = 3;
+  private static final int ROOMS_PER_OWNER = 4;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private RentRequestRepository rentRequestRepository;
+
+  @Autowired
+  private ReportRepository reportRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private final RoomMapper roomMapper = Mappers.getMapper(RoomMapper.class);
+  private final RentRequestMapper rentRequestMapper = Mappers.getMapper(RentRequestMapper.class);
+  private final ReportMapper reportMapper = Mappers.getMapper(ReportMapper.class);
+
+  private Statistics statistics;
+  private User firstOwner;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    User tenant = user("tenant@example.com", Role.RENTER);
+    for (int o = 0; o < OWNERS; o++) {
+      User owner = user("owner" + o + "@example.com", Role.OWNER);
+      if (firstOwner == null) {
+        firstOwner = owner;
+      }
+      for (int r = 0; r < ROOMS_PER_OWNER; r++) {
+        Room room = new Room();
+        room.setTitle("Phòng " + o + "-" + r);
+        room.setOwner(owner);
+        entityManager.persist(room);
+        for (int i = 0; i < 2; i++) {
+          RoomImage image = new RoomImage();
+          image.setRoom(room);
+          image.setImageUrl("https://img.example.com/" + o + "/" + r + "/" + i + ".jpg");
+          entityManager.persist(image);
+        }
+
+        RentRequest rentRequest = new RentRequest();
+        rentRequest.setRoom(room);
+        rentRequest.setTenant(tenant);
+        entityManager.persist(rentRequest);
+
+        entityManager.persist(Report.builder()
+            .room(room)
+            .reporter(tenant)
+            .reason("Spam")
+            .isHandled(false)
+            .createdAt(new Date())
+            .build());
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+    statistics.clear();
+  }
+
+  private User user(String email, Role role) {
+    User user = new User();
+    user.setFullName(email);
+    user.setEmail(email);
+    user.setPassword("secret");
+    user.setRole(role);
+    entityManager.persist(user);
+    return user;
+  }
+
+  private long statements() {
+    return statistics.getPrepareStatementCount();
+  }
+
+  @Test
+  void roomPage_loadsOwnersAndImagesInBatch() {
+    Page<Room> page = roomRepository.findAll((Specification<Room>) null, PageRequest.of(0, 10));
+    List<RoomDTO> rooms = page.map(roomMapper::toDTO).getContent();
+
+    assertEquals(10, rooms.size());
+    assertTrue(rooms.stream().allMatch(room -> room.getOwnerName() != null && room.getImageUrls().size() == 2));
+    // page, count, images
+    assertEquals(3, statements());
+  }
+
+  @Test
+  void rentRequestsByOwner_singleStatement() {
+    List<RentRequestResponse> requests = rentRequestRepository.findByRoomOwnerId(firstOwner.getId()).stream()
+        .map(rentRequestMapper::toDto)
+        .toList();
+
+    assertEquals(ROOMS_PER_OWNER, requests.size());
+    assertTrue(requests.stream().allMatch(request -> request.getTenantId() != null && request.getRoomId() != null));
+    assertEquals(1, statements());
+  }
+
+  @Test
+  void reportPage_loadsRoomsAndReportersWithThePage() {
+    Page<Report> page = reportRepository.findAllByIsHandled(false, PageRequest.of(0, 5)).orElseThrow();
+    List<ReportResponse> reports = page.map(reportMapper::toDto).getContent();
+
+    assertEquals(5, reports.size());
+    assertTrue(reports.stream().allMatch(report -> report.getRoomTitle() != null && report.getReporterName() != null));
+    // page, count
+    assertEquals(2, statements());
+  }
+
+  @Test
+  void reportPage_unfiltered_loadsRoomsAndReportersWithThePage() {
+    List<ReportResponse> reports = reportRepository.findAll(PageRequest.of(0, 5)).map(reportMapper::toDto).getContent();
+
+    assertTrue(reports.stream().allMatch(report -> report.getRoomTitle() != null && report.getReporterName() != null));
+    assertEquals(2, statements());
+  }
+
+  @Test
+  void userProfile_loadsRoomsWithTheUserAndImagesInBatch() {
+    User owner = userRepository.findWithRoomsById(firstOwner.getId()).orElseThrow();
+    List<RoomDTO> rooms = owner.getRooms().stream().map(roomMapper::toDTO).toList();
+
+    assertEquals(ROOMS_PER_OWNER, rooms.size());
+    assertTrue(rooms.stream().allMatch(room -> room.getImageUrls().size() == 2));
+    // user with rooms, images
+    assertEquals(2, statements());
+  }
+}
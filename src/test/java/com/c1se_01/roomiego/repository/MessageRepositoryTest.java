@@ -0,0 +1,98 @@
+package com.c1se_01.roomiego.repository;
+
+import com.c1se_01.roomiego.enums.MessageType;
+import com.c1se_01.roomiego.enums.Role;
+import com.c1se_01.roomiego.model.Conversation;
+import com.c1se_01.roomiego.model.Message;
+import com.c1se_01.roomiego.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The history of a conversation is read a page at a time around a (timestamp, id) position.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class MessageRepositoryTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private MessageRepository messageRepository;
+
+  private Long conversationId;
+  private final List<Long> ids = new ArrayList<>();
+
+  private User user(String email) {
+    User user = new User();
+    user.setFullName(email);
+    user.setEmail(email);
+    user.setPassword("secret");
+    user.setRole(Role.RENTER);
+    return entityManager.persist(user);
+  }
+
+  private Long send(Long conversationId, long timestamp) {
+    Message message = new Message();
+    message.setConversationId(conversationId);
+    message.setMessage("m" + timestamp);
+    message.setTimestamp(timestamp);
+    message.setType(MessageType.PRIVATE);
+    return entityManager.persist(message).getId();
+  }
+
+  @BeforeEach
+  void setUp() {
+    Conversation conversation = new Conversation();
+    conversation.setUser1(user("a@example.com"));
+    conversation.setUser2(user("b@example.com"));
+    conversationId = entityManager.persist(conversation).getId();
+
+    Conversation other = new Conversation();
+    other.setUser1(user("c@example.com"));
+    other.setUser2(user("d@example.com"));
+    Long otherId = entityManager.persist(other).getId();
+
+    // two messages share a timestamp, the id breaks the tie
+    for (long timestamp : new long[] { 100, 200, 200, 300, 400 }) {
+      ids.add(send(conversationId, timestamp));
+      send(otherId, timestamp);
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  private static List<Long> idsOf(List<Message> messages) {
+    return messages.stream().map(Message::getId).toList();
+  }
+
+  @Test
+  void findPageBefore_readsBackFromThePosition() {
+    List<Message> newest = messageRepository.findPageBefore(conversationId, Long.MAX_VALUE, Long.MAX_VALUE,
+        PageRequest.of(0, 2));
+    assertEquals(List.of(ids.get(4), ids.get(3)), idsOf(newest));
+
+    Message last = newest.get(1);
+    List<Message> older = messageRepository.findPageBefore(conversationId, last.getTimestamp(), last.getId(),
+        PageRequest.of(0, 2));
+    assertEquals(List.of(ids.get(2), ids.get(1)), idsOf(older));
+  }
+
+  @Test
+  void findPageAfter_readsForwardFromThePosition() {
+    List<Message> newer = messageRepository.findPageAfter(conversationId, 200, ids.get(1), PageRequest.of(0, 2));
+
+    assertEquals(List.of(ids.get(2), ids.get(3)), idsOf(newer));
+  }
+}
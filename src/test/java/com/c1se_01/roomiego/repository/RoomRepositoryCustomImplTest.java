@@ -0,0 +1,150 @@
+package com.c1se_01.roomiego.repository;
+
+import com.c1se_01.roomiego.dto.common.KeysetCursor;
+import com.c1se_01.roomiego.enums.Role;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.model.User;
+import com.c1se_01.roomiego.service.specification.RoomKeyset;
+import com.c1se_01.roomiego.service.specification.RoomSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class RoomRepositoryCustomImplTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  private final List<Room> rooms = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    User owner = new User();
+    owner.setFullName("Owner");
+    owner.setEmail("owner@example.com");
+    owner.setPassword("secret");
+    owner.setRole(Role.OWNER);
+    entityManager.persist(owner);
+
+    // duplicate and missing prices exercise the id tie-breaker and the NULL handling
+    for (String price : new String[] { "100", "100", null, "200", "50", null, "100" }) {
+      Room room = new Room();
+      room.setTitle("Room " + price);
+      room.setPrice(price == null ? null : new BigDecimal(price));
+      room.setOwner(owner);
+      rooms.add(entityManager.persist(room));
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  private List<Long> seekAll(String sort, Direction direction, int size) {
+    List<Long> ids = new ArrayList<>();
+    KeysetCursor cursor = null;
+    do {
+      Specification<Room> spec = cursor == null ? Specification.where(null) : RoomKeyset.after(cursor);
+      List<Room> slice = roomRepository.findSlice(spec, RoomKeyset.sort(sort, direction), size + 1);
+      boolean hasNext = slice.size() > size;
+      if (hasNext) {
+        slice = slice.subList(0, size);
+      }
+      slice.forEach(room -> ids.add(room.getId()));
+      // round-trip the cursor like a client would
+      cursor = hasNext
+          ? KeysetCursor.decode(RoomKeyset.cursorOf(slice.get(slice.size() - 1), sort, direction).encode())
+          : null;
+    } while (cursor != null);
+    return ids;
+  }
+
+  private List<Long> expectedByPrice(Direction direction) {
+    Comparator<Room> byPrice = Comparator.comparing(Room::getPrice, Comparator.nullsFirst(Comparator.naturalOrder()));
+    Comparator<Room> order = byPrice.thenComparing(Room::getId);
+    return rooms.stream()
+        .sorted(direction.isAscending() ? order : order.reversed())
+        .map(Room::getId)
+        .toList();
+  }
+
+  @Test
+  void findSlice_seekByPriceAscending_visitsEveryRoomOnceInOrder() {
+    assertEquals(expectedByPrice(Direction.ASC), seekAll("price", Direction.ASC, 2));
+  }
+
+  @Test
+  void findSlice_seekByPriceDescending_visitsEveryRoomOnceInOrder() {
+    assertEquals(expectedByPrice(Direction.DESC), seekAll("price", Direction.DESC, 2));
+  }
+
+  @Test
+  void findSlice_seekById_matchesIdOrder() {
+    List<Long> expected = rooms.stream().map(Room::getId).sorted(Comparator.reverseOrder()).toList();
+    assertEquals(expected, seekAll("id", Direction.DESC, 3));
+  }
+
+  @Test
+  void findSlice_respectsLimit() {
+    List<Room> slice = roomRepository.findSlice(Specification.where(null), RoomKeyset.sort("id", Direction.ASC), 3);
+    assertEquals(3, slice.size());
+  }
+
+  @Test
+  void findIds_appliesSpecification() {
+    Specification<Room> spec = (root, query, cb) -> cb.equal(root.get("price"), new BigDecimal("100"));
+    assertEquals(3, roomRepository.findIds(spec).size());
+  }
+
+  @Test
+  void findIds_page_returnsIdsOfThatPageInOrder() {
+    List<Long> expected = expectedByPrice(Direction.DESC);
+    PageRequest secondPage = PageRequest.of(1, 3, RoomKeyset.sort("price", Direction.DESC));
+
+    assertEquals(expected.subList(3, 6), roomRepository.findIds(Specification.where(null), secondPage));
+  }
+
+  @Test
+  void stream_returnsDetachedRoomsInOrder() {
+    List<Room> streamed;
+    try (Stream<Room> stream = roomRepository.stream(Specification.where(null), Sort.by(Direction.DESC, "id"), 2)) {
+      streamed = stream.collect(Collectors.toList());
+    }
+
+    List<Long> expected = rooms.stream().map(Room::getId).sorted(Comparator.reverseOrder()).toList();
+    assertEquals(expected, streamed.stream().map(Room::getId).toList());
+    assertTrue(streamed.stream().noneMatch(entityManager.getEntityManager()::contains));
+    assertEquals(rooms.get(0).getOwner().getId(), streamed.get(0).getOwner().getId());
+  }
+
+  @Test
+  void stream_updatedSince_keepsRoomsModifiedSince() {
+    Date future = new Date(System.currentTimeMillis() + 60_000);
+    try (Stream<Room> stream = roomRepository.stream(RoomSpecification.updatedSince(future), Sort.by("id"), 10)) {
+      assertEquals(0, stream.count());
+    }
+    try (Stream<Room> stream = roomRepository.stream(RoomSpecification.updatedSince(new Date(0)), Sort.by("id"), 10)) {
+      assertEquals(rooms.size(), stream.count());
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.c1se_01.roomiego.repository;
+
+import com.c1se_01.roomiego.enums.Role;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.model.RoomImage;
+import com.c1se_01.roomiego.model.RoomSearchView;
+import com.c1se_01.roomiego.model.User;
+import com.c1se_01.roomiego.service.readmodel.RoomSearchViewProjector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The read model following the repositories: image and user saves publish domain events that the
+ * projector applies to {@code room_search_view}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(RoomSearchViewProjector.class)
+class RoomSearchViewRepositoryTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  private RoomSearchViewRepository roomSearchViewRepository;
+
+  @Autowired
+  private RoomImageRepository roomImageRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private User owner;
+  private Room room;
+
+  @BeforeEach
+  void setUp() {
+    owner = new User();
+    owner.setFullName("Owner");
+    owner.setEmail("owner@example.com");
+    owner.setPassword("secret");
+    owner.setRole(Role.OWNER);
+    entityManager.persist(owner);
+
+    room = new Room();
+    room.setTitle("Phòng trọ");
+    room.setOwner(owner);
+    entityManager.persist(room);
+    entityManager.flush();
+
+    eventPublisher.publishEvent(new RoomChangedEvent(room, RoomChangeType.CREATED));
+  }
+
+  private RoomSearchView reload() {
+    entityManager.flush();
+    entityManager.clear();
+    return roomSearchViewRepository.findById(room.getId()).orElseThrow();
+  }
+
+  @Test
+  void roomCreated_writesRow() {
+    RoomSearchView view = reload();
+
+    assertEquals("Phòng trọ", view.getTitle());
+    assertEquals("Owner", view.getOwnerName());
+    assertEquals(0, view.getImageCount());
+    assertNull(view.getFirstImageUrl());
+  }
+
+  @Test
+  void imageSaves_updateImageSummary() {
+    roomImageRepository.saveAll(List.of(new RoomImage(null, room, "first"), new RoomImage(null, room, "second")));
+
+    RoomSearchView view = reload();
+
+    assertEquals(2, view.getImageCount());
+    assertEquals("first", view.getFirstImageUrl());
+  }
+
+  @Test
+  void userSave_renamesOwner() {
+    owner.setFullName("Renamed");
+    userRepository.save(owner);
+
+    assertEquals("Renamed", reload().getOwnerName());
+    assertEquals(1, roomSearchViewRepository.findByOwnerId(owner.getId()).size());
+  }
+
+  @Test
+  void roomDeleted_removesRow() {
+    eventPublisher.publishEvent(new RoomChangedEvent(room, RoomChangeType.DELETED));
+    entityManager.flush();
+
+    assertTrue(roomSearchViewRepository.findById(room.getId()).isEmpty());
+  }
+}
@@ -0,0 +1,132 @@
+package com.c1se_01.roomiego.repository;
+
+import com.c1se_01.roomiego.enums.Role;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.model.RoomImage;
+import com.c1se_01.roomiego.model.User;
+import com.c1se_01.roomiego.repository.projection.RoomVersionProjection;
+import com.c1se_01.roomiego.repository.projection.UserProfileVersionProjection;
+import com.c1se_01.roomiego.service.readmodel.ResourceVersionUpdater;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The version stamps behind the ETags move with every change of what the endpoints render.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ResourceVersionUpdater.class)
+class VersionQueryTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private RoomImageRepository roomImageRepository;
+
+  private User owner;
+  private Room room;
+
+  @BeforeEach
+  void setUp() {
+    owner = new User();
+    owner.setFullName("Owner");
+    owner.setEmail("owner@example.com");
+    owner.setPassword("secret");
+    owner.setRole(Role.OWNER);
+    entityManager.persist(owner);
+
+    room = new Room();
+    room.setTitle("Phòng");
+    room.setOwner(owner);
+    entityManager.persist(room);
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  private void update(Long roomId, String title) {
+    Room managed = entityManager.find(Room.class, roomId);
+    managed.setTitle(title);
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void roomVersion_movesWithUpdatesAndImageTouches() {
+    RoomVersionProjection initial = roomRepository.findVersionById(room.getId()).orElseThrow();
+    assertEquals(0L, initial.getVersion());
+    assertEquals(0L, initial.getOwnerVersion());
+    assertNotNull(initial.getUpdatedAt());
+
+    update(room.getId(), "Phòng mới");
+    assertEquals(1L, roomRepository.findVersionById(room.getId()).orElseThrow().getVersion());
+
+    Date updatedAt = roomRepository.findVersionById(room.getId()).orElseThrow().getUpdatedAt();
+    roomRepository.touch(room.getId());
+    RoomVersionProjection touched = roomRepository.findVersionById(room.getId()).orElseThrow();
+    assertTrue(touched.getVersion() > 1L);
+    assertFalse(touched.getUpdatedAt().before(updatedAt));
+    assertTrue(roomRepository.findVersionById(-1L).isEmpty());
+  }
+
+  @Test
+  void roomVersion_imagesSavedWhileTheRoomIsManaged() {
+    Room managed = entityManager.find(Room.class, room.getId());
+    List<RoomImage> images = List.of(new RoomImage(null, managed, "a.jpg"), new RoomImage(null, managed, "b.jpg"));
+    roomImageRepository.saveAll(images);
+    managed.setRoomImages(images);
+    entityManager.flush();
+    entityManager.clear();
+
+    assertTrue(roomRepository.findVersionById(room.getId()).orElseThrow().getVersion() > 0);
+    assertEquals(2, entityManager.find(Room.class, room.getId()).getRoomImages().size());
+  }
+
+  @Test
+  void profileVersion_coversUserAndRooms() {
+    UserProfileVersionProjection initial = userRepository.findProfileVersionById(owner.getId()).orElseThrow();
+    assertEquals(1L, initial.getRoomCount());
+    assertEquals(0L, initial.getRoomVersions());
+
+    update(room.getId(), "Phòng mới");
+    assertEquals(1L, userRepository.findProfileVersionById(owner.getId()).orElseThrow().getRoomVersions());
+
+    LocalDateTime later = LocalDateTime.of(2030, 1, 1, 12, 0);
+    userRepository.touch(owner.getId(), later);
+    UserProfileVersionProjection touched = userRepository.findProfileVersionById(owner.getId()).orElseThrow();
+    assertEquals(later, touched.getUpdatedAt());
+    assertEquals(initial.getVersion(), touched.getVersion());
+  }
+
+  @Test
+  void profileVersion_ownerWithoutRooms() {
+    User renter = new User();
+    renter.setFullName("Renter");
+    renter.setEmail("renter@example.com");
+    renter.setPassword("secret");
+    renter.setRole(Role.RENTER);
+    entityManager.persist(renter);
+    entityManager.flush();
+
+    UserProfileVersionProjection version = userRepository.findProfileVersionById(renter.getId()).orElseThrow();
+    assertEquals(0L, version.getRoomCount());
+    assertNull(version.getMaxRoomId());
+  }
+}
@@ -0,0 +1,122 @@
+package com.c1se_01.roomiego.service.address;
+
+import com.c1se_01.roomiego.dto.LocationResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AddressParserTest {
+
+  private static final AddressParser PARSER = new AddressParser(new Gazetteer());
+
+  private static String name(AdminUnit unit) {
+    return unit == null ? null : unit.name();
+  }
+
+  @Test
+  void parse_splitsAFullAddressAtTheTypeWords() {
+    AddressComponents address = PARSER.parse(
+        "Số nhà 254 Đường Nguyễn Văn Linh, Phường Thạc Gián, Quận Thanh Khê, Thành phố Đà Nẵng, Việt Nam");
+
+    assertEquals("254", address.houseNumber());
+    assertEquals("Nguyễn Văn Linh", address.street());
+    assertEquals("Thạc Gián", name(address.ward()));
+    assertEquals("Thanh Khê", name(address.district()));
+    assertEquals("Đà Nẵng", name(address.province()));
+    assertTrue(address.resolved());
+    assertFalse(address.isAdministrative());
+  }
+
+  @Test
+  void parse_matchesTheUnitsOfAnUnlabelledAddress() {
+    AddressComponents address = PARSER.parse("K12/3 Nguyễn Văn Linh Thạc Gián Thanh Khê Đà Nẵng");
+
+    assertEquals("K12/3", address.houseNumber());
+    assertEquals("Nguyễn Văn Linh", address.street());
+    assertEquals("Thạc Gián", name(address.ward()));
+    assertTrue(address.resolved());
+  }
+
+  @Test
+  void parse_fillsInTheUnitsLeftOut() {
+    AddressComponents address = PARSER.parse("12 Lê Duẩn, Thạch Thang");
+
+    assertEquals("Hải Châu", name(address.district()));
+    assertEquals("Đà Nẵng", name(address.province()));
+    assertEquals("12 Lê Duẩn, Phường Thạch Thang, Quận Hải Châu, Thành phố Đà Nẵng", address.format());
+  }
+
+  @Test
+  void cacheKey_isTheSameForAllSpellings() {
+    String key = PARSER.parse("254 Nguyễn Văn Linh, Thạc Gián, Thanh Khê, Đà Nẵng").cacheKey();
+
+    assertEquals("254 nguyen van linh, thac gian, thanh khe, da nang", key);
+    assertEquals(key, PARSER.parse("Số 254 Đường Nguyễn Văn Linh, P. Thạc Gián, Q. Thanh Khê, TP. Đà Nẵng")
+        .cacheKey());
+    assertEquals(key, PARSER.parse("254 nguyen van linh, phuong thac gian, da nang, vietnam").cacheKey());
+    assertEquals(key, PARSER.parse("  254   NGUYỄN VĂN LINH,THẠC GIÁN ").cacheKey());
+  }
+
+  @Test
+  void parse_administrativeAddressIsLocatedByItsSmallestUnit() {
+    AddressComponents address = PARSER.parse("Phường Hòa Khánh Bắc, Liên Chiểu");
+
+    assertTrue(address.isAdministrative());
+    LocationResponse.LocationData location = address.centroid();
+    assertEquals(address.ward().latitude(), location.getLatitude());
+    assertEquals("Phường Hòa Khánh Bắc, Quận Liên Chiểu, Thành phố Đà Nẵng", location.getFormattedAddress());
+  }
+
+  @Test
+  void parse_readsTheAbbreviationsAndNumberedUnits() {
+    AddressComponents district = PARSER.parse("Q1, TP.HCM");
+    assertEquals("1", name(district.district()));
+    assertEquals("Hồ Chí Minh", name(district.province()));
+    assertTrue(district.isAdministrative());
+
+    assertEquals("1", name(PARSER.parse("Quận 01, Sài Gòn").district()));
+    assertEquals("Thủ Đức", name(PARSER.parse("Thành phố Thủ Đức").district()));
+    assertEquals("Hồ Chí Minh", name(PARSER.parse("Thành phố Hồ Chí Minh").province()));
+  }
+
+  @Test
+  void parse_aNumberWithoutItsTypeIsNoUnit() {
+    AddressComponents address = PARSER.parse("1, Hồ Chí Minh");
+
+    assertEquals("1", address.houseNumber());
+    assertNull(address.district());
+    assertFalse(address.isAdministrative());
+  }
+
+  @Test
+  void parse_aStreetNamedAfterAnotherProvinceStaysAStreet() {
+    AddressComponents address = PARSER.parse("12 Hải Phòng, Hải Châu, Đà Nẵng");
+
+    assertEquals("Hải Phòng", address.street());
+    assertEquals("Đà Nẵng", name(address.province()));
+    assertTrue(address.resolved());
+  }
+
+  @Test
+  void parse_unitsOfAnotherProvinceAreNotResolved() {
+    AddressComponents address = PARSER.parse("Quận Hải Châu, Hà Nội");
+
+    assertFalse(address.resolved());
+    assertNull(address.cacheKey());
+    assertFalse(address.isAdministrative());
+  }
+
+  @Test
+  void parse_textThatIsNoAddressIsLeftToTheApi() {
+    AddressComponents landmark = PARSER.parse("Đại học Duy Tân, Hải Châu, Đà Nẵng");
+    assertEquals("Đại học Duy Tân", landmark.street());
+    assertFalse(landmark.isAdministrative());
+
+    AddressComponents trailing = PARSER.parse("Hải Châu, Đà Nẵng, gần chợ Hàn");
+    assertFalse(trailing.resolved());
+    assertNull(trailing.cacheKey());
+
+    assertFalse(PARSER.parse(null).isAdministrative());
+    assertNull(PARSER.parse("").finest());
+  }
+}
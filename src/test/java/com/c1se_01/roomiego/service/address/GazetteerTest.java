@@ -0,0 +1,67 @@
+package com.c1se_01.roomiego.service.address;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GazetteerTest {
+
+  private static final AdminUnit DA_NANG = new AdminUnit(AdminUnit.Level.PROVINCE, "Thành phố", "Đà Nẵng", null,
+      null, 16.0544, 108.2022, List.of());
+  private static final AdminUnit HAI_CHAU = new AdminUnit(AdminUnit.Level.DISTRICT, "Quận", "Hải Châu", null,
+      "Đà Nẵng", 16.0471, 108.215, List.of());
+
+  @Test
+  void bundledUnits_loadWithTheirParents() {
+    List<AdminUnit> units = Gazetteer.load(Gazetteer.RESOURCE);
+    Gazetteer gazetteer = new Gazetteer(units);
+
+    assertEquals(63, units.stream().filter(unit -> unit.level() == AdminUnit.Level.PROVINCE).count());
+    assertEquals(units.size(), gazetteer.size());
+    for (AdminUnit unit : units) {
+      // within Vietnam
+      assertTrue(unit.latitude() > 8 && unit.latitude() < 24, unit.key());
+      assertTrue(unit.longitude() > 102 && unit.longitude() < 110, unit.key());
+    }
+  }
+
+  @Test
+  void named_findsTheUnitsByFoldedNameAndAlias() {
+    Gazetteer gazetteer = new Gazetteer();
+
+    List<AdminUnit> hoChiMinh = gazetteer.named(List.of("ho", "chi", "minh"));
+    assertEquals(1, hoChiMinh.size());
+    assertEquals(hoChiMinh, gazetteer.named(List.of("sai", "gon")));
+    assertEquals(hoChiMinh, gazetteer.named(List.of("tphcm")));
+    assertEquals("Phường Thạc Gián", gazetteer.named(List.of("thac", "gian")).get(0).displayName());
+  }
+
+  @Test
+  void parentOf_returnsTheContainingUnit() {
+    Gazetteer gazetteer = new Gazetteer(List.of(DA_NANG, HAI_CHAU));
+
+    assertEquals(DA_NANG, gazetteer.parentOf(HAI_CHAU).orElseThrow());
+    assertTrue(gazetteer.parentOf(DA_NANG).isEmpty());
+    assertTrue(DA_NANG.contains(HAI_CHAU));
+    assertFalse(HAI_CHAU.contains(DA_NANG));
+  }
+
+  @Test
+  void constructor_rejectsDuplicatesAndOrphans() {
+    assertThrows(IllegalArgumentException.class, () -> new Gazetteer(List.of(DA_NANG, DA_NANG)));
+    assertThrows(IllegalArgumentException.class, () -> new Gazetteer(List.of(HAI_CHAU)));
+  }
+
+  @Test
+  void parse_readsTheLevelFromTheParentColumns() {
+    AdminUnit ward = Gazetteer.parse("Phường,Hải Châu I,Hải Châu,Đà Nẵng,16.072,108.222,Hải Châu 1", 1);
+
+    assertEquals(AdminUnit.Level.WARD, ward.level());
+    assertEquals("da nang/hai chau/hai chau i", ward.key());
+    assertEquals(List.of("Hải Châu 1"), ward.aliases());
+    assertThrows(IllegalStateException.class, () -> Gazetteer.parse("Quận,Hải Châu,,Đà Nẵng,north,108.2,", 2));
+    assertThrows(IllegalStateException.class, () -> Gazetteer.parse("Quận,Hải Châu", 3));
+  }
+}
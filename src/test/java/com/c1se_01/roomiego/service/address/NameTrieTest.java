@@ -0,0 +1,55 @@
+package com.c1se_01.roomiego.service.address;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameTrieTest {
+
+  private final NameTrie<String> trie = new NameTrie<>();
+
+  @Test
+  void get_findsExactNamesOnly() {
+    trie.put(List.of("hai", "chau"), "district");
+    trie.put(List.of("hai", "chau", "i"), "ward");
+
+    assertEquals(List.of("district"), trie.get(List.of("hai", "chau")));
+    assertEquals(List.of("ward"), trie.get(List.of("hai", "chau", "i")));
+    assertEquals(List.of(), trie.get(List.of("hai")));
+    assertEquals(List.of(), trie.get(List.of("hai", "chau", "ii")));
+  }
+
+  @Test
+  void put_keepsTheValuesOfTheSameName() {
+    trie.put(List.of("1"), "district 1 of a city");
+    trie.put(List.of("1"), "district 1 of another city");
+
+    assertEquals(2, trie.get(List.of("1")).size());
+    assertEquals(2, trie.size());
+  }
+
+  @Test
+  void prefixMatches_findsTheNamesStartingAtTheWordShortestFirst() {
+    trie.put(List.of("hai", "chau"), "district");
+    trie.put(List.of("hai", "chau", "i"), "ward");
+    trie.put(List.of("chau"), "other");
+    List<String> words = List.of("12", "hai", "chau", "i", "da", "nang");
+
+    List<NameTrie.Match<String>> matches = trie.prefixMatches(words, 1);
+
+    assertEquals(2, matches.size());
+    assertEquals(2, matches.get(0).length());
+    assertEquals(List.of("district"), matches.get(0).values());
+    assertEquals(3, matches.get(1).length());
+    assertEquals(List.of("ward"), matches.get(1).values());
+    assertTrue(trie.prefixMatches(words, 0).isEmpty());
+    assertTrue(trie.prefixMatches(words, words.size()).isEmpty());
+  }
+
+  @Test
+  void put_rejectsAnEmptyName() {
+    assertThrows(IllegalArgumentException.class, () -> trie.put(List.of(), "nothing"));
+  }
+}
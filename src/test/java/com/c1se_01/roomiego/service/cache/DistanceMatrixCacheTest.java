@@ -0,0 +1,27 @@
+package com.c1se_01.roomiego.service.cache;
+
+import com.c1se_01.roomiego.dto.DistanceMatrixResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceMatrixCacheTest {
+
+  private final DistanceMatrixCache cache = new DistanceMatrixCache();
+
+  @Test
+  void cellOf_groupsNeighbouringPoints() {
+    assertEquals(DistanceMatrixCache.GEOHASH_PRECISION, DistanceMatrixCache.cellOf(16.0544, 108.2022).length());
+    assertEquals(DistanceMatrixCache.cellOf(16.05440, 108.20220), DistanceMatrixCache.cellOf(16.05445, 108.20225));
+  }
+
+  @Test
+  void get_isKeyedByBothCellsAndTheMode() {
+    DistanceMatrixResult route = new DistanceMatrixResult(1, 1000, "1 km", 2, 120, "2 phút", "driving");
+    cache.put("w6ugq4w", "w6ugmf2", "driving", route);
+
+    assertSame(route, cache.get("w6ugq4w", "w6ugmf2", "driving"));
+    assertNull(cache.get("w6ugmf2", "w6ugq4w", "driving"));
+    assertNull(cache.get("w6ugq4w", "w6ugmf2", "walking"));
+  }
+}
@@ -0,0 +1,135 @@
+package com.c1se_01.roomiego.service.cache;
+
+import com.c1se_01.roomiego.dto.LocationResponse;
+import com.c1se_01.roomiego.model.GeocodeCacheEntry;
+import com.c1se_01.roomiego.repository.GeocodeCacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GeocodeCacheTest {
+
+  @Mock
+  private GeocodeCacheRepository geocodeCacheRepository;
+
+  private GeocodeCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new GeocodeCache(geocodeCacheRepository);
+  }
+
+  private static LocationResponse.LocationData location() {
+    return new LocationResponse.LocationData("254 Nguyễn Văn Linh, Đà Nẵng", 16.06, 108.21, "place1");
+  }
+
+  @Test
+  void keyOf_foldsCaseWhitespaceAndUnicodeForm() {
+    String decomposed = Normalizer.normalize("  254  NGUYỄN Văn Linh ", Normalizer.Form.NFD);
+
+    assertEquals("254 nguyễn văn linh", GeocodeCache.keyOf(decomposed));
+    assertEquals(GeocodeCache.keyOf("254 nguyễn văn linh"), GeocodeCache.keyOf(decomposed));
+    // accents are significant
+    assertNotEquals(GeocodeCache.keyOf("Hải Châu"), GeocodeCache.keyOf("Hai Chau"));
+  }
+
+  @Test
+  void keyOf_blankOrTooLong_isNotCacheable() {
+    assertNull(GeocodeCache.keyOf(null));
+    assertNull(GeocodeCache.keyOf("   "));
+    assertNull(GeocodeCache.keyOf("a".repeat(GeocodeCache.MAX_KEY_LENGTH + 1)));
+  }
+
+  @Test
+  void put_storesRowWithTheMatchingVariation() {
+    cache.put("254 Nguyễn Văn Linh", location(), "254 Nguyễn Văn Linh, Việt Nam");
+
+    ArgumentCaptor<GeocodeCacheEntry> row = ArgumentCaptor.forClass(GeocodeCacheEntry.class);
+    verify(geocodeCacheRepository).save(row.capture());
+    assertEquals("254 nguyễn văn linh", row.getValue().getAddressKey());
+    assertEquals("254 Nguyễn Văn Linh, Việt Nam", row.getValue().getMatchedVariation());
+    assertEquals(16.06, row.getValue().getLatitude());
+    assertEquals(GeocodeCache.FOUND_TTL.toDays(),
+        Duration.between(row.getValue().getCreatedAt(), row.getValue().getExpiresAt()).toDays());
+  }
+
+  @Test
+  void get_afterPut_isServedFromMemory() {
+    cache.put("254 Nguyễn Văn Linh", location(), "254 Nguyễn Văn Linh");
+
+    Optional<GeocodeCache.Entry> entry = cache.get("254 NGUYỄN VĂN LINH");
+
+    assertTrue(entry.isPresent());
+    assertTrue(entry.get().isFound());
+    assertEquals(location(), entry.get().location());
+    verify(geocodeCacheRepository, never()).findById(any());
+  }
+
+  @Test
+  void get_returnsACopyOfTheLocation() {
+    cache.put("254 Nguyễn Văn Linh", location(), "254 Nguyễn Văn Linh");
+
+    cache.get("254 Nguyễn Văn Linh").orElseThrow().location().setLatitude(0);
+
+    assertEquals(16.06, cache.get("254 Nguyễn Văn Linh").orElseThrow().location().getLatitude());
+  }
+
+  @Test
+  void put_notFound_usesTheShorterTtl() {
+    cache.put("nowhere", null, "nowhere");
+
+    ArgumentCaptor<GeocodeCacheEntry> row = ArgumentCaptor.forClass(GeocodeCacheEntry.class);
+    verify(geocodeCacheRepository).save(row.capture());
+    assertNull(row.getValue().getLatitude());
+    assertNull(row.getValue().getMatchedVariation());
+    assertEquals(GeocodeCache.NOT_FOUND_TTL.toHours(),
+        Duration.between(row.getValue().getCreatedAt(), row.getValue().getExpiresAt()).toHours());
+    assertFalse(cache.get("nowhere").orElseThrow().isFound());
+  }
+
+  @Test
+  void get_memoryMiss_loadsTheRowOnce() {
+    LocalDateTime now = LocalDateTime.now();
+    when(geocodeCacheRepository.findById("hải châu")).thenReturn(Optional.of(new GeocodeCacheEntry(
+        "hải châu", "Hải Châu, Đà Nẵng", 16.05, 108.2, "place1", "Hải Châu", now, now.plusDays(1))));
+
+    GeocodeCache.Entry entry = cache.get("Hải Châu").orElseThrow();
+    cache.get("Hải Châu");
+
+    assertEquals("Hải Châu, Đà Nẵng", entry.location().getFormattedAddress());
+    assertEquals("Hải Châu", entry.matchedVariation());
+    verify(geocodeCacheRepository, times(1)).findById("hải châu");
+  }
+
+  @Test
+  void get_expiredRow_isAMiss() {
+    LocalDateTime now = LocalDateTime.now();
+    when(geocodeCacheRepository.findById("hải châu")).thenReturn(Optional.of(new GeocodeCacheEntry(
+        "hải châu", null, null, null, null, null, now.minusDays(2), now.minusDays(1))));
+
+    assertTrue(cache.get("Hải Châu").isEmpty());
+  }
+
+  @Test
+  void repositoryFailures_areMisses() {
+    when(geocodeCacheRepository.findById(any())).thenThrow(new RuntimeException("db down"));
+    when(geocodeCacheRepository.save(any())).thenThrow(new RuntimeException("db down"));
+
+    assertTrue(cache.get("Hải Châu").isEmpty());
+    cache.put("Hải Châu", location(), "Hải Châu");
+    assertTrue(cache.get("Hải Châu").isPresent());
+  }
+}
@@ -0,0 +1,49 @@
+package com.c1se_01.roomiego.service.cache;
+
+import com.c1se_01.roomiego.dto.LocationResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearbyPlacesCacheTest {
+
+  private final NearbyPlacesCache cache = new NearbyPlacesCache();
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private List<LocationResponse.NearbyPlace> load() {
+    loads.incrementAndGet();
+    return List.of(new LocationResponse.NearbyPlace("Chợ Hàn", "", 16.068, 108.224, "place1", 4.2, "supermarket",
+        120));
+  }
+
+  @Test
+  void cellOf_groupsNeighbouringPoints() {
+    assertEquals(NearbyPlacesCache.GEOHASH_PRECISION, NearbyPlacesCache.cellOf(16.0544, 108.2022).length());
+    assertEquals(NearbyPlacesCache.cellOf(16.05440, 108.20220), NearbyPlacesCache.cellOf(16.05445, 108.20225));
+    assertNotEquals(NearbyPlacesCache.cellOf(16.0544, 108.2022), NearbyPlacesCache.cellOf(16.0564, 108.2022));
+  }
+
+  @Test
+  void get_loadsOncePerCellAndType() {
+    String cell = NearbyPlacesCache.cellOf(16.0544, 108.2022);
+
+    List<LocationResponse.NearbyPlace> first = cache.get(cell, "supermarket", this::load);
+    List<LocationResponse.NearbyPlace> second = cache.get(cell, "supermarket", this::load);
+    cache.get(cell, "hospital", this::load);
+
+    assertSame(first, second);
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void get_failedSearch_isNotCached() {
+    String cell = NearbyPlacesCache.cellOf(16.0544, 108.2022);
+
+    assertNull(cache.get(cell, "supermarket", () -> null));
+    assertEquals(1, cache.get(cell, "supermarket", this::load).size());
+    assertEquals(1, loads.get());
+  }
+}
@@ -0,0 +1,65 @@
+package com.c1se_01.roomiego.service.cache;
+
+import com.c1se_01.roomiego.dto.common.ResourceVersion;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.event.RoomImagesChangedEvent;
+import com.c1se_01.roomiego.event.UserSavedEvent;
+import com.c1se_01.roomiego.model.Room;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomCatalogStampTest {
+
+  private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+  private final RoomCatalogStamp stamp = new RoomCatalogStamp(clock::get);
+
+  @Test
+  void current_isStableWithoutChanges() {
+    ResourceVersion version = stamp.current();
+    clock.addAndGet(1_000);
+
+    assertEquals(version, stamp.current());
+    assertEquals(1_700_000_000_000L, version.lastModified());
+  }
+
+  @Test
+  void current_movesWithRoomImageAndOwnerChanges() {
+    ResourceVersion initial = stamp.current();
+    clock.addAndGet(1_000);
+
+    stamp.onRoomChanged(new RoomChangedEvent(new Room(), RoomChangeType.CREATED));
+    ResourceVersion created = stamp.current();
+    assertNotEquals(initial.etag(), created.etag());
+    assertEquals(1_700_000_001_000L, created.lastModified());
+
+    stamp.onRoomImagesChanged(new RoomImagesChangedEvent(1L));
+    ResourceVersion imagesChanged = stamp.current();
+    assertNotEquals(created.etag(), imagesChanged.etag());
+
+    stamp.onUserSaved(new UserSavedEvent(7L, "Owner"));
+    assertNotEquals(imagesChanged.etag(), stamp.current().etag());
+  }
+
+  @Test
+  void current_expiresAfterTheListingTtl() {
+    ResourceVersion initial = stamp.current();
+
+    clock.addAndGet(RoomCatalogStamp.MAX_AGE.minus(Duration.ofSeconds(1)).toMillis());
+    assertEquals(initial, stamp.current());
+    clock.addAndGet(Duration.ofSeconds(1).toMillis());
+    assertNotEquals(initial.etag(), stamp.current().etag());
+  }
+
+  @Test
+  void current_differsAcrossRestarts() {
+    ResourceVersion before = stamp.current();
+    clock.addAndGet(1);
+
+    assertNotEquals(before.etag(), new RoomCatalogStamp(clock::get).current().etag());
+  }
+}
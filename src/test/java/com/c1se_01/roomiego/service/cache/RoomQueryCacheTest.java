@@ -0,0 +1,157 @@
+package com.c1se_01.roomiego.service.cache;
+
+import com.c1se_01.roomiego.dto.RoomDTO;
+import com.c1se_01.roomiego.dto.common.FilterCondition;
+import com.c1se_01.roomiego.dto.common.FilterParam;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.event.RoomImagesChangedEvent;
+import com.c1se_01.roomiego.event.UserSavedEvent;
+import com.c1se_01.roomiego.model.Room;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomQueryCacheTest {
+
+  private RoomQueryCache cache;
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    cache = new RoomQueryCache();
+  }
+
+  private static RoomDTO dto(long id, long ownerId) {
+    RoomDTO dto = new RoomDTO();
+    dto.setId(id);
+    dto.setOwnerId(ownerId);
+    return dto;
+  }
+
+  private static FilterParam filter(String filter) {
+    FilterParam filterParam = new FilterParam();
+    filterParam.setFilter(filter);
+    return filterParam;
+  }
+
+  private static Room room(long id) {
+    Room room = new Room();
+    room.setId(id);
+    return room;
+  }
+
+  private List<RoomDTO> listing(FilterParam filterParam, RoomDTO... rooms) {
+    return cache.getListing(filterParam, () -> {
+      loads.incrementAndGet();
+      return List.of(rooms);
+    });
+  }
+
+  private RoomDTO detail(long id) {
+    return cache.getRoom(id, roomId -> {
+      loads.incrementAndGet();
+      return dto(roomId, 9);
+    });
+  }
+
+  @Test
+  void keyOf_normalizesFilterAndSearch() {
+    FilterParam first = filter("city:Đà Nẵng, price>1000000");
+    first.setSearch("  Phòng   Trọ ");
+    FilterParam second = filter("city:Đà Nẵng,price>1000000");
+    second.setSearch("phòng trọ");
+
+    assertEquals(RoomQueryCache.keyOf(first), RoomQueryCache.keyOf(second));
+    assertNotEquals(RoomQueryCache.keyOf(first), RoomQueryCache.keyOf(filter("city:Huế")));
+  }
+
+  @Test
+  void keyOf_onlyFirstPagesAreCacheable() {
+    FilterParam laterPage = new FilterParam();
+    laterPage.setPage(2);
+    FilterParam cursor = new FilterParam();
+    cursor.setCursor("");
+    FilterParam largePage = new FilterParam();
+    largePage.setSize(RoomQueryCache.MAX_CACHED_PAGE_SIZE + 1);
+    FilterParam directConditions = new FilterParam();
+    directConditions.setConditions(List.of(new FilterCondition("city", ":", "Huế")));
+
+    assertNotNull(RoomQueryCache.keyOf(new FilterParam()));
+    assertNull(RoomQueryCache.keyOf(laterPage));
+    assertNull(RoomQueryCache.keyOf(cursor));
+    assertNull(RoomQueryCache.keyOf(largePage));
+    assertNull(RoomQueryCache.keyOf(directConditions));
+  }
+
+  @Test
+  void listing_cachedPerKey() {
+    listing(filter("city:Huế"), dto(1, 9));
+    listing(filter("city:Huế"), dto(1, 9));
+    listing(filter("city:Vinh"), dto(2, 9));
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void roomCreatedOrUpdated_dropsEveryListing() {
+    listing(filter("city:Huế"), dto(1, 9));
+    listing(filter("city:Vinh"), dto(2, 9));
+
+    cache.onRoomChanged(new RoomChangedEvent(room(3), RoomChangeType.CREATED));
+
+    listing(filter("city:Huế"), dto(1, 9));
+    listing(filter("city:Vinh"), dto(2, 9));
+    assertEquals(4, loads.get());
+  }
+
+  @Test
+  void roomDeleted_dropsOnlyListingsShowingIt() {
+    listing(filter("city:Huế"), dto(1, 9));
+    listing(filter("city:Vinh"), dto(2, 9));
+    detail(1);
+    detail(2);
+
+    cache.onRoomChanged(new RoomChangedEvent(room(1), RoomChangeType.DELETED));
+
+    listing(filter("city:Huế"), dto(1, 9));
+    listing(filter("city:Vinh"), dto(2, 9));
+    detail(1);
+    detail(2);
+    assertEquals(6, loads.get());
+  }
+
+  @Test
+  void imagesChanged_dropsDetailAndListingsShowingTheRoom() {
+    listing(filter("city:Huế"), dto(1, 9));
+    listing(filter("city:Vinh"), dto(2, 9));
+    detail(1);
+
+    cache.onRoomImagesChanged(new RoomImagesChangedEvent(1L));
+
+    listing(filter("city:Huế"), dto(1, 9));
+    listing(filter("city:Vinh"), dto(2, 9));
+    detail(1);
+    assertEquals(5, loads.get());
+  }
+
+  @Test
+  void ownerRenamed_dropsTheirRooms() {
+    listing(filter("city:Huế"), dto(1, 7));
+    listing(filter("city:Vinh"), dto(2, 8));
+    cache.getRoom(1L, id -> dto(id, 7));
+    cache.getRoom(2L, id -> dto(id, 8));
+
+    cache.onUserSaved(new UserSavedEvent(7L, "New name"));
+
+    assertNull(cache.detailsCache().getIfPresent(1L));
+    assertNotNull(cache.detailsCache().getIfPresent(2L));
+    listing(filter("city:Huế"), dto(1, 7));
+    listing(filter("city:Vinh"), dto(2, 8));
+    assertEquals(3, loads.get());
+  }
+}
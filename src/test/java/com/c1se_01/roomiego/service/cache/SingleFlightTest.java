@@ -0,0 +1,175 @@
+package com.c1se_01.roomiego.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private final SingleFlight<String, String> flight = new SingleFlight<>("test", registry);
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private double count(String outcome) {
+    return registry.get(SingleFlight.COUNTER).tag("lookup", "test").tag("outcome", outcome).counter().count();
+  }
+
+  /** Starts a lookup of the key that blocks until released, once it is in flight. */
+  private CompletableFuture<String> startBlocked(String key, CountDownLatch release, AtomicInteger calls)
+      throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CompletableFuture<String> leader = flight.submit(key, () -> {
+      calls.incrementAndGet();
+      started.countDown();
+      await(release);
+      return "result of " + key;
+    }, executor);
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    return leader;
+  }
+
+  @Test
+  void submit_concurrentCallsOfTheSameKeyShareOneLookup() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    CompletableFuture<String> leader = startBlocked("a", release, calls);
+
+    List<CompletableFuture<String>> followers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      followers.add(flight.submit("a", () -> {
+        calls.incrementAndGet();
+        return "own result";
+      }, executor));
+    }
+    release.countDown();
+
+    assertEquals("result of a", leader.get(5, TimeUnit.SECONDS));
+    for (CompletableFuture<String> follower : followers) {
+      assertEquals("result of a", follower.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, calls.get());
+    assertEquals(1, count("issued"));
+    assertEquals(3, count("coalesced"));
+    assertEquals(0, flight.inFlight());
+  }
+
+  @Test
+  void submit_differentKeysDoNotWaitForEachOther() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<String> leader = startBlocked("a", release, new AtomicInteger());
+
+    assertEquals("b", flight.execute("b", () -> "b", executor, 5, TimeUnit.SECONDS));
+
+    release.countDown();
+    leader.get(5, TimeUnit.SECONDS);
+    assertEquals(2, count("issued"));
+    assertEquals(0, count("coalesced"));
+  }
+
+  @Test
+  void execute_completedLookupsAreNotKept() throws Exception {
+    assertEquals("first", flight.execute("a", () -> "first", Runnable::run, 1, TimeUnit.SECONDS));
+    assertEquals("second", flight.execute("a", () -> "second", Runnable::run, 1, TimeUnit.SECONDS));
+
+    assertEquals(2, count("issued"));
+  }
+
+  @Test
+  void execute_theFailureOfTheLookupIsThrownToEveryCaller() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    CompletableFuture<String> leader = flight.submit("a", () -> {
+      started.countDown();
+      await(release);
+      throw new IllegalStateException("down");
+    }, executor);
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    CompletableFuture<String> follower = flight.submit("a", () -> "own result", executor);
+    release.countDown();
+
+    ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+    ExecutionException followerFailure = assertThrows(ExecutionException.class,
+        () -> follower.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+    assertInstanceOf(IllegalStateException.class, followerFailure.getCause());
+    assertThrows(IllegalStateException.class,
+        () -> flight.execute("b", () -> {
+          throw new IllegalStateException("down");
+        }, executor, 5, TimeUnit.SECONDS));
+    // the next call looks up again
+    assertEquals("retried", flight.execute("a", () -> "retried", executor, 5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void execute_aLeaderTimingOutLeavesTheLookupToTheFollowers() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    AtomicBoolean interrupted = new AtomicBoolean();
+    CountDownLatch started = new CountDownLatch(1);
+    Runnable lookup = () -> {
+      calls.incrementAndGet();
+      started.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        interrupted.set(true);
+      }
+    };
+
+    assertThrows(TimeoutException.class, () -> flight.execute("a", () -> {
+      lookup.run();
+      return "result of a";
+    }, executor, 50, TimeUnit.MILLISECONDS));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    CompletableFuture<String> follower = flight.submit("a", () -> "own result", executor);
+    release.countDown();
+
+    assertEquals("result of a", follower.get(5, TimeUnit.SECONDS));
+    assertFalse(interrupted.get());
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void submit_cancellingACallerDoesNotInterruptTheLookup() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    CompletableFuture<String> leader = startBlocked("a", release, calls);
+    CompletableFuture<String> follower = flight.submit("a", () -> "own result", executor);
+
+    assertTrue(leader.cancel(true));
+    release.countDown();
+
+    assertEquals("result of a", follower.get(5, TimeUnit.SECONDS));
+    assertTrue(leader.isCancelled());
+    assertEquals(1, calls.get());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
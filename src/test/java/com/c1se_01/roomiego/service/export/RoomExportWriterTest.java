@@ -0,0 +1,86 @@
+package com.c1se_01.roomiego.service.export;
+
+import com.c1se_01.roomiego.enums.ExportFormat;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomExportWriterTest {
+
+  private static Room room(long id, String title) {
+    Room room = new Room();
+    room.setId(id);
+    room.setTitle(title);
+    room.setPrice(new BigDecimal("2500000.00"));
+    room.setRoomSize(25.5f);
+    room.setIsRoomAvailable(true);
+    room.setCreatedAt(new Date(0));
+    User owner = new User();
+    owner.setId(7L);
+    room.setOwner(owner);
+    return room;
+  }
+
+  private static String export(ExportFormat format, Room... rooms) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RoomExportWriter writer = new RoomExportWriter(out, format);
+    writer.writeHeader();
+    for (Room room : rooms) {
+      writer.write(room);
+    }
+    writer.flush();
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void ndjson_writesOneObjectPerLine() throws Exception {
+    String[] lines = export(ExportFormat.NDJSON, room(1, "Phòng \"đẹp\""), room(2, "B")).split("\n");
+
+    assertEquals(2, lines.length);
+    JsonNode first = new ObjectMapper().readTree(lines[0]);
+    assertEquals(1, first.get("id").asLong());
+    assertEquals(7, first.get("ownerId").asLong());
+    assertEquals("Phòng \"đẹp\"", first.get("title").asText());
+    assertEquals(0, new BigDecimal("2500000").compareTo(first.get("price").decimalValue()));
+    assertTrue(first.get("isRoomAvailable").asBoolean());
+    assertEquals("1970-01-01T00:00:00Z", first.get("createdAt").asText());
+    assertTrue(first.get("updatedAt").isNull());
+    assertEquals(RoomExportWriter.COLUMNS.size(), first.size());
+  }
+
+  @Test
+  void csv_writesHeaderAndQuotesFields() throws Exception {
+    String[] rows = export(ExportFormat.CSV, room(1, "Phòng, \"đẹp\"")).split("\r\n");
+
+    assertEquals(2, rows.length);
+    assertEquals(String.join(",", RoomExportWriter.COLUMNS), rows[0]);
+    assertTrue(rows[1].startsWith("1,7,\"Phòng, \"\"đẹp\"\"\",,2500000.00,"));
+  }
+
+  @Test
+  void csvField_quotesOnlyWhenNeeded() {
+    assertEquals("plain", RoomExportWriter.csvField("plain"));
+    assertEquals("\"two\nlines\"", RoomExportWriter.csvField("two\nlines"));
+  }
+
+  @Test
+  void emptyExport_ndjsonIsEmpty() throws Exception {
+    assertEquals("", export(ExportFormat.NDJSON));
+  }
+
+  @Test
+  void format_parsesCaseInsensitively() {
+    assertEquals(ExportFormat.CSV, ExportFormat.from("csv"));
+    assertEquals(ExportFormat.NDJSON, ExportFormat.from(" NDJSON "));
+    assertThrows(IllegalArgumentException.class, () -> ExportFormat.from("xml"));
+  }
+}
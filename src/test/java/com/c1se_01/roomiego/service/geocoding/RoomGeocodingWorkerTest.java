@@ -0,0 +1,211 @@
+package com.c1se_01.roomiego.service.geocoding;
+
+import com.c1se_01.roomiego.dto.LocationResponse;
+import com.c1se_01.roomiego.enums.GeoStatus;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.model.RoomGeocodingJob;
+import com.c1se_01.roomiego.repository.RoomGeocodingJobRepository;
+import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.service.impl.GoogleMapsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomGeocodingWorkerTest {
+
+  private static final String ADDRESS = "123, Main St, City";
+
+  @Mock
+  private RoomGeocodingJobRepository jobRepository;
+
+  @Mock
+  private RoomRepository roomRepository;
+
+  @Mock
+  private GoogleMapsService googleMapsService;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private RoomGeocodingWorker worker;
+
+  @BeforeEach
+  void setUp() {
+    worker = new RoomGeocodingWorker(jobRepository, roomRepository, googleMapsService, eventPublisher,
+        new TransactionTemplate(transactionManager), registry);
+  }
+
+  private RoomGeocodingJob dueJob(int attempts) {
+    return dueJob(attempts, 1);
+  }
+
+  /** A job read as due, claimed by this worker when {@code claimed} is 1. */
+  private RoomGeocodingJob dueJob(int attempts, int claimed) {
+    RoomGeocodingJob job = new RoomGeocodingJob(7L, 1L, ADDRESS, attempts, LocalDateTime.now().minusSeconds(1),
+        null, LocalDateTime.now().minusMinutes(1));
+    when(jobRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(job));
+    when(jobRepository.claim(eq(7L), eq(job.getNextAttemptAt()), any(LocalDateTime.class))).thenReturn(claimed);
+    return job;
+  }
+
+  private Room pendingRoom() {
+    Room room = new Room();
+    room.setId(1L);
+    room.setGeoStatus(GeoStatus.PENDING);
+    when(roomRepository.findById(1L)).thenReturn(Optional.of(room));
+    when(roomRepository.save(room)).thenReturn(room);
+    return room;
+  }
+
+  private double attempts(String outcome) {
+    return registry.get(RoomGeocodingWorker.ATTEMPTS).tag("outcome", outcome).counter().count();
+  }
+
+  @Test
+  void enqueue_savesAJobDueNow() {
+    worker.enqueue(1L, ADDRESS);
+
+    ArgumentCaptor<RoomGeocodingJob> job = ArgumentCaptor.forClass(RoomGeocodingJob.class);
+    verify(jobRepository).save(job.capture());
+    assertEquals(1L, job.getValue().getRoomId());
+    assertEquals(ADDRESS, job.getValue().getAddress());
+    assertEquals(0, job.getValue().getAttempts());
+    assertFalse(job.getValue().getNextAttemptAt().isAfter(LocalDateTime.now()));
+  }
+
+  @Test
+  void drain_resolvedAddressSetsTheCoordinatesAndRefreshesTheIndexes() {
+    dueJob(0);
+    Room room = pendingRoom();
+    when(googleMapsService.geocodeAddress(ADDRESS))
+        .thenReturn(new LocationResponse.LocationData("formatted", 10.0, 20.0, "placeId"));
+
+    worker.drain();
+
+    assertEquals(10.0, room.getLatitude());
+    assertEquals(20.0, room.getLongitude());
+    assertEquals(GeoStatus.RESOLVED, room.getGeoStatus());
+    verify(jobRepository).deleteById(7L);
+    verify(eventPublisher).publishEvent(new RoomChangedEvent(room, RoomChangeType.UPDATED));
+    assertEquals(1, attempts("resolved"));
+  }
+
+  @Test
+  void drain_keepsTheCoordinatesSetInTheMeantime() {
+    dueJob(0);
+    Room room = pendingRoom();
+    room.setLatitude(1.0);
+    room.setLongitude(2.0);
+    when(googleMapsService.geocodeAddress(ADDRESS))
+        .thenReturn(new LocationResponse.LocationData("formatted", 10.0, 20.0, "placeId"));
+
+    worker.drain();
+
+    assertEquals(1.0, room.getLatitude());
+    assertEquals(2.0, room.getLongitude());
+    assertEquals(GeoStatus.RESOLVED, room.getGeoStatus());
+  }
+
+  @Test
+  void drain_failedAttemptIsRetriedWithBackoff() {
+    RoomGeocodingJob job = dueJob(1);
+    when(googleMapsService.geocodeAddress(ADDRESS)).thenThrow(new IllegalStateException("timeout"));
+    LocalDateTime before = LocalDateTime.now();
+
+    worker.drain();
+
+    verify(jobRepository).save(job);
+    assertEquals(2, job.getAttempts());
+    assertEquals("timeout", job.getLastError());
+    // second retry, twice the initial backoff
+    assertFalse(job.getNextAttemptAt().isBefore(before.plusSeconds(60)));
+    verify(jobRepository, never()).deleteById(any());
+    verifyNoInteractions(roomRepository, eventPublisher);
+    assertEquals(1, attempts("retried"));
+  }
+
+  @Test
+  void drain_lastAttemptMarksTheRoomFailed() {
+    dueJob(5);
+    Room room = pendingRoom();
+    when(googleMapsService.geocodeAddress(ADDRESS)).thenReturn(null);
+
+    worker.drain();
+
+    assertEquals(GeoStatus.FAILED, room.getGeoStatus());
+    assertNull(room.getLatitude());
+    verify(jobRepository).deleteById(7L);
+    verify(eventPublisher).publishEvent(new RoomChangedEvent(room, RoomChangeType.UPDATED));
+    assertEquals(1, attempts("failed"));
+  }
+
+  @Test
+  void drain_failedLookupIsRetried() {
+    RoomGeocodingJob job = dueJob(1);
+    when(googleMapsService.geocodeAddress(ADDRESS)).thenReturn(null);
+    when(googleMapsService.isKnownNotFound(ADDRESS)).thenReturn(false);
+
+    worker.drain();
+
+    verify(jobRepository).save(job);
+    assertEquals(2, job.getAttempts());
+    verifyNoInteractions(roomRepository);
+  }
+
+  @Test
+  void drain_addressNotFoundMarksTheRoomFailedWithoutRetrying() {
+    dueJob(0);
+    Room room = pendingRoom();
+    when(googleMapsService.geocodeAddress(ADDRESS)).thenReturn(null);
+    when(googleMapsService.isKnownNotFound(ADDRESS)).thenReturn(true);
+
+    worker.drain();
+
+    assertEquals(GeoStatus.FAILED, room.getGeoStatus());
+    verify(jobRepository).deleteById(7L);
+    verify(jobRepository, never()).save(any());
+    assertEquals(1, attempts("failed"));
+  }
+
+  @Test
+  void drain_skipsTheJobsClaimedByAnotherInstance() {
+    dueJob(0, 0);
+
+    worker.drain();
+
+    verifyNoInteractions(googleMapsService, roomRepository, eventPublisher);
+  }
+
+  @Test
+  void backoff_doublesUpToTheMaximum() {
+    assertEquals(Duration.ofSeconds(30), worker.backoff(1));
+    assertEquals(Duration.ofSeconds(60), worker.backoff(2));
+    assertEquals(Duration.ofHours(1), worker.backoff(10));
+    assertEquals(Duration.ofHours(1), worker.backoff(100));
+  }
+}
@@ -0,0 +1,87 @@
+package com.c1se_01.roomiego.service.impl;
+
+import com.c1se_01.roomiego.dto.DistanceMatrixResult;
+import com.c1se_01.roomiego.enums.TravelMode;
+import com.c1se_01.roomiego.utils.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceEstimatorTest {
+
+  // Hải Châu to Sơn Trà, ~3.2 km in straight line
+  private static final double LAT1 = 16.0544;
+  private static final double LNG1 = 108.2022;
+  private static final double LAT2 = 16.0700;
+  private static final double LNG2 = 108.2300;
+
+  private final DistanceEstimator estimator = new DistanceEstimator();
+
+  private final double straight = GeoUtils.haversineMeters(LAT1, LNG1, LAT2, LNG2);
+
+  @Test
+  void estimate_beforeCalibration_usesTheModeDefaults() {
+    DistanceMatrixResult result = estimator.estimate("walking", LAT1, LNG1, LAT2, LNG2);
+
+    assertTrue(result.isEstimated());
+    assertEquals("walking", result.getTravelMode());
+    assertEquals(straight * TravelMode.WALKING.getDefaultCircuity(), result.getDistanceMeters(), 1);
+    assertEquals(result.getDistanceMeters() / (4.8 / 3.6), result.getDurationSeconds(), 1);
+    assertEquals(result.getDurationSeconds() / 60, result.getDurationMinutes());
+    assertTrue(result.getDistanceText().endsWith(" km"));
+    assertTrue(result.getDurationText().endsWith(" phút"));
+  }
+
+  @Test
+  void estimate_unknownMode_isDriving() {
+    assertEquals("driving", estimator.estimate(null, LAT1, LNG1, LAT2, LNG2).getTravelMode());
+    assertEquals("driving", estimator.estimate("flying", LAT1, LNG1, LAT2, LNG2).getTravelMode());
+  }
+
+  @Test
+  void calibrate_convergesOnTheObservedRoutes() {
+    for (int i = 0; i < 2000; i++) {
+      // 1.6 times the straight line at 18 km/h
+      estimator.calibrate(TravelMode.DRIVING, LAT1, LNG1, LAT2, LNG2, straight * 1.6, straight * 1.6 / 5);
+    }
+
+    assertEquals(1.6, estimator.circuity(TravelMode.DRIVING), 0.02);
+    assertEquals(5, estimator.metersPerSecond(TravelMode.DRIVING), 0.1);
+    // the other modes keep their own factors
+    assertEquals(TravelMode.WALKING.getDefaultCircuity(), estimator.circuity(TravelMode.WALKING));
+  }
+
+  @Test
+  void calibrate_fewRoutes_barelyMoveTheFactors() {
+    estimator.calibrate(TravelMode.DRIVING, LAT1, LNG1, LAT2, LNG2, straight * 2.5, straight * 2.5 / 2);
+
+    assertEquals(TravelMode.DRIVING.getDefaultCircuity(), estimator.circuity(TravelMode.DRIVING), 0.25);
+  }
+
+  @Test
+  void calibrate_ignoresShortAndImplausibleRoutes() {
+    // a few meters apart
+    estimator.calibrate(TravelMode.DRIVING, LAT1, LNG1, LAT1 + 0.0001, LNG1, 900, 120);
+    // shorter than the straight line, or winding more than MAX_CIRCUITY
+    estimator.calibrate(TravelMode.DRIVING, LAT1, LNG1, LAT2, LNG2, straight / 2, 600);
+    estimator.calibrate(TravelMode.DRIVING, LAT1, LNG1, LAT2, LNG2, straight * 4, 600);
+    estimator.calibrate(TravelMode.DRIVING, LAT1, LNG1, LAT2, LNG2, straight * 1.5, 0);
+
+    assertEquals(TravelMode.DRIVING.getDefaultCircuity(), estimator.circuity(TravelMode.DRIVING));
+    assertEquals(TravelMode.DRIVING.getDefaultSpeedKmh() / 3.6, estimator.metersPerSecond(TravelMode.DRIVING));
+  }
+
+  @Test
+  void estimateMatrix_estimatesEveryPair() {
+    DistanceMatrixResult[][] results = estimator.estimateMatrix(
+        List.of(new double[] { LAT1, LNG1 }, new double[] { LAT2, LNG2 }),
+        List.of(new double[] { LAT2, LNG2 }), "driving");
+
+    assertEquals(2, results.length);
+    assertEquals(estimator.estimateMeters(TravelMode.DRIVING, LAT1, LNG1, LAT2, LNG2),
+        results[0][0].getDistanceMeters(), 1);
+    assertEquals(0, results[1][0].getDistanceMeters());
+  }
+}
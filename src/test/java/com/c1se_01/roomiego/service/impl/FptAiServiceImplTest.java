@@ -1,6 +1,8 @@
 package com.c1se_01.roomiego.service.impl;
 
 import com.c1se_01.roomiego.dto.FptAiIdRecognitionResponse;
+import com.c1se_01.roomiego.exception.ServiceUnavailableException;
+import com.c1se_01.roomiego.service.resilience.ExternalApiGuard;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,9 +13,11 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,6 +31,8 @@ class FptAiServiceImplTest {
   @Mock
   private RestTemplate restTemplate;
 
+  private ExternalApiGuard fptAiGuard;
+
   private FptAiServiceImpl fptAiService;
 
   private static final String TEST_API_KEY = "test-api-key";
@@ -37,8 +43,10 @@ class FptAiServiceImplTest {
 
   @BeforeEach
   void setUp() {
-    fptAiService = new FptAiServiceImpl();
-    ReflectionTestUtils.setField(fptAiService, "restTemplate", restTemplate);
+    // opens when at least half of the last 2 calls failed
+    fptAiGuard = new ExternalApiGuard("fpt-ai",
+        new ExternalApiGuard.Settings(8, 1000, 1000, 2, 2, 50, Duration.ofSeconds(30), 1));
+    fptAiService = new FptAiServiceImpl(restTemplate, fptAiGuard);
     ReflectionTestUtils.setField(fptAiService, "apiKey", TEST_API_KEY);
   }
 
@@ -685,4 +693,32 @@ class FptAiServiceImplTest {
         any(HttpEntity.class),
         eq(FptAiIdRecognitionResponse.class));
   }
+
+  @Test
+  void recognizeIdCard_FptAiFailing_ThrowsServiceUnavailableWithoutCalling() {
+    when(restTemplate.exchange(eq(API_URL), eq(HttpMethod.POST), any(HttpEntity.class),
+        eq(FptAiIdRecognitionResponse.class)))
+        .thenThrow(new RestClientException("Connection timeout"));
+    fptAiService.recognizeIdCard(VALID_BASE64_IMAGE);
+    fptAiService.recognizeIdCard(VALID_BASE64_IMAGE);
+
+    assertThrows(ServiceUnavailableException.class, () -> fptAiService.recognizeIdCard(VALID_BASE64_IMAGE));
+
+    assertEquals(ExternalApiGuard.State.OPEN, fptAiGuard.getState());
+    verify(restTemplate, times(2)).exchange(eq(API_URL), eq(HttpMethod.POST), any(HttpEntity.class),
+        eq(FptAiIdRecognitionResponse.class));
+  }
+
+  @Test
+  void recognizeIdCard_ServerErrorsThrownByRestTemplate_OpenTheCircuit() {
+    when(restTemplate.exchange(eq(API_URL), eq(HttpMethod.POST), any(HttpEntity.class),
+        eq(FptAiIdRecognitionResponse.class)))
+        .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+    assertEquals(500, fptAiService.recognizeIdCard(VALID_BASE64_IMAGE).getErrorCode());
+    assertEquals(500, fptAiService.recognizeIdCard(VALID_BASE64_IMAGE).getErrorCode());
+
+    assertEquals(ExternalApiGuard.State.OPEN, fptAiGuard.getState());
+    assertEquals(2, fptAiGuard.getFailedCalls());
+  }
 }
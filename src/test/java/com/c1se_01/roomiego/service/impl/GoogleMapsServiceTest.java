@@ -1,7 +1,25 @@
 package com.c1se_01.roomiego.service.impl;
 
+import com.c1se_01.roomiego.dto.DistanceMatrixResult;
 import com.c1se_01.roomiego.dto.LocationResponse;
+import com.c1se_01.roomiego.dto.MarkerTileResponse;
+import com.c1se_01.roomiego.dto.google.DistanceMatrixApiResponse;
+import com.c1se_01.roomiego.dto.google.GeocodingApiResponse;
+import com.c1se_01.roomiego.dto.google.NearbySearchApiResponse;
+import com.c1se_01.roomiego.enums.TravelMode;
 import com.c1se_01.roomiego.service.RoomService;
+import com.c1se_01.roomiego.service.address.AddressParser;
+import com.c1se_01.roomiego.service.address.AdminUnit;
+import com.c1se_01.roomiego.service.address.Gazetteer;
+import com.c1se_01.roomiego.service.cache.DistanceMatrixCache;
+import com.c1se_01.roomiego.service.cache.GeocodeCache;
+import com.c1se_01.roomiego.service.cache.NearbyPlacesCache;
+import com.c1se_01.roomiego.service.index.RoomClusterIndex;
+import com.c1se_01.roomiego.service.resilience.ExternalApiGuard;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +31,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -27,18 +57,69 @@ class GoogleMapsServiceTest {
   @Mock
   private RoomService roomService;
 
+  @Mock
+  private RoomClusterIndex roomClusterIndex;
+
+  @Mock
+  private GeocodeCache geocodeCache;
+
+  private final ExecutorService geocodingExecutor = Executors.newFixedThreadPool(4);
+
+  private final ExecutorService nearbySearchExecutor = Executors.newFixedThreadPool(10);
+
+  private final ExecutorService distanceMatrixExecutor = Executors.newFixedThreadPool(4);
+
+  private final DistanceEstimator distanceEstimator = new DistanceEstimator();
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  // no units, the addresses of the tests are geocoded by the API unless a test sets a gazetteer
+  private AddressParser addressParser = new AddressParser(new Gazetteer(List.of()));
+
   private GoogleMapsService googleMapsService;
 
   @BeforeEach
   void setUp() {
     // Create service instance with mocked dependencies
-    googleMapsService = new GoogleMapsService(roomService);
+    // a guard that never refuses a call
+    googleMapsService = createService(new ExternalApiGuard("google-maps",
+        new ExternalApiGuard.Settings(100, 1e6, 1_000_000, 1000, 1000, 100, Duration.ofSeconds(30), 1)));
+  }
 
-    // Inject mocked dependencies via reflection
-    ReflectionTestUtils.setField(googleMapsService, "restTemplate", restTemplate);
+  private GoogleMapsService createService(ExternalApiGuard googleMapsGuard) {
+    GoogleMapsService service = new GoogleMapsService(restTemplate, roomService, roomClusterIndex, geocodeCache,
+        geocodingExecutor, nearbySearchExecutor, new NearbyPlacesCache(), distanceMatrixExecutor,
+        new DistanceMatrixCache(), distanceEstimator, addressParser, googleMapsGuard, meterRegistry);
 
     // Set the API key via reflection
-    ReflectionTestUtils.setField(googleMapsService, "googleMapsApiKey", "test-api-key");
+    ReflectionTestUtils.setField(service, "googleMapsApiKey", "test-api-key");
+    return service;
+  }
+
+  /** A guard whose circuit is open for the rest of the test. */
+  private static ExternalApiGuard openGuard() {
+    ExternalApiGuard guard = new ExternalApiGuard("google-maps",
+        new ExternalApiGuard.Settings(100, 1e6, 1_000_000, 1, 1, 50, Duration.ofHours(1), 1));
+    assertThrows(IllegalStateException.class, () -> guard.call(() -> {
+      throw new IllegalStateException("down");
+    }, () -> null));
+    return guard;
+  }
+
+  @Test
+  void getMarkerTile_readsTheClusterIndex() {
+    MarkerTileResponse tile = new MarkerTileResponse(10, 819, 469, List.of(), List.of());
+    when(roomClusterIndex.tile(10, 819, 469)).thenReturn(tile);
+
+    assertSame(tile, googleMapsService.getMarkerTile(10, 819, 469));
+    verifyNoInteractions(roomService);
+  }
+
+  @AfterEach
+  void tearDown() {
+    geocodingExecutor.shutdownNow();
+    nearbySearchExecutor.shutdownNow();
+    distanceMatrixExecutor.shutdownNow();
   }
 
   // Tests for getMarkers method
@@ -189,12 +270,12 @@ class GoogleMapsServiceTest {
     try {
       // Mock geocoding success
       String jsonGeocodeResponse = "{\"status\":\"OK\",\"results\":[{\"formatted_address\":\"123 Main St, Hanoi, Vietnam\",\"geometry\":{\"location\":{\"lat\":21.0285,\"lng\":105.8542}},\"place_id\":\"place1\"}]}";
-      ResponseEntity<String> geocodeResponseEntity = ResponseEntity.ok(jsonGeocodeResponse);
+      ResponseEntity<GeocodingApiResponse> geocodeResponseEntity = geocoding(jsonGeocodeResponse);
 
       // Mock nearby places search
       mockNearbyPlacesResponse(21.0285, 105.8542);
 
-      when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+      when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GeocodingApiResponse.class)))
           .thenReturn(geocodeResponseEntity);
     } catch (Exception e) {
       fail("Failed to setup mocks: " + e.getMessage());
@@ -222,9 +303,9 @@ class GoogleMapsServiceTest {
     try {
       // Mock geocoding failure for all variations
       String jsonFailure = "{\"status\":\"ZERO_RESULTS\",\"results\":[]}";
-      ResponseEntity<String> responseEntityFailure = ResponseEntity.ok(jsonFailure);
+      ResponseEntity<GeocodingApiResponse> responseEntityFailure = geocoding(jsonFailure);
 
-      when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+      when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GeocodingApiResponse.class)))
           .thenReturn(responseEntityFailure);
     } catch (Exception e) {
       fail("Failed to setup mocks: " + e.getMessage());
@@ -240,6 +321,484 @@ class GoogleMapsServiceTest {
     assertNull(result.getNearbyPlaces());
   }
 
+  @Test
+  void geocodeAddress_cacheHit_skipsTheApi() {
+    LocationResponse.LocationData cached = new LocationResponse.LocationData("Cached", 16.05, 108.2, "place1");
+    when(geocodeCache.get("Đại học Duy Tân"))
+        .thenReturn(Optional.of(new GeocodeCache.Entry(cached, "Đại học Duy Tân, Việt Nam", LocalDateTime.MAX)));
+
+    assertSame(cached, googleMapsService.geocodeAddress("Đại học Duy Tân"));
+    verifyNoInteractions(restTemplate);
+  }
+
+  @Test
+  void geocodeAddress_cachedNotFound_returnsNullWithoutCallingTheApi() {
+    when(geocodeCache.get("nowhere")).thenReturn(Optional.of(new GeocodeCache.Entry(null, null, LocalDateTime.MAX)));
+
+    assertNull(googleMapsService.geocodeAddress("nowhere"));
+    verifyNoInteractions(restTemplate);
+  }
+
+  @Test
+  void isKnownNotFound_onlyForACachedMiss() {
+    when(geocodeCache.get("nowhere")).thenReturn(Optional.of(new GeocodeCache.Entry(null, null, LocalDateTime.MAX)));
+    when(geocodeCache.get("somewhere")).thenReturn(Optional.of(new GeocodeCache.Entry(
+        new LocationResponse.LocationData("somewhere", 16.0, 108.0, null), "somewhere", LocalDateTime.MAX)));
+    when(geocodeCache.get("unknown")).thenReturn(Optional.empty());
+
+    assertTrue(googleMapsService.isKnownNotFound("nowhere"));
+    assertFalse(googleMapsService.isKnownNotFound("somewhere"));
+    assertFalse(googleMapsService.isKnownNotFound("unknown"));
+    verifyNoInteractions(restTemplate);
+  }
+
+  private static final ObjectMapper JSON = new ObjectMapper();
+
+  /** Binds a response body to its type, as the message converters of the RestTemplate do. */
+  private static <T> T read(String json, Class<T> type) {
+    try {
+      return JSON.readValue(json, type);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  private static ResponseEntity<GeocodingApiResponse> geocoding(String json) {
+    return ResponseEntity.ok(read(json, GeocodingApiResponse.class));
+  }
+
+  private static ResponseEntity<DistanceMatrixApiResponse> distanceMatrix(String json) {
+    return ResponseEntity.ok(read(json, DistanceMatrixApiResponse.class));
+  }
+
+  private static NearbySearchApiResponse nearbySearch(String json) {
+    return read(json, NearbySearchApiResponse.class);
+  }
+
+  private static final String ZERO_RESULTS = "{\"status\":\"ZERO_RESULTS\",\"results\":[]}";
+
+  private static String found(double lat, double lng) {
+    return "{\"status\":\"OK\",\"results\":[{\"formatted_address\":\"Hải Châu, Đà Nẵng, Việt Nam\","
+        + "\"geometry\":{\"location\":{\"lat\":" + lat + ",\"lng\":" + lng + "}},\"place_id\":\"place1\"}]}";
+  }
+
+  private static boolean isCountryVariation(String url) {
+    return url.contains("Việt Nam");
+  }
+
+  @Test
+  void geocodeAddress_found_cachesTheMatchingVariation() {
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GeocodingApiResponse.class)))
+        .thenAnswer(invocation -> geocoding(
+            isCountryVariation(invocation.getArgument(0)) ? found(16.05, 108.2) : ZERO_RESULTS));
+
+    LocationResponse.LocationData result = googleMapsService.geocodeAddress("Hải Châu");
+
+    assertEquals(16.05, result.getLatitude());
+    verify(geocodeCache).put("Hải Châu", result, "Hải Châu, Việt Nam");
+    assertEquals(1, meterRegistry.find(GoogleMapsService.VARIATION_WINS).tag("strategy", "country")
+        .counter().count());
+    assertEquals(1, meterRegistry.find(GoogleMapsService.VARIATION_TIMER).tag("strategy", "original")
+        .tag("outcome", "not_found").timer().count());
+  }
+
+  @Test
+  void geocodeAddress_firstVariationWinsEvenWhenSlower() {
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GeocodingApiResponse.class)))
+        .thenAnswer(invocation -> {
+          if (isCountryVariation(invocation.getArgument(0))) {
+            return geocoding(found(10.77, 106.70));
+          }
+          Thread.sleep(200);
+          return geocoding(found(16.05, 108.2));
+        });
+
+    LocationResponse.LocationData result = googleMapsService.geocodeAddress("Hải Châu");
+
+    assertEquals(16.05, result.getLatitude());
+    assertEquals(1, meterRegistry.find(GoogleMapsService.VARIATION_WINS).tag("strategy", "original")
+        .counter().count());
+  }
+
+  @Test
+  void geocodeAddress_outsideVietnam_fallsThroughToTheNextVariation() {
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GeocodingApiResponse.class)))
+        .thenAnswer(invocation -> geocoding(
+            isCountryVariation(invocation.getArgument(0)) ? found(16.05, 108.2) : found(48.85, 2.35)));
+
+    LocationResponse.LocationData result = googleMapsService.geocodeAddress("Hải Châu");
+
+    assertEquals(16.05, result.getLatitude());
+    assertEquals(1, meterRegistry.find(GoogleMapsService.VARIATION_TIMER).tag("strategy", "original")
+        .tag("outcome", "outside").timer().count());
+  }
+
+  @Test
+  void geocodeAddress_winnerCancelsTheSlowerVariations() throws Exception {
+    CountDownLatch slowCallStarted = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GeocodingApiResponse.class)))
+        .thenAnswer(invocation -> {
+          if (!isCountryVariation(invocation.getArgument(0))) {
+            slowCallStarted.await(5, TimeUnit.SECONDS);
+            return geocoding(found(16.05, 108.2));
+          }
+          slowCallStarted.countDown();
+          try {
+            Thread.sleep(10_000);
+          } catch (InterruptedException e) {
+            interrupted.countDown();
+            throw e;
+          }
+          return geocoding(ZERO_RESULTS);
+        });
+
+    long start = System.nanoTime();
+    assertNotNull(googleMapsService.geocodeAddress("Hải Châu"));
+
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+    assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void geocodeAddress_concurrentCallsForTheSameAddressShareOneLookup() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GeocodingApiResponse.class)))
+        .thenAnswer(invocation -> {
+          release.await(5, TimeUnit.SECONDS);
+          return geocoding(found(16.05, 108.2));
+        });
+    ExecutorService callers = Executors.newFixedThreadPool(2);
+    try {
+      Future<LocationResponse.LocationData> first = callers.submit(() -> googleMapsService.geocodeAddress("Hải Châu"));
+      Future<LocationResponse.LocationData> second = callers.submit(
+          () -> googleMapsService.geocodeAddress("  hải   châu "));
+      while (meterRegistry.counter("outbound.lookups", "lookup", "geocode", "outcome", "coalesced").count() < 1) {
+        Thread.onSpinWait();
+      }
+      release.countDown();
+
+      assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+    } finally {
+      callers.shutdownNow();
+    }
+    verify(geocodeCache, times(1)).put(any(), any(), any());
+    assertEquals(1, meterRegistry.counter("outbound.lookups", "lookup", "geocode", "outcome", "issued").count());
+  }
+
+  @Test
+  void geocodeAddress_deadlineExceeded_returnsNullWithoutCaching() {
+    ReflectionTestUtils.setField(googleMapsService, "geocodeDeadlineMillis", 100L);
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GeocodingApiResponse.class)))
+        .thenAnswer(invocation -> {
+          Thread.sleep(10_000);
+          return geocoding(found(16.05, 108.2));
+        });
+
+    long start = System.nanoTime();
+    assertNull(googleMapsService.geocodeAddress("Hải Châu"));
+
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+    verify(geocodeCache, never()).put(any(), any(), any());
+  }
+
+  @Test
+  void geocodeAddress_notFound_cachesTheMiss() {
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GeocodingApiResponse.class)))
+        .thenReturn(geocoding("{\"status\":\"ZERO_RESULTS\",\"results\":[]}"));
+
+    assertNull(googleMapsService.geocodeAddress("nowhere"));
+    verify(geocodeCache).put("nowhere", null, null);
+  }
+
+  @Test
+  void geocodeAddress_apiFailure_isNotCached() {
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GeocodingApiResponse.class)))
+        .thenReturn(geocoding("{\"status\":\"OVER_QUERY_LIMIT\",\"results\":[]}"))
+        .thenThrow(new RuntimeException("timeout"))
+        .thenReturn(geocoding("{\"status\":\"ZERO_RESULTS\",\"results\":[]}"));
+
+    assertNull(googleMapsService.geocodeAddress("nowhere"));
+    verify(geocodeCache, never()).put(any(), any(), any());
+  }
+
+  @Test
+  void geocodeAddress_circuitOpen_returnsNullWithoutCallingOrCaching() {
+    googleMapsService = createService(openGuard());
+
+    assertNull(googleMapsService.geocodeAddress("Hải Châu"));
+    verifyNoInteractions(restTemplate);
+    verify(geocodeCache, never()).put(any(), any(), any());
+  }
+
+  @Test
+  void geocodeAddress_quotaExceeded_opensTheCircuit() {
+    ExternalApiGuard guard = new ExternalApiGuard("google-maps",
+        new ExternalApiGuard.Settings(100, 1e6, 1_000_000, 2, 2, 50, Duration.ofHours(1), 1));
+    googleMapsService = createService(guard);
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GeocodingApiResponse.class)))
+        .thenReturn(geocoding("{\"status\":\"OVER_QUERY_LIMIT\",\"results\":[]}"));
+
+    googleMapsService.geocodeAddress("Hải Châu");
+
+    assertEquals(ExternalApiGuard.State.OPEN, guard.getState());
+  }
+
+  private void useDaNangGazetteer() {
+    addressParser = new AddressParser(new Gazetteer(List.of(
+        new AdminUnit(AdminUnit.Level.PROVINCE, "Thành phố", "Đà Nẵng", null, null, 16.0544, 108.2022, List.of()),
+        new AdminUnit(AdminUnit.Level.DISTRICT, "Quận", "Hải Châu", null, "Đà Nẵng", 16.0471, 108.215, List.of()),
+        new AdminUnit(AdminUnit.Level.WARD, "Phường", "Thạch Thang", "Hải Châu", "Đà Nẵng", 16.078, 108.22,
+            List.of()))));
+    setUp();
+  }
+
+  @Test
+  void geocodeAddress_administrativeUnitsOnly_areLocatedByTheGazetteer() {
+    useDaNangGazetteer();
+
+    LocationResponse.LocationData result = googleMapsService.geocodeAddress("Q. Hải Châu, TP Đà Nẵng");
+
+    assertEquals(16.0471, result.getLatitude());
+    assertEquals(108.215, result.getLongitude());
+    assertEquals("Quận Hải Châu, Thành phố Đà Nẵng", result.getFormattedAddress());
+    verifyNoInteractions(restTemplate, geocodeCache);
+    assertEquals(1, meterRegistry.find(GoogleMapsService.VARIATION_WINS)
+        .tag("strategy", GoogleMapsService.GAZETTEER_STRATEGY).counter().count());
+  }
+
+  @Test
+  void geocodeAddress_spellingsOfAHouseAddress_shareTheCanonicalCacheKey() {
+    useDaNangGazetteer();
+    String key = "12 le duan, thach thang, hai chau, da nang";
+    LocationResponse.LocationData cached = new LocationResponse.LocationData("Cached", 16.07, 108.22, "place1");
+    when(geocodeCache.get(key))
+        .thenReturn(Optional.of(new GeocodeCache.Entry(cached, "12 Lê Duẩn", LocalDateTime.MAX)));
+
+    assertSame(cached, googleMapsService.geocodeAddress("12 Lê Duẩn, Thạch Thang, Đà Nẵng"));
+    assertSame(cached, googleMapsService.geocodeAddress("Số 12 Đường Lê Duẩn, P. Thạch Thang, Q. Hải Châu"));
+    assertSame(cached, googleMapsService.geocodeAddress("12 le duan, thach thang, hai chau, da nang, viet nam"));
+    verify(geocodeCache, times(3)).get(key);
+    verifyNoInteractions(restTemplate);
+  }
+
+  @Test
+  void geocodeAddress_houseAddress_alsoTriesTheCanonicalAddress() {
+    useDaNangGazetteer();
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GeocodingApiResponse.class)))
+        .thenAnswer(invocation -> geocoding(((String) invocation.getArgument(0))
+            .contains("Phường Thạch Thang") ? found(16.07, 108.22) : ZERO_RESULTS));
+
+    LocationResponse.LocationData result = googleMapsService.geocodeAddress("12 le duan thach thang");
+
+    assertEquals(16.07, result.getLatitude());
+    verify(geocodeCache).put("12 le duan, thach thang, hai chau, da nang", result,
+        "12 le duan, Phường Thạch Thang, Quận Hải Châu, Thành phố Đà Nẵng, Việt Nam");
+  }
+
+  private void mockGeocoding(double lat, double lng) {
+    when(geocodeCache.get(anyString())).thenReturn(Optional.of(new GeocodeCache.Entry(
+        new LocationResponse.LocationData("Hải Châu", lat, lng, "place0"), "Hải Châu", LocalDateTime.MAX)));
+  }
+
+  private static NearbySearchApiResponse places(String placeType, double lat, double lng) {
+    return nearbySearch("{\"status\":\"OK\",\"results\":[{\"name\":\"" + placeType + "\",\"geometry\":{\"location\":"
+        + "{\"lat\":" + lat + ",\"lng\":" + lng + "}},\"place_id\":\"" + placeType + "\"}]}");
+  }
+
+  private static String placeType(String url) {
+    return url.replaceAll(".*[?&]type=([a-z_]+).*", "$1");
+  }
+
+  @Test
+  void searchLocation_nearbyPlaces_areSharedWithinTheGeohashCell() {
+    mockGeocoding(16.05440, 108.20220);
+    when(restTemplate.getForObject(anyString(), eq(NearbySearchApiResponse.class)))
+        .thenAnswer(invocation -> places(placeType(invocation.getArgument(0)), 16.0560, 108.2022));
+
+    LocationResponse first = googleMapsService.searchLocation("a");
+    // a few meters away, in the same ~150 m cell
+    mockGeocoding(16.05445, 108.20225);
+    LocationResponse second = googleMapsService.searchLocation("b");
+
+    assertEquals(10, first.getNearbyPlaces().size());
+    assertEquals(10, second.getNearbyPlaces().size());
+    verify(restTemplate, times(10)).getForObject(anyString(), eq(NearbySearchApiResponse.class));
+    // distances are measured from each location, not from the cell
+    assertNotEquals(first.getNearbyPlaces().get(0).getDistanceInMeters(),
+        second.getNearbyPlaces().get(0).getDistanceInMeters());
+  }
+
+  @Test
+  void searchLocation_failedNearbySearch_isNotCached() {
+    mockGeocoding(16.0544, 108.2022);
+    when(restTemplate.getForObject(anyString(), eq(NearbySearchApiResponse.class)))
+        .thenReturn(nearbySearch("{\"status\":\"OVER_QUERY_LIMIT\",\"results\":[]}"));
+
+    googleMapsService.searchLocation("a");
+    googleMapsService.searchLocation("a");
+
+    verify(restTemplate, times(20)).getForObject(anyString(), eq(NearbySearchApiResponse.class));
+  }
+
+  @Test
+  void searchLocation_slowPlaceType_returnsPartialResultsAtTheDeadline() {
+    ReflectionTestUtils.setField(googleMapsService, "nearbyDeadlineMillis", 2_000L);
+    mockGeocoding(16.0544, 108.2022);
+    when(restTemplate.getForObject(anyString(), eq(NearbySearchApiResponse.class)))
+        .thenAnswer(invocation -> {
+          String placeType = placeType(invocation.getArgument(0));
+          if ("hospital".equals(placeType)) {
+            Thread.sleep(10_000);
+          }
+          return places(placeType, 16.0560, 108.2022);
+        });
+
+    long start = System.nanoTime();
+    LocationResponse result = googleMapsService.searchLocation("a");
+
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+    assertEquals(9, result.getNearbyPlaces().size());
+    assertTrue(result.getNearbyPlaces().stream().noneMatch(place -> "hospital".equals(place.getType())));
+  }
+
+  private static int waypoints(String url, String parameter) {
+    return url.replaceAll(".*[?&]" + parameter + "=([^&]*).*", "$1").split("\\|").length;
+  }
+
+  /** Answers every element of the requested matrix with a 1 km, 2 minutes route. */
+  private static ResponseEntity<DistanceMatrixApiResponse> matrix(String url) {
+    StringBuilder rows = new StringBuilder();
+    for (int i = 0; i < waypoints(url, "origins"); i++) {
+      rows.append(i == 0 ? "" : ",").append("{\"elements\":[");
+      for (int j = 0; j < waypoints(url, "destinations"); j++) {
+        rows.append(j == 0 ? "" : ",").append("{\"status\":\"OK\",\"distance\":{\"value\":1000,"
+            + "\"text\":\"1 km\"},\"duration\":{\"value\":120,\"text\":\"2 phút\"}}");
+      }
+      rows.append("]}");
+    }
+    return distanceMatrix("{\"status\":\"OK\",\"rows\":[" + rows + "]}");
+  }
+
+  private static List<double[]> points(int count, double latitude) {
+    List<double[]> points = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      // ~1 km apart, one geohash cell each
+      points.add(new double[] { latitude, 108.1 + i * 0.01 });
+    }
+    return points;
+  }
+
+  @Test
+  void calculateDistanceMatrix_batch_isChunkedWithinTheElementLimit() {
+    List<String> urls = Collections.synchronizedList(new ArrayList<>());
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(DistanceMatrixApiResponse.class)))
+        .thenAnswer(invocation -> {
+          urls.add(invocation.getArgument(0));
+          return matrix(invocation.getArgument(0));
+        });
+
+    DistanceMatrixResult[][] results = googleMapsService.calculateDistanceMatrix(points(30, 16.0),
+        points(10, 16.1), "walking");
+
+    assertEquals(30, results.length);
+    for (DistanceMatrixResult[] row : results) {
+      assertEquals(10, row.length);
+      for (DistanceMatrixResult result : row) {
+        assertEquals(1000, result.getDistanceMeters());
+        assertEquals(2, result.getDurationMinutes());
+        assertEquals("walking", result.getTravelMode());
+      }
+    }
+    assertEquals(3, urls.size());
+    for (String url : urls) {
+      assertTrue(waypoints(url, "origins") <= 25);
+      assertTrue(waypoints(url, "origins") * waypoints(url, "destinations") <= 100);
+    }
+  }
+
+  @Test
+  void calculateDistanceMatrix_batch_repeatedPairsHitTheCache() {
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(DistanceMatrixApiResponse.class)))
+        .thenAnswer(invocation -> matrix(invocation.getArgument(0)));
+
+    googleMapsService.calculateDistanceMatrix(points(3, 16.0), points(2, 16.1), "driving");
+    // a few meters from the first origin, in the same cell
+    List<double[]> origins = List.of(new double[] { 16.00002, 108.10002 });
+    DistanceMatrixResult[][] results = googleMapsService.calculateDistanceMatrix(origins, points(2, 16.1), null);
+
+    assertEquals(1000, results[0][1].getDistanceMeters());
+    verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class),
+        eq(DistanceMatrixApiResponse.class));
+    // a different mode is another route
+    googleMapsService.calculateDistanceMatrix(origins, points(2, 16.1), "walking");
+    verify(restTemplate, times(2)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class),
+        eq(DistanceMatrixApiResponse.class));
+  }
+
+  @Test
+  void calculateDistanceMatrix_batch_routesNotFoundAreNullAndNotCached() {
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(DistanceMatrixApiResponse.class)))
+        .thenReturn(distanceMatrix("{\"status\":\"OK\",\"rows\":[{\"elements\":["
+            + "{\"status\":\"OK\",\"distance\":{\"value\":2500,\"text\":\"2,5 km\"},"
+            + "\"duration\":{\"value\":600,\"text\":\"10 phút\"}},{\"status\":\"ZERO_RESULTS\"}]}]}"));
+
+    DistanceMatrixResult[][] results = googleMapsService.calculateDistanceMatrix(points(1, 16.0),
+        points(2, 16.1), "driving");
+    googleMapsService.calculateDistanceMatrix(points(1, 16.0), points(2, 16.1), "driving");
+
+    assertEquals(2.5, results[0][0].getDistanceKm());
+    assertEquals(10, results[0][0].getDurationMinutes());
+    assertNull(results[0][1]);
+    // only the route not found is requested again
+    verify(restTemplate, times(2)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class),
+        eq(DistanceMatrixApiResponse.class));
+    verify(restTemplate).exchange(contains("destinations=16.100000,108.110000&"), eq(HttpMethod.GET),
+        any(HttpEntity.class), eq(DistanceMatrixApiResponse.class));
+  }
+
+  @Test
+  void calculateDistanceMatrix_batch_apiFailure_fallsBackToEstimates() {
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(DistanceMatrixApiResponse.class)))
+        .thenReturn(distanceMatrix("{\"status\":\"OVER_QUERY_LIMIT\",\"rows\":[]}"));
+
+    DistanceMatrixResult[][] results = googleMapsService.calculateDistanceMatrix(points(2, 16.0),
+        points(2, 16.1), "driving");
+
+    assertTrue(results[0][0].isEstimated());
+    assertEquals(distanceEstimator.estimateMeters(TravelMode.DRIVING, 16.0, 108.1, 16.1, 108.11),
+        results[0][1].getDistanceMeters(), 1);
+    // estimates are not cached
+    googleMapsService.calculateDistanceMatrix(points(2, 16.0), points(2, 16.1), "driving");
+    verify(restTemplate, times(2)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class),
+        eq(DistanceMatrixApiResponse.class));
+  }
+
+  @Test
+  void calculateDistanceMatrix_circuitOpen_fallsBackToEstimates() {
+    googleMapsService = createService(openGuard());
+
+    DistanceMatrixResult[][] results = googleMapsService.calculateDistanceMatrix(points(2, 16.0),
+        points(2, 16.1), "driving");
+
+    assertTrue(results[1][1].isEstimated());
+    assertNull(googleMapsService.calculateDistanceMatrix(16.0, 108.1, 16.1, 108.11, "driving"));
+    verifyNoInteractions(restTemplate);
+  }
+
+  @Test
+  void calculateDistanceMatrix_batch_calibratesTheEstimator() {
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(DistanceMatrixApiResponse.class)))
+        .thenAnswer(invocation -> matrix(invocation.getArgument(0)));
+    double circuity = distanceEstimator.circuity(TravelMode.WALKING);
+
+    // a 1 km route between points ~11 km apart is implausible, one between points ~0.5 km apart is not
+    googleMapsService.calculateDistanceMatrix(points(1, 16.0), points(1, 16.1), "walking");
+    assertEquals(circuity, distanceEstimator.circuity(TravelMode.WALKING));
+    googleMapsService.calculateDistanceMatrix(points(1, 16.0), points(1, 16.004), "walking");
+    assertNotEquals(circuity, distanceEstimator.circuity(TravelMode.WALKING));
+  }
+
   // Helper methods for mocking
   private void mockNearbyPlacesResponse(double lat, double lng) {
     String jsonResponse = String.format(
@@ -251,6 +810,6 @@ class GoogleMapsServiceTest {
             "]}",
         lat + 0.01, lng + 0.01, lat + 0.02, lng + 0.02);
 
-    when(restTemplate.getForObject(anyString(), eq(String.class))).thenReturn(jsonResponse);
+    when(restTemplate.getForObject(anyString(), eq(NearbySearchApiResponse.class))).thenReturn(nearbySearch(jsonResponse));
   }
 }
\ No newline at end of file
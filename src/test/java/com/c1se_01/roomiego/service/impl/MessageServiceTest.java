@@ -1,8 +1,11 @@
 package com.c1se_01.roomiego.service.impl;
 
+import com.c1se_01.roomiego.common.SliceCustom;
 import com.c1se_01.roomiego.dto.ConversationSummaryDTO;
 import com.c1se_01.roomiego.dto.MessageDto;
+import com.c1se_01.roomiego.dto.MessageHistoryDTO;
 import com.c1se_01.roomiego.dto.SendMessageRequest;
+import com.c1se_01.roomiego.dto.common.KeysetCursor;
 import com.c1se_01.roomiego.enums.MessageType;
 import com.c1se_01.roomiego.enums.Status;
 import com.c1se_01.roomiego.exception.NotFoundException;
@@ -12,20 +15,30 @@ import com.c1se_01.roomiego.model.User;
 import com.c1se_01.roomiego.repository.ConversationRepository;
 import com.c1se_01.roomiego.repository.MessageRepository;
 import com.c1se_01.roomiego.repository.UserRepository;
+import com.c1se_01.roomiego.repository.projection.ConversationInboxProjection;
+import com.c1se_01.roomiego.service.cache.ConversationKeyCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -44,6 +57,12 @@ class MessageServiceTest {
   @Mock
   private SimpMessagingTemplate messagingTemplate;
 
+  @Spy
+  private ConversationKeyCache conversationKeyCache = new ConversationKeyCache();
+
+  @Spy
+  private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
   @InjectMocks
   private MessageServiceImpl messageService;
 
@@ -100,31 +119,32 @@ class MessageServiceTest {
   // Tests for sendMessage
   @Test
   void sendMessage_ConversationExists_Success() {
-    when(conversationRepository.findByUser1IdAndUser2Id(1L, 2L)).thenReturn(Optional.of(conversation));
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.of(1L));
     when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+    when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
     when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
     Message result = messageService.sendMessage(sendMessageRequest);
 
     assertNotNull(result);
     assertEquals("Test content", result.getMessage());
-    verify(conversationRepository, times(1)).findByUser1IdAndUser2Id(1L, 2L);
+    verify(conversationRepository, times(1)).findIdBetween(1L, 2L);
     verify(messageRepository, times(1)).save(any(Message.class));
     verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Message.class));
   }
 
   @Test
   void sendMessage_ConversationNotExists_CreatesNew() {
-    when(conversationRepository.findByUser1IdAndUser2Id(1L, 2L)).thenReturn(Optional.empty());
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.empty());
     when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
     when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-    when(conversationRepository.save(any(Conversation.class))).thenReturn(conversation);
+    when(conversationRepository.saveAndFlush(any(Conversation.class))).thenReturn(conversation);
     when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
     Message result = messageService.sendMessage(sendMessageRequest);
 
     assertNotNull(result);
-    verify(conversationRepository, times(1)).save(any(Conversation.class));
+    verify(conversationRepository, times(1)).saveAndFlush(any(Conversation.class));
     verify(messageRepository, times(1)).save(any(Message.class));
   }
 
@@ -144,7 +164,7 @@ class MessageServiceTest {
 
   @Test
   void sendMessage_User1NotFound_ThrowsException() {
-    when(conversationRepository.findByUser1IdAndUser2Id(1L, 2L)).thenReturn(Optional.empty());
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.empty());
     when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
     assertThrows(NotFoundException.class, () -> messageService.sendMessage(sendMessageRequest));
@@ -152,7 +172,7 @@ class MessageServiceTest {
 
   @Test
   void sendMessage_User2NotFound_ThrowsException() {
-    when(conversationRepository.findByUser1IdAndUser2Id(1L, 2L)).thenReturn(Optional.empty());
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.empty());
     when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
     when(userRepository.findById(2L)).thenReturn(Optional.empty());
 
@@ -161,16 +181,48 @@ class MessageServiceTest {
 
   @Test
   void sendMessage_SenderNotFound_ThrowsException() {
-    when(conversationRepository.findByUser1IdAndUser2Id(1L, 2L)).thenReturn(Optional.of(conversation));
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.of(1L));
     when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
     assertThrows(NotFoundException.class, () -> messageService.sendMessage(sendMessageRequest));
   }
 
+  @Test
+  void saveMessage_conversationIdIsCachedForBothDirections() {
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.of(1L));
+    List<Message> saved = new ArrayList<>();
+    when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> {
+      saved.add(invocation.getArgument(0));
+      return invocation.getArgument(0);
+    });
+
+    messageService.saveMessage(messageDto);
+    messageDto.setSenderId(2L);
+    messageDto.setReceiverId(1L);
+    messageService.saveMessage(messageDto);
+
+    assertEquals(List.of(1L, 1L), saved.stream().map(Message::getConversationId).toList());
+    verify(conversationRepository, times(1)).findIdBetween(anyLong(), anyLong());
+  }
+
+  @Test
+  void saveMessage_concurrentFirstMessage_usesTheConversationCreatedFirst() {
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.empty(), Optional.of(7L));
+    when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+    when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
+    when(conversationRepository.saveAndFlush(any(Conversation.class)))
+        .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'uk_conversations_pair'"));
+    when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+    Message result = messageService.saveMessageAndReturn(messageDto);
+
+    assertEquals(7L, result.getConversationId());
+  }
+
   // Tests for saveMessage
   @Test
   void saveMessage_PrivateMessageWithReceiver_Success() {
-    when(conversationRepository.findByUser1IdAndUser2Id(1L, 2L)).thenReturn(Optional.of(conversation));
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.of(1L));
     when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
     assertDoesNotThrow(() -> messageService.saveMessage(messageDto));
@@ -188,7 +240,7 @@ class MessageServiceTest {
   void saveMessage_ResolveSenderIdFromName() {
     messageDto.setSenderId(null);
     when(userRepository.findByEmail("user1@example.com")).thenReturn(Optional.of(user1));
-    when(conversationRepository.findByUser1IdAndUser2Id(1L, 2L)).thenReturn(Optional.of(conversation));
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.of(1L));
     when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
     messageService.saveMessage(messageDto);
@@ -201,7 +253,7 @@ class MessageServiceTest {
   void saveMessage_ResolveReceiverIdFromName() {
     messageDto.setReceiverId(null);
     when(userRepository.findByEmail("user2@example.com")).thenReturn(Optional.of(user2));
-    when(conversationRepository.findByUser1IdAndUser2Id(1L, 2L)).thenReturn(Optional.of(conversation));
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.of(1L));
     when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
     messageService.saveMessage(messageDto);
@@ -212,15 +264,15 @@ class MessageServiceTest {
 
   @Test
   void saveMessage_ConversationNotExists_CreatesNew() {
-    when(conversationRepository.findByUser1IdAndUser2Id(1L, 2L)).thenReturn(Optional.empty());
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.empty());
     when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
     when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-    when(conversationRepository.save(any(Conversation.class))).thenReturn(conversation);
+    when(conversationRepository.saveAndFlush(any(Conversation.class))).thenReturn(conversation);
     when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
     messageService.saveMessage(messageDto);
 
-    verify(conversationRepository, times(1)).save(any(Conversation.class));
+    verify(conversationRepository, times(1)).saveAndFlush(any(Conversation.class));
     verify(messageRepository, times(1)).save(any(Message.class));
   }
 
@@ -298,7 +350,7 @@ class MessageServiceTest {
   // Tests for saveMessageAndReturn
   @Test
   void saveMessageAndReturn_PrivateMessageWithReceiver_Success() {
-    when(conversationRepository.findByUser1IdAndUser2Id(1L, 2L)).thenReturn(Optional.of(conversation));
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.of(1L));
     when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
     Message result = messageService.saveMessageAndReturn(messageDto);
@@ -306,6 +358,7 @@ class MessageServiceTest {
     assertNotNull(result);
     assertEquals("Test message", result.getMessage());
     verify(messageRepository, times(1)).save(any(Message.class));
+    verify(conversationRepository).recordMessage(1L, result.getId(), "Test message", result.getTimestamp(), 1L);
   }
 
   @Test
@@ -331,16 +384,14 @@ class MessageServiceTest {
     conversation2.setUser2(user3);
     conversation2.setCreatedAt(new Date());
 
+    conversation2.setLastMessagePreview("Last message 2");
+    conversation2.setLastMessageAt(2_000L);
+    conversation2.setUser1UnreadCount(3);
+    conversation2.setUser2UnreadCount(1);
+
     List<Conversation> conversations = List.of(conversation, conversation2);
     when(conversationRepository.findAllByUserId(1L)).thenReturn(conversations);
 
-    when(messageRepository.findTopByConversationIdOrderByTimestampDesc(1L)).thenReturn(message);
-
-    Message lastMessage2 = new Message();
-    lastMessage2.setMessage("Last message 2");
-    lastMessage2.setTimestamp(System.currentTimeMillis() + 1000);
-    when(messageRepository.findTopByConversationIdOrderByTimestampDesc(2L)).thenReturn(lastMessage2);
-
     List<ConversationSummaryDTO> result = messageService.getConversationsForUser(1L);
 
     assertEquals(2, result.size());
@@ -353,6 +404,51 @@ class MessageServiceTest {
     assertEquals(2L, dto2.getConversationId());
     assertEquals(3L, dto2.getPartnerId());
     assertEquals("user3@example.com", dto2.getPartnerEmail());
+    assertEquals("Last message 2", dto2.getLastMessage());
+    assertEquals(2_000L, dto2.getLastTimestamp());
+    assertEquals(3, dto2.getUnreadCount());
+    verifyNoInteractions(messageRepository);
+  }
+
+  private static ConversationInboxProjection inboxRow(long conversationId, long lastMessageAt) {
+    ConversationInboxProjection row = mock(ConversationInboxProjection.class);
+    when(row.getConversationId()).thenReturn(conversationId);
+    when(row.getLastMessageAt()).thenReturn(lastMessageAt);
+    return row;
+  }
+
+  @Test
+  void getInbox_pagesByTheLastActivity() {
+    List<ConversationInboxProjection> rows = List.of(inboxRow(9L, 3_000L), inboxRow(4L, 2_000L),
+        inboxRow(7L, 1_000L));
+    when(conversationRepository.findInboxPage(1L, Long.MAX_VALUE, Long.MAX_VALUE, 3)).thenReturn(rows);
+
+    SliceCustom<ConversationSummaryDTO> first = messageService.getInbox(1L, "", 2);
+
+    assertEquals(List.of(9L, 4L), first.getData().stream().map(ConversationSummaryDTO::getConversationId).toList());
+    assertTrue(first.isHasNext());
+
+    when(conversationRepository.findInboxPage(1L, 2_000L, 4L, 3)).thenReturn(rows.subList(2, 3));
+    SliceCustom<ConversationSummaryDTO> second = messageService.getInbox(1L, first.getNextCursor(), 2);
+
+    assertEquals(7L, second.getData().get(0).getConversationId());
+    assertFalse(second.isHasNext());
+    assertNull(second.getNextCursor());
+  }
+
+  @Test
+  void getInbox_rejectsACursorOfAnotherListing() {
+    String roomCursor = new KeysetCursor("price", Direction.ASC, 1L, "100").encode();
+
+    assertThrows(IllegalArgumentException.class, () -> messageService.getInbox(1L, roomCursor, 20));
+    assertThrows(IllegalArgumentException.class, () -> messageService.getInbox(1L, null, 0));
+  }
+
+  @Test
+  void markConversationRead_unknownConversation_throwsNotFound() {
+    when(conversationRepository.markRead(9L, 1L)).thenReturn(0);
+
+    assertThrows(NotFoundException.class, () -> messageService.markConversationRead(9L, 1L));
   }
 
   // Tests for getMessagesByConversationId
@@ -367,11 +463,86 @@ class MessageServiceTest {
     assertEquals(message, result.get(0));
   }
 
+  private static Message sentAt(long id, long timestamp) {
+    Message sent = new Message();
+    sent.setId(id);
+    sent.setTimestamp(timestamp);
+    sent.setConversationId(1L);
+    return sent;
+  }
+
+  private static List<Long> idsOf(MessageHistoryDTO page) {
+    return page.getMessages().stream().map(Message::getId).toList();
+  }
+
+  @Test
+  void getMessagesByConversationId_pagesBackFromTheNewestMessages() {
+    when(messageRepository.findPageBefore(eq(1L), eq(Long.MAX_VALUE), eq(Long.MAX_VALUE), any()))
+        .thenReturn(List.of(sentAt(5L, 500L), sentAt(4L, 400L), sentAt(3L, 400L)));
+
+    MessageHistoryDTO newest = messageService.getMessagesByConversationId(1L, null, null, 2);
+
+    assertEquals(List.of(4L, 5L), idsOf(newest));
+    assertTrue(newest.isHasOlder());
+    assertFalse(newest.isHasNewer());
+
+    when(messageRepository.findPageBefore(eq(1L), eq(400L), eq(4L), any()))
+        .thenReturn(List.of(sentAt(3L, 400L)));
+    MessageHistoryDTO older = messageService.getMessagesByConversationId(1L, newest.getBefore(), null, 2);
+
+    assertEquals(List.of(3L), idsOf(older));
+    assertFalse(older.isHasOlder());
+    assertNull(older.getBefore());
+    assertTrue(older.isHasNewer());
+
+    when(messageRepository.findPageAfter(eq(1L), eq(500L), eq(5L), any())).thenReturn(List.of(sentAt(6L, 600L)));
+    MessageHistoryDTO newer = messageService.getMessagesByConversationId(1L, null, newest.getAfter(), 2);
+
+    assertEquals(List.of(6L), idsOf(newer));
+    assertFalse(newer.isHasNewer());
+    verify(messageRepository, never()).findByConversationIdOrderByTimestampAsc(anyLong());
+  }
+
+  @Test
+  void getMessagesByConversationId_nothingNewKeepsTheAfterCursor() {
+    String after = new KeysetCursor("timestamp", Direction.ASC, 5L, "500").encode();
+    when(messageRepository.findPageAfter(eq(1L), eq(500L), eq(5L), any())).thenReturn(List.of());
+
+    MessageHistoryDTO page = messageService.getMessagesByConversationId(1L, "", after, 20);
+
+    assertTrue(page.getMessages().isEmpty());
+    assertEquals(after, page.getAfter());
+  }
+
+  @Test
+  void getMessagesByConversationId_rejectsInvalidPages() {
+    String cursor = new KeysetCursor("timestamp", Direction.ASC, 5L, "500").encode();
+    String inboxCursor = new KeysetCursor("lastMessageAt", Direction.DESC, 5L, "500").encode();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> messageService.getMessagesByConversationId(1L, cursor, cursor, 20));
+    assertThrows(IllegalArgumentException.class,
+        () -> messageService.getMessagesByConversationId(1L, inboxCursor, null, 20));
+    assertThrows(IllegalArgumentException.class,
+        () -> messageService.getMessagesByConversationId(1L, null, null, 101));
+  }
+
+  @Test
+  void findChatHistoryBetweenUsers_page_withoutConversationIsEmpty() {
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.empty());
+
+    MessageHistoryDTO page = messageService.findChatHistoryBetweenUsers("1", "2", null, null, 20);
+
+    assertTrue(page.getMessages().isEmpty());
+    assertNull(page.getAfter());
+    verifyNoInteractions(messageRepository);
+  }
+
   // Tests for getOrCreateConversationMessages
   @Test
   void getOrCreateConversationMessages_ConversationExists_ReturnsMessages() {
     List<Message> messages = List.of(message);
-    when(conversationRepository.findByUser1IdAndUser2Id(1L, 2L)).thenReturn(Optional.of(conversation));
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.of(1L));
     when(messageRepository.findByConversationIdOrderByTimestampAsc(1L)).thenReturn(messages);
 
     List<Message> result = messageService.getOrCreateConversationMessages(1L, 2L);
@@ -382,10 +553,10 @@ class MessageServiceTest {
 
   @Test
   void getOrCreateConversationMessages_ConversationNotExists_CreatesAndReturnsMessages() {
-    when(conversationRepository.findByUser1IdAndUser2Id(1L, 2L)).thenReturn(Optional.empty());
+    when(conversationRepository.findIdBetween(1L, 2L)).thenReturn(Optional.empty());
     when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
     when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-    when(conversationRepository.save(any(Conversation.class))).thenReturn(conversation);
+    when(conversationRepository.saveAndFlush(any(Conversation.class))).thenReturn(conversation);
 
     List<Message> messages = List.of(message);
     when(messageRepository.findByConversationIdOrderByTimestampAsc(1L)).thenReturn(messages);
@@ -393,6 +564,6 @@ class MessageServiceTest {
     List<Message> result = messageService.getOrCreateConversationMessages(1L, 2L);
 
     assertEquals(1, result.size());
-    verify(conversationRepository, times(1)).save(any(Conversation.class));
+    verify(conversationRepository, times(1)).saveAndFlush(any(Conversation.class));
   }
 }
\ No newline at end of file
@@ -6,6 +6,8 @@ import com.c1se_01.roomiego.dto.NotificationDto;
 import com.c1se_01.roomiego.dto.ReportRequest;
 import com.c1se_01.roomiego.dto.ReportResponse;
 import com.c1se_01.roomiego.enums.Role;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
 import com.c1se_01.roomiego.mapper.ReportMapper;
 import com.c1se_01.roomiego.model.Report;
 import com.c1se_01.roomiego.model.Room;
@@ -20,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -60,6 +63,9 @@ class ReportServiceImplTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @Mock
   private Authentication authentication;
 
@@ -227,6 +233,7 @@ class ReportServiceImplTest {
     assertEquals("Violation note", report.getAdminNote());
     verify(reportRepository, times(1)).deleteByRoom(room);
     verify(roomRepository, times(1)).delete(room);
+    verify(eventPublisher).publishEvent(new RoomChangedEvent(room, RoomChangeType.DELETED));
     verify(notificationService, times(1)).saveNotification(any(NotificationDto.class));
     verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/notifications/" + owner.getId()),
         any(NotificationDto.class));
@@ -246,6 +253,7 @@ class ReportServiceImplTest {
     assertEquals("Violation note", report.getAdminNote());
     verify(reportRepository, never()).deleteByRoom(any(Room.class));
     verify(roomRepository, never()).delete(any(Room.class));
+    verifyNoInteractions(eventPublisher);
     verify(notificationService, times(1)).saveNotification(any(NotificationDto.class));
     verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/notifications/" + reporter.getId()),
         any(NotificationDto.class));
@@ -0,0 +1,134 @@
+package com.c1se_01.roomiego.service.impl;
+
+import com.c1se_01.roomiego.dto.RoomDTO;
+import com.c1se_01.roomiego.enums.Role;
+import com.c1se_01.roomiego.model.RoomSearchView;
+import com.c1se_01.roomiego.model.User;
+import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.repository.RoomSearchViewRepository;
+import com.c1se_01.roomiego.repository.UserRepository;
+import com.c1se_01.roomiego.service.RoomService;
+import com.c1se_01.roomiego.service.index.RoomClusterIndex;
+import com.c1se_01.roomiego.service.index.RoomFacetIndex;
+import com.c1se_01.roomiego.service.index.RoomSearchIndex;
+import com.c1se_01.roomiego.service.index.RoomSpatialIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Creating a room with images against the database, in the transaction of {@code createRoom} and inside an
+ * outer one sharing its persistence context as open-in-view does for a web request.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RoomCreationIntegrationTest {
+
+  @Autowired
+  private RoomService roomService;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private RoomSearchViewRepository roomSearchViewRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private RoomSpatialIndex roomSpatialIndex;
+
+  @Autowired
+  private RoomClusterIndex roomClusterIndex;
+
+  @Autowired
+  private RoomFacetIndex roomFacetIndex;
+
+  @Autowired
+  private RoomSearchIndex roomSearchIndex;
+
+  private User owner;
+  private final List<Long> created = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    owner = new User();
+    owner.setFullName("Owner");
+    owner.setEmail(UUID.randomUUID() + "@example.com");
+    owner.setPassword("secret");
+    owner.setRole(Role.OWNER);
+    owner = userRepository.save(owner);
+  }
+
+  @AfterEach
+  void tearDown() {
+    created.forEach(roomService::deleteRoom);
+    userRepository.deleteById(owner.getId());
+  }
+
+  private static RoomDTO roomWithImages() {
+    RoomDTO room = new RoomDTO();
+    room.setTitle("Phòng trọ Hải Châu");
+    room.setPrice(new BigDecimal("2500000"));
+    room.setLatitude(16.06);
+    room.setLongitude(108.22);
+    room.setImageUrls(List.of("a.jpg", "b.jpg"));
+    return room;
+  }
+
+  private void assertCreated(RoomDTO room) {
+    created.add(room.getId());
+    assertEquals(List.of("a.jpg", "b.jpg"), room.getImageUrls());
+    assertTrue(roomRepository.findVersionById(room.getId()).orElseThrow().getVersion() > 0);
+    RoomSearchView view = roomSearchViewRepository.findById(room.getId()).orElseThrow();
+    assertEquals("a.jpg", view.getFirstImageUrl());
+    assertEquals(2, view.getImageCount());
+  }
+
+  @Test
+  void createRoom_withImages() {
+    assertCreated(roomService.createRoom(roomWithImages(), owner.getId()));
+  }
+
+  @Test
+  void createRoom_withImagesInsideAnOpenPersistenceContext() {
+    RoomDTO room = new TransactionTemplate(transactionManager)
+        .execute(status -> roomService.createRoom(roomWithImages(), owner.getId()));
+
+    assertCreated(room);
+  }
+
+  @Test
+  void createRoom_rolledBack_isNotIndexed() {
+    int spatial = roomSpatialIndex.size();
+    int clusters = roomClusterIndex.size();
+    int facets = roomFacetIndex.size();
+    int search = roomSearchIndex.size();
+
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      roomService.createRoom(roomWithImages(), owner.getId());
+      status.setRollbackOnly();
+    });
+
+    assertEquals(spatial, roomSpatialIndex.size());
+    assertEquals(clusters, roomClusterIndex.size());
+    assertEquals(facets, roomFacetIndex.size());
+    assertEquals(search, roomSearchIndex.size());
+  }
+}
@@ -1,33 +1,64 @@
 package com.c1se_01.roomiego.service.impl;
 
-import com.c1se_01.roomiego.dto.LocationResponse;
+import com.c1se_01.roomiego.common.SliceCustom;
+import com.c1se_01.roomiego.dto.FacetCount;
 import com.c1se_01.roomiego.dto.RoomDTO;
 import com.c1se_01.roomiego.dto.common.FilterParam;
+import com.c1se_01.roomiego.dto.common.KeysetCursor;
+import com.c1se_01.roomiego.dto.common.ResourceVersion;
+import com.c1se_01.roomiego.enums.ExportFormat;
+import com.c1se_01.roomiego.enums.GeoStatus;
 import com.c1se_01.roomiego.enums.Role;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
 import com.c1se_01.roomiego.exception.ForbiddenException;
 import com.c1se_01.roomiego.exception.NotFoundException;
 import com.c1se_01.roomiego.mapper.RoomMapper;
 import com.c1se_01.roomiego.model.Room;
 import com.c1se_01.roomiego.model.RoomImage;
+import com.c1se_01.roomiego.model.RoomSearchView;
 import com.c1se_01.roomiego.model.User;
 import com.c1se_01.roomiego.repository.RoomImageRepository;
 import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.repository.RoomSearchViewRepository;
 import com.c1se_01.roomiego.repository.UserRepository;
+import com.c1se_01.roomiego.repository.projection.RoomVersionProjection;
+import com.c1se_01.roomiego.service.cache.RoomCatalogStamp;
+import com.c1se_01.roomiego.service.cache.RoomQueryCache;
+import com.c1se_01.roomiego.service.geocoding.RoomGeocodingWorker;
+import com.c1se_01.roomiego.service.index.RankedHit;
+import com.c1se_01.roomiego.service.index.RoomFacetIndex;
+import com.c1se_01.roomiego.service.index.RoomSearchIndex;
+import com.c1se_01.roomiego.service.index.RoomSpatialIndex;
+import com.c1se_01.roomiego.service.index.SearchQuery;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -43,15 +74,36 @@ class RoomServiceImplTest {
   @Mock
   private RoomImageRepository roomImageRepository;
 
+  @Mock
+  private RoomSearchViewRepository roomSearchViewRepository;
+
   @Mock
   private UserRepository userRepository;
 
   @Mock
-  private GoogleMapsService googleMapsService;
+  private RoomGeocodingWorker roomGeocodingWorker;
 
   @Mock
   private RoomMapper roomMapper;
 
+  @Mock
+  private RoomSpatialIndex roomSpatialIndex;
+
+  @Mock
+  private RoomSearchIndex roomSearchIndex;
+
+  @Mock
+  private RoomFacetIndex roomFacetIndex;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Spy
+  private RoomQueryCache roomQueryCache = new RoomQueryCache();
+
+  @Spy
+  private RoomCatalogStamp roomCatalogStamp = new RoomCatalogStamp();
+
   @InjectMocks
   private RoomServiceImpl roomService;
 
@@ -92,11 +144,13 @@ class RoomServiceImplTest {
     verify(roomRepository).save(room);
     verify(roomImageRepository).saveAll(anyList());
     verify(roomMapper).toDTO(savedRoom);
-    verify(googleMapsService, never()).geocodeAddress(anyString());
+    verify(roomGeocodingWorker, never()).enqueue(any(), any());
+    verify(eventPublisher).publishEvent(new RoomChangedEvent(savedRoom, RoomChangeType.CREATED));
+    assertSame(user, room.getOwner());
   }
 
   @Test
-  void createRoom_HappyPath_WithGeocodingAndNoImages() {
+  void createRoom_WithoutCoordinates_IsSavedPendingAndQueuedForGeocoding() {
     // Given
     Long ownerId = 1L;
     RoomDTO roomDTO = new RoomDTO();
@@ -114,12 +168,9 @@ class RoomServiceImplTest {
     Room room = new Room();
     Room savedRoom = new Room();
     savedRoom.setId(1L);
-
-    LocationResponse.LocationData locationData = new LocationResponse.LocationData("formatted", 10.0, 20.0, "placeId");
     RoomDTO expectedDTO = new RoomDTO();
 
     when(userRepository.findById(ownerId)).thenReturn(Optional.of(user));
-    when(googleMapsService.geocodeAddress("123, Main St, Ward 1, District 1, City")).thenReturn(locationData);
     when(roomMapper.toEntity(roomDTO)).thenReturn(room);
     when(roomRepository.save(room)).thenReturn(savedRoom);
     when(roomMapper.toDTO(savedRoom)).thenReturn(expectedDTO);
@@ -129,11 +180,11 @@ class RoomServiceImplTest {
 
     // Then
     assertEquals(expectedDTO, result);
-    assertEquals(10.0, roomDTO.getLatitude());
-    assertEquals(20.0, roomDTO.getLongitude());
+    assertNull(room.getLatitude());
+    assertEquals(GeoStatus.PENDING, room.getGeoStatus());
     verify(userRepository).findById(ownerId);
-    verify(googleMapsService).geocodeAddress(anyString());
     verify(roomRepository).save(room);
+    verify(roomGeocodingWorker).enqueue(1L, "123, Main St, Ward 1, District 1, City");
     verify(roomImageRepository, never()).saveAll(anyList());
   }
 
@@ -148,7 +199,7 @@ class RoomServiceImplTest {
     // When & Then
     assertThrows(NotFoundException.class, () -> roomService.createRoom(roomDTO, ownerId));
     verify(userRepository).findById(ownerId);
-    verifyNoMoreInteractions(roomRepository, roomImageRepository, googleMapsService, roomMapper);
+    verifyNoMoreInteractions(roomRepository, roomImageRepository, roomGeocodingWorker, roomMapper);
   }
 
   @Test
@@ -166,28 +217,7 @@ class RoomServiceImplTest {
     // When & Then
     assertThrows(ForbiddenException.class, () -> roomService.createRoom(roomDTO, ownerId));
     verify(userRepository).findById(ownerId);
-    verifyNoMoreInteractions(roomRepository, roomImageRepository, googleMapsService, roomMapper);
-  }
-
-  @Test
-  void createRoom_GeocodingFails() {
-    // Given
-    Long ownerId = 1L;
-    RoomDTO roomDTO = new RoomDTO();
-    roomDTO.setCity("City");
-
-    User user = new User();
-    user.setId(ownerId);
-    user.setRole(Role.OWNER);
-
-    when(userRepository.findById(ownerId)).thenReturn(Optional.of(user));
-    when(googleMapsService.geocodeAddress("City")).thenReturn(null);
-
-    // When & Then
-    assertThrows(NotFoundException.class, () -> roomService.createRoom(roomDTO, ownerId));
-    verify(userRepository).findById(ownerId);
-    verify(googleMapsService).geocodeAddress(anyString());
-    verifyNoMoreInteractions(roomRepository, roomImageRepository, roomMapper);
+    verifyNoMoreInteractions(roomRepository, roomImageRepository, roomGeocodingWorker, roomMapper);
   }
 
   @Test
@@ -216,7 +246,8 @@ class RoomServiceImplTest {
     // Then
     assertEquals(expectedDTO, result);
     verify(userRepository).findById(ownerId);
-    verify(googleMapsService, never()).geocodeAddress(anyString());
+    assertEquals(GeoStatus.FAILED, room.getGeoStatus());
+    verify(roomGeocodingWorker, never()).enqueue(any(), any());
     verify(roomRepository).save(room);
   }
 
@@ -224,34 +255,571 @@ class RoomServiceImplTest {
   void getAllRooms_HappyPath() {
     // Given
     FilterParam filterParam = new FilterParam();
-    List<Room> rooms = Arrays.asList(new Room(), new Room());
-    Page<Room> roomPage = new PageImpl<>(rooms);
-    List<RoomDTO> expectedDTOs = Arrays.asList(new RoomDTO(), new RoomDTO());
-
-    when(roomRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(roomPage);
-    when(roomMapper.toDTO(any(Room.class))).thenReturn(new RoomDTO());
+    RoomSearchView first = new RoomSearchView();
+    first.setId(1L);
+    RoomSearchView second = new RoomSearchView();
+    second.setId(2L);
+    RoomDTO firstDTO = new RoomDTO();
+    RoomDTO secondDTO = new RoomDTO();
+
+    when(roomRepository.findIds(any(Specification.class), any(Pageable.class))).thenReturn(List.of(2L, 1L));
+    when(roomSearchViewRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(first, second));
+    when(roomMapper.toDTO(first)).thenReturn(firstDTO);
+    when(roomMapper.toDTO(second)).thenReturn(secondDTO);
 
     // When
     List<RoomDTO> result = roomService.getAllRooms(filterParam);
 
     // Then
-    assertEquals(expectedDTOs.size(), result.size());
-    verify(roomRepository).findAll(any(Specification.class), any(Pageable.class));
+    assertEquals(List.of(secondDTO, firstDTO), result);
+    verify(roomRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    verify(roomRepository, never()).findAllById(anyList());
   }
 
   @Test
   void getAllRooms_NoRoomsFound() {
     // Given
     FilterParam filterParam = new FilterParam();
-    Page<Room> emptyPage = new PageImpl<>(Collections.emptyList());
-    when(roomRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(emptyPage);
+    when(roomRepository.findIds(any(Specification.class), any(Pageable.class))).thenReturn(List.of());
+
+    // When
+    List<RoomDTO> result = roomService.getAllRooms(filterParam);
+
+    // Then
+    assertTrue(result.isEmpty());
+    verify(roomRepository).findIds(any(Specification.class), any(Pageable.class));
+    verifyNoInteractions(roomSearchViewRepository);
+  }
+
+  @Test
+  void getAllRooms_Nearby_UsesSpatialIndexOrderAndHydratesPageOnly() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setFilter("location:nearby:16.0;108.0;1000");
+    filterParam.setSize(2);
+
+    RoomSearchView near = new RoomSearchView();
+    near.setId(3L);
+    RoomSearchView middle = new RoomSearchView();
+    middle.setId(1L);
+    RoomDTO nearDTO = new RoomDTO();
+    RoomDTO middleDTO = new RoomDTO();
+
+    when(roomSpatialIndex.isReady()).thenReturn(true);
+    when(roomSpatialIndex.findNearby(16.0, 108.0, 1000)).thenReturn(List.of(
+        new RankedHit(3L, 10),
+        new RankedHit(1L, 200),
+        new RankedHit(2L, 900)));
+    // repository returns rows in id order, the service must restore distance order
+    when(roomSearchViewRepository.findAllById(List.of(3L, 1L))).thenReturn(List.of(middle, near));
+    when(roomMapper.toDTO(near)).thenReturn(nearDTO);
+    when(roomMapper.toDTO(middle)).thenReturn(middleDTO);
+
+    // When
+    List<RoomDTO> result = roomService.getAllRooms(filterParam);
+
+    // Then
+    assertEquals(2, result.size());
+    assertSame(nearDTO, result.get(0));
+    assertSame(middleDTO, result.get(1));
+    verify(roomRepository, never()).findIds(any(Specification.class), any(Pageable.class));
+    verify(roomRepository, never()).findIds(any(Specification.class));
+  }
+
+  @Test
+  void getAllRooms_Nearby_WithOtherCriteria_FiltersCandidatesById() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setFilter("location:nearby:16.0;108.0;1000,price<500000");
+    filterParam.setPage(0);
+    filterParam.setSize(10);
+
+    RoomSearchView room = new RoomSearchView();
+    room.setId(2L);
+
+    when(roomSpatialIndex.isReady()).thenReturn(true);
+    when(roomSpatialIndex.findNearby(16.0, 108.0, 1000)).thenReturn(List.of(
+        new RankedHit(3L, 10),
+        new RankedHit(2L, 900)));
+    when(roomRepository.findIds(any(Specification.class))).thenReturn(List.of(2L));
+    when(roomSearchViewRepository.findAllById(List.of(2L))).thenReturn(List.of(room));
+    when(roomMapper.toDTO(room)).thenReturn(new RoomDTO());
+
+    // When
+    List<RoomDTO> result = roomService.getAllRooms(filterParam);
+
+    // Then
+    assertEquals(1, result.size());
+    verify(roomRepository).findIds(any(Specification.class));
+  }
+
+  @Test
+  void getAllRooms_Nearby_PageBeyondResults_ReturnsEmpty() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setFilter("location:nearby:16.0;108.0;1000");
+    filterParam.setPage(1);
+    filterParam.setSize(10);
+
+    when(roomSpatialIndex.isReady()).thenReturn(true);
+    when(roomSpatialIndex.findNearby(16.0, 108.0, 1000)).thenReturn(List.of(new RankedHit(3L, 10)));
+
+    // When
+    List<RoomDTO> result = roomService.getAllRooms(filterParam);
+
+    // Then
+    assertTrue(result.isEmpty());
+    verify(roomSearchViewRepository, never()).findAllById(anyList());
+  }
+
+  @Test
+  void getAllRooms_Nearby_IndexNotReady_FallsBackToSpecification() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setFilter("location:nearby:16.0;108.0;1000");
+
+    when(roomSpatialIndex.isReady()).thenReturn(false);
+    when(roomRepository.findIds(any(Specification.class), any(Pageable.class))).thenReturn(List.of());
+
+    // When
+    List<RoomDTO> result = roomService.getAllRooms(filterParam);
+
+    // Then
+    assertTrue(result.isEmpty());
+    verify(roomSpatialIndex, never()).findNearby(anyDouble(), anyDouble(), anyDouble());
+  }
+
+  @Test
+  void getAllRooms_Search_RanksByRelevance() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setSearch("da nang");
+
+    RoomSearchView best = new RoomSearchView();
+    best.setId(2L);
+    RoomSearchView other = new RoomSearchView();
+    other.setId(1L);
+    RoomDTO bestDTO = new RoomDTO();
+    RoomDTO otherDTO = new RoomDTO();
+
+    when(roomSearchIndex.isReady()).thenReturn(true);
+    when(roomSearchIndex.search(SearchQuery.parse("da nang"))).thenReturn(List.of(
+        new RankedHit(2L, 5.0),
+        new RankedHit(1L, 3.0)));
+    when(roomSearchViewRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(other, best));
+    when(roomMapper.toDTO(best)).thenReturn(bestDTO);
+    when(roomMapper.toDTO(other)).thenReturn(otherDTO);
+
+    // When
+    List<RoomDTO> result = roomService.getAllRooms(filterParam);
+
+    // Then
+    assertSame(bestDTO, result.get(0));
+    assertSame(otherDTO, result.get(1));
+    verify(roomRepository, never()).findIds(any(Specification.class), any(Pageable.class));
+    verify(roomRepository, never()).findIds(any(Specification.class));
+  }
+
+  @Test
+  void getAllRooms_Search_WithFilter_AppliesCriteriaById() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setSearch("da nang");
+    filterParam.setFilter("price<500000");
+
+    RoomSearchView room = new RoomSearchView();
+    room.setId(1L);
+
+    when(roomSearchIndex.isReady()).thenReturn(true);
+    when(roomSearchIndex.search(any(SearchQuery.class))).thenReturn(List.of(
+        new RankedHit(2L, 5.0),
+        new RankedHit(1L, 3.0)));
+    when(roomRepository.findIds(any(Specification.class))).thenReturn(List.of(1L));
+    when(roomSearchViewRepository.findAllById(List.of(1L))).thenReturn(List.of(room));
+    when(roomMapper.toDTO(room)).thenReturn(new RoomDTO());
+
+    // When
+    List<RoomDTO> result = roomService.getAllRooms(filterParam);
+
+    // Then
+    assertEquals(1, result.size());
+  }
+
+  @Test
+  void getAllRooms_Search_WithExplicitSort_UsesIndexAsFilter() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setSearch("da nang");
+    filterParam.setSort("price");
+
+    when(roomSearchIndex.isReady()).thenReturn(true);
+    when(roomSearchIndex.search(any(SearchQuery.class))).thenReturn(List.of(new RankedHit(2L, 5.0)));
+    when(roomRepository.findIds(any(Specification.class), any(Pageable.class))).thenReturn(List.of());
+
+    // When
+    roomService.getAllRooms(filterParam);
+
+    // Then
+    verify(roomSearchIndex).search(any(SearchQuery.class));
+    verify(roomRepository).findIds(any(Specification.class), any(Pageable.class));
+    verify(roomSearchViewRepository, never()).findAllById(anyList());
+  }
+
+  /**
+   * More search hits than fit an IN list, room 5000 matches the criteria but not the search.
+   */
+  private void stubManySearchHits() {
+    List<RankedHit> hits = LongStream.rangeClosed(1, 1001)
+        .mapToObj(id -> new RankedHit(id, 1.0))
+        .collect(Collectors.toList());
+    when(roomSearchIndex.isReady()).thenReturn(true);
+    when(roomSearchIndex.search(any(SearchQuery.class))).thenReturn(hits);
+  }
+
+  @Test
+  void getAllRooms_Search_ManyHits_KeepsTheCriteriaRowsToTheHits() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setSearch("phong");
+    filterParam.setSort("price");
+    filterParam.setSize(2);
+    stubManySearchHits();
+    when(roomRepository.findIds(any(Specification.class), eq(PageRequest.of(0, 500,
+        Sort.by(Direction.ASC, "price").and(Sort.by(Direction.ASC, "id")))))).thenReturn(List.of(5000L, 7L, 3L, 9L));
+    when(roomSearchViewRepository.findAllById(List.of(7L, 3L))).thenReturn(List.of(viewOf(3L), viewOf(7L)));
+    when(roomMapper.toDTO(any(RoomSearchView.class))).thenReturn(new RoomDTO());
+
+    // When
+    List<RoomDTO> result = roomService.getAllRooms(filterParam);
+
+    // Then
+    assertEquals(2, result.size());
+    verify(roomRepository, times(1)).findIds(any(Specification.class), any(Pageable.class));
+  }
+
+  @Test
+  void getAllRooms_Search_ManyHits_ReadsTheIdsInBatchesUntilThePageIsKept() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setSearch("phong");
+    filterParam.setSort("price");
+    filterParam.setPage(1);
+    filterParam.setSize(2);
+    stubManySearchHits();
+    List<Long> firstBatch = LongStream.range(5000, 5499).boxed().collect(Collectors.toList());
+    firstBatch.add(7L);
+    when(roomRepository.findIds(any(Specification.class), any(Pageable.class)))
+        .thenReturn(firstBatch, List.of(3L, 9L, 5L, 11L, 13L));
+    when(roomSearchViewRepository.findAllById(List.of(9L, 5L))).thenReturn(List.of(viewOf(5L), viewOf(9L)));
+    when(roomMapper.toDTO(any(RoomSearchView.class))).thenReturn(new RoomDTO());
 
     // When
     List<RoomDTO> result = roomService.getAllRooms(filterParam);
 
+    // Then
+    assertEquals(2, result.size());
+    ArgumentCaptor<Pageable> batches = ArgumentCaptor.forClass(Pageable.class);
+    verify(roomRepository, times(2)).findIds(any(Specification.class), batches.capture());
+    assertEquals(List.of(0, 1), batches.getAllValues().stream().map(Pageable::getPageNumber).toList());
+  }
+
+  @Test
+  void getRoomsByCursor_Search_ManyHits_KeepsTheCriteriaRowsToTheHits() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setSearch("phong");
+    filterParam.setCursor("");
+    filterParam.setSort("price");
+    filterParam.setSize(1);
+    stubManySearchHits();
+    when(roomRepository.findIds(any(Specification.class), eq(PageRequest.of(0, 500,
+        Sort.by(Direction.ASC, "price").and(Sort.by(Direction.ASC, "id")))))).thenReturn(List.of(5000L, 7L, 3L, 9L));
+    when(roomRepository.findAllById(List.of(7L, 3L)))
+        .thenReturn(List.of(roomWithPrice(3L, "200"), roomWithPrice(7L, "100")));
+    when(roomSearchViewRepository.findAllById(List.of(7L))).thenReturn(List.of(viewOf(7L)));
+    when(roomMapper.toDTO(any(RoomSearchView.class))).thenReturn(new RoomDTO());
+
+    // When
+    SliceCustom<RoomDTO> result = roomService.getRoomsByCursor(filterParam);
+
+    // Then
+    assertEquals(1, result.getData().size());
+    assertTrue(result.isHasNext());
+    assertEquals(new KeysetCursor("price", Direction.ASC, 7L, "100"), KeysetCursor.decode(result.getNextCursor()));
+    verify(roomRepository, never()).findSlice(any(Specification.class), any(Sort.class), anyInt());
+  }
+
+  @Test
+  void getAllRooms_Search_IndexNotReady_FallsBackToSpecification() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setSearch("da nang");
+
+    when(roomSearchIndex.isReady()).thenReturn(false);
+    when(roomRepository.findIds(any(Specification.class), any(Pageable.class))).thenReturn(List.of());
+
+    // When
+    roomService.getAllRooms(filterParam);
+
+    // Then
+    verify(roomSearchIndex, never()).search(any(SearchQuery.class));
+  }
+
+  @Test
+  void getFacets_NoCriteria_CountsWholeIndex() {
+    // Given
+    Map<String, List<FacetCount>> facets = Map.of("city", List.of(new FacetCount("Đà Nẵng", 3)));
+    when(roomFacetIndex.isReady()).thenReturn(true);
+    when(roomFacetIndex.countAll()).thenReturn(facets);
+
+    // When
+    Map<String, List<FacetCount>> result = roomService.getFacets(new FilterParam());
+
+    // Then
+    assertSame(facets, result);
+    verify(roomRepository, never()).findIds(any(Specification.class));
+  }
+
+  @Test
+  void getFacets_WithFilter_CountsMatchingIds() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setFilter("price<500000");
+    Map<String, List<FacetCount>> facets = Map.of("city", List.of(new FacetCount("Huế", 2)));
+
+    when(roomFacetIndex.isReady()).thenReturn(true);
+    when(roomRepository.findIds(any(Specification.class))).thenReturn(List.of(1L, 2L));
+    when(roomFacetIndex.count(List.of(1L, 2L))).thenReturn(facets);
+
+    // When
+    Map<String, List<FacetCount>> result = roomService.getFacets(filterParam);
+
+    // Then
+    assertSame(facets, result);
+    verify(roomFacetIndex, never()).countAll();
+  }
+
+  @Test
+  void getFacets_Search_CountsIndexHits() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setSearch("da nang");
+
+    when(roomFacetIndex.isReady()).thenReturn(true);
+    when(roomSearchIndex.isReady()).thenReturn(true);
+    when(roomSearchIndex.search(any(SearchQuery.class))).thenReturn(List.of(
+        new RankedHit(2L, 5.0),
+        new RankedHit(1L, 3.0)));
+    when(roomFacetIndex.count(List.of(2L, 1L))).thenReturn(Map.of());
+
+    // When
+    roomService.getFacets(filterParam);
+
+    // Then
+    verify(roomFacetIndex).count(List.of(2L, 1L));
+    verify(roomRepository, never()).findIds(any(Specification.class));
+  }
+
+  @Test
+  void getFacets_IndexNotReady_ReturnsEmpty() {
+    // Given
+    when(roomFacetIndex.isReady()).thenReturn(false);
+
+    // When
+    Map<String, List<FacetCount>> result = roomService.getFacets(new FilterParam());
+
     // Then
     assertTrue(result.isEmpty());
-    verify(roomRepository).findAll(any(Specification.class), any(Pageable.class));
+    verifyNoInteractions(roomRepository);
+  }
+
+  @Test
+  void getAllRooms_NearbyAndSearch_KeepsDistanceOrderOfMatches() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setSearch("bien");
+    filterParam.setFilter("location:nearby:16.0;108.0;1000");
+
+    RoomSearchView room = new RoomSearchView();
+    room.setId(3L);
+
+    when(roomSpatialIndex.isReady()).thenReturn(true);
+    when(roomSearchIndex.isReady()).thenReturn(true);
+    when(roomSpatialIndex.findNearby(16.0, 108.0, 1000)).thenReturn(List.of(
+        new RankedHit(3L, 10),
+        new RankedHit(1L, 200)));
+    when(roomSearchIndex.search(any(SearchQuery.class))).thenReturn(List.of(new RankedHit(3L, 2.0)));
+    when(roomSearchViewRepository.findAllById(List.of(3L))).thenReturn(List.of(room));
+    when(roomMapper.toDTO(room)).thenReturn(new RoomDTO());
+
+    // When
+    List<RoomDTO> result = roomService.getAllRooms(filterParam);
+
+    // Then
+    assertEquals(1, result.size());
+    verify(roomRepository, never()).findIds(any(Specification.class));
+  }
+
+  @Test
+  void getRoomsByCursor_Search_ContinuesAfterLastScore() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setSearch("da nang");
+    filterParam.setSize(1);
+    filterParam.setCursor(new KeysetCursor("relevance", Direction.DESC, 2L, "5.0").encode());
+
+    RoomSearchView room = new RoomSearchView();
+    room.setId(1L);
+
+    when(roomSearchIndex.isReady()).thenReturn(true);
+    when(roomSearchIndex.search(any(SearchQuery.class))).thenReturn(List.of(
+        new RankedHit(2L, 5.0),
+        new RankedHit(1L, 3.0)));
+    when(roomSearchViewRepository.findAllById(List.of(1L))).thenReturn(List.of(room));
+    when(roomMapper.toDTO(room)).thenReturn(new RoomDTO());
+
+    // When
+    SliceCustom<RoomDTO> result = roomService.getRoomsByCursor(filterParam);
+
+    // Then
+    assertEquals(1, result.getData().size());
+    assertFalse(result.isHasNext());
+    assertNull(result.getNextCursor());
+  }
+
+  @Test
+  void getAllRooms_RoomMissingFromView_LoadsItFromRooms() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    Room room = new Room();
+    room.setId(2L);
+    RoomDTO viewDTO = new RoomDTO();
+    RoomDTO roomDTO = new RoomDTO();
+
+    when(roomRepository.findIds(any(Specification.class), any(Pageable.class))).thenReturn(List.of(2L, 1L));
+    when(roomSearchViewRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(viewOf(1L)));
+    when(roomRepository.findAllById(List.of(2L))).thenReturn(List.of(room));
+    when(roomMapper.toDTO(any(RoomSearchView.class))).thenReturn(viewDTO);
+    when(roomMapper.toDTO(room)).thenReturn(roomDTO);
+
+    // When
+    List<RoomDTO> result = roomService.getAllRooms(filterParam);
+
+    // Then
+    assertSame(roomDTO, result.get(0));
+    assertSame(viewDTO, result.get(1));
+  }
+
+  private static RoomSearchView viewOf(Long id) {
+    RoomSearchView view = new RoomSearchView();
+    view.setId(id);
+    return view;
+  }
+
+  private static Room roomWithPrice(Long id, String price) {
+    Room room = new Room();
+    room.setId(id);
+    room.setPrice(new BigDecimal(price));
+    return room;
+  }
+
+  @Test
+  void getRoomsByCursor_FirstSlice_ReturnsNextCursorFromLastRow() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setCursor("");
+    filterParam.setSort("price");
+    filterParam.setSize(2);
+
+    List<Room> rooms = List.of(roomWithPrice(1L, "100"), roomWithPrice(2L, "150"), roomWithPrice(3L, "200"));
+    when(roomRepository.findSlice(any(Specification.class), eq(Sort.by(Direction.ASC, "price").and(Sort.by(Direction.ASC, "id"))), eq(3)))
+        .thenReturn(rooms);
+    when(roomSearchViewRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(viewOf(1L), viewOf(2L)));
+    when(roomMapper.toDTO(any(RoomSearchView.class))).thenReturn(new RoomDTO());
+
+    // When
+    SliceCustom<RoomDTO> result = roomService.getRoomsByCursor(filterParam);
+
+    // Then
+    assertEquals(2, result.getData().size());
+    assertTrue(result.isHasNext());
+    assertEquals(new KeysetCursor("price", Direction.ASC, 2L, "150"), KeysetCursor.decode(result.getNextCursor()));
+    verify(roomRepository, never()).findIds(any(Specification.class), any(Pageable.class));
+    verify(roomMapper, times(2)).toDTO(any(RoomSearchView.class));
+  }
+
+  @Test
+  void getRoomsByCursor_LastSlice_HasNoNextCursor() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setCursor(new KeysetCursor("id", Direction.ASC, 5L, "5").encode());
+    filterParam.setSize(2);
+
+    when(roomRepository.findSlice(any(Specification.class), any(Sort.class), eq(3)))
+        .thenReturn(List.of(roomWithPrice(6L, "100")));
+    when(roomSearchViewRepository.findAllById(List.of(6L))).thenReturn(List.of(viewOf(6L)));
+    when(roomMapper.toDTO(any(RoomSearchView.class))).thenReturn(new RoomDTO());
+
+    // When
+    SliceCustom<RoomDTO> result = roomService.getRoomsByCursor(filterParam);
+
+    // Then
+    assertEquals(1, result.getData().size());
+    assertFalse(result.isHasNext());
+    assertNull(result.getNextCursor());
+  }
+
+  @Test
+  void getRoomsByCursor_CursorForDifferentSort_ThrowsException() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setCursor(new KeysetCursor("price", Direction.DESC, 5L, "100").encode());
+    filterParam.setSort("price");
+
+    // When & Then
+    assertThrows(IllegalArgumentException.class, () -> roomService.getRoomsByCursor(filterParam));
+    verifyNoInteractions(roomRepository);
+  }
+
+  @Test
+  void getRoomsByCursor_UnsupportedSort_ThrowsException() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setCursor("");
+    filterParam.setSort("description");
+
+    // When & Then
+    assertThrows(IllegalArgumentException.class, () -> roomService.getRoomsByCursor(filterParam));
+    verifyNoInteractions(roomRepository);
+  }
+
+  @Test
+  void getRoomsByCursor_Nearby_ContinuesAfterLastDistance() {
+    // Given
+    FilterParam filterParam = new FilterParam();
+    filterParam.setFilter("location:nearby:16.0;108.0;1000");
+    filterParam.setSize(1);
+    filterParam.setCursor(new KeysetCursor("distance", Direction.ASC, 3L, "10.0").encode());
+
+    RoomSearchView room = new RoomSearchView();
+    room.setId(1L);
+
+    when(roomSpatialIndex.isReady()).thenReturn(true);
+    when(roomSpatialIndex.findNearby(16.0, 108.0, 1000)).thenReturn(List.of(
+        new RankedHit(3L, 10),
+        new RankedHit(1L, 200),
+        new RankedHit(2L, 900)));
+    when(roomSearchViewRepository.findAllById(List.of(1L))).thenReturn(List.of(room));
+    when(roomMapper.toDTO(room)).thenReturn(new RoomDTO());
+
+    // When
+    SliceCustom<RoomDTO> result = roomService.getRoomsByCursor(filterParam);
+
+    // Then
+    assertEquals(1, result.getData().size());
+    assertTrue(result.isHasNext());
+    assertEquals(new KeysetCursor("distance", Direction.ASC, 1L, "200.0"), KeysetCursor.decode(result.getNextCursor()));
+    verify(roomRepository, never()).findSlice(any(Specification.class), any(Sort.class), anyInt());
   }
 
   @Test
@@ -285,6 +853,89 @@ class RoomServiceImplTest {
     verifyNoMoreInteractions(roomMapper);
   }
 
+  @Test
+  void getRoomVersion_CombinesRoomAndOwnerVersions() {
+    RoomVersionProjection projection = mock(RoomVersionProjection.class);
+    when(projection.getVersion()).thenReturn(3L);
+    when(projection.getOwnerVersion()).thenReturn(2L);
+    when(projection.getUpdatedAt()).thenReturn(new Date(5_000));
+    when(roomRepository.findVersionById(1L)).thenReturn(Optional.of(projection));
+
+    ResourceVersion version = roomService.getRoomVersion(1L);
+
+    assertEquals("\"room-1-3-2\"", version.etag());
+    assertEquals(5_000, version.lastModified());
+    verify(roomRepository, never()).findById(anyLong());
+  }
+
+  @Test
+  void getRoomVersion_RoomNotFound() {
+    when(roomRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+    assertThrows(NotFoundException.class, () -> roomService.getRoomVersion(1L));
+  }
+
+  @Test
+  void getListingVersion_IsReadFromTheCatalogStamp() {
+    ResourceVersion version = roomService.getListingVersion();
+
+    assertEquals(roomCatalogStamp.current(), version);
+    verifyNoInteractions(roomRepository, roomSearchViewRepository);
+  }
+
+  @Test
+  void getRoomById_SecondCall_ServedFromCache() {
+    Room room = new Room();
+    RoomDTO expectedDTO = new RoomDTO();
+    when(roomRepository.findById(1L)).thenReturn(Optional.of(room));
+    when(roomMapper.toDTO(room)).thenReturn(expectedDTO);
+
+    roomService.getRoomById(1L);
+    assertSame(expectedDTO, roomService.getRoomById(1L));
+
+    verify(roomRepository, times(1)).findById(1L);
+  }
+
+  @Test
+  void getRoomById_AfterUpdateEvent_Reloads() {
+    Room room = new Room();
+    room.setId(1L);
+    when(roomRepository.findById(1L)).thenReturn(Optional.of(room));
+    when(roomMapper.toDTO(room)).thenReturn(new RoomDTO());
+
+    roomService.getRoomById(1L);
+    roomQueryCache.onRoomChanged(new RoomChangedEvent(room, RoomChangeType.UPDATED));
+    roomService.getRoomById(1L);
+
+    verify(roomRepository, times(2)).findById(1L);
+  }
+
+  @Test
+  void getAllRooms_FirstPage_ServedFromCache() {
+    FilterParam filterParam = new FilterParam();
+    filterParam.setFilter("city:Đà Nẵng");
+    when(roomRepository.findIds(any(Specification.class), any(Pageable.class))).thenReturn(List.of());
+
+    roomService.getAllRooms(filterParam);
+    FilterParam sameFilter = new FilterParam();
+    sameFilter.setFilter(" city:Đà Nẵng ");
+    roomService.getAllRooms(sameFilter);
+
+    verify(roomRepository, times(1)).findIds(any(Specification.class), any(Pageable.class));
+  }
+
+  @Test
+  void getAllRooms_LaterPage_NotCached() {
+    FilterParam filterParam = new FilterParam();
+    filterParam.setPage(1);
+    when(roomRepository.findIds(any(Specification.class), any(Pageable.class))).thenReturn(List.of());
+
+    roomService.getAllRooms(filterParam);
+    roomService.getAllRooms(filterParam);
+
+    verify(roomRepository, times(2)).findIds(any(Specification.class), any(Pageable.class));
+  }
+
   @Test
   void updateRoom_HappyPath() {
     // Given
@@ -311,6 +962,7 @@ class RoomServiceImplTest {
     verify(roomMapper).updateEntityFromDTO(roomDTO, existingRoom);
     verify(roomRepository).save(existingRoom);
     verify(roomMapper).toDTO(updatedRoom);
+    verify(eventPublisher).publishEvent(new RoomChangedEvent(updatedRoom, RoomChangeType.UPDATED));
   }
 
   @Test
@@ -361,6 +1013,7 @@ class RoomServiceImplTest {
     // Then
     verify(roomRepository).findById(roomId);
     verify(roomRepository).delete(room);
+    verify(eventPublisher).publishEvent(new RoomChangedEvent(room, RoomChangeType.DELETED));
   }
 
   @Test
@@ -390,6 +1043,10 @@ class RoomServiceImplTest {
     assertFalse(room.getIsRoomAvailable());
     verify(roomRepository).findById(roomId);
     verify(roomRepository).save(room);
+    ArgumentCaptor<RoomChangedEvent> eventCaptor = ArgumentCaptor.forClass(RoomChangedEvent.class);
+    verify(eventPublisher).publishEvent(eventCaptor.capture());
+    assertEquals(RoomChangeType.HIDDEN, eventCaptor.getValue().type());
+    assertFalse(eventCaptor.getValue().isListed());
   }
 
   @Test
@@ -408,29 +1065,65 @@ class RoomServiceImplTest {
   void getRoomsByOwner_HappyPath() {
     // Given
     Long ownerId = 1L;
-    List<Room> rooms = Arrays.asList(new Room(), new Room());
+    List<RoomSearchView> rooms = Arrays.asList(viewOf(1L), viewOf(2L));
     List<RoomDTO> expectedDTOs = Arrays.asList(new RoomDTO(), new RoomDTO());
 
-    when(roomRepository.findByOwnerId(ownerId)).thenReturn(rooms);
-    when(roomMapper.toDTO(any(Room.class))).thenReturn(new RoomDTO());
+    when(roomSearchViewRepository.findByOwnerId(ownerId)).thenReturn(rooms);
+    when(roomMapper.toDTO(any(RoomSearchView.class))).thenReturn(new RoomDTO());
 
     // When
     List<RoomDTO> result = roomService.getRoomsByOwner(ownerId);
 
     // Then
     assertEquals(expectedDTOs.size(), result.size());
-    verify(roomRepository).findByOwnerId(ownerId);
+    verify(roomSearchViewRepository).findByOwnerId(ownerId);
+    verifyNoInteractions(roomRepository);
   }
 
   @Test
   void getRoomsByOwner_NoRoomsFound() {
     // Given
     Long ownerId = 1L;
-    when(roomRepository.findByOwnerId(ownerId)).thenReturn(Collections.emptyList());
+    when(roomSearchViewRepository.findByOwnerId(ownerId)).thenReturn(Collections.emptyList());
 
     // When & Then
     assertThrows(NotFoundException.class, () -> roomService.getRoomsByOwner(ownerId));
-    verify(roomRepository).findByOwnerId(ownerId);
+    verify(roomSearchViewRepository).findByOwnerId(ownerId);
     verifyNoMoreInteractions(roomMapper);
   }
-}
\ No newline at end of file
+
+  @Test
+  void exportRooms_writesOneLinePerRoomAndClosesTheStream() throws Exception {
+    AtomicBoolean closed = new AtomicBoolean();
+    Room first = new Room();
+    first.setId(1L);
+    first.setTitle("Phòng 1");
+    Room second = new Room();
+    second.setId(2L);
+    when(roomRepository.stream(any(), eq(Sort.by("updatedAt", "id")), anyInt()))
+        .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    roomService.exportRooms(new FilterParam(), null, ExportFormat.NDJSON, out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].startsWith("{\"id\":1,"));
+    assertTrue(lines[0].contains("\"title\":\"Phòng 1\""));
+    assertTrue(lines[1].startsWith("{\"id\":2,"));
+    assertTrue(closed.get());
+  }
+
+  @Test
+  void exportRooms_since_addsUpdatedSinceCriterion() throws Exception {
+    when(roomRepository.stream(any(), any(), anyInt())).thenReturn(Stream.empty());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    roomService.exportRooms(new FilterParam(), new Date(0), ExportFormat.CSV, out);
+
+    // header only
+    assertEquals(1, out.toString(StandardCharsets.UTF_8).split("\r\n").length);
+    verify(roomRepository).stream(notNull(), any(), anyInt());
+    verifyNoInteractions(roomSearchViewRepository);
+  }
+}
@@ -5,10 +5,12 @@ import com.c1se_01.roomiego.dto.RoommateDTO;
 import com.c1se_01.roomiego.dto.RoommateResponseDTO;
 import com.c1se_01.roomiego.enums.Gender;
 import com.c1se_01.roomiego.exception.NotFoundException;
+import com.c1se_01.roomiego.exception.ServiceUnavailableException;
 import com.c1se_01.roomiego.model.Roommate;
 import com.c1se_01.roomiego.model.User;
 import com.c1se_01.roomiego.repository.RoommateRepository;
 import com.c1se_01.roomiego.repository.UserRepository;
+import com.c1se_01.roomiego.service.resilience.ExternalApiGuard;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -24,8 +27,10 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -50,6 +55,11 @@ class RoommateServiceTest {
   @Mock
   private ObjectMapper objectMapper;
 
+  // opens at the first failure
+  @Spy
+  private ExternalApiGuard aiServiceGuard = new ExternalApiGuard("ai-service",
+      new ExternalApiGuard.Settings(10, 1000, 1000, 1, 1, 50, Duration.ofSeconds(30), 1));
+
   @Mock
   private Authentication authentication;
 
@@ -121,7 +131,6 @@ class RoommateServiceTest {
 
     // Set AI service URL
     ReflectionTestUtils.setField(roommateService, "aiServiceUrl", "http://localhost:8000");
-    ReflectionTestUtils.setField(roommateService, "restTemplate", restTemplate);
     ReflectionTestUtils.setField(roommateService, "objectMapper", objectMapper);
   }
 
@@ -467,4 +476,15 @@ class RoommateServiceTest {
     verify(objectMapper, times(1)).readValue(eq(aiResponseJson),
         any(com.fasterxml.jackson.core.type.TypeReference.class));
   }
-}
\ No newline at end of file
+
+  @Test
+  void getRecommendations_AiServiceFailing_FailsFastWithServiceUnavailable() {
+    when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String.class)))
+        .thenThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+    assertThrows(HttpServerErrorException.class, () -> roommateService.getRecommendations(1L));
+
+    assertThrows(ServiceUnavailableException.class, () -> roommateService.getRecommendations(1L));
+
+    verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String.class));
+  }
+}
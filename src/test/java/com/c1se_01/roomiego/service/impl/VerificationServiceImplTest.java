@@ -2,6 +2,7 @@ package com.c1se_01.roomiego.service.impl;
 
 import com.c1se_01.roomiego.dto.FptAiIdRecognitionResponse;
 import com.c1se_01.roomiego.dto.VerificationDto;
+import com.c1se_01.roomiego.exception.ServiceUnavailableException;
 import com.c1se_01.roomiego.model.User;
 import com.c1se_01.roomiego.repository.UserRepository;
 import com.c1se_01.roomiego.service.FptAiService;
@@ -562,6 +563,26 @@ class VerificationServiceImplTest {
     verify(fptAiService).recognizeIdCard("backImageData");
   }
 
+  @Test
+  void verifyWithFptAi_FptAiUnavailable_Returns503WithoutBackCall() {
+    // Given
+    testVerificationDto.setFrontImageBase64("frontImageData");
+    testVerificationDto.setBackImageBase64("backImageData");
+
+    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    when(fptAiService.recognizeIdCard("frontImageData"))
+        .thenThrow(new ServiceUnavailableException("FPT.AI is temporarily unavailable, please try again later"));
+
+    // When
+    VerificationDto result = verificationService.verifyWithFptAi(testVerificationDto);
+
+    // Then
+    assertEquals(503, result.getStatusCode());
+    assertEquals("FPT.AI is temporarily unavailable, please try again later", result.getError());
+    verify(fptAiService, never()).recognizeIdCard("backImageData");
+    verify(userRepository, never()).save(any());
+  }
+
   @Test
   void verifyWithFptAi_BackApiCallFails_Returns502Error() {
     // Given
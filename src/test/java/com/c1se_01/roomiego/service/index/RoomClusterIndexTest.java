@@ -0,0 +1,247 @@
+package com.c1se_01.roomiego.service.index;
+
+import com.c1se_01.roomiego.dto.MarkerTileResponse;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.repository.projection.RoomLocationProjection;
+import com.c1se_01.roomiego.utils.GeoUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomClusterIndexTest {
+
+  private static final double CENTER_LAT = 16.0544;
+  private static final double CENTER_LNG = 108.2022;
+
+  @Mock
+  private RoomRepository roomRepository;
+
+  private RoomClusterIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new RoomClusterIndex(roomRepository);
+  }
+
+  private static RoomLocationProjection location(Long id, double lat, double lng) {
+    return new RoomLocationProjection() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public Double getLatitude() {
+        return lat;
+      }
+
+      @Override
+      public Double getLongitude() {
+        return lng;
+      }
+    };
+  }
+
+  private static Room room(Long id, Double lat, Double lng) {
+    Room room = new Room();
+    room.setId(id);
+    room.setLatitude(lat);
+    room.setLongitude(lng);
+    return room;
+  }
+
+  private MarkerTileResponse tileAt(double lat, double lng, int zoom) {
+    return index.tile(zoom, GeoUtils.tileIndex(GeoUtils.mercatorX(lng), zoom),
+        GeoUtils.tileIndex(GeoUtils.mercatorY(lat), zoom));
+  }
+
+  private void loadEmpty() {
+    when(roomRepository.findAvailableLocations()).thenReturn(List.of());
+    index.load();
+  }
+
+  private static int total(MarkerTileResponse tile) {
+    return tile.getClusters().stream().mapToInt(MarkerTileResponse.Cluster::getCount).sum()
+        + tile.getMarkers().size();
+  }
+
+  @Test
+  void load_fillsIndexFromRepository() {
+    when(roomRepository.findAvailableLocations()).thenReturn(List.of(
+        location(1L, CENTER_LAT, CENTER_LNG),
+        location(2L, CENTER_LAT + 0.001, CENTER_LNG)));
+
+    assertFalse(index.isReady());
+    index.load();
+
+    assertTrue(index.isReady());
+    assertEquals(2, index.size());
+    assertEquals(2, total(tileAt(CENTER_LAT, CENTER_LNG, 4)));
+  }
+
+  @Test
+  void tile_lowZoom_returnsClusterCentroid() {
+    loadEmpty();
+    index.upsert(1L, CENTER_LAT, CENTER_LNG);
+    index.upsert(2L, CENTER_LAT + 0.002, CENTER_LNG + 0.004);
+
+    MarkerTileResponse tile = tileAt(CENTER_LAT, CENTER_LNG, 8);
+
+    assertEquals(8, tile.getZoom());
+    assertTrue(tile.getMarkers().isEmpty());
+    assertEquals(1, tile.getClusters().size());
+    MarkerTileResponse.Cluster cluster = tile.getClusters().get(0);
+    assertEquals(2, cluster.getCount());
+    assertEquals(CENTER_LAT + 0.001, cluster.getLatitude(), 1e-9);
+    assertEquals(CENTER_LNG + 0.002, cluster.getLongitude(), 1e-9);
+  }
+
+  @Test
+  void tile_loneRoomInCell_isSentAsMarker() {
+    loadEmpty();
+    index.upsert(1L, CENTER_LAT, CENTER_LNG);
+    index.upsert(2L, CENTER_LAT, CENTER_LNG);
+    // same tile at zoom 8, but a different 1/8 tile cell
+    index.upsert(42L, CENTER_LAT - 0.3, CENTER_LNG - 0.3);
+
+    MarkerTileResponse tile = tileAt(CENTER_LAT, CENTER_LNG, 8);
+
+    assertEquals(1, tile.getClusters().size());
+    assertEquals(2, tile.getClusters().get(0).getCount());
+    assertEquals(1, tile.getMarkers().size());
+    assertEquals(42L, tile.getMarkers().get(0).getId());
+    assertEquals(CENTER_LAT - 0.3, tile.getMarkers().get(0).getLatitude());
+  }
+
+  @Test
+  void tile_highZoom_returnsOnlyRoomsOfTheTile() {
+    loadEmpty();
+    index.upsert(2L, CENTER_LAT, CENTER_LNG);
+    index.upsert(1L, CENTER_LAT + 0.00001, CENTER_LNG);
+    // ~1 km away, in another zoom 17 tile
+    index.upsert(3L, CENTER_LAT + 0.01, CENTER_LNG);
+
+    MarkerTileResponse tile = tileAt(CENTER_LAT, CENTER_LNG, 17);
+
+    assertTrue(tile.getClusters().isEmpty());
+    assertEquals(List.of(1L, 2L), tile.getMarkers().stream().map(MarkerTileResponse.Marker::getId).toList());
+  }
+
+  @Test
+  void tile_payloadIsBoundedByTheGrid() {
+    loadEmpty();
+    Random random = new Random(7);
+    for (long id = 1; id <= 2000; id++) {
+      index.upsert(id, CENTER_LAT + random.nextDouble() * 0.2, CENTER_LNG + random.nextDouble() * 0.2);
+    }
+
+    MarkerTileResponse tile = tileAt(CENTER_LAT, CENTER_LNG, 6);
+
+    assertEquals(2000, total(tile));
+    assertTrue(tile.getClusters().size() + tile.getMarkers().size() <= RoomClusterIndex.CELLS_PER_TILE);
+  }
+
+  @Test
+  void tile_emptyTile_returnsNothing() {
+    loadEmpty();
+    index.upsert(1L, CENTER_LAT, CENTER_LNG);
+
+    MarkerTileResponse tile = index.tile(3, 0, 0);
+
+    assertTrue(tile.getClusters().isEmpty());
+    assertTrue(tile.getMarkers().isEmpty());
+  }
+
+  @Test
+  void tile_invalidCoordinates_throws() {
+    assertThrows(IllegalArgumentException.class, () -> index.tile(-1, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> index.tile(23, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> index.tile(2, 4, 0));
+    assertThrows(IllegalArgumentException.class, () -> index.tile(2, 0, -1));
+    verifyNoInteractions(roomRepository);
+  }
+
+  @Test
+  void tile_notReady_buildsTileFromTheBoundingBox() {
+    List<RoomLocationProjection> locations = new ArrayList<>();
+    locations.add(location(1L, CENTER_LAT, CENTER_LNG));
+    locations.add(location(2L, CENTER_LAT, CENTER_LNG));
+    locations.add(location(42L, CENTER_LAT - 0.3, CENTER_LNG - 0.3));
+    when(roomRepository.findAvailableLocationsWithin(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+        .thenReturn(locations);
+
+    MarkerTileResponse fromDatabase = tileAt(CENTER_LAT, CENTER_LNG, 8);
+
+    when(roomRepository.findAvailableLocations()).thenReturn(locations);
+    index.load();
+    assertEquals(tileAt(CENTER_LAT, CENTER_LNG, 8), fromDatabase);
+  }
+
+  @Test
+  void tile_notReady_queriesTheTileBounds() {
+    when(roomRepository.findAvailableLocationsWithin(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+        .thenReturn(List.of());
+
+    index.tile(1, 1, 0);
+
+    verify(roomRepository).findAvailableLocationsWithin(eq(0d, 1e-9),
+        eq(GeoUtils.MAX_MERCATOR_LATITUDE, 1e-6), eq(0d, 1e-9), eq(180d, 1e-9));
+  }
+
+  @Test
+  void upsert_movesRoomBetweenTiles() {
+    loadEmpty();
+    index.upsert(1L, CENTER_LAT, CENTER_LNG);
+    index.upsert(1L, 10.7769, 106.7009);
+
+    assertEquals(0, total(tileAt(CENTER_LAT, CENTER_LNG, 10)));
+    assertEquals(1, total(tileAt(10.7769, 106.7009, 10)));
+    assertEquals(1, index.size());
+  }
+
+  @Test
+  void remove_dropsRoomAtEveryZoom() {
+    loadEmpty();
+    index.upsert(1L, CENTER_LAT, CENTER_LNG);
+    index.upsert(2L, CENTER_LAT, CENTER_LNG);
+
+    index.remove(1L);
+    index.remove(99L);
+
+    for (int zoom = 0; zoom <= 20; zoom++) {
+      MarkerTileResponse tile = tileAt(CENTER_LAT, CENTER_LNG, zoom);
+      assertEquals(List.of(2L), tile.getMarkers().stream().map(MarkerTileResponse.Marker::getId).toList());
+      assertTrue(tile.getClusters().isEmpty());
+    }
+  }
+
+  @Test
+  void onRoomChanged_followsTheListedRooms() {
+    loadEmpty();
+    index.onRoomChanged(new RoomChangedEvent(room(1L, CENTER_LAT, CENTER_LNG), RoomChangeType.CREATED));
+    index.onRoomChanged(new RoomChangedEvent(room(2L, CENTER_LAT, CENTER_LNG), RoomChangeType.CREATED));
+    index.onRoomChanged(new RoomChangedEvent(room(3L, null, null), RoomChangeType.CREATED));
+    assertEquals(2, index.size());
+
+    index.onRoomChanged(new RoomChangedEvent(room(1L, CENTER_LAT, CENTER_LNG), RoomChangeType.HIDDEN));
+    index.onRoomChanged(new RoomChangedEvent(room(2L, CENTER_LAT, CENTER_LNG), RoomChangeType.DELETED));
+
+    assertEquals(0, index.size());
+    assertEquals(0, total(tileAt(CENTER_LAT, CENTER_LNG, 5)));
+  }
+}
@@ -0,0 +1,166 @@
+package com.c1se_01.roomiego.service.index;
+
+import com.c1se_01.roomiego.dto.FacetCount;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.repository.projection.RoomFacetProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomFacetIndexTest {
+
+  @Mock
+  private RoomRepository roomRepository;
+
+  private RoomFacetIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new RoomFacetIndex(roomRepository);
+    index.upsert(1L, "Đà Nẵng", "Hải Châu", "Hải Châu 1", new BigDecimal("1500000"), 20f);
+    index.upsert(2L, "Đà Nẵng", "Hải Châu", "Thạch Thang", new BigDecimal("3000000"), 30f);
+    index.upsert(3L, "Đà Nẵng", "Sơn Trà", "Phước Mỹ", new BigDecimal("2500000"), 14.5f);
+    index.upsert(4L, "Huế", null, " ", null, null);
+  }
+
+  private static Map<String, Long> counts(Map<String, List<FacetCount>> facets, String facet) {
+    Map<String, Long> counts = new LinkedHashMap<>();
+    facets.get(facet).forEach(count -> counts.put(count.getValue(), count.getCount()));
+    return counts;
+  }
+
+  @Test
+  void countAll_countsTextValuesMostFrequentFirst() {
+    Map<String, List<FacetCount>> facets = index.countAll();
+
+    assertEquals(List.of("city", "district", "ward", "price", "roomSize"), List.copyOf(facets.keySet()));
+    assertEquals(Map.of("Đà Nẵng", 3L, "Huế", 1L), counts(facets, RoomFacetIndex.CITY));
+    assertEquals("Đà Nẵng", facets.get(RoomFacetIndex.CITY).get(0).getValue());
+    assertEquals(Map.of("Hải Châu", 2L, "Sơn Trà", 1L), counts(facets, RoomFacetIndex.DISTRICT));
+    // blank values are not counted
+    assertEquals(3, facets.get(RoomFacetIndex.WARD).size());
+  }
+
+  @Test
+  void countAll_listsEveryBandInOrder() {
+    Map<String, List<FacetCount>> facets = index.countAll();
+
+    assertEquals(List.of("0-1000000", "1000000-2000000", "2000000-3000000", "3000000-5000000",
+        "5000000-10000000", "10000000+"),
+        facets.get(RoomFacetIndex.PRICE).stream().map(FacetCount::getValue).toList());
+    assertEquals(List.of(0L, 1L, 1L, 1L, 0L, 0L),
+        facets.get(RoomFacetIndex.PRICE).stream().map(FacetCount::getCount).toList());
+    assertEquals(List.of(1L, 1L, 1L, 0L, 0L),
+        facets.get(RoomFacetIndex.ROOM_SIZE).stream().map(FacetCount::getCount).toList());
+  }
+
+  @Test
+  void count_intersectsWithSelection() {
+    Map<String, List<FacetCount>> facets = index.count(List.of(1L, 3L, 99L));
+
+    assertEquals(Map.of("Đà Nẵng", 2L), counts(facets, RoomFacetIndex.CITY));
+    assertEquals(Map.of("Hải Châu", 1L, "Sơn Trà", 1L), counts(facets, RoomFacetIndex.DISTRICT));
+    assertEquals(Map.of("Hải Châu 1", 1L, "Phước Mỹ", 1L), counts(facets, RoomFacetIndex.WARD));
+  }
+
+  @Test
+  void count_emptySelection_countsNothing() {
+    Map<String, List<FacetCount>> facets = index.count(List.of());
+
+    assertTrue(facets.get(RoomFacetIndex.CITY).isEmpty());
+    assertTrue(facets.get(RoomFacetIndex.PRICE).stream().allMatch(count -> count.getCount() == 0));
+  }
+
+  @Test
+  void textValues_areGroupedIgnoringCaseAndDiacritics() {
+    index.upsert(5L, "da nang", null, null, null, null);
+
+    assertEquals(Map.of("Đà Nẵng", 4L, "Huế", 1L), counts(index.countAll(), RoomFacetIndex.CITY));
+  }
+
+  @Test
+  void upsert_movesRoomToNewValues() {
+    index.upsert(3L, "Đà Nẵng", "Hải Châu", "Phước Ninh", new BigDecimal("12000000"), 70f);
+
+    Map<String, List<FacetCount>> facets = index.countAll();
+    assertEquals(Map.of("Hải Châu", 3L), counts(facets, RoomFacetIndex.DISTRICT));
+    assertEquals(1L, counts(facets, RoomFacetIndex.PRICE).get("10000000+"));
+    assertEquals(0L, counts(facets, RoomFacetIndex.PRICE).get("2000000-3000000"));
+    assertEquals(4, index.size());
+  }
+
+  @Test
+  void remove_dropsRoomAndReusesItsOrdinal() {
+    index.remove(1L);
+    index.upsert(6L, "Hà Nội", null, null, null, null);
+
+    Map<String, List<FacetCount>> facets = index.countAll();
+    assertEquals(Map.of("Đà Nẵng", 2L, "Huế", 1L, "Hà Nội", 1L), counts(facets, RoomFacetIndex.CITY));
+    assertFalse(counts(facets, RoomFacetIndex.WARD).containsKey("Hải Châu 1"));
+    assertEquals(Map.of("Hà Nội", 1L), counts(index.count(List.of(6L)), RoomFacetIndex.CITY));
+  }
+
+  @Test
+  void bands_includeLowerBoundAndExcludeUpperBound() {
+    assertEquals("0-1000000", RoomFacetIndex.priceBand(new BigDecimal("999999")));
+    assertEquals("1000000-2000000", RoomFacetIndex.priceBand(new BigDecimal("1000000")));
+    assertEquals("25-40", RoomFacetIndex.roomSizeBand(25f));
+    assertEquals("15-25", RoomFacetIndex.roomSizeBand(24.9f));
+    assertNull(RoomFacetIndex.priceBand(null));
+  }
+
+  @Test
+  void load_buildsIndexFromProjections() {
+    RoomFacetProjection doc = mock(RoomFacetProjection.class);
+    when(doc.getId()).thenReturn(10L);
+    when(doc.getCity()).thenReturn("Huế");
+    when(doc.getPrice()).thenReturn(new BigDecimal("500000"));
+    when(roomRepository.findAllFacetDocuments()).thenReturn(List.of(doc));
+
+    index.load();
+
+    assertTrue(index.isReady());
+    assertEquals(1, index.size());
+    assertEquals(Map.of("Huế", 1L), counts(index.countAll(), RoomFacetIndex.CITY));
+  }
+
+  @Test
+  void load_failure_leavesIndexNotReady() {
+    when(roomRepository.findAllFacetDocuments()).thenThrow(new RuntimeException("db down"));
+
+    index.load();
+
+    assertFalse(index.isReady());
+  }
+
+  @Test
+  void onRoomChanged_deletedRemovesAndOthersUpsert() {
+    Room room = new Room();
+    room.setId(7L);
+    room.setCity("Hội An");
+    room.setPrice(new BigDecimal("4000000"));
+
+    index.onRoomChanged(new RoomChangedEvent(room, RoomChangeType.CREATED));
+    assertEquals(1L, counts(index.countAll(), RoomFacetIndex.CITY).get("Hội An"));
+
+    index.onRoomChanged(new RoomChangedEvent(room, RoomChangeType.HIDDEN));
+    assertEquals(1L, counts(index.countAll(), RoomFacetIndex.CITY).get("Hội An"));
+
+    index.onRoomChanged(new RoomChangedEvent(room, RoomChangeType.DELETED));
+    assertFalse(counts(index.countAll(), RoomFacetIndex.CITY).containsKey("Hội An"));
+  }
+}
@@ -0,0 +1,152 @@
+package com.c1se_01.roomiego.service.index;
+
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.repository.projection.RoomSearchProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomSearchIndexTest {
+
+  @Mock
+  private RoomRepository roomRepository;
+
+  private RoomSearchIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new RoomSearchIndex(roomRepository);
+    index.upsert(1L, "Phòng trọ gần biển Mỹ Khê", "Phòng rộng, thoáng mát", "Võ Nguyên Giáp", "Phước Mỹ", "Sơn Trà");
+    index.upsert(2L, "Căn hộ mini Hải Châu", "Gần chợ Hàn, trung tâm Đà Nẵng", "Bạch Đằng", "Hải Châu 1", "Hải Châu");
+    index.upsert(3L, "Phòng giá rẻ cho sinh viên", "Gần Đại học Bách Khoa Đà Nẵng", "Nguyễn Lương Bằng", "Hòa Khánh Bắc", "Liên Chiểu");
+  }
+
+  private List<Long> ids(String query) {
+    return index.search(SearchQuery.parse(query)).stream().map(RankedHit::roomId).toList();
+  }
+
+  @Test
+  void search_withoutDiacritics_matchesAccentedText() {
+    assertEquals(List.of(2L, 3L), ids("da nang").stream().sorted().toList());
+  }
+
+  @Test
+  void search_matchesDescriptionAndAddressFields() {
+    assertEquals(List.of(1L), ids("son tra"));
+    assertEquals(List.of(3L), ids("bach khoa"));
+  }
+
+  @Test
+  void search_allClausesMustMatch() {
+    assertEquals(List.of(3L), ids("phong sinh vien"));
+    assertTrue(ids("phong hai chau").isEmpty());
+  }
+
+  @Test
+  void search_prefix() {
+    assertEquals(List.of(3L), ids("sinh vi*"));
+    assertEquals(List.of(1L, 3L), ids("pho*").stream().sorted().toList());
+  }
+
+  @Test
+  void search_phrase_requiresConsecutiveTerms() {
+    assertEquals(List.of(1L), ids("\"gan bien\""));
+    assertTrue(ids("\"bien gan\"").isEmpty());
+  }
+
+  @Test
+  void search_phrase_doesNotSpanFields() {
+    // "Giáp" ends the street and "Phước" starts the ward of room 1
+    assertTrue(ids("\"giap phuoc\"").isEmpty());
+  }
+
+  @Test
+  void search_ranksByBm25() {
+    index.upsert(4L, "Hải Châu Hải Châu", null, null, null, null);
+
+    List<RankedHit> hits = index.search(SearchQuery.parse("hai chau"));
+
+    // room 4 is short and repeats the terms, so it outranks room 2
+    assertEquals(List.of(4L, 2L), hits.stream().map(RankedHit::roomId).toList());
+    assertTrue(hits.get(0).value() > hits.get(1).value());
+  }
+
+  @Test
+  void search_rareTermsWeighMore() {
+    double common = index.search(SearchQuery.parse("phong")).get(0).value();
+    double rare = index.search(SearchQuery.parse("khe")).get(0).value();
+
+    assertTrue(rare > common);
+  }
+
+  @Test
+  void search_emptyQuery_returnsNothing() {
+    assertTrue(ids("!!!").isEmpty());
+  }
+
+  @Test
+  void upsert_replacesPreviousText() {
+    index.upsert(1L, "Nhà nguyên căn", null, null, null, null);
+
+    assertTrue(ids("bien").isEmpty());
+    assertEquals(List.of(1L), ids("nguyen can"));
+    assertEquals(3, index.size());
+  }
+
+  @Test
+  void onRoomChanged_deleted_removesRoom() {
+    Room room = new Room();
+    room.setId(2L);
+
+    index.onRoomChanged(new RoomChangedEvent(room, RoomChangeType.DELETED));
+
+    assertEquals(List.of(3L), ids("da nang"));
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  void onRoomChanged_hidden_staysSearchable() {
+    Room room = new Room();
+    room.setId(5L);
+    room.setTitle("Phòng ở ghép");
+    room.setIsRoomAvailable(false);
+
+    index.onRoomChanged(new RoomChangedEvent(room, RoomChangeType.HIDDEN));
+
+    assertEquals(List.of(5L), ids("o ghep"));
+  }
+
+  @Test
+  void load_fillsIndexFromRepository() {
+    RoomSearchProjection doc = mock(RoomSearchProjection.class);
+    when(doc.getId()).thenReturn(9L);
+    when(doc.getTitle()).thenReturn("Phòng Ngũ Hành Sơn");
+    when(roomRepository.findAllSearchDocuments()).thenReturn(List.of(doc));
+
+    index.load();
+
+    assertTrue(index.isReady());
+    assertEquals(1, index.size());
+    assertEquals(List.of(9L), ids("ngu hanh son"));
+  }
+
+  @Test
+  void load_repositoryFails_staysNotReady() {
+    when(roomRepository.findAllSearchDocuments()).thenThrow(new RuntimeException("db down"));
+
+    index.load();
+
+    assertFalse(index.isReady());
+  }
+}
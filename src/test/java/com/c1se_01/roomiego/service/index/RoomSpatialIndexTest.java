@@ -0,0 +1,186 @@
+package com.c1se_01.roomiego.service.index;
+
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.repository.projection.RoomLocationProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomSpatialIndexTest {
+
+  private static final double CENTER_LAT = 16.0544;
+  private static final double CENTER_LNG = 108.2022;
+
+  @Mock
+  private RoomRepository roomRepository;
+
+  private RoomSpatialIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new RoomSpatialIndex(roomRepository);
+  }
+
+  private static RoomLocationProjection location(Long id, double lat, double lng) {
+    return new RoomLocationProjection() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public Double getLatitude() {
+        return lat;
+      }
+
+      @Override
+      public Double getLongitude() {
+        return lng;
+      }
+    };
+  }
+
+  private static Room room(Long id, Double lat, Double lng) {
+    Room room = new Room();
+    room.setId(id);
+    room.setLatitude(lat);
+    room.setLongitude(lng);
+    return room;
+  }
+
+  @Test
+  void load_fillsIndexFromRepository() {
+    when(roomRepository.findAvailableLocations()).thenReturn(List.of(
+        location(1L, CENTER_LAT, CENTER_LNG),
+        location(2L, CENTER_LAT + 0.05, CENTER_LNG)));
+
+    assertFalse(index.isReady());
+    index.load();
+
+    assertTrue(index.isReady());
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  void load_repositoryFails_staysNotReady() {
+    when(roomRepository.findAvailableLocations()).thenThrow(new RuntimeException("db down"));
+
+    index.load();
+
+    assertFalse(index.isReady());
+  }
+
+  @Test
+  void findNearby_ordersByDistanceAndDropsCornerHits() {
+    // ~111 m, ~556 m and ~1113 m north of the center
+    index.upsert(1L, CENTER_LAT + 0.005, CENTER_LNG);
+    index.upsert(2L, CENTER_LAT + 0.001, CENTER_LNG);
+    index.upsert(3L, CENTER_LAT + 0.01, CENTER_LNG);
+    // inside the 1 km bounding box but ~1.4 km away on the diagonal
+    index.upsert(4L, CENTER_LAT + 0.0089, CENTER_LNG + 0.0093);
+
+    List<RankedHit> hits = index.findNearby(CENTER_LAT, CENTER_LNG, 1000);
+
+    assertEquals(List.of(2L, 1L), hits.stream().map(RankedHit::roomId).toList());
+    assertTrue(hits.get(0).value() < hits.get(1).value());
+    assertEquals(111, hits.get(0).value(), 1);
+  }
+
+  @Test
+  void findNearby_equalDistance_ordersById() {
+    index.upsert(7L, CENTER_LAT, CENTER_LNG);
+    index.upsert(5L, CENTER_LAT, CENTER_LNG);
+
+    List<RankedHit> hits = index.findNearby(CENTER_LAT, CENTER_LNG, 10);
+
+    assertEquals(List.of(5L, 7L), hits.stream().map(RankedHit::roomId).toList());
+  }
+
+  @Test
+  void findNearby_searchesAcrossCellBoundaries() {
+    // 0.01 degree cells: the center and the room fall in neighbouring cells
+    index.upsert(1L, 16.0001, 108.0);
+
+    List<RankedHit> hits = index.findNearby(15.9999, 108.0, 100);
+
+    assertEquals(1, hits.size());
+  }
+
+  @Test
+  void findNearby_largeRadius_scansAllRooms() {
+    index.upsert(1L, CENTER_LAT, CENTER_LNG);
+    index.upsert(2L, 10.7769, 106.7009);
+
+    List<RankedHit> hits = index.findNearby(CENTER_LAT, CENTER_LNG, 2_000_000);
+
+    assertEquals(List.of(1L, 2L), hits.stream().map(RankedHit::roomId).toList());
+  }
+
+  @Test
+  void upsert_movesRoomToNewLocation() {
+    index.upsert(1L, CENTER_LAT, CENTER_LNG);
+    index.upsert(1L, CENTER_LAT + 1, CENTER_LNG);
+
+    assertTrue(index.findNearby(CENTER_LAT, CENTER_LNG, 1000).isEmpty());
+    assertEquals(1, index.findNearby(CENTER_LAT + 1, CENTER_LNG, 1000).size());
+    assertEquals(1, index.size());
+  }
+
+  @Test
+  void remove_dropsRoom() {
+    index.upsert(1L, CENTER_LAT, CENTER_LNG);
+
+    index.remove(1L);
+    index.remove(99L);
+
+    assertTrue(index.findNearby(CENTER_LAT, CENTER_LNG, 1000).isEmpty());
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  void onRoomChanged_createdWithCoordinates_isIndexed() {
+    index.onRoomChanged(new RoomChangedEvent(room(1L, CENTER_LAT, CENTER_LNG), RoomChangeType.CREATED));
+
+    assertEquals(1, index.findNearby(CENTER_LAT, CENTER_LNG, 100).size());
+  }
+
+  @Test
+  void onRoomChanged_hiddenOrDeleted_isRemoved() {
+    index.upsert(1L, CENTER_LAT, CENTER_LNG);
+    index.upsert(2L, CENTER_LAT, CENTER_LNG);
+
+    index.onRoomChanged(new RoomChangedEvent(room(1L, CENTER_LAT, CENTER_LNG), RoomChangeType.HIDDEN));
+    index.onRoomChanged(new RoomChangedEvent(room(2L, CENTER_LAT, CENTER_LNG), RoomChangeType.DELETED));
+
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  void onRoomChanged_updatedToUnavailable_isRemoved() {
+    index.upsert(1L, CENTER_LAT, CENTER_LNG);
+    Room room = room(1L, CENTER_LAT, CENTER_LNG);
+    room.setIsRoomAvailable(false);
+
+    index.onRoomChanged(new RoomChangedEvent(room, RoomChangeType.UPDATED));
+
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  void onRoomChanged_withoutCoordinates_isNotIndexed() {
+    index.onRoomChanged(new RoomChangedEvent(room(1L, null, null), RoomChangeType.CREATED));
+
+    assertEquals(0, index.size());
+  }
+}
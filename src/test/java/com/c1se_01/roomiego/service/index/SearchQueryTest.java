@@ -0,0 +1,52 @@
+package com.c1se_01.roomiego.service.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchQueryTest {
+
+  @Test
+  void parse_termsAreFolded() {
+    SearchQuery query = SearchQuery.parse("Đà Nẵng");
+
+    assertEquals(List.of(
+        new SearchQuery.Clause(List.of("da"), false),
+        new SearchQuery.Clause(List.of("nang"), false)), query.clauses());
+  }
+
+  @Test
+  void parse_prefix() {
+    SearchQuery query = SearchQuery.parse("phòng Hải*");
+
+    assertEquals(new SearchQuery.Clause(List.of("hai"), true), query.clauses().get(1));
+    assertFalse(query.clauses().get(0).prefix());
+  }
+
+  @Test
+  void parse_phrase() {
+    SearchQuery query = SearchQuery.parse("\"Hải Châu\" gần biển");
+
+    assertEquals(3, query.clauses().size());
+    SearchQuery.Clause phrase = query.clauses().get(0);
+    assertTrue(phrase.isPhrase());
+    assertEquals(List.of("hai", "chau"), phrase.terms());
+  }
+
+  @Test
+  void parse_wordWithPunctuation_onlyLastTermIsPrefix() {
+    SearchQuery query = SearchQuery.parse("nẵng,quận*");
+
+    assertEquals(List.of(
+        new SearchQuery.Clause(List.of("nang"), false),
+        new SearchQuery.Clause(List.of("quan"), true)), query.clauses());
+  }
+
+  @Test
+  void parse_noSearchableTerm_isEmpty() {
+    assertTrue(SearchQuery.parse("  !!! \"\" ").isEmpty());
+    assertTrue(SearchQuery.parse(null).isEmpty());
+  }
+}
@@ -0,0 +1,62 @@
+package com.c1se_01.roomiego.service.readmodel;
+
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.event.RoomImagesChangedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.model.User;
+import com.c1se_01.roomiego.repository.RoomRepository;
+import com.c1se_01.roomiego.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceVersionUpdaterTest {
+
+  @Mock
+  private RoomRepository roomRepository;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @InjectMocks
+  private ResourceVersionUpdater updater;
+
+  private static Room room() {
+    User owner = new User();
+    owner.setId(7L);
+    Room room = new Room();
+    room.setId(1L);
+    room.setOwner(owner);
+    return room;
+  }
+
+  @Test
+  void imagesChanged_bumpsRoomVersion() {
+    updater.onRoomImagesChanged(new RoomImagesChangedEvent(1L));
+
+    verify(roomRepository).touch(1L);
+  }
+
+  @Test
+  void roomDeleted_touchesOwner() {
+    updater.onRoomChanged(new RoomChangedEvent(room(), RoomChangeType.DELETED));
+
+    verify(userRepository).touch(eq(7L), any(LocalDateTime.class));
+  }
+
+  @Test
+  void roomUpdated_ownRowAlreadyVersioned() {
+    updater.onRoomChanged(new RoomChangedEvent(room(), RoomChangeType.UPDATED));
+
+    verifyNoInteractions(userRepository, roomRepository);
+  }
+}
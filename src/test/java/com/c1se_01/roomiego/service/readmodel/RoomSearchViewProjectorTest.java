@@ -0,0 +1,141 @@
+package com.c1se_01.roomiego.service.readmodel;
+
+import com.c1se_01.roomiego.enums.GeoStatus;
+import com.c1se_01.roomiego.enums.RoomChangeType;
+import com.c1se_01.roomiego.event.RoomChangedEvent;
+import com.c1se_01.roomiego.event.RoomImagesChangedEvent;
+import com.c1se_01.roomiego.event.UserSavedEvent;
+import com.c1se_01.roomiego.model.Room;
+import com.c1se_01.roomiego.model.RoomImage;
+import com.c1se_01.roomiego.model.RoomSearchView;
+import com.c1se_01.roomiego.model.User;
+import com.c1se_01.roomiego.repository.RoomImageRepository;
+import com.c1se_01.roomiego.repository.RoomSearchViewRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomSearchViewProjectorTest {
+
+  @Mock
+  private RoomSearchViewRepository roomSearchViewRepository;
+
+  @Mock
+  private RoomImageRepository roomImageRepository;
+
+  @InjectMocks
+  private RoomSearchViewProjector projector;
+
+  private static Room room() {
+    User owner = new User();
+    owner.setId(3L);
+    owner.setFullName("Nguyễn Văn A");
+
+    Room room = new Room();
+    room.setId(1L);
+    room.setOwner(owner);
+    room.setTitle("Phòng trọ");
+    room.setPrice(new BigDecimal("2500000"));
+    room.setLatitude(16.05);
+    room.setLongitude(108.2);
+    room.setCity("Đà Nẵng");
+    room.setDistrict("Hải Châu");
+    room.setWard("Thạch Thang");
+    room.setStreet("Bạch Đằng");
+    room.setIsRoomAvailable(true);
+    return room;
+  }
+
+  private static RoomImage image(String url) {
+    RoomImage image = new RoomImage();
+    image.setImageUrl(url);
+    return image;
+  }
+
+  @Test
+  void onRoomChanged_created_writesFlatRow() {
+    when(roomImageRepository.findFirstByRoomIdOrderByIdAsc(1L)).thenReturn(Optional.of(image("url1")));
+    when(roomImageRepository.countByRoomId(1L)).thenReturn(3L);
+
+    projector.onRoomChanged(new RoomChangedEvent(room(), RoomChangeType.CREATED));
+
+    ArgumentCaptor<RoomSearchView> captor = ArgumentCaptor.forClass(RoomSearchView.class);
+    verify(roomSearchViewRepository).save(captor.capture());
+    RoomSearchView view = captor.getValue();
+    assertEquals(1L, view.getId());
+    assertEquals(3L, view.getOwnerId());
+    assertEquals("Nguyễn Văn A", view.getOwnerName());
+    assertEquals("url1", view.getFirstImageUrl());
+    assertEquals(3, view.getImageCount());
+    assertEquals(16.05, view.getLatitude());
+    assertEquals("Hải Châu", view.getDistrict());
+    assertEquals("Bạch Đằng", view.getStreet());
+  }
+
+  @Test
+  void onRoomChanged_hidden_keepsRowWithAvailability() {
+    Room room = room();
+    room.setIsRoomAvailable(false);
+    when(roomImageRepository.findFirstByRoomIdOrderByIdAsc(1L)).thenReturn(Optional.empty());
+
+    projector.onRoomChanged(new RoomChangedEvent(room, RoomChangeType.HIDDEN));
+
+    verify(roomSearchViewRepository).save(argThat(view ->
+        Boolean.FALSE.equals(view.getIsRoomAvailable()) && view.getFirstImageUrl() == null));
+  }
+
+  @Test
+  void onRoomChanged_pendingGeocoding_keepsTheStatusOnTheRow() {
+    Room room = room();
+    room.setGeoStatus(GeoStatus.PENDING);
+    when(roomImageRepository.findFirstByRoomIdOrderByIdAsc(1L)).thenReturn(Optional.empty());
+
+    projector.onRoomChanged(new RoomChangedEvent(room, RoomChangeType.CREATED));
+
+    verify(roomSearchViewRepository).save(argThat(view -> view.getGeoStatus() == GeoStatus.PENDING));
+  }
+
+  @Test
+  void onRoomChanged_deleted_removesRow() {
+    projector.onRoomChanged(new RoomChangedEvent(room(), RoomChangeType.DELETED));
+
+    verify(roomSearchViewRepository).deleteById(1L);
+    verify(roomSearchViewRepository, never()).save(any());
+    verifyNoInteractions(roomImageRepository);
+  }
+
+  @Test
+  void onRoomChanged_unsavedRoom_isIgnored() {
+    projector.onRoomChanged(new RoomChangedEvent(new Room(), RoomChangeType.CREATED));
+
+    verifyNoInteractions(roomSearchViewRepository, roomImageRepository);
+  }
+
+  @Test
+  void onRoomImagesChanged_updatesImageSummary() {
+    when(roomImageRepository.findFirstByRoomIdOrderByIdAsc(1L)).thenReturn(Optional.of(image("url1")));
+    when(roomImageRepository.countByRoomId(1L)).thenReturn(2L);
+
+    projector.onRoomImagesChanged(new RoomImagesChangedEvent(1L));
+
+    verify(roomSearchViewRepository).updateImages(1L, "url1", 2);
+  }
+
+  @Test
+  void onUserSaved_renamesOwnerOnListings() {
+    projector.onUserSaved(new UserSavedEvent(3L, "Trần Thị B"));
+
+    verify(roomSearchViewRepository).updateOwnerName(3L, "Trần Thị B");
+  }
+}
@@ -0,0 +1,343 @@
+package com.c1se_01.roomiego.service.resilience;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalApiGuardTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private ExternalApiGuard guard(int maxConcurrentCalls, double permitsPerSecond, int burst) {
+    return new ExternalApiGuard("test", new ExternalApiGuard.Settings(maxConcurrentCalls, permitsPerSecond, burst,
+        4, 4, 50, Duration.ofSeconds(10), 2), clock::get);
+  }
+
+  private ExternalApiGuard guard() {
+    return guard(10, 1000, 1000);
+  }
+
+  private static String fail(ExternalApiGuard guard) {
+    try {
+      return guard.call(() -> {
+        throw new IllegalStateException("down");
+      }, () -> "fallback");
+    } catch (IllegalStateException e) {
+      return "thrown";
+    }
+  }
+
+  private static String succeed(ExternalApiGuard guard) {
+    return guard.call(() -> "ok", () -> "fallback");
+  }
+
+  private void advance(Duration duration) {
+    clock.addAndGet(duration.toNanos());
+  }
+
+  @Test
+  void call_rethrowsTheFailuresOfTheCall() {
+    assertEquals("thrown", fail(guard()));
+  }
+
+  @Test
+  void circuit_opensAtTheFailureRateOnceTheWindowHasTheMinimumCalls() {
+    ExternalApiGuard guard = guard();
+    succeed(guard);
+    succeed(guard);
+    fail(guard);
+    assertEquals(ExternalApiGuard.State.CLOSED, guard.getState());
+    assertEquals(-1, guard.getFailureRate());
+
+    fail(guard);
+
+    assertEquals(ExternalApiGuard.State.OPEN, guard.getState());
+    assertEquals("fallback", succeed(guard));
+    assertEquals(1, guard.getRejectedCalls(ExternalApiGuard.Rejection.CIRCUIT_OPEN));
+  }
+
+  @Test
+  void circuit_slidingWindowForgetsOldFailures() {
+    ExternalApiGuard guard = guard();
+    fail(guard);
+    succeed(guard);
+    succeed(guard);
+    succeed(guard);
+    succeed(guard);
+    fail(guard);
+
+    assertEquals(ExternalApiGuard.State.CLOSED, guard.getState());
+    assertEquals(25.0, guard.getFailureRate());
+  }
+
+  @Test
+  void circuit_failedResultsCountAsFailures() {
+    ExternalApiGuard guard = guard();
+    for (int i = 0; i < 4; i++) {
+      assertNull(guard.call(() -> null, result -> result == null, () -> "fallback"));
+    }
+
+    assertEquals(ExternalApiGuard.State.OPEN, guard.getState());
+  }
+
+  @Test
+  void circuit_serverErrorsThrownByRestTemplateAreFailures() {
+    ExternalApiGuard guard = guard();
+    for (int i = 0; i < 4; i++) {
+      assertThrows(HttpServerErrorException.class, () -> guard.call(() -> {
+        throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+      }, () -> "fallback"));
+    }
+
+    assertEquals(ExternalApiGuard.State.OPEN, guard.getState());
+    assertEquals(4, guard.getFailedCalls());
+  }
+
+  @Test
+  void circuit_clientErrorsOtherThanTooManyRequestsAreNotFailures() {
+    ExternalApiGuard guard = guard();
+    for (int i = 0; i < 4; i++) {
+      assertThrows(HttpClientErrorException.class, () -> guard.call(() -> {
+        throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+      }, () -> "fallback"));
+    }
+    assertEquals(ExternalApiGuard.State.CLOSED, guard.getState());
+
+    // half of the window
+    for (int i = 0; i < 2; i++) {
+      assertThrows(HttpClientErrorException.class, () -> guard.call(() -> {
+        throw new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS);
+      }, () -> "fallback"));
+    }
+    assertEquals(ExternalApiGuard.State.OPEN, guard.getState());
+  }
+
+  @Test
+  void circuit_halfOpenProbesCloseItWhenAllSucceed() {
+    ExternalApiGuard guard = guard();
+    for (int i = 0; i < 4; i++) {
+      fail(guard);
+    }
+    advance(Duration.ofSeconds(10));
+    assertEquals(ExternalApiGuard.State.HALF_OPEN, guard.getState());
+
+    assertEquals("ok", succeed(guard));
+    assertEquals(ExternalApiGuard.State.HALF_OPEN, guard.getState());
+    assertEquals("ok", succeed(guard));
+
+    assertEquals(ExternalApiGuard.State.CLOSED, guard.getState());
+    assertEquals(0, guard.getBufferedCalls());
+  }
+
+  @Test
+  void circuit_failedProbeReopensIt() {
+    ExternalApiGuard guard = guard();
+    for (int i = 0; i < 4; i++) {
+      fail(guard);
+    }
+    advance(Duration.ofSeconds(10));
+
+    succeed(guard);
+    fail(guard);
+
+    assertEquals(ExternalApiGuard.State.OPEN, guard.getState());
+    advance(Duration.ofSeconds(9));
+    assertEquals("fallback", succeed(guard));
+  }
+
+  @Test
+  void circuit_letsOnlyTheProbesThroughWhileHalfOpen() throws Exception {
+    ExternalApiGuard guard = guard();
+    for (int i = 0; i < 4; i++) {
+      fail(guard);
+    }
+    advance(Duration.ofSeconds(10));
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> first = executor.submit(() -> guard.call(() -> await(release), () -> "fallback"));
+      Future<?> second = executor.submit(() -> guard.call(() -> await(release), () -> "fallback"));
+      while (guard.getAvailableConcurrentCalls() > 8) {
+        Thread.onSpinWait();
+      }
+
+      assertEquals("fallback", succeed(guard));
+      release.countDown();
+      assertEquals("ok", first.get(5, TimeUnit.SECONDS));
+      assertEquals("ok", second.get(5, TimeUnit.SECONDS));
+      assertEquals(ExternalApiGuard.State.CLOSED, guard.getState());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void rateLimiter_refusesTheCallsBeyondTheBurstUntilRefilled() {
+    ExternalApiGuard guard = guard(10, 2, 2);
+    assertEquals("ok", succeed(guard));
+    assertEquals("ok", succeed(guard));
+
+    assertEquals("fallback", succeed(guard));
+    assertEquals(1, guard.getRejectedCalls(ExternalApiGuard.Rejection.RATE_LIMITED));
+
+    advance(Duration.ofMillis(500));
+    assertEquals("ok", succeed(guard));
+    assertEquals("fallback", succeed(guard));
+  }
+
+  @Test
+  void bulkhead_refusesTheCallsBeyondTheConcurrencyLimit() throws Exception {
+    ExternalApiGuard guard = guard(1, 1000, 1000);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<String> running = executor.submit(() -> guard.call(() -> await(release), () -> "fallback"));
+      while (guard.getAvailableConcurrentCalls() > 0) {
+        Thread.onSpinWait();
+      }
+
+      assertEquals("fallback", succeed(guard));
+      assertEquals(1, guard.getRejectedCalls(ExternalApiGuard.Rejection.BULKHEAD_FULL));
+      release.countDown();
+      assertEquals("ok", running.get(5, TimeUnit.SECONDS));
+      assertEquals(1, guard.getAvailableConcurrentCalls());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void rejections_areNotFailures() {
+    ExternalApiGuard guard = guard(10, 1, 1);
+    succeed(guard);
+    for (int i = 0; i < 10; i++) {
+      succeed(guard);
+    }
+
+    assertEquals(1, guard.getSuccessfulCalls());
+    assertEquals(0, guard.getFailedCalls());
+    assertEquals(10, guard.getRejectedCalls(ExternalApiGuard.Rejection.RATE_LIMITED));
+  }
+
+  @Test
+  void circuit_interruptedCallsAreNotFailures() {
+    ExternalApiGuard guard = guard();
+    ResourceAccessException interrupted = new ResourceAccessException("I/O error",
+        new IOException("Request was interrupted", new InterruptedException()));
+    for (int i = 0; i < 4; i++) {
+      assertThrows(ResourceAccessException.class, () -> guard.call(() -> {
+        throw interrupted;
+      }, () -> "fallback"));
+    }
+
+    assertEquals(ExternalApiGuard.State.CLOSED, guard.getState());
+    assertEquals(0, guard.getBufferedCalls());
+    assertEquals(0, guard.getFailedCalls());
+    assertEquals(4, guard.getCancelledCalls());
+  }
+
+  @Test
+  void circuit_interruptedProbeIsGivenBack() {
+    ExternalApiGuard guard = guard();
+    for (int i = 0; i < 4; i++) {
+      fail(guard);
+    }
+    advance(Duration.ofSeconds(10));
+
+    assertThrows(ResourceAccessException.class, () -> guard.call(() -> {
+      throw new ResourceAccessException("I/O error", new ClosedByInterruptException());
+    }, () -> "fallback"));
+    assertEquals(ExternalApiGuard.State.HALF_OPEN, guard.getState());
+
+    succeed(guard);
+    succeed(guard);
+    assertEquals(ExternalApiGuard.State.CLOSED, guard.getState());
+  }
+
+  /**
+   * Hedged lookups cancel their losers while the HTTP call is in flight: the JDK client request is
+   * interrupted and RestTemplate reports it as an I/O error.
+   */
+  @Test
+  void circuit_hedgedCallsCancelledInFlightDoNotOpenIt() throws Exception {
+    ExternalApiGuard guard = guard();
+    CountDownLatch release = new CountDownLatch(1);
+    HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/", exchange -> {
+      await(release);
+      byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.start();
+    RestTemplate restTemplate = new RestTemplate(new JdkClientHttpRequestFactory(HttpClient.newHttpClient()));
+    String url = "http://localhost:" + server.getAddress().getPort() + "/";
+    ExecutorService executor = Executors.newFixedThreadPool(5);
+    try {
+      List<Future<String>> attempts = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        attempts.add(executor.submit(() -> guard.call(() -> restTemplate.getForObject(url, String.class),
+            () -> "fallback")));
+      }
+      while (guard.getAvailableConcurrentCalls() > 5) {
+        Thread.onSpinWait();
+      }
+
+      attempts.forEach(attempt -> attempt.cancel(true));
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+      assertEquals(5, guard.getCancelledCalls());
+      assertEquals(0, guard.getFailedCalls());
+      assertEquals(ExternalApiGuard.State.CLOSED, guard.getState());
+      release.countDown();
+      assertEquals("ok", guard.call(() -> restTemplate.getForObject(url, String.class), () -> "fallback"));
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+      server.stop(0);
+    }
+  }
+
+  @Test
+  void settings_areValidated() {
+    assertThrows(IllegalArgumentException.class, () -> new ExternalApiGuard.Settings(0, 1, 1, 4, 4, 50,
+        Duration.ofSeconds(1), 1));
+    assertThrows(IllegalArgumentException.class, () -> new ExternalApiGuard.Settings(1, 1, 1, 4, 5, 50,
+        Duration.ofSeconds(1), 1));
+  }
+
+  private static String await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return "ok";
+  }
+}
@@ -2,6 +2,7 @@ package com.c1se_01.roomiego.service.specification;
 
 import com.c1se_01.roomiego.dto.common.FilterCondition;
 import com.c1se_01.roomiego.dto.common.FilterParam;
+import com.c1se_01.roomiego.dto.common.NearbyQuery;
 import com.c1se_01.roomiego.model.Room;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,6 +15,8 @@ import java.math.BigDecimal;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -327,4 +330,87 @@ class RoomSpecificationTest {
     assertThrows(NumberFormatException.class,
         () -> RoomSpecification.buildSpecification(param));
   }
-}
\ No newline at end of file
+
+  @Test
+  void buildSpecification_withoutSearch_skipsTitleLike() {
+    // Given
+    FilterParam param = createFilterParam("test", null);
+
+    // When
+    Specification<Room> spec = RoomSpecification.buildSpecification(param, true, false);
+
+    // Then
+    spec.toPredicate(root, query, cb);
+    verify(cb, never()).like(any(), anyString());
+  }
+
+  @Test
+  void hasCriteria_respectsExcludedParts() {
+    // Given
+    FilterParam param = createFilterParam("test",
+        List.of(new FilterCondition("location", ":", "nearby:16.0;108.0;1000")));
+
+    // When & Then
+    assertTrue(RoomSpecification.hasCriteria(param, true, true));
+    assertTrue(RoomSpecification.hasCriteria(param, false, true));
+    assertTrue(RoomSpecification.hasCriteria(param, true, false));
+    assertFalse(RoomSpecification.hasCriteria(param, false, false));
+  }
+
+  @Test
+  void findNearbyQuery_returnsLocationCondition() {
+    // Given
+    FilterParam param = createFilterParam(null, List.of(
+        new FilterCondition("price", ">", "100"),
+        new FilterCondition("location", "nearby", "16.0;108.0;1000")));
+
+    // When & Then
+    assertEquals(new NearbyQuery(16.0, 108.0, 1000), RoomSpecification.findNearbyQuery(param));
+    assertNull(RoomSpecification.findNearbyQuery(createFilterParam(null, null)));
+  }
+
+  @Test
+  void idIn_emptyIds_matchesNothing() {
+    // Given
+    when(cb.disjunction()).thenReturn(predicate);
+
+    // When
+    Predicate result = RoomSpecification.idIn(List.of()).toPredicate(root, query, cb);
+
+    // Then
+    assertSame(predicate, result);
+  }
+
+  @Test
+  void buildSpecification_sameFilterString_reusesCompiledConditions() {
+    // Given
+    FilterParam first = new FilterParam();
+    first.setFilter("price:>100,city:hue-plan");
+    FilterParam second = new FilterParam();
+    second.setFilter("price:>100, city:hue-plan");
+
+    // When
+    first.getConditions();
+    Specification<Room> firstSpec = RoomSpecification.buildSpecification(first, true, false);
+    Specification<Room> secondSpec = RoomSpecification.buildSpecification(second, true, false);
+
+    // Then
+    assertSame(first.getPlan(), second.getPlan());
+    assertNotNull(firstSpec);
+    assertNotNull(secondSpec);
+    Object compiled = first.getPlan().compiled("room-spec", plan -> null);
+    assertNotNull(compiled);
+    assertSame(compiled, second.getPlan().compiled("room-spec", plan -> null));
+  }
+
+  @Test
+  void buildSpecification_conditionsSetDirectly_ignoresPlan() {
+    // Given
+    FilterParam param = new FilterParam();
+    param.setFilter("price:>100");
+    param.setConditions(List.of(new FilterCondition("city", ":", "hue")));
+
+    // When & Then
+    assertNull(param.getPlan());
+  }
+}
@@ -0,0 +1,38 @@
+package com.c1se_01.roomiego.utils;
+
+import com.c1se_01.roomiego.dto.common.FilterPlan;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterPlanCacheTest {
+
+  @Test
+  void get_sameFilter_returnsSharedPlan() {
+    FilterPlan first = FilterPlanCache.get("price:>123,city:hue");
+    FilterPlan second = FilterPlanCache.get("price:>123,city:hue");
+
+    assertSame(first, second);
+  }
+
+  @Test
+  void get_equivalentFilters_shareNormalizedPlan() {
+    FilterPlan first = FilterPlanCache.get("price:>321,city:hue");
+    FilterPlan second = FilterPlanCache.get(" price:>321 , city:hue ,");
+
+    assertSame(first, second);
+    assertEquals("price:>321,city:hue", second.getFilter());
+  }
+
+  @Test
+  void get_recordsHitsAndMisses() {
+    long hitsBefore = FilterPlanCache.cache().stats().hitCount();
+    long missesBefore = FilterPlanCache.cache().stats().missCount();
+
+    FilterPlanCache.get("size:>42");
+    FilterPlanCache.get("size:>42");
+
+    assertEquals(missesBefore + 1, FilterPlanCache.cache().stats().missCount());
+    assertEquals(hitsBefore + 1, FilterPlanCache.cache().stats().hitCount());
+  }
+}
@@ -0,0 +1,89 @@
+package com.c1se_01.roomiego.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoUtilsTest {
+
+  @Test
+  void haversineMeters_samePoint_isZero() {
+    assertEquals(0.0, GeoUtils.haversineMeters(16.0544, 108.2022, 16.0544, 108.2022), 1e-9);
+  }
+
+  @Test
+  void haversineMeters_oneDegreeOfLatitude() {
+    double distance = GeoUtils.haversineMeters(16.0, 108.0, 17.0, 108.0);
+    assertEquals(111_195, distance, 50);
+  }
+
+  @Test
+  void haversineMeters_isSymmetric() {
+    double ab = GeoUtils.haversineMeters(16.0544, 108.2022, 16.0678, 108.2208);
+    double ba = GeoUtils.haversineMeters(16.0678, 108.2208, 16.0544, 108.2022);
+    assertEquals(ab, ba, 1e-9);
+  }
+
+  @Test
+  void metersToLatDegrees_convertsUsingDegreeLength() {
+    assertEquals(1.0, GeoUtils.metersToLatDegrees(GeoUtils.METERS_PER_DEGREE_LAT), 1e-12);
+  }
+
+  @Test
+  void metersToLngDegrees_widensAwayFromEquator() {
+    double atEquator = GeoUtils.metersToLngDegrees(1000, 0);
+    double atSixty = GeoUtils.metersToLngDegrees(1000, 60);
+    assertEquals(atEquator * 2, atSixty, 1e-9);
+  }
+
+  @Test
+  void metersToLngDegrees_atPole_coversAllLongitudes() {
+    assertEquals(360.0, GeoUtils.metersToLngDegrees(1000, 90));
+  }
+
+  @Test
+  void mercator_originIsTheCenterOfTheMap() {
+    assertEquals(0.5, GeoUtils.mercatorX(0), 1e-12);
+    assertEquals(0.5, GeoUtils.mercatorY(0), 1e-12);
+    assertEquals(1, GeoUtils.tileIndex(GeoUtils.mercatorX(0), 1));
+  }
+
+  @Test
+  void mercatorY_clampsThePoles() {
+    assertEquals(0.0, GeoUtils.mercatorY(90), 1e-9);
+    assertEquals(1.0, GeoUtils.mercatorY(-90), 1e-9);
+    assertEquals(0, GeoUtils.tileIndex(GeoUtils.mercatorY(90), 10));
+    assertEquals(1023, GeoUtils.tileIndex(GeoUtils.mercatorY(-90), 10));
+  }
+
+  @Test
+  void tileEdges_containTheirPoints() {
+    int zoom = 15;
+    int x = GeoUtils.tileIndex(GeoUtils.mercatorX(108.2022), zoom);
+    int y = GeoUtils.tileIndex(GeoUtils.mercatorY(16.0544), zoom);
+
+    assertTrue(GeoUtils.tileLongitude(x, zoom) <= 108.2022 && 108.2022 < GeoUtils.tileLongitude(x + 1, zoom));
+    assertTrue(GeoUtils.tileLatitude(y + 1, zoom) < 16.0544 && 16.0544 <= GeoUtils.tileLatitude(y, zoom));
+    assertEquals(GeoUtils.MAX_MERCATOR_LATITUDE, GeoUtils.tileLatitude(0, 0), 1e-6);
+  }
+
+  @Test
+  void geohash_encodesKnownPoint() {
+    assertEquals("u4pruydqqvj", GeoUtils.geohash(57.64911, 10.40744, 11));
+    assertEquals("w6ugq", GeoUtils.geohash(16.0544, 108.2022, 5));
+  }
+
+  @Test
+  void geohashCenter_isInsideTheCell() {
+    String hash = GeoUtils.geohash(16.0544, 108.2022, 7);
+    double[] center = GeoUtils.geohashCenter(hash);
+
+    assertEquals(hash, GeoUtils.geohash(center[0], center[1], 7));
+    assertTrue(GeoUtils.haversineMeters(16.0544, 108.2022, center[0], center[1]) < 110);
+  }
+
+  @Test
+  void geohashCenter_invalidCharacter_throws() {
+    assertThrows(IllegalArgumentException.class, () -> GeoUtils.geohashCenter("w6ua"));
+  }
+}
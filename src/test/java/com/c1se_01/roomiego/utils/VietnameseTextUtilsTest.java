@@ -0,0 +1,40 @@
+package com.c1se_01.roomiego.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VietnameseTextUtilsTest {
+
+  @Test
+  void fold_stripsDiacriticsAndCase() {
+    assertEquals("da nang", VietnameseTextUtils.fold("Đà Nẵng"));
+    assertEquals("phong tro gia re", VietnameseTextUtils.fold("Phòng trọ giá rẻ"));
+  }
+
+  @Test
+  void fold_composedAndDecomposedInputAreEqual() {
+    String composed = "Nguyễn";
+    String decomposed = java.text.Normalizer.normalize(composed, java.text.Normalizer.Form.NFD);
+    assertEquals(VietnameseTextUtils.fold(composed), VietnameseTextUtils.fold(decomposed));
+  }
+
+  @Test
+  void fold_null_returnsEmpty() {
+    assertEquals("", VietnameseTextUtils.fold(null));
+  }
+
+  @Test
+  void tokenize_splitsOnPunctuationAndSpaces() {
+    assertEquals(List.of("123", "le", "duan", "hai", "chau"),
+        VietnameseTextUtils.tokenize("123 Lê Duẩn, Hải Châu"));
+  }
+
+  @Test
+  void tokenize_blank_returnsEmptyList() {
+    assertTrue(VietnameseTextUtils.tokenize("  ,. ").isEmpty());
+    assertTrue(VietnameseTextUtils.tokenize(null).isEmpty());
+  }
+}